@@ -0,0 +1,108 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.dimsum.SyntheticCaseData;
+import ca.on.oicr.gsi.dimsum.data.CaseData;
+import ca.on.oicr.gsi.dimsum.data.NabuBulkSignoff;
+import ca.on.oicr.gsi.dimsum.data.NabuSignoff.NabuSignoffStep;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Posts bulk signoffs from several concurrent users through NabuService to a Nabu stand-in, which
+ * adds latency and fails a fraction of requests. Each successful signoff is cached by CaseService,
+ * as in production. Failed signoffs are counted in the throughput, as users would see them
+ * promptly. The signoff cache is cleared before each iteration
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class BulkSignoffBenchmark {
+
+  private static final long SEED = 20250601L;
+
+  @Param({"10000"})
+  public int caseCount;
+
+  @Param({"0", "50"})
+  public long latencyMillis;
+
+  @Param({"0", "0.05"})
+  public double errorRate;
+
+  @Param({"1", "20"})
+  public int casesPerSignoff;
+
+  private CaseData caseData;
+  private List<String> caseIds;
+  private NabuStub nabuStub;
+  private NabuService nabuService;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    caseData = new SyntheticCaseData(caseCount, SEED).toCaseData();
+    caseIds = caseData.getCases().stream().map(Case::getId).toList();
+    nabuStub = new NabuStub(new FaultInjector(SEED), JsonMapper.builder().build());
+    nabuStub.getFaults()
+        .setLatency(latencyMillis, latencyMillis / 2)
+        .setErrorRate(errorRate);
+    nabuService = new NabuService(nabuStub.getUrl(), "benchmark");
+  }
+
+  @Setup(Level.Iteration)
+  public void resetCache() throws IOException {
+    ReflectionTestUtils.setField(nabuService, "caseService",
+        CaseServiceState.createCaseService(caseData));
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    nabuStub.close();
+  }
+
+  @Benchmark
+  public boolean postSignoff() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    List<String> signoffCaseIds = new ArrayList<>();
+    for (int i = 0; i < casesPerSignoff; i++) {
+      signoffCaseIds.add(caseIds.get(random.nextInt(caseIds.size())));
+    }
+    NabuBulkSignoff signoff = new NabuBulkSignoff();
+    signoff.setCaseIdentifiers(signoffCaseIds);
+    signoff.setSignoffStepName(NabuSignoffStep.ANALYSIS_REVIEW);
+    signoff.setDeliverableType(SyntheticCaseData.DELIVERABLE_CATEGORY_CLINICAL);
+    signoff.setQcPassed(true);
+    signoff.setUsername("benchmark");
+    try {
+      nabuService.postSignoff(signoff);
+      return true;
+    } catch (WebClientResponseException e) {
+      return false;
+    }
+  }
+
+}
@@ -0,0 +1,63 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import static org.mockito.Mockito.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.dimsum.SyntheticCaseData;
+import ca.on.oicr.gsi.dimsum.data.CaseData;
+import ca.on.oicr.gsi.dimsum.security.DimsumPrincipal;
+import ca.on.oicr.gsi.dimsum.security.SecurityManager;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Benchmark state holding a CaseService loaded with synthetic data. The same data is generated for
+ * each case count, so results are comparable between runs
+ */
+@State(Scope.Benchmark)
+public class CaseServiceState {
+
+  private static final long SEED = 20250601L;
+
+  @Param({"1000", "10000", "100000"})
+  public int caseCount;
+
+  public CaseService caseService;
+  public CaseData caseData;
+  public List<Case> cases;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    SyntheticCaseData data = new SyntheticCaseData(caseCount, SEED);
+    caseData = data.toCaseData();
+    cases = caseData.getCases();
+    caseService = createCaseService(caseData);
+  }
+
+  /**
+   * Creates a CaseService loaded with the data, authorized as an internal user
+   */
+  public static CaseService createCaseService(CaseData caseData) throws IOException {
+    CaseService caseService = new CaseService(null);
+    caseService.setDataDirectory(
+        Files.createTempDirectory("dimsum-benchmark").toFile().getAbsolutePath());
+    // stub-only mocks do not record invocations, which would otherwise accumulate in memory
+    DimsumPrincipal principal = mock(DimsumPrincipal.class, withSettings().stubOnly());
+    when(principal.isInternal()).thenReturn(true);
+    when(principal.getProjects()).thenReturn(Collections.emptySet());
+    SecurityManager securityManager = mock(SecurityManager.class, withSettings().stubOnly());
+    when(securityManager.getPrincipal()).thenReturn(principal);
+    caseService.setSecurityManager(securityManager);
+    caseService.setJsonMapper(new JsonMapper());
+    caseService.setCaseData(caseData);
+    return caseService;
+  }
+
+}
@@ -0,0 +1,131 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ca.on.oicr.gsi.dimsum.SyntheticCaseData;
+import ca.on.oicr.gsi.dimsum.data.CaseData;
+import ca.on.oicr.gsi.dimsum.data.IssueState;
+
+/**
+ * Synchronizes run QC notifications with a local Jira stand-in, as done after each data refresh.
+ * The stand-in adds latency to each Jira request and fails a fraction of them. Before each sync,
+ * some runs already have closed tickets from previous QC, which must be found and reopened
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class NotificationSyncBenchmark {
+
+  private static final long SEED = 20250601L;
+
+  @Param({"1000", "10000"})
+  public int caseCount;
+
+  @Param({"0", "20"})
+  public long latencyMillis;
+
+  @Param({"0", "0.05"})
+  public double errorRate;
+
+  /** Fraction of runs with a closed ticket from previous QC */
+  @Param({"0.5"})
+  public double closedTicketRate;
+
+  private CaseData caseData;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    caseData = new SyntheticCaseData(caseCount, SEED).toCaseData();
+  }
+
+  private LocalIssueTracker createIssueTracker() {
+    LocalIssueTracker issueTracker = new LocalIssueTracker(new FaultInjector(SEED));
+    Random random = new Random(SEED);
+    for (String runName : caseData.getRunsAndLibrariesByName().keySet()) {
+      if (random.nextDouble() < closedTicketRate) {
+        issueTracker.addIssue(runName + " Dimsum Run QC", "Previous QC", IssueState.CLOSED,
+            List.of("All sign-offs have been completed."));
+      }
+    }
+    return issueTracker;
+  }
+
+  private NotificationManager createNotificationManager(LocalIssueTracker issueTracker) {
+    NotificationManager notificationManager = new NotificationManager(null);
+    notificationManager.setBaseUrl("https://example.com");
+    notificationManager.setIssueTracker(issueTracker);
+    return notificationManager;
+  }
+
+  private void sync(NotificationManager notificationManager) {
+    notificationManager.update(caseData.getRunsAndLibrariesByName(), caseData.getAssaysById());
+  }
+
+  /**
+   * First sync after new runs become ready, when tickets must be created or reopened
+   */
+  @State(Scope.Benchmark)
+  public static class InitialSyncState {
+
+    private NotificationManager notificationManager;
+
+    @Setup(Level.Invocation)
+    public void setup(NotificationSyncBenchmark benchmark) {
+      LocalIssueTracker issueTracker = benchmark.createIssueTracker();
+      issueTracker.getFaults()
+          .setLatency(benchmark.latencyMillis, benchmark.latencyMillis / 2)
+          .setErrorRate(benchmark.errorRate);
+      notificationManager = benchmark.createNotificationManager(issueTracker);
+    }
+  }
+
+  /**
+   * Sync when tickets are already up to date, as after most data refreshes
+   */
+  @State(Scope.Benchmark)
+  public static class SteadySyncState {
+
+    private NotificationManager notificationManager;
+
+    @Setup(Level.Trial)
+    public void setup(NotificationSyncBenchmark benchmark) {
+      LocalIssueTracker issueTracker = benchmark.createIssueTracker();
+      notificationManager = benchmark.createNotificationManager(issueTracker);
+      // The second sync pauses any new tickets pending analysis only
+      benchmark.sync(notificationManager);
+      benchmark.sync(notificationManager);
+      issueTracker.getFaults()
+          .setLatency(benchmark.latencyMillis, benchmark.latencyMillis / 2)
+          .setErrorRate(benchmark.errorRate);
+    }
+  }
+
+  @Benchmark
+  public NotificationManager initialSync(InitialSyncState state) {
+    sync(state.notificationManager);
+    return state.notificationManager;
+  }
+
+  @Benchmark
+  public NotificationManager steadySync(SteadySyncState state) {
+    sync(state.notificationManager);
+    return state.notificationManager;
+  }
+
+}
@@ -0,0 +1,68 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ca.on.oicr.gsi.dimsum.CaseLoader;
+import ca.on.oicr.gsi.dimsum.SyntheticCaseData;
+import ca.on.oicr.gsi.dimsum.data.ProjectSummary;
+import ca.on.oicr.gsi.dimsum.data.ProjectSummaryRow;
+import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
+import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilterKey;
+import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
+
+/**
+ * Calculates project summaries for all cases, as done on each data load, and for the date and
+ * case filters available on the project detail page
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class ProjectSummaryBenchmark {
+
+  private static final String PROJECT = "PRO1";
+  private static final LocalDate AFTER_DATE = SyntheticCaseData.REFERENCE_DATE.minusMonths(6);
+  private static final LocalDate BEFORE_DATE = SyntheticCaseData.REFERENCE_DATE.minusMonths(3);
+  private static final Collection<CaseFilter> FILTERS =
+      Collections.singletonList(new CaseFilter(CaseFilterKey.TEST, "Tumour WG"));
+
+  @Benchmark
+  public Map<String, ProjectSummary> calculateAll(CaseServiceState state) {
+    return CaseLoader.calculateProjectSummaries(state.cases, null, null);
+  }
+
+  @Benchmark
+  public Map<String, ProjectSummary> calculateDateRange(CaseServiceState state) {
+    return CaseLoader.calculateProjectSummaries(state.cases, AFTER_DATE, BEFORE_DATE);
+  }
+
+  @Benchmark
+  public TableData<ProjectSummaryRow> summaryRows(CaseServiceState state) {
+    return state.caseService.getProjectSummaryRows(PROJECT, null, null, null);
+  }
+
+  @Benchmark
+  public TableData<ProjectSummaryRow> summaryRowsDateRange(CaseServiceState state) {
+    return state.caseService.getProjectSummaryRows(PROJECT, null, AFTER_DATE, BEFORE_DATE);
+  }
+
+  @Benchmark
+  public TableData<ProjectSummaryRow> summaryRowsFiltered(CaseServiceState state) {
+    return state.caseService.getProjectSummaryRows(PROJECT, FILTERS, AFTER_DATE, BEFORE_DATE);
+  }
+
+}
@@ -0,0 +1,98 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ca.on.oicr.gsi.cardea.data.MetricCategory;
+import ca.on.oicr.gsi.cardea.data.Sample;
+import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
+import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilterKey;
+import ca.on.oicr.gsi.dimsum.service.filtering.PendingState;
+import ca.on.oicr.gsi.dimsum.service.filtering.SampleSort;
+import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
+
+/**
+ * Queries the samples for each QC gate page, both unfiltered and filtered to the items pending QC
+ * at that gate
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class SampleGateBenchmark {
+
+  private static final int PAGE_SIZE = 25;
+
+  @Param({"RECEIPT", "EXTRACTION", "LIBRARY_PREP", "LIBRARY_QUALIFICATION",
+      "FULL_DEPTH_SEQUENCING"})
+  public MetricCategory gate;
+
+  @Param
+  public SampleSort sort;
+
+  private Collection<CaseFilter> pendingQcFilters;
+
+  @Setup
+  public void setup() {
+    pendingQcFilters = Collections.singletonList(
+        new CaseFilter(CaseFilterKey.PENDING, getPendingQcState(gate).getLabel()));
+  }
+
+  @Benchmark
+  public TableData<Sample> allSamples(CaseServiceState state) {
+    return query(state.caseService, null);
+  }
+
+  @Benchmark
+  public TableData<Sample> pendingQcSamples(CaseServiceState state) {
+    return query(state.caseService, pendingQcFilters);
+  }
+
+  private TableData<Sample> query(CaseService caseService, Collection<CaseFilter> filters) {
+    switch (gate) {
+      case RECEIPT:
+        return caseService.getReceipts(PAGE_SIZE, 1, sort, true, null, filters);
+      case EXTRACTION:
+        return caseService.getExtractions(PAGE_SIZE, 1, sort, true, null, filters);
+      case LIBRARY_PREP:
+        return caseService.getLibraryPreparations(PAGE_SIZE, 1, sort, true, null, filters);
+      case LIBRARY_QUALIFICATION:
+        return caseService.getLibraryQualifications(PAGE_SIZE, 1, sort, true, null, filters);
+      case FULL_DEPTH_SEQUENCING:
+        return caseService.getFullDepthSequencings(PAGE_SIZE, 1, sort, true, null, filters);
+      default:
+        throw new IllegalStateException("Not a sample gate: " + gate);
+    }
+  }
+
+  private static PendingState getPendingQcState(MetricCategory gate) {
+    switch (gate) {
+      case RECEIPT:
+        return PendingState.RECEIPT_QC;
+      case EXTRACTION:
+        return PendingState.EXTRACTION_QC;
+      case LIBRARY_PREP:
+        return PendingState.LIBRARY_QC;
+      case LIBRARY_QUALIFICATION:
+        return PendingState.LIBRARY_QUALIFICATION_QC;
+      case FULL_DEPTH_SEQUENCING:
+        return PendingState.FULL_DEPTH_QC;
+      default:
+        throw new IllegalStateException("Not a sample gate: " + gate);
+    }
+  }
+
+}
@@ -0,0 +1,54 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ca.on.oicr.gsi.dimsum.data.TestTableView;
+import ca.on.oicr.gsi.dimsum.data.external.ExternalTestTableView;
+import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
+import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilterKey;
+import ca.on.oicr.gsi.dimsum.service.filtering.PendingState;
+import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
+import ca.on.oicr.gsi.dimsum.service.filtering.TestTableViewSort;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class TestTableViewBenchmark {
+
+  private static final int PAGE_SIZE = 25;
+  private static final Collection<CaseFilter> PENDING_FILTERS = Collections.singletonList(
+      new CaseFilter(CaseFilterKey.PENDING, PendingState.LIBRARY_QUALIFICATION.getLabel()));
+
+  @Param
+  public TestTableViewSort sort;
+
+  @Benchmark
+  public TableData<TestTableView> allTests(CaseServiceState state) {
+    return state.caseService.getTestTableViews(PAGE_SIZE, 1, sort, true, null, null);
+  }
+
+  @Benchmark
+  public TableData<TestTableView> pendingTests(CaseServiceState state) {
+    return state.caseService.getTestTableViews(PAGE_SIZE, 1, sort, true, null, PENDING_FILTERS);
+  }
+
+  @Benchmark
+  public TableData<ExternalTestTableView> externalTests(CaseServiceState state) {
+    return state.caseService.getExternalTestTableViews(PAGE_SIZE, 1, sort, true, null, null);
+  }
+
+}
@@ -0,0 +1,104 @@
+package ca.on.oicr.gsi.dimsum.service.filtering;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ca.on.oicr.gsi.cardea.data.ArchivingStatus;
+import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.dimsum.SyntheticCaseData;
+import ca.on.oicr.gsi.dimsum.service.CaseServiceState;
+
+/**
+ * Filters cases by each filter key in turn. Runs for every {@link CaseFilterKey} unless limited
+ * with {@code -p key=...}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class CaseFilterBenchmark {
+
+  private static final int PAGE_SIZE = 25;
+
+  @Param
+  public CaseFilterKey key;
+
+  private List<CaseFilter> filters;
+
+  @Setup
+  public void setup(CaseServiceState state) {
+    filters = Collections.singletonList(new CaseFilter(key, getValue(key, state)));
+  }
+
+  @Benchmark
+  public long filter(CaseServiceState state) {
+    return state.caseService.getCaseStream(filters).count();
+  }
+
+  @Benchmark
+  public TableData<Case> filterAndPage(CaseServiceState state) {
+    return state.caseService.getCases(PAGE_SIZE, 1, CaseSort.LAST_ACTIVITY, true, null, filters);
+  }
+
+  private static String getValue(CaseFilterKey key, CaseServiceState state) {
+    Case middleCase = state.cases.get(state.cases.size() / 2);
+    String aYearAgo = SyntheticCaseData.REFERENCE_DATE.minusYears(1).toString();
+    switch (key) {
+      case ASSAY:
+        return "WGS";
+      case CASE_ID:
+        return middleCase.getId();
+      case DONOR:
+        return "DON_0001";
+      case PENDING:
+        return PendingState.FULL_DEPTH_SEQUENCING.getLabel();
+      case PENDING_RELEASE_DELIVERABLE:
+        return SyntheticCaseData.DELIVERABLE_FASTQ;
+      case PIPELINE:
+        return "Clinical";
+      case PROJECT:
+        return "PRO1";
+      case REQUISITION:
+        return "REQ0001";
+      case REQUISITION_ID:
+        return Long.toString(middleCase.getRequisition().getId());
+      case TEST:
+        return "Tumour WG";
+      case STOPPED:
+      case PAUSED:
+        return "Yes";
+      case COMPLETED:
+      case INCOMPLETE:
+        return CompletedGate.LIBRARY_QUALIFICATION.getLabel();
+      case LIBRARY_DESIGN:
+        return "WT";
+      case DELIVERABLE:
+        return SyntheticCaseData.DELIVERABLE_FULL_PIPELINE;
+      case STARTED_BEFORE:
+      case STARTED_AFTER:
+      case COMPLETED_BEFORE:
+      case COMPLETED_AFTER:
+        return aYearAgo;
+      case STAGED_DELIVERABLE:
+        return "any";
+      case ARCHIVING_STATUS:
+        return ArchivingStatus.STARTED.getLabel();
+      default:
+        throw new IllegalStateException("No benchmark value for filter key " + key);
+    }
+  }
+
+}
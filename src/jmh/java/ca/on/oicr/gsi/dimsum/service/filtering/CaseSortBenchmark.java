@@ -0,0 +1,58 @@
+package ca.on.oicr.gsi.dimsum.service.filtering;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.dimsum.service.CaseServiceState;
+
+/**
+ * Sorts all cases by each sort in turn. {@link CaseSort#URGENCY} is the most expensive, as it
+ * evaluates gate completion for both cases in every comparison
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class CaseSortBenchmark {
+
+  private static final int PAGE_SIZE = 25;
+
+  @Param
+  public CaseSort sort;
+
+  @Param({"true", "false"})
+  public boolean descending;
+
+  @Benchmark
+  public List<Case> sortAll(CaseServiceState state) {
+    Comparator<Case> comparator = sort.comparator(state.caseData.getAssaysById());
+    return state.cases.stream()
+        .sorted(descending ? comparator.reversed() : comparator)
+        .toList();
+  }
+
+  @Benchmark
+  public TableData<Case> sortAndPage(CaseServiceState state) {
+    return state.caseService.getCases(PAGE_SIZE, 1, sort, descending, null, null);
+  }
+
+  @Benchmark
+  public TableData<Case> sortAndPageLast(CaseServiceState state) {
+    int lastPage = Math.max(1, (state.cases.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+    return state.caseService.getCases(PAGE_SIZE, lastPage, sort, descending, null, null);
+  }
+
+}
@@ -0,0 +1,63 @@
+package ca.on.oicr.gsi.dimsum.service.filtering;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.dimsum.service.CaseServiceState;
+
+/**
+ * Evaluates the case qualification of every {@link PendingState} and {@link CompletedGate}
+ * against all cases. These are the predicates behind the PENDING, COMPLETED, and INCOMPLETE
+ * filters, URGENCY sorting, and project summary calculation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class GateBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class PendingStateParam {
+    @Param
+    public PendingState state;
+  }
+
+  @State(Scope.Benchmark)
+  public static class CompletedGateParam {
+    @Param
+    public CompletedGate gate;
+  }
+
+  @Benchmark
+  public long pendingState(CaseServiceState data, PendingStateParam param) {
+    long count = 0;
+    for (Case kase : data.cases) {
+      if (param.state.qualifyCase(kase, null)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public long completedGate(CaseServiceState data, CompletedGateParam param) {
+    long count = 0;
+    for (Case kase : data.cases) {
+      if (param.gate.isApplicable(kase, null) && param.gate.qualifyCase(kase, null)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+}
@@ -0,0 +1,21 @@
+package ca.on.oicr.gsi.dimsum.loadtest;
+
+/**
+ * Results for one endpoint over the measurement period
+ *
+ * @param requests number of requests made
+ * @param errors number of requests that failed or returned an error status
+ * @param throughput requests per second
+ * @param p50Millis median latency
+ * @param p95Millis 95th percentile latency
+ * @param p99Millis 99th percentile latency
+ * @param maxMillis maximum latency
+ */
+public record EndpointStats(int requests, int errors, double throughput, double p50Millis,
+    double p95Millis, double p99Millis, double maxMillis) {
+
+  public double errorRate() {
+    return requests == 0 ? 0 : errors / (double) requests;
+  }
+
+}
@@ -0,0 +1,92 @@
+package ca.on.oicr.gsi.dimsum.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records request latencies by endpoint. Not thread-safe; each virtual user has its own recorder,
+ * and the recorders are merged after the run
+ */
+public class LatencyRecorder {
+
+  private static class Samples {
+
+    private long[] nanos = new long[1024];
+    private int count = 0;
+    private int errors = 0;
+
+    private void add(long value) {
+      if (count == nanos.length) {
+        nanos = Arrays.copyOf(nanos, nanos.length * 2);
+      }
+      nanos[count++] = value;
+    }
+
+    private void addAll(Samples other) {
+      for (int i = 0; i < other.count; i++) {
+        add(other.nanos[i]);
+      }
+      errors += other.errors;
+    }
+  }
+
+  private final Map<String, Samples> samplesByEndpoint = new TreeMap<>();
+
+  /**
+   * Records a request
+   *
+   * @param endpoint name of the endpoint
+   * @param nanos time taken to receive the full response
+   * @param success false if the request failed or returned an error status
+   */
+  public void record(String endpoint, long nanos, boolean success) {
+    Samples samples = samplesByEndpoint.computeIfAbsent(endpoint, x -> new Samples());
+    samples.add(nanos);
+    if (!success) {
+      samples.errors++;
+    }
+  }
+
+  public void merge(LatencyRecorder other) {
+    other.samplesByEndpoint.forEach((endpoint, samples) -> samplesByEndpoint
+        .computeIfAbsent(endpoint, x -> new Samples()).addAll(samples));
+  }
+
+  /**
+   * Calculates statistics for each endpoint
+   *
+   * @param elapsedSeconds length of the measurement period, used to calculate throughput
+   * @return statistics by endpoint name
+   */
+  public Map<String, EndpointStats> getStats(double elapsedSeconds) {
+    Map<String, EndpointStats> stats = new TreeMap<>();
+    samplesByEndpoint.forEach((endpoint, samples) -> {
+      long[] sorted = Arrays.copyOf(samples.nanos, samples.count);
+      Arrays.sort(sorted);
+      stats.put(endpoint, new EndpointStats(samples.count, samples.errors,
+          samples.count / elapsedSeconds,
+          percentileMillis(sorted, 0.5),
+          percentileMillis(sorted, 0.95),
+          percentileMillis(sorted, 0.99),
+          percentileMillis(sorted, 1.0)));
+    });
+    return stats;
+  }
+
+  /**
+   * @param sorted latencies in nanoseconds, sorted in ascending order
+   * @param percentile percentile between 0 and 1
+   * @return the nearest-rank percentile, in milliseconds
+   */
+  protected static double percentileMillis(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percentile * sorted.length);
+    long nanos = sorted[Math.max(rank, 1) - 1];
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+}
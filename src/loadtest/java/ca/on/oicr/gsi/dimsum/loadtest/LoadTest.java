@@ -0,0 +1,279 @@
+package ca.on.oicr.gsi.dimsum.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ca.on.oicr.gsi.dimsum.CardeaStub;
+import ca.on.oicr.gsi.dimsum.DimSumApplication;
+import ca.on.oicr.gsi.dimsum.SyntheticCaseData;
+import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
+import ca.on.oicr.gsi.dimsum.service.FaultInjector;
+import ca.on.oicr.gsi.dimsum.service.NabuStub;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Starts Dimsum with the noauth profile, loading synthetic data from a {@link CardeaStub}, and
+ * measures latency and throughput while virtual users make requests against it. Everything runs in
+ * a single JVM on the loopback interface.
+ *
+ * <p>
+ * If a baseline is specified, the run fails when results regress beyond the tolerance. Use
+ * {@code --write-baseline} to save the results as the new baseline instead
+ * </p>
+ */
+public class LoadTest {
+
+  private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+  private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(10);
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofMinutes(5);
+
+  private static final String USAGE = """
+      Usage: LoadTest [options]
+        --users=N            number of virtual users (default 50)
+        --warmup=SECONDS     time to run before recording results (default 30)
+        --duration=SECONDS   time to record results (default 120)
+        --scale=N            synthetic data scale; 1.0 is 10,000 cases (default 1.0)
+        --seed=N             random seed for data and users (default 1)
+        --think=MILLIS       pause between each user's scenarios (default 0)
+        --mix=NAME=WEIGHT,...
+                             scenario weights. Scenarios: cases, autocomplete, detail, report,
+                             signoff. Default:
+                             cases=40,autocomplete=30,detail=15,report=5,signoff=10
+        --virtual-threads    handle requests and scheduled tasks on virtual threads
+        --max-threads=N      maximum Tomcat request threads (default: Tomcat's default)
+        --nabu-latency=MILLIS
+                             make sign-offs through a Nabu stub with this latency, instead of
+                             release assignments that do not call Nabu (default 0)
+        --output=FILE        write results to FILE as JSON
+        --baseline=FILE      compare results to a baseline, failing on regression
+        --write-baseline     save results to the baseline file instead of comparing
+        --tolerance=FRACTION allowed regression relative to the baseline (default 0.2)
+      """;
+
+  public static void main(String[] args) throws Exception {
+    if (args.length == 1 && "--help".equals(args[0])) {
+      System.out.print(USAGE);
+      return;
+    }
+    LoadTestOptions options;
+    try {
+      options = LoadTestOptions.parse(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.print(USAGE);
+      System.exit(2);
+      return;
+    }
+    System.exit(new LoadTest(options).run());
+  }
+
+  private final LoadTestOptions options;
+  private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+  public LoadTest(LoadTestOptions options) {
+    this.options = options;
+  }
+
+  /**
+   * Runs the load test and compares or saves the baseline
+   *
+   * @return process exit status; non-zero if the results regressed or no baseline was found
+   */
+  public int run() throws IOException, InterruptedException {
+    LoadTestReport report = measure();
+    report.print(System.out);
+    if (options.getOutput() != null) {
+      report.write(options.getOutput(), jsonMapper);
+    }
+
+    Path baselineFile = options.getBaseline();
+    if (baselineFile == null) {
+      return 0;
+    }
+    if (options.isWriteBaseline()) {
+      report.write(baselineFile, jsonMapper);
+      System.out.println("Baseline saved to " + baselineFile);
+      return 0;
+    }
+    if (!Files.isRegularFile(baselineFile)) {
+      System.err.println("Baseline not found: " + baselineFile);
+      return 1;
+    }
+    LoadTestReport baseline = LoadTestReport.read(baselineFile, jsonMapper);
+    if (baseline.users() != report.users() || baseline.scale() != report.scale()) {
+      System.out.println(String.format(
+          "Warning: baseline was recorded with %d users at scale %s; results may not be comparable",
+          baseline.users(), baseline.scale()));
+    }
+    if (baseline.virtualThreads() != report.virtualThreads()) {
+      System.out.println(String.format("Warning: baseline was recorded %s virtual threads",
+          baseline.virtualThreads() ? "with" : "without"));
+    }
+    List<String> regressions = report.findRegressions(baseline, options.getTolerance());
+    if (regressions.isEmpty()) {
+      System.out.println("No regressions compared to baseline " + baselineFile);
+      return 0;
+    }
+    System.out.println("Regressions compared to baseline " + baselineFile + ":");
+    regressions.forEach(regression -> System.out.println("  " + regression));
+    return 1;
+  }
+
+  private LoadTestReport measure() throws IOException, InterruptedException {
+    Path workDirectory = Files.createTempDirectory("dimsum-loadtest");
+    Path cardeaDirectory = Files.createDirectory(workDirectory.resolve("cardea"));
+    Path dataDirectory = Files.createDirectory(workDirectory.resolve("data"));
+    log.info("Generating synthetic data in {}", workDirectory);
+    SyntheticCaseData data = new SyntheticCaseData.Builder()
+        .scale(options.getScale())
+        .seed(options.getSeed())
+        .build();
+    data.writeCardeaFiles(cardeaDirectory, jsonMapper);
+    LoadTestTargets targets = new LoadTestTargets(data.getCases());
+    int caseCount = data.getCases().size();
+    // release the generated data before Dimsum loads its own copy
+    data = null;
+
+    try (CardeaStub stub = new CardeaStub(cardeaDirectory, 0);
+        NabuStub nabuStub = startNabuStub();
+        ConfigurableApplicationContext context = startDimsum(stub.getUrl(),
+            nabuStub == null ? stub.getUrl() : nabuStub.getUrl(), dataDirectory)) {
+      String baseUrl =
+          "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+      HttpClient httpClient = HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .connectTimeout(Duration.ofSeconds(10))
+          .build();
+      awaitData(httpClient, baseUrl, caseCount);
+      return drive(httpClient, baseUrl, targets);
+    }
+  }
+
+  /**
+   * @return a Nabu stub with the configured latency, or null if sign-offs are not sent to Nabu
+   */
+  private NabuStub startNabuStub() throws IOException {
+    if (options.getNabuLatencyMillis() == 0) {
+      return null;
+    }
+    FaultInjector faults =
+        new FaultInjector(options.getSeed()).setLatency(options.getNabuLatencyMillis(), 0);
+    return new NabuStub(faults, jsonMapper);
+  }
+
+  private ConfigurableApplicationContext startDimsum(String cardeaUrl, String nabuUrl,
+      Path dataDirectory) {
+    Map<String, Object> properties = new HashMap<>();
+    // explicitly control property locations, so local config is never included
+    properties.put("spring.config.location",
+        "classpath:/application.yml,classpath:/application-noauth.yml");
+    properties.put("server.address", "127.0.0.1");
+    properties.put("server.port", 0);
+    properties.put("baseurl", "http://127.0.0.1");
+    properties.put("instancename", "Load Test");
+    properties.put("datadirectory", dataDirectory.toAbsolutePath().toString());
+    properties.put("cardea.url", cardeaUrl);
+    properties.put("miso.url", "https://www.example.com");
+    properties.put("dashi.url", "https://www.example.com");
+    properties.put("bugreport.url", "https://www.example.com");
+    // Bulk signoffs are only accepted with Nabu configured. Unless Nabu latency is set, the load
+    // test only makes release assignments, which are stored by Dimsum, so Nabu is never contacted
+    properties.put("nabu.url", nabuUrl);
+    properties.put("nabu.apikey", "loadtest");
+    properties.put("spring.threads.virtual.enabled", options.isVirtualThreads());
+    if (options.getMaxThreads() > 0) {
+      properties.put("server.tomcat.threads.max", options.getMaxThreads());
+    }
+    return new SpringApplicationBuilder(DimSumApplication.class)
+        .profiles("noauth")
+        .properties(properties)
+        .run();
+  }
+
+  /**
+   * Waits for Dimsum to finish loading all cases from the stub
+   */
+  private void awaitData(HttpClient httpClient, String baseUrl, int caseCount)
+      throws InterruptedException {
+    DataQuery query = new DataQuery();
+    query.setPageNumber(1);
+    query.setPageSize(1);
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/rest/internal/cases"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(query)))
+        .build();
+    long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      try {
+        HttpResponse<byte[]> response =
+            httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 200) {
+          JsonNode body = jsonMapper.readTree(response.body());
+          if (body.get("totalCount").asLong() == caseCount) {
+            log.info("Dimsum has loaded {} cases", caseCount);
+            return;
+          }
+        }
+      } catch (IOException e) {
+        log.debug("Dimsum not ready: {}", e.getMessage());
+      }
+      Thread.sleep(1000);
+    }
+    throw new IllegalStateException("Dimsum did not load the data within " + STARTUP_TIMEOUT);
+  }
+
+  private LoadTestReport drive(HttpClient httpClient, String baseUrl, LoadTestTargets targets)
+      throws InterruptedException {
+    log.info("Running {} users for {}s warmup and {}s measurement using {} threads",
+        options.getUsers(), options.getWarmupSeconds(), options.getDurationSeconds(),
+        options.isVirtualThreads() ? "virtual" : "platform");
+    long measureStartNanos =
+        System.nanoTime() + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+    long endNanos = measureStartNanos + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+    List<VirtualUser> users = new ArrayList<>();
+    // Users run on virtual threads so that their own threads do not affect the resource usage
+    ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    ResourceMonitor monitor = new ResourceMonitor(measureStartNanos, endNanos);
+    for (int i = 0; i < options.getUsers(); i++) {
+      VirtualUser user = new VirtualUser(httpClient, baseUrl, jsonMapper, targets, options,
+          measureStartNanos, endNanos, options.getSeed() * 31 + i);
+      users.add(user);
+      executor.execute(user);
+    }
+    executor.shutdown();
+    long timeoutNanos = endNanos - System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos();
+    try {
+      if (!executor.awaitTermination(timeoutNanos, TimeUnit.NANOSECONDS)) {
+        executor.shutdownNow();
+        throw new IllegalStateException("Virtual users did not finish within the timeout");
+      }
+    } finally {
+      monitor.close();
+    }
+
+    LatencyRecorder recorder = new LatencyRecorder();
+    users.forEach(user -> recorder.merge(user.getRecorder()));
+    return new LoadTestReport(options.getUsers(), options.getScale(),
+        options.getDurationSeconds(), recorder.getStats(options.getDurationSeconds()),
+        options.isVirtualThreads(), monitor.getStats());
+  }
+
+}
@@ -0,0 +1,202 @@
+package ca.on.oicr.gsi.dimsum.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test options, parsed from arguments of the form {@code --name=value}
+ */
+public class LoadTestOptions {
+
+  private int users = 50;
+  private int warmupSeconds = 30;
+  private int durationSeconds = 120;
+  private double scale = 1.0;
+  private long seed = 1L;
+  private int thinkMillis = 0;
+  private Map<Scenario, Integer> mix = defaultMix();
+  private Path baseline = null;
+  private boolean writeBaseline = false;
+  private double tolerance = 0.2;
+  private Path output = null;
+  private boolean virtualThreads = false;
+  private int maxThreads = 0;
+  private int nabuLatencyMillis = 0;
+
+  private static Map<Scenario, Integer> defaultMix() {
+    Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+    for (Scenario scenario : Scenario.values()) {
+      mix.put(scenario, scenario.getDefaultWeight());
+    }
+    return mix;
+  }
+
+  public static LoadTestOptions parse(String[] args) {
+    LoadTestOptions options = new LoadTestOptions();
+    for (String arg : args) {
+      if (!arg.startsWith("--")) {
+        throw new IllegalArgumentException("Invalid argument: " + arg);
+      }
+      int separator = arg.indexOf('=');
+      String name = separator == -1 ? arg.substring(2) : arg.substring(2, separator);
+      String value = separator == -1 ? null : arg.substring(separator + 1);
+      switch (name) {
+        case "users":
+          options.users = Integer.parseInt(requireValue(name, value));
+          break;
+        case "warmup":
+          options.warmupSeconds = Integer.parseInt(requireValue(name, value));
+          break;
+        case "duration":
+          options.durationSeconds = Integer.parseInt(requireValue(name, value));
+          break;
+        case "scale":
+          options.scale = Double.parseDouble(requireValue(name, value));
+          break;
+        case "seed":
+          options.seed = Long.parseLong(requireValue(name, value));
+          break;
+        case "think":
+          options.thinkMillis = Integer.parseInt(requireValue(name, value));
+          break;
+        case "mix":
+          options.mix = parseMix(requireValue(name, value));
+          break;
+        case "baseline":
+          options.baseline = Paths.get(requireValue(name, value));
+          break;
+        case "write-baseline":
+          options.writeBaseline = true;
+          break;
+        case "tolerance":
+          options.tolerance = Double.parseDouble(requireValue(name, value));
+          break;
+        case "output":
+          options.output = Paths.get(requireValue(name, value));
+          break;
+        case "virtual-threads":
+          options.virtualThreads = true;
+          break;
+        case "max-threads":
+          options.maxThreads = Integer.parseInt(requireValue(name, value));
+          break;
+        case "nabu-latency":
+          options.nabuLatencyMillis = Integer.parseInt(requireValue(name, value));
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option: " + name);
+      }
+    }
+    if (options.users < 1 || options.durationSeconds < 1 || options.warmupSeconds < 0) {
+      throw new IllegalArgumentException(
+          "users and duration must be positive, and warmup must not be negative");
+    }
+    if (options.maxThreads < 0 || options.nabuLatencyMillis < 0) {
+      throw new IllegalArgumentException("max-threads and nabu-latency must not be negative");
+    }
+    if (options.writeBaseline && options.baseline == null) {
+      throw new IllegalArgumentException("--write-baseline requires --baseline");
+    }
+    return options;
+  }
+
+  private static String requireValue(String name, String value) {
+    if (value == null || value.isEmpty()) {
+      throw new IllegalArgumentException("No value specified for option: " + name);
+    }
+    return value;
+  }
+
+  /**
+   * @param value comma-separated list of scenario=weight, e.g. "cases=50,report=1". Scenarios
+   *        that are not listed are not run
+   */
+  private static Map<Scenario, Integer> parseMix(String value) {
+    Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+    for (String entry : value.split(",")) {
+      String[] parts = entry.split("=");
+      Scenario scenario = parts.length == 2 ? Scenario.getByName(parts[0].trim()) : null;
+      if (scenario == null) {
+        throw new IllegalArgumentException("Invalid mix entry: " + entry);
+      }
+      int weight = Integer.parseInt(parts[1].trim());
+      if (weight < 0) {
+        throw new IllegalArgumentException("Invalid weight: " + entry);
+      }
+      if (weight > 0) {
+        mix.put(scenario, weight);
+      }
+    }
+    if (mix.isEmpty()) {
+      throw new IllegalArgumentException("Mix contains no scenarios");
+    }
+    return mix;
+  }
+
+  public int getUsers() {
+    return users;
+  }
+
+  public int getWarmupSeconds() {
+    return warmupSeconds;
+  }
+
+  public int getDurationSeconds() {
+    return durationSeconds;
+  }
+
+  public double getScale() {
+    return scale;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public int getThinkMillis() {
+    return thinkMillis;
+  }
+
+  public Map<Scenario, Integer> getMix() {
+    return Collections.unmodifiableMap(mix);
+  }
+
+  public Path getBaseline() {
+    return baseline;
+  }
+
+  public boolean isWriteBaseline() {
+    return writeBaseline;
+  }
+
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  public Path getOutput() {
+    return output;
+  }
+
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * @return maximum number of Tomcat request threads, or 0 to use the default
+   */
+  public int getMaxThreads() {
+    return maxThreads;
+  }
+
+  /**
+   * @return latency added to each Nabu sign-off, or 0 to make release assignments instead, which
+   *         do not call Nabu
+   */
+  public int getNabuLatencyMillis() {
+    return nabuLatencyMillis;
+  }
+
+}
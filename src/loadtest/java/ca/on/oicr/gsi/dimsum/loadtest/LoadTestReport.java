@@ -0,0 +1,91 @@
+package ca.on.oicr.gsi.dimsum.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Results of a load test run. The same format is used for baselines
+ *
+ * @param users number of virtual users
+ * @param scale synthetic data scale
+ * @param durationSeconds length of the measurement period
+ * @param endpoints results by endpoint name
+ * @param virtualThreads whether Dimsum handled requests on virtual threads
+ * @param resources JVM resource usage; null in baselines recorded before this was measured
+ */
+public record LoadTestReport(int users, double scale, int durationSeconds,
+    Map<String, EndpointStats> endpoints, boolean virtualThreads, ResourceStats resources) {
+
+  /** Error rates below this are not treated as regressions, regardless of the baseline */
+  private static final double ERROR_RATE_ALLOWANCE = 0.001;
+
+  public static LoadTestReport read(Path file, JsonMapper jsonMapper) throws IOException {
+    return jsonMapper.readValue(Files.readAllBytes(file), LoadTestReport.class);
+  }
+
+  public void write(Path file, JsonMapper jsonMapper) throws IOException {
+    Files.write(file, jsonMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(this));
+  }
+
+  public void print(PrintStream out) {
+    out.println(String.format("%-14s %9s %7s %9s %9s %9s %9s %9s", "Endpoint", "Requests",
+        "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "Max ms"));
+    endpoints.forEach((endpoint, stats) -> out.println(String.format(
+        "%-14s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f", endpoint, stats.requests(),
+        stats.errors(), stats.throughput(), stats.p50Millis(), stats.p95Millis(),
+        stats.p99Millis(), stats.maxMillis())));
+    if (resources != null) {
+      out.println(String.format(
+          "%s threads: peak %d platform threads, heap mean %.1f MB, peak %.1f MB",
+          virtualThreads ? "Virtual" : "Platform", resources.peakThreads(),
+          resources.meanHeapMb(), resources.peakHeapMb()));
+    }
+  }
+
+  /**
+   * Compares these results to a baseline. Latency percentiles may be up to {@code tolerance}
+   * higher, and throughput up to {@code tolerance} lower, than the baseline values. Endpoints that
+   * were not measured in both runs are not compared
+   *
+   * @param baseline results to compare to
+   * @param tolerance allowed regression, as a fraction of the baseline value
+   * @return descriptions of any regressions found
+   */
+  public List<String> findRegressions(LoadTestReport baseline, double tolerance) {
+    List<String> regressions = new ArrayList<>();
+    baseline.endpoints().forEach((endpoint, expected) -> {
+      EndpointStats actual = endpoints.get(endpoint);
+      if (actual == null || actual.requests() == 0 || expected.requests() == 0) {
+        return;
+      }
+      checkIncrease(regressions, endpoint, "p95 latency", expected.p95Millis(),
+          actual.p95Millis(), tolerance);
+      checkIncrease(regressions, endpoint, "p99 latency", expected.p99Millis(),
+          actual.p99Millis(), tolerance);
+      if (actual.throughput() < expected.throughput() * (1 - tolerance)) {
+        regressions.add(String.format("%s: throughput %.1f req/s is below baseline %.1f req/s",
+            endpoint, actual.throughput(), expected.throughput()));
+      }
+      if (actual.errorRate() > Math.max(expected.errorRate(), ERROR_RATE_ALLOWANCE)) {
+        regressions.add(String.format("%s: error rate %.2f%% exceeds baseline %.2f%%", endpoint,
+            actual.errorRate() * 100, expected.errorRate() * 100));
+      }
+    });
+    return regressions;
+  }
+
+  private static void checkIncrease(List<String> regressions, String endpoint, String name,
+      double expected, double actual, double tolerance) {
+    if (actual > expected * (1 + tolerance)) {
+      regressions.add(String.format("%s: %s %.1f ms exceeds baseline %.1f ms", endpoint, name,
+          actual, expected));
+    }
+  }
+
+}
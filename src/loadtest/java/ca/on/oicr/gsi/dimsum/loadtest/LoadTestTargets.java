@@ -0,0 +1,53 @@
+package ca.on.oicr.gsi.dimsum.loadtest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.cardea.data.Project;
+
+/**
+ * IDs and names from the loaded data, for virtual users to pick from
+ */
+public class LoadTestTargets {
+
+  private final List<String> caseIds;
+  private final List<String> donorNames;
+  private final List<String> projectNames;
+  private final List<String> requisitionNames;
+
+  public LoadTestTargets(Collection<Case> cases) {
+    caseIds = distinct(cases, kase -> Stream.of(kase.getId()));
+    donorNames = distinct(cases, kase -> Stream.of(kase.getDonor().getName()));
+    projectNames = distinct(cases, kase -> kase.getProjects().stream().map(Project::getName));
+    requisitionNames = distinct(cases, kase -> Stream.of(kase.getRequisition().getName()));
+  }
+
+  private static List<String> distinct(Collection<Case> cases,
+      Function<Case, Stream<String>> getValues) {
+    return cases.stream().flatMap(getValues).distinct().sorted().toList();
+  }
+
+  public String getCaseId(Random random) {
+    return pick(caseIds, random);
+  }
+
+  public String getDonorName(Random random) {
+    return pick(donorNames, random);
+  }
+
+  public String getProjectName(Random random) {
+    return pick(projectNames, random);
+  }
+
+  public String getRequisitionName(Random random) {
+    return pick(requisitionNames, random);
+  }
+
+  private static String pick(List<String> values, Random random) {
+    return values.get(random.nextInt(values.size()));
+  }
+
+}
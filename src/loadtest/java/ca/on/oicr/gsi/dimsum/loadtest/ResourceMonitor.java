@@ -0,0 +1,60 @@
+package ca.on.oicr.gsi.dimsum.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically samples the platform thread count and heap usage of the JVM during the measurement
+ * period, so that the cost of each request execution mode can be compared. Dimsum and the virtual
+ * users share the JVM, so the virtual users' overhead is included in both modes
+ */
+public class ResourceMonitor implements AutoCloseable {
+
+  private static final long INTERVAL_MILLIS = 100L;
+  private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+  private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+  private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+  private final ScheduledExecutorService executor =
+      Executors.newSingleThreadScheduledExecutor();
+  private final long measureStartNanos;
+  private final long endNanos;
+
+  private int samples = 0;
+  private int peakThreads = 0;
+  private long totalHeapBytes = 0;
+  private long peakHeapBytes = 0;
+
+  public ResourceMonitor(long measureStartNanos, long endNanos) {
+    this.measureStartNanos = measureStartNanos;
+    this.endNanos = endNanos;
+    executor.scheduleAtFixedRate(this::sample, 0, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  private synchronized void sample() {
+    long now = System.nanoTime();
+    if (now < measureStartNanos || now >= endNanos) {
+      return;
+    }
+    long heapBytes = memoryBean.getHeapMemoryUsage().getUsed();
+    samples++;
+    peakThreads = Math.max(peakThreads, threadBean.getThreadCount());
+    totalHeapBytes += heapBytes;
+    peakHeapBytes = Math.max(peakHeapBytes, heapBytes);
+  }
+
+  public synchronized ResourceStats getStats() {
+    double meanHeapMb = samples == 0 ? 0 : totalHeapBytes / (double) samples / BYTES_PER_MB;
+    return new ResourceStats(peakThreads, meanHeapMb, peakHeapBytes / BYTES_PER_MB);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+}
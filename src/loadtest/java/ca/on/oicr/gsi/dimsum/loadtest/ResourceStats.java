@@ -0,0 +1,13 @@
+package ca.on.oicr.gsi.dimsum.loadtest;
+
+/**
+ * JVM resource usage over the measurement period. Virtual threads are not included in the thread
+ * counts
+ *
+ * @param peakThreads maximum number of live platform threads
+ * @param meanHeapMb average heap usage
+ * @param peakHeapMb maximum heap usage
+ */
+public record ResourceStats(int peakThreads, double meanHeapMb, double peakHeapMb) {
+
+}
@@ -0,0 +1,49 @@
+package ca.on.oicr.gsi.dimsum.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * An action taken by a virtual user. Each scenario's requests are reported as a separate endpoint
+ */
+public enum Scenario {
+
+  // @formatter:off
+  /** Query a page of the case list, with a random sort and filter */
+  CASE_LIST("cases", 40),
+  /** Type a name into an autocomplete field, one request per keystroke */
+  AUTOCOMPLETE("autocomplete", 30),
+  /** Load a case details page */
+  CASE_DETAIL("detail", 15),
+  /** Download a case TAT report for a project */
+  REPORT("report", 5),
+  /** Assign or sign off releases for several cases at once */
+  BULK_SIGNOFF("signoff", 10);
+  // @formatter:on
+
+  private static final Map<String, Scenario> byName = Arrays.stream(Scenario.values())
+      .collect(Collectors.toMap(Scenario::getName, Function.identity()));
+
+  public static Scenario getByName(String name) {
+    return byName.get(name);
+  }
+
+  private final String name;
+  private final int defaultWeight;
+
+  private Scenario(String name, int defaultWeight) {
+    this.name = name;
+    this.defaultWeight = defaultWeight;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getDefaultWeight() {
+    return defaultWeight;
+  }
+
+}
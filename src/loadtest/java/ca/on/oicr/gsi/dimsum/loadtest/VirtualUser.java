@@ -0,0 +1,218 @@
+package ca.on.oicr.gsi.dimsum.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ca.on.oicr.gsi.dimsum.SyntheticCaseData;
+import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
+import ca.on.oicr.gsi.dimsum.controller.rest.request.KeyValuePair;
+import ca.on.oicr.gsi.dimsum.data.NabuBulkSignoff;
+import ca.on.oicr.gsi.dimsum.data.NabuSignoff.NabuSignoffStep;
+import ca.on.oicr.gsi.dimsum.service.filtering.CaseSort;
+import ca.on.oicr.gsi.dimsum.service.filtering.PendingState;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Repeatedly performs randomly-selected scenarios against Dimsum until the end of the run. Only
+ * requests started after the warmup period are recorded
+ */
+public class VirtualUser implements Runnable {
+
+  private static final Logger log = LoggerFactory.getLogger(VirtualUser.class);
+
+  private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(2);
+  private static final int MAX_KEYSTROKES = 8;
+  private static final int SIGNOFF_CASE_COUNT = 5;
+  private static final String[] AUTOCOMPLETE_FIELDS =
+      {"donor-names", "project-names", "requisition-names"};
+
+  private final HttpClient httpClient;
+  private final String baseUrl;
+  private final JsonMapper jsonMapper;
+  private final LoadTestTargets targets;
+  private final List<Scenario> weightedScenarios = new ArrayList<>();
+  private final int thinkMillis;
+  private final boolean assignReleases;
+  private final long measureStartNanos;
+  private final long endNanos;
+  private final Random random;
+  private final LatencyRecorder recorder = new LatencyRecorder();
+
+  public VirtualUser(HttpClient httpClient, String baseUrl, JsonMapper jsonMapper,
+      LoadTestTargets targets, LoadTestOptions options, long measureStartNanos, long endNanos,
+      long seed) {
+    this.httpClient = httpClient;
+    this.baseUrl = baseUrl;
+    this.jsonMapper = jsonMapper;
+    this.targets = targets;
+    options.getMix().forEach((scenario, weight) -> {
+      for (int i = 0; i < weight; i++) {
+        weightedScenarios.add(scenario);
+      }
+    });
+    this.thinkMillis = options.getThinkMillis();
+    this.assignReleases = options.getNabuLatencyMillis() == 0;
+    this.measureStartNanos = measureStartNanos;
+    this.endNanos = endNanos;
+    this.random = new Random(seed);
+  }
+
+  public LatencyRecorder getRecorder() {
+    return recorder;
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (System.nanoTime() < endNanos) {
+        Scenario scenario = weightedScenarios.get(random.nextInt(weightedScenarios.size()));
+        perform(scenario);
+        if (thinkMillis > 0) {
+          Thread.sleep(thinkMillis);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void perform(Scenario scenario) throws InterruptedException {
+    switch (scenario) {
+      case CASE_LIST:
+        queryCases(scenario);
+        break;
+      case AUTOCOMPLETE:
+        autocomplete(scenario);
+        break;
+      case CASE_DETAIL:
+        send(scenario, get("/cases/" + encode(targets.getCaseId(random))));
+        break;
+      case REPORT:
+        downloadReport(scenario);
+        break;
+      case BULK_SIGNOFF:
+        signOff(scenario);
+        break;
+      default:
+        throw new IllegalStateException("Unhandled scenario: " + scenario);
+    }
+  }
+
+  private void queryCases(Scenario scenario) throws InterruptedException {
+    DataQuery query = new DataQuery();
+    query.setPageNumber(1 + random.nextInt(5));
+    query.setPageSize(25);
+    CaseSort[] sorts = CaseSort.values();
+    query.setSortColumn(sorts[random.nextInt(sorts.length)].getLabel());
+    query.setDescending(random.nextBoolean());
+    List<KeyValuePair> filters = new ArrayList<>();
+    int filterType = random.nextInt(4);
+    if (filterType == 1) {
+      filters.add(new KeyValuePair("PROJECT", targets.getProjectName(random)));
+    } else if (filterType == 2) {
+      PendingState[] states = PendingState.values();
+      filters.add(new KeyValuePair("PENDING", states[random.nextInt(states.length)].getLabel()));
+    } else if (filterType == 3) {
+      filters.add(new KeyValuePair("DONOR", targets.getDonorName(random)));
+    }
+    query.setFilters(filters);
+    send(scenario, post("/rest/internal/cases", query));
+  }
+
+  /**
+   * Types a name one character at a time, making a request for each prefix as the autocomplete
+   * field does
+   */
+  private void autocomplete(Scenario scenario) throws InterruptedException {
+    String field = AUTOCOMPLETE_FIELDS[random.nextInt(AUTOCOMPLETE_FIELDS.length)];
+    String name = switch (field) {
+      case "donor-names" -> targets.getDonorName(random);
+      case "project-names" -> targets.getProjectName(random);
+      default -> targets.getRequisitionName(random);
+    };
+    int keystrokes = Math.min(name.length(), MAX_KEYSTROKES);
+    for (int i = 1; i <= keystrokes; i++) {
+      send(scenario,
+          get("/rest/common/autocomplete/" + field + "?q=" + encode(name.substring(0, i))));
+    }
+  }
+
+  private void downloadReport(Scenario scenario) throws InterruptedException {
+    Map<String, Object> parameters = Map.of(
+        "format", "csv",
+        "filters", List.of(Map.of("key", "PROJECT", "value", targets.getProjectName(random))));
+    send(scenario, post("/rest/internal/downloads/reports/case-tat-report", parameters));
+  }
+
+  /**
+   * Assigns or signs off a release for several cases. Assignments are stored by Dimsum without
+   * calling Nabu, while sign-offs wait for the Nabu stub
+   */
+  private void signOff(Scenario scenario) throws InterruptedException {
+    NabuBulkSignoff signoff = new NabuBulkSignoff();
+    List<String> caseIds = new ArrayList<>();
+    for (int i = 0; i < SIGNOFF_CASE_COUNT; i++) {
+      caseIds.add(targets.getCaseId(random));
+    }
+    signoff.setCaseIdentifiers(caseIds);
+    signoff.setSignoffStepName(NabuSignoffStep.RELEASE);
+    signoff.setDeliverableType(SyntheticCaseData.DELIVERABLE_CATEGORY_DATA);
+    signoff.setDeliverable(SyntheticCaseData.DELIVERABLE_FASTQ);
+    signoff.setQcPassed(true);
+    signoff.setRelease(true);
+    send(scenario, post("/rest/internal/cases/bulk-signoff?assignment=" + assignReleases,
+        List.of(signoff)));
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .timeout(REQUEST_TIMEOUT)
+        .GET()
+        .build();
+  }
+
+  private HttpRequest post(String path, Object body) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(body)))
+        .build();
+  }
+
+  private void send(Scenario scenario, HttpRequest request) throws InterruptedException {
+    long start = System.nanoTime();
+    boolean success;
+    try {
+      HttpResponse<Void> response =
+          httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+      success = response.statusCode() < 400;
+      if (!success) {
+        log.debug("{} {} returned status {}", request.method(), request.uri(),
+            response.statusCode());
+      }
+    } catch (IOException e) {
+      log.debug("{} {} failed: {}", request.method(), request.uri(), e.getMessage());
+      success = false;
+    }
+    long end = System.nanoTime();
+    if (start >= measureStartNanos && start < endNanos) {
+      recorder.record(scenario.getName(), end - start, success);
+    }
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+
+}
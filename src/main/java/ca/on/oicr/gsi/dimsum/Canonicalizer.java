@@ -0,0 +1,71 @@
+package ca.on.oicr.gsi.dimsum;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary used while loading one set of case data, so that equal strings and value objects are
+ * stored once and shared by every case and sample that refers to them. A new instance should be
+ * used for each load so that nothing from previous data is retained. Not thread-safe
+ */
+public class Canonicalizer {
+
+  /** Longer strings, such as comments, are rarely repeated and are not worth hashing */
+  private static final int MAX_STRING_LENGTH = 128;
+
+  private final Map<String, String> strings = new HashMap<>();
+  private final Map<Class<?>, Map<Object, Object>> valuesByType = new HashMap<>();
+  private int sharedStringCount = 0;
+  private int sharedValueCount = 0;
+
+  /**
+   * @param value a string
+   * @return the first equal string seen by this dictionary, or the value itself if none was seen
+   */
+  public String canonicalize(String value) {
+    if (value == null || value.length() > MAX_STRING_LENGTH) {
+      return value;
+    }
+    String existing = strings.putIfAbsent(value, value);
+    if (existing == null) {
+      return value;
+    }
+    sharedStringCount++;
+    return existing;
+  }
+
+  /**
+   * @param type the type to group the value under; keys only need to be unique within a type
+   * @param key the value's identity, such as an ID; if null, the value is not shared
+   * @param value the value
+   * @return the first value seen by this dictionary with the same type and key, or the value
+   *         itself if none was seen
+   */
+  public Object canonicalize(Class<?> type, Object key, Object value) {
+    if (key == null || value == null) {
+      return value;
+    }
+    Object existing = valuesByType.computeIfAbsent(type, x -> new HashMap<>())
+        .putIfAbsent(key, value);
+    if (existing == null) {
+      return value;
+    }
+    sharedValueCount++;
+    return existing;
+  }
+
+  /**
+   * @return the number of strings that were replaced by an equal string seen previously
+   */
+  public int getSharedStringCount() {
+    return sharedStringCount;
+  }
+
+  /**
+   * @return the number of value objects that were replaced by one seen previously
+   */
+  public int getSharedValueCount() {
+    return sharedValueCount;
+  }
+
+}
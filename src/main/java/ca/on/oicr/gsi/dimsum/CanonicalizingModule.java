@@ -0,0 +1,137 @@
+package ca.on.oicr.gsi.dimsum;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.BeanDescription;
+import tools.jackson.databind.DeserializationConfig;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.deser.ValueDeserializerModifier;
+import tools.jackson.databind.deser.std.DelegatingDeserializer;
+import tools.jackson.databind.module.SimpleModule;
+
+/**
+ * Shares equal strings and value objects while binding JSON. Sharing only happens when the reader
+ * has a {@link Canonicalizer} set as the attribute keyed by {@code Canonicalizer.class}, e.g.
+ *
+ * <pre>
+ * mapper.readerFor(type).withAttribute(Canonicalizer.class, new Canonicalizer())
+ * </pre>
+ *
+ * Otherwise, values are bound as usual. Value objects are only shared by types registered with
+ * {@link #canonicalize(Class, Function)}, and all instances of such a type with the same key must
+ * be equal
+ */
+public class CanonicalizingModule extends SimpleModule {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient Map<Class<?>, Function<Object, ?>> keyFunctions = new LinkedHashMap<>();
+
+  public CanonicalizingModule() {
+    super("CanonicalizingModule");
+    addDeserializer(String.class, new CanonicalStringDeserializer());
+    setDeserializerModifier(new ValueDeserializerModifier() {
+
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public ValueDeserializer<?> modifyDeserializer(DeserializationConfig config,
+          BeanDescription.Supplier beanDescRef, ValueDeserializer<?> deserializer) {
+        // Builder-based deserializers are described by the builder rather than the type that they
+        // produce, so the built type and the deserializer's handled type are also checked
+        Class<?> beanClass = beanDescRef.get().getBeanClass();
+        Class<?> builtClass = getBuiltClass(beanClass);
+        Class<?> handledType = deserializer.handledType();
+        for (Map.Entry<Class<?>, Function<Object, ?>> entry : keyFunctions.entrySet()) {
+          Class<?> type = entry.getKey();
+          if (isAssignable(type, beanClass) || isAssignable(type, builtClass)
+              || isAssignable(type, handledType)) {
+            return new CanonicalValueDeserializer(deserializer, entry.getKey(), entry.getValue());
+          }
+        }
+        return deserializer;
+      }
+    });
+  }
+
+  /**
+   * Shares instances of a type that have the same key. Must be called before the module is
+   * registered
+   *
+   * @param type the type; subtypes are also shared, grouped with this type
+   * @param key function that gets the identity of a value, such as its ID
+   * @return this module
+   */
+  @SuppressWarnings("unchecked")
+  public <T> CanonicalizingModule canonicalize(Class<T> type, Function<? super T, ?> key) {
+    keyFunctions.put(type, value -> key.apply((T) value));
+    return this;
+  }
+
+  /**
+   * @param beanClass a class, which may be a builder
+   * @return the return type of the class's no-argument {@code build} method, which Jackson uses
+   *         by default to finish a builder; or null if there is no such method
+   */
+  private static Class<?> getBuiltClass(Class<?> beanClass) {
+    try {
+      return beanClass.getMethod("build").getReturnType();
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  private static boolean isAssignable(Class<?> type, Class<?> candidate) {
+    return candidate != null && type.isAssignableFrom(candidate);
+  }
+
+  private static Canonicalizer getCanonicalizer(DeserializationContext ctxt) {
+    return (Canonicalizer) ctxt.getAttribute(Canonicalizer.class);
+  }
+
+  private static class CanonicalStringDeserializer extends ValueDeserializer<String> {
+
+    @Override
+    public String deserialize(JsonParser p, DeserializationContext ctxt) {
+      // Handles strings and other scalars, which are coerced to strings as by default
+      String value = p.getValueAsString();
+      if (value == null) {
+        return (String) ctxt.handleUnexpectedToken(String.class, p);
+      }
+      Canonicalizer canonicalizer = getCanonicalizer(ctxt);
+      return canonicalizer == null ? value : canonicalizer.canonicalize(value);
+    }
+  }
+
+  private static class CanonicalValueDeserializer extends DelegatingDeserializer {
+
+    private final Class<?> type;
+    private final Function<Object, ?> key;
+
+    public CanonicalValueDeserializer(ValueDeserializer<?> delegatee, Class<?> type,
+        Function<Object, ?> key) {
+      super(delegatee);
+      this.type = type;
+      this.key = key;
+    }
+
+    @Override
+    protected ValueDeserializer<?> newDelegatingInstance(ValueDeserializer<?> newDelegatee) {
+      return new CanonicalValueDeserializer(newDelegatee, type, key);
+    }
+
+    @Override
+    public Object deserialize(JsonParser p, DeserializationContext ctxt) {
+      Object value = super.deserialize(p, ctxt);
+      Canonicalizer canonicalizer = getCanonicalizer(ctxt);
+      if (canonicalizer == null || value == null) {
+        return value;
+      }
+      return canonicalizer.canonicalize(type, key.apply(value), value);
+    }
+  }
+
+}
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -11,6 +12,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,39 +23,73 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import ca.on.oicr.gsi.cardea.data.Assay;
 import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.cardea.data.CaseDeliverable;
+import ca.on.oicr.gsi.cardea.data.CaseRelease;
+import ca.on.oicr.gsi.cardea.data.Donor;
+import ca.on.oicr.gsi.cardea.data.OmittedRunSample;
 import ca.on.oicr.gsi.cardea.data.OmittedSample;
 import ca.on.oicr.gsi.cardea.data.Project;
+import ca.on.oicr.gsi.cardea.data.Requisition;
+import ca.on.oicr.gsi.cardea.data.Run;
 import ca.on.oicr.gsi.cardea.data.Sample;
 import ca.on.oicr.gsi.cardea.data.Test;
 import ca.on.oicr.gsi.dimsum.data.CaseData;
 import ca.on.oicr.gsi.dimsum.data.ProjectSummary;
+import ca.on.oicr.gsi.dimsum.data.ProjectSummaryCube;
+import ca.on.oicr.gsi.dimsum.data.ProjectSummaryCube.Gate;
 import ca.on.oicr.gsi.dimsum.data.RunAndLibraries;
 import ca.on.oicr.gsi.dimsum.service.filtering.CompletedGate;
+import ca.on.oicr.gsi.dimsum.service.filtering.OmittedSampleIndex;
 import ca.on.oicr.gsi.dimsum.service.filtering.PendingState;
+import ca.on.oicr.gsi.dimsum.service.filtering.ProjectSummaryIndex;
+import ca.on.oicr.gsi.dimsum.service.filtering.RunIndex;
 import ca.on.oicr.gsi.dimsum.util.DataUtils;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.json.JsonMapper;
 
 @Component
 public class CaseLoader {
 
   private static final Logger log = LoggerFactory.getLogger(CaseLoader.class);
 
+  // Current case IDs include an assay ID after the requisition ID, e.g. R123_a45_rest. Legacy IDs
+  // did not, e.g. R123_rest
+  private static final Pattern CURRENT_CASE_ID_PATTERN =
+      Pattern.compile("^(R\\d+_)a\\d+_([^a].+)$");
+
+  private final MeterRegistry meterRegistry;
   private Timer refreshTimer = null;
+  private DistributionSummary payloadSize = null;
 
   @Value("${cardea.url}")
   private String cardeaUrl; // to store Cardea url that is passed in CaseLoader constructor
   private final int LIMIT_FOR_DATA_LOAD = 1073741824; // 1GB to load the data from Cardea
 
-
+  @Autowired
+  private JsonMapper jsonMapper;
+  private JsonMapper cardeaMapper = null;
 
   public CaseLoader(@Autowired MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
     if (meterRegistry != null) {
       refreshTimer = Timer.builder("case_data_refresh_time")
           .description("Time taken to refresh the case data").register(meterRegistry);
+      payloadSize = DistributionSummary.builder("case_data_payload_bytes")
+          .description("Size of the case data received from Cardea")
+          .baseUnit(BaseUnits.BYTES)
+          .register(meterRegistry);
     }
   }
 
+  protected void setJsonMapper(JsonMapper jsonMapper) {
+    this.jsonMapper = jsonMapper;
+    this.cardeaMapper = null;
+  }
+
   /**
    *
    * @param previousTimestamp timestamp of previous successful load
@@ -62,8 +99,10 @@ public class CaseLoader {
     log.debug("Loading case data...");
 
     WebClient.Builder builder = WebClient.builder();
+    RefreshPhase phase = RefreshPhase.start(meterRegistry, "fetch_timestamp");
     ZonedDateTime currentTimeStamp = builder.build().get().uri(cardeaUrl + "/timestamp").retrieve()
         .bodyToMono(ZonedDateTime.class).block();
+    phase.end();
 
     if (previousTimestamp != null && !currentTimeStamp.isAfter(previousTimestamp)) {
       log.debug("Current case data is up to date with Cardea; aborting reload.");
@@ -73,21 +112,9 @@ public class CaseLoader {
     long startTimeMillis = System.currentTimeMillis();
     ca.on.oicr.gsi.cardea.data.CaseData cardeaCaseData = loadCardeaData(builder);
 
-    Map<Long, Assay> assaysById = cardeaCaseData.getAssaysById();
-    Map<String, RunAndLibraries> runsByName = sortRuns(cardeaCaseData.getCases());
-    List<OmittedSample> omittedSamples = cardeaCaseData.getOmittedSamples();
-    Set<String> requisitionNames = loadRequisitionNames(cardeaCaseData.getCases());
-    Set<String> projectsNames = loadProjectsNames(cardeaCaseData.getCases());
-    Set<String> donorNames = loadDonorNames(cardeaCaseData.getCases());
-    Set<String> testNames = getTestNames(cardeaCaseData.getCases());
-    Map<String, ProjectSummary> projectSummariesByName =
-        calculateProjectSummaries(cardeaCaseData.getCases(), null, null);
-    ZonedDateTime afterTimestamp = cardeaCaseData.getTimestamp();
-
-    CaseData caseData =
-        new CaseData(cardeaCaseData.getCases(), runsByName, assaysById, omittedSamples,
-            cardeaCaseData.getOmittedRunSamples(), afterTimestamp, requisitionNames, projectsNames,
-            donorNames, getRunNames(runsByName), testNames, projectSummariesByName);
+    CaseData caseData = buildCaseData(cardeaCaseData.getCases(), cardeaCaseData.getAssaysById(),
+        cardeaCaseData.getOmittedSamples(), cardeaCaseData.getOmittedRunSamples(),
+        cardeaCaseData.getTimestamp());
 
     log.debug(String.format("Completed loading %d cases.", cardeaCaseData.getCases().size()));
     if (refreshTimer != null) {
@@ -97,21 +124,120 @@ public class CaseLoader {
   }
 
   /**
+   * Builds the indexed case data from the data loaded from Cardea
+   *
+   * @param cases all cases
+   * @param assaysById all assays, keyed by ID
+   * @param omittedSamples samples that are not included in any case
+   * @param omittedRunSamples run-libraries that are not included in any case
+   * @param timestamp the time that the data was generated
+   * @return the case data
+   */
+  public CaseData buildCaseData(List<Case> cases, Map<Long, Assay> assaysById,
+      List<OmittedSample> omittedSamples, List<OmittedRunSample> omittedRunSamples,
+      ZonedDateTime timestamp) {
+    RefreshPhase phase = RefreshPhase.start(meterRegistry, "sort_runs");
+    Map<String, RunAndLibraries> runsByName = sortRuns(cases);
+    phase.end();
+
+    phase = RefreshPhase.start(meterRegistry, "index_names");
+    Set<String> requisitionNames = loadRequisitionNames(cases);
+    Set<String> projectsNames = loadProjectsNames(cases);
+    Set<String> donorNames = loadDonorNames(cases);
+    Set<String> testNames = getTestNames(cases);
+    Map<String, List<String>> caseIdsByLegacyId = indexLegacyCaseIds(cases);
+    phase.end();
+
+    phase = RefreshPhase.start(meterRegistry, "project_summaries");
+    Map<String, ProjectSummary> projectSummariesByName =
+        calculateProjectSummaries(cases, null, null);
+    phase.end();
+
+    phase = RefreshPhase.start(meterRegistry, "table_indexes");
+    ProjectSummaryIndex projectSummaryIndex =
+        new ProjectSummaryIndex(projectSummariesByName.values());
+    RunIndex runIndex = new RunIndex(
+        runsByName.values().stream().map(RunAndLibraries::getRun).toList());
+    OmittedSampleIndex omittedSampleIndex = new OmittedSampleIndex(omittedSamples);
+    phase.end();
+
+    return new CaseData(cases, runsByName, assaysById, omittedSamples, omittedRunSamples,
+        timestamp, requisitionNames, projectsNames, donorNames, getRunNames(runsByName), testNames,
+        projectSummariesByName, caseIdsByLegacyId, projectSummaryIndex, runIndex,
+        omittedSampleIndex);
+  }
+
+  /**
+   * Fetches and binds the case data in separate steps so that network transfer and JSON binding
+   * can be timed individually
    * 
    * @param builder WebClient builder state used to fetch data from Cardea API `/dimsum` endpoint
    */
   private ca.on.oicr.gsi.cardea.data.CaseData loadCardeaData(WebClient.Builder builder)
       throws IOException {
-    ca.on.oicr.gsi.cardea.data.CaseData data = builder
+    RefreshPhase phase = RefreshPhase.start(meterRegistry, "fetch_data");
+    byte[] payload = builder
         .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(LIMIT_FOR_DATA_LOAD))
         .build().get().uri(cardeaUrl + "/dimsum").retrieve()
-        .bodyToFlux(ca.on.oicr.gsi.cardea.data.CaseData.class).blockLast();
+        .bodyToMono(byte[].class).block();
+    phase.end();
+    if (payload == null || payload.length == 0) {
+      throw new IOException("Cardea's Case API returned an empty response");
+    }
+    if (payloadSize != null) {
+      payloadSize.record(payload.length);
+    }
+
+    phase = RefreshPhase.start(meterRegistry, "parse_data");
+    ca.on.oicr.gsi.cardea.data.CaseData data = parseCardeaData(payload);
+    phase.end();
+    return data;
+  }
+
+  /**
+   * Binds Cardea's case data, sharing repeated strings and values
+   *
+   * @param payload response of the Cardea API `/dimsum` endpoint
+   */
+  protected ca.on.oicr.gsi.cardea.data.CaseData parseCardeaData(byte[] payload)
+      throws IOException {
+    ca.on.oicr.gsi.cardea.data.CaseData data = null;
+    Canonicalizer canonicalizer = new Canonicalizer();
+    // Accept either a single object or an array of them, keeping the last
+    try (MappingIterator<ca.on.oicr.gsi.cardea.data.CaseData> iterator =
+        getCardeaMapper().readerFor(ca.on.oicr.gsi.cardea.data.CaseData.class)
+            .withAttribute(Canonicalizer.class, canonicalizer)
+            .readValues(payload)) {
+      while (iterator.hasNext()) {
+        data = iterator.next();
+      }
+    }
+    log.debug("Shared {} repeated strings and {} repeated values while parsing case data",
+        canonicalizer.getSharedStringCount(), canonicalizer.getSharedValueCount());
     if (data == null) {
       throw new IOException("Cardea's Case API returned an empty response");
     }
     return data;
   }
 
+  /**
+   * The payload repeats the same strings, runs, projects, donors, and requisitions many times.
+   * Binding it with this mapper keeps one copy of each, shared by all cases and samples
+   *
+   * @return mapper for binding Cardea's case data
+   */
+  protected JsonMapper getCardeaMapper() {
+    if (cardeaMapper == null) {
+      cardeaMapper = jsonMapper.rebuild()
+          .addModule(new CanonicalizingModule()
+              .canonicalize(Run.class, Run::getId)
+              .canonicalize(Project.class, Project::getName)
+              .canonicalize(Donor.class, Donor::getId)
+              .canonicalize(Requisition.class, Requisition::getId))
+          .build();
+    }
+    return cardeaMapper;
+  }
 
   public Set<String> loadRequisitionNames(List<Case> cases) {
     Set<String> requisitionNames = new HashSet<>();
@@ -144,6 +270,25 @@ public class CaseLoader {
         .collect(Collectors.toSet());
   }
 
+  /**
+   * Maps the legacy format of each case ID to the current IDs. More than one case may have the
+   * same legacy ID
+   *
+   * @param cases all cases
+   * @return current case IDs by legacy case ID
+   */
+  protected static Map<String, List<String>> indexLegacyCaseIds(List<Case> cases) {
+    Map<String, List<String>> caseIdsByLegacyId = new HashMap<>();
+    for (Case kase : cases) {
+      Matcher m = CURRENT_CASE_ID_PATTERN.matcher(kase.getId());
+      if (m.matches()) {
+        caseIdsByLegacyId.computeIfAbsent(m.group(1) + m.group(2), x -> new ArrayList<>())
+            .add(kase.getId());
+      }
+    }
+    return caseIdsByLegacyId;
+  }
+
   private static Set<String> getRunNames(Map<String, RunAndLibraries> runsByName) {
     return runsByName.keySet();
   }
@@ -199,6 +344,63 @@ public class CaseLoader {
 
   }
 
+  /**
+   * Builds the completed counts of all projects by gate and completion date, from which the
+   * completed counts within any date range can be looked up. This matches
+   * {@link #calculateProjectSummaries(List, LocalDate, LocalDate)} with a date filter applied
+   */
+  public static ProjectSummaryCube calculateProjectSummaryCube(List<Case> cases) {
+    ProjectSummaryCube.Builder builder = new ProjectSummaryCube.Builder();
+    for (Case kase : cases) {
+      List<Test> tests = kase.getTests() == null ? Collections.emptyList() : kase.getTests();
+      int testSize = tests.size();
+      List<String> projectNames = new ArrayList<>();
+      for (Project project : kase.getProjects()) {
+        projectNames.add(project.getName());
+        builder.addProject(project.getName(), project.getPipeline(), testSize);
+      }
+      if (CompletedGate.RECEIPT.qualifyCase(kase, null)) {
+        builder.addCompleted(projectNames, Gate.RECEIPT, getQcDates(kase.getReceipts()), testSize);
+      }
+      for (Test test : tests) {
+        if (CompletedGate.EXTRACTION.qualifyTest(test)) {
+          builder.addCompleted(projectNames, Gate.EXTRACTION, getQcDates(test.getExtractions()),
+              1);
+        }
+        if (CompletedGate.LIBRARY_PREPARATION.qualifyTest(test)) {
+          builder.addCompleted(projectNames, Gate.LIBRARY_PREPARATION,
+              getQcDates(test.getLibraryPreparations()), 1);
+        }
+        if (CompletedGate.LIBRARY_QUALIFICATION.qualifyTest(test)) {
+          builder.addCompleted(projectNames, Gate.LIBRARY_QUALIFICATION,
+              getQcDates(test.getLibraryQualifications()), 1);
+        }
+        if (CompletedGate.FULL_DEPTH_SEQUENCING.qualifyTest(test)) {
+          builder.addCompleted(projectNames, Gate.FULL_DEPTH_SEQUENCING,
+              getQcDates(test.getFullDepthSequencings()), 1);
+        }
+      }
+      if (CompletedGate.ANALYSIS_REVIEW.qualifyCase(kase, null)) {
+        builder.addCompleted(projectNames, Gate.ANALYSIS_REVIEW, kase.getDeliverables().stream()
+            .map(CaseDeliverable::getAnalysisReviewQcDate)
+            .toList(), testSize);
+      }
+      if (CompletedGate.RELEASE_APPROVAL.qualifyCase(kase, null)
+          && kase.getDeliverables().stream()
+              .anyMatch(x -> DataUtils.isComplete(x.getReleaseApprovalQcStatus()))) {
+        builder.addReleaseApproval(projectNames, testSize);
+      }
+      if (CompletedGate.RELEASE.qualifyCase(kase, null)) {
+        builder.addCompleted(projectNames, Gate.RELEASE, kase.getDeliverables().stream()
+            .filter(deliverable -> deliverable.getReleases() != null)
+            .flatMap(deliverable -> deliverable.getReleases().stream())
+            .map(CaseRelease::getQcDate)
+            .toList(), testSize);
+      }
+    }
+    return builder.build();
+  }
+
   private static void addCounts(Case kase, List<Test> tests,
       Map<String, ProjectSummary.Builder> tempProjectSummariesByName, LocalDate afterDate,
       LocalDate beforeDate) {
@@ -339,7 +541,7 @@ public class CaseLoader {
       return true;
     }
     return samples.stream().anyMatch(sample -> {
-      LocalDate qcDate = sample.getRun() == null ? sample.getQcDate() : sample.getDataReviewDate();
+      LocalDate qcDate = getQcDate(sample);
       if (qcDate == null) {
         return false;
       }
@@ -347,4 +549,12 @@ public class CaseLoader {
     });
   }
 
+  private static LocalDate getQcDate(Sample sample) {
+    return sample.getRun() == null ? sample.getQcDate() : sample.getDataReviewDate();
+  }
+
+  private static List<LocalDate> getQcDates(List<Sample> samples) {
+    return samples.stream().map(CaseLoader::getQcDate).toList();
+  }
+
 }
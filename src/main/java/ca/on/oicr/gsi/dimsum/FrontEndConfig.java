@@ -5,20 +5,19 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import ca.on.oicr.gsi.cardea.data.Assay;
 import ca.on.oicr.gsi.cardea.data.CaseQc;
 import ca.on.oicr.gsi.cardea.data.CaseQc.AnalysisReviewQcStatus;
 import ca.on.oicr.gsi.cardea.data.CaseQc.ReleaseApprovalQcStatus;
 import ca.on.oicr.gsi.cardea.data.CaseQc.ReleaseQcStatus;
 import ca.on.oicr.gsi.dimsum.data.external.ExternalAssay;
-import ca.on.oicr.gsi.dimsum.security.DimsumPrincipal;
-import ca.on.oicr.gsi.dimsum.security.SecurityManager;
 import ca.on.oicr.gsi.dimsum.service.filtering.CompletedGate;
 import ca.on.oicr.gsi.dimsum.service.filtering.PendingState;
 import tools.jackson.databind.json.JsonMapper;
@@ -26,7 +25,9 @@ import tools.jackson.databind.node.ObjectNode;
 
 /**
  * This class contains configuration needed on the front-end and is served as a JavaScript file by
- * SiteConfigController. Some values are updated by CaseService when new data is loaded
+ * SiteConfigController. Some values are updated by CaseService when new data is loaded. Assays are
+ * not serialized with the rest of the config, as they differ for internal and external users; see
+ * SiteConfigService
  */
 @Component
 public class FrontEndConfig {
@@ -40,9 +41,6 @@ public class FrontEndConfig {
   @Value("${jira.baseurl:#{null}}")
   private String jiraUrl;
 
-  @Autowired
-  private SecurityManager securityManager;
-
   private final Map<String, ObjectNode> analysisReviewQcStatuses;
   private final Map<String, ObjectNode> releaseApprovalQcStatuses;
   private final Map<String, ObjectNode> releaseQcStatuses;
@@ -60,6 +58,9 @@ public class FrontEndConfig {
   private List<String> completedGates =
       Stream.of(CompletedGate.values()).map(CompletedGate::getLabel).toList();
 
+  // Incremented whenever a value is updated
+  private final AtomicLong version = new AtomicLong();
+
   public FrontEndConfig(JsonMapper jsonMapper) {
     this.analysisReviewQcStatuses =
         mapCaseQcs(AnalysisReviewQcStatus.values(), AnalysisReviewQcStatus::name, jsonMapper);
@@ -69,6 +70,14 @@ public class FrontEndConfig {
         mapCaseQcs(ReleaseQcStatus.values(), ReleaseQcStatus::name, jsonMapper);
   }
 
+  /**
+   * @return a number that changes whenever any values are updated
+   */
+  @JsonIgnore
+  public long getVersion() {
+    return version.get();
+  }
+
   public String getMisoUrl() {
     return misoUrl;
   }
@@ -91,13 +100,16 @@ public class FrontEndConfig {
 
   public void setPipelines(Set<String> pipelines) {
     this.pipelines = pipelines;
+    version.incrementAndGet();
   }
 
-  public Map<Long, ?> getAssaysById() {
-    DimsumPrincipal principal = securityManager.getPrincipal();
-    if (principal != null && principal.isInternal()) {
-      return internalAssaysById;
-    }
+  @JsonIgnore
+  public Map<Long, Assay> getInternalAssaysById() {
+    return internalAssaysById;
+  }
+
+  @JsonIgnore
+  public Map<Long, ExternalAssay> getExternalAssaysById() {
     return externalAssaysById;
   }
 
@@ -105,6 +117,7 @@ public class FrontEndConfig {
     this.internalAssaysById = assaysById;
     this.externalAssaysById = assaysById.entrySet().stream()
         .collect(Collectors.toMap(Entry::getKey, entry -> new ExternalAssay(entry.getValue())));
+    version.incrementAndGet();
   }
 
   public List<String> getCompletedGates() {
@@ -125,6 +138,7 @@ public class FrontEndConfig {
 
   public void setLibraryDesigns(Set<String> libraryDesigns) {
     this.libraryDesigns = libraryDesigns;
+    version.incrementAndGet();
   }
 
   public Set<String> getLibraryDesigns() {
@@ -157,6 +171,7 @@ public class FrontEndConfig {
           return stream;
         })
         .toList();
+    version.incrementAndGet();
   }
 
   public Set<String> getDeliverables() {
@@ -165,6 +180,7 @@ public class FrontEndConfig {
 
   public void setDeliverables(Set<String> deliverables) {
     this.deliverables = deliverables;
+    version.incrementAndGet();
   }
 
   private static ObjectNode toDto(JsonMapper jsonMapper, String name, CaseQc qc) {
@@ -0,0 +1,65 @@
+package ca.on.oicr.gsi.dimsum;
+
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ca.on.oicr.gsi.dimsum.util.jfr.RefreshPhaseEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times one phase of refreshing the case data. The time is logged at debug level, recorded in the
+ * {@value #TIMER_NAME} timer tagged by phase, and recorded as a JFR event
+ */
+public class RefreshPhase {
+
+  private static final Logger log = LoggerFactory.getLogger(RefreshPhase.class);
+
+  private static final String TIMER_NAME = "case_data_refresh_phase_time";
+
+  private final MeterRegistry meterRegistry;
+  private final String name;
+  private final long startNanos;
+  private final RefreshPhaseEvent event = new RefreshPhaseEvent();
+
+  private RefreshPhase(MeterRegistry meterRegistry, String name) {
+    this.meterRegistry = meterRegistry;
+    this.name = name;
+    event.begin();
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Starts timing a phase
+   *
+   * @param meterRegistry registry to record to; may be null, in which case the time is not
+   *        recorded as a metric
+   * @param name name of the phase, used as the {@code phase} tag
+   * @return the started phase
+   */
+  public static RefreshPhase start(MeterRegistry meterRegistry, String name) {
+    return new RefreshPhase(meterRegistry, name);
+  }
+
+  /**
+   * Ends the phase and records its time
+   */
+  public void end() {
+    long elapsed = System.nanoTime() - startNanos;
+    event.end();
+    if (event.shouldCommit()) {
+      event.phase = name;
+      event.commit();
+    }
+    log.debug("Refresh phase {} completed in {} ms", name,
+        TimeUnit.NANOSECONDS.toMillis(elapsed));
+    if (meterRegistry != null) {
+      Timer.builder(TIMER_NAME)
+          .description("Time taken by each phase of refreshing the case data")
+          .tag("phase", name)
+          .register(meterRegistry)
+          .record(elapsed, TimeUnit.NANOSECONDS);
+    }
+  }
+
+}
@@ -0,0 +1,228 @@
+package ca.on.oicr.gsi.dimsum.controller;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ca.on.oicr.gsi.dimsum.security.DimsumPrincipal;
+import ca.on.oicr.gsi.dimsum.security.SecurityManager;
+import ca.on.oicr.gsi.dimsum.service.CaseService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Adds an ETag to the responses of read-only endpoints whose results depend only on the case data,
+ * and responds with 304 Not Modified when the client already has the current result. The ETag is a
+ * hash of the data timestamp, the cache version (which changes when cached sign-offs are applied),
+ * the principal's authorization scope, and the request, so it can be checked before the handler
+ * does any work.
+ * <p>
+ * Browsers do not revalidate POST requests on their own, so the front-end sends If-None-Match for
+ * repeated queries itself.
+ */
+@Component
+public class ConditionalResponseFilter extends OncePerRequestFilter {
+
+  private static final Pattern CONDITIONAL_PATH =
+      Pattern.compile("^/rest/(internal|external|common)/.*$");
+  // Excluded because they modify data, depend on other data, are cached separately, or stream
+  // events
+  private static final Pattern EXCLUDED_PATH = Pattern.compile("^/rest/(internal/cases/bulk-signoff"
+      + "|internal/notifications|(internal|external)/downloads/.*|common/events)$");
+  // Distinguishes this instance's ETags from those issued before a restart
+  private static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+  @Autowired
+  private CaseService caseService;
+
+  @Autowired
+  private SecurityManager securityManager;
+
+  protected void setCaseService(CaseService caseService) {
+    this.caseService = caseService;
+  }
+
+  protected void setSecurityManager(SecurityManager securityManager) {
+    this.securityManager = securityManager;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String method = request.getMethod();
+    if (!HttpMethod.GET.matches(method) && !HttpMethod.POST.matches(method)) {
+      return true;
+    }
+    String path = getPath(request);
+    return !CONDITIONAL_PATH.matcher(path).matches() || EXCLUDED_PATH.matcher(path).matches();
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    ZonedDateTime dataTimestamp = caseService.getDataTimestamp();
+    if (dataTimestamp == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    long cacheVersion = caseService.getCacheVersion();
+
+    HttpServletRequest wrapped = request;
+    byte[] body = null;
+    if (HttpMethod.POST.matches(request.getMethod())) {
+      body = request.getInputStream().readAllBytes();
+      wrapped = new CachedBodyRequest(request, body);
+    }
+    String eTag = makeETag(dataTimestamp, cacheVersion, getScope(), request, body);
+
+    response.setHeader(HttpHeaders.ETAG, eTag);
+    response.setDateHeader(HttpHeaders.LAST_MODIFIED, dataTimestamp.toInstant().toEpochMilli());
+    // Allows browsers to cache GET responses, but always revalidate them
+    response.setHeader(HttpHeaders.CACHE_CONTROL,
+        CacheControl.noCache().cachePrivate().getHeaderValue());
+    // Last-Modified is not checked, as cached sign-offs may change the data without changing it
+    if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+    filterChain.doFilter(wrapped, response);
+  }
+
+  private String getScope() {
+    DimsumPrincipal principal = securityManager.getPrincipal();
+    // Scope IDs are only valid for the life of the process, as is INSTANCE_ID
+    return principal == null ? "anonymous"
+        : Integer.toString(principal.getAuthorizationScopeId());
+  }
+
+  private static String getPath(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+
+  private static String makeETag(ZonedDateTime dataTimestamp, long cacheVersion, String scope,
+      HttpServletRequest request, byte[] body) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    String key = String.join("\n", INSTANCE_ID, dataTimestamp.toInstant().toString(),
+        Long.toString(cacheVersion), scope, request.getMethod(), getPath(request),
+        String.valueOf(request.getQueryString()));
+    digest.update(key.getBytes(StandardCharsets.UTF_8));
+    if (body != null) {
+      digest.update((byte) '\n');
+      digest.update(body);
+    }
+    // 128 bits is plenty to distinguish responses
+    return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+  }
+
+  /**
+   * Checks If-None-Match against the current ETag. The "*" wildcard is not treated as a match, as
+   * it only means that some representation exists, not that the client's copy is current
+   */
+  private static boolean matches(String ifNoneMatch, String eTag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      if (candidate.trim().equals(eTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Request wrapper that provides a body which has already been read from the original request
+   */
+  private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    public CachedBodyRequest(HttpServletRequest request, byte[] body) {
+      super(request);
+      this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream input = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+
+        @Override
+        public int read() {
+          return input.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+          return input.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+          return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+          // The whole body is already available, so the listener can be notified immediately
+          try {
+            if (!isFinished()) {
+              listener.onDataAvailable();
+            }
+            if (isFinished()) {
+              listener.onAllDataRead();
+            }
+          } catch (IOException e) {
+            listener.onError(e);
+          }
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      String encoding = getCharacterEncoding();
+      Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+      return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    @Override
+    public int getContentLength() {
+      return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+      return body.length;
+    }
+  }
+
+}
@@ -3,29 +3,98 @@ package ca.on.oicr.gsi.dimsum.controller;
 import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import ca.on.oicr.gsi.dimsum.service.CaseService;
+import org.springframework.http.MediaType;
+import ca.on.oicr.gsi.dimsum.service.ReportCache;
+import ca.on.oicr.gsi.dimsum.service.ReportCache.EncodedReport;
 import ca.on.oicr.gsi.dimsum.util.reporting.Report;
 import ca.on.oicr.gsi.dimsum.util.reporting.ReportFormat;
 import tools.jackson.databind.JsonNode;
 
 public class ControllerUtils {
 
+  private static final String ENCODING_GZIP = "gzip";
+
   public static HttpEntity<byte[]> generateReport(String reportName, Report report,
-      JsonNode parameters,
-      CaseService caseService) throws IOException {
+      JsonNode parameters, String acceptEncoding, ReportCache reportCache) throws IOException {
     ReportFormat format = Report.getFormat(parameters);
-    byte[] bytes = report.writeFile(caseService, parameters);
+    EncodedReport file = reportCache.getFile(reportName, report, parameters);
 
     String filename = String.format("%s-%s.%s", reportName,
         DateTimeFormatter.ISO_LOCAL_DATE.format(ZonedDateTime.now()), format.getExtension());
     HttpHeaders headers = new HttpHeaders();
     headers.setContentType(format.getMediaType());
-    headers.setContentLength(bytes.length);
     headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
+    byte[] bytes = getResponseBody(file, acceptEncoding, headers);
+    headers.setContentLength(bytes.length);
+
+    return new HttpEntity<>(bytes, headers);
+  }
+
+  public static HttpEntity<byte[]> generateReportData(String reportName, Report report,
+      JsonNode parameters, String acceptEncoding, ReportCache reportCache) throws IOException {
+    EncodedReport data = reportCache.getData(reportName, report, parameters);
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    byte[] bytes = getResponseBody(data, acceptEncoding, headers);
+    headers.setContentLength(bytes.length);
 
     return new HttpEntity<>(bytes, headers);
   }
 
+  /**
+   * Gets the response body for a rendered report. Compressed contents are sent as-is with a gzip
+   * content encoding if the client accepts it, and are otherwise decompressed
+   */
+  private static byte[] getResponseBody(EncodedReport report, String acceptEncoding,
+      HttpHeaders headers) throws IOException {
+    if (!report.gzipped()) {
+      return report.bytes();
+    }
+    headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+    if (acceptsEncoding(acceptEncoding, ENCODING_GZIP)) {
+      headers.set(HttpHeaders.CONTENT_ENCODING, ENCODING_GZIP);
+      return report.bytes();
+    }
+    return report.getDecodedBytes();
+  }
+
+  /**
+   * Checks whether an Accept-Encoding header value allows an encoding
+   *
+   * @param acceptEncoding the Accept-Encoding header value; may be null
+   * @param encoding the encoding to check for
+   * @return true if the encoding, or any encoding, is listed with a non-zero quality value
+   */
+  public static boolean acceptsEncoding(String acceptEncoding, String encoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String item : acceptEncoding.split(",")) {
+      String[] parts = item.split(";");
+      String coding = parts[0].trim();
+      if (!coding.equalsIgnoreCase(encoding) && !"*".equals(coding)) {
+        continue;
+      }
+      boolean allowed = true;
+      for (int i = 1; i < parts.length; i++) {
+        String param = parts[i].trim();
+        if (param.startsWith("q=")) {
+          try {
+            allowed = Double.parseDouble(param.substring(2)) > 0;
+          } catch (NumberFormatException e) {
+            allowed = false;
+          }
+        }
+      }
+      if (allowed) {
+        return true;
+      }
+    }
+    return false;
+  }
+
 }
@@ -1,27 +1,47 @@
 package ca.on.oicr.gsi.dimsum.controller;
 
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
-import ca.on.oicr.gsi.dimsum.FrontEndConfig;
-import tools.jackson.databind.json.JsonMapper;
+import org.springframework.web.context.request.ServletWebRequest;
+import ca.on.oicr.gsi.dimsum.security.DimsumPrincipal;
+import ca.on.oicr.gsi.dimsum.security.SecurityManager;
+import ca.on.oicr.gsi.dimsum.service.SiteConfigService;
+import ca.on.oicr.gsi.dimsum.service.SiteConfigService.Script;
 
 @Controller
 public class SiteConfigController {
 
   @Autowired
-  private FrontEndConfig frontEndConfig;
+  private SiteConfigService siteConfigService;
 
   @Autowired
-  private JsonMapper jsonMapper;
+  private SecurityManager securityManager;
 
-  @GetMapping(path = "/js/site-config.js", produces = "text/javascript")
+  /**
+   * Gets the site config script. Pages reference it with the content hash as the {@code v}
+   * parameter, and a request for the current version may be cached indefinitely. Other requests
+   * must be revalidated
+   */
+  @GetMapping(path = "/js/site-config.js", produces = "text/javascript;charset=UTF-8")
   @ResponseBody
-  public String getSiteConfigScript() {
-    return String.format("window.siteConfig = %s;",
-        jsonMapper.writeValueAsString(frontEndConfig));
+  public byte[] getSiteConfigScript(@RequestParam(name = "v", required = false) String version,
+      ServletWebRequest request) {
+    DimsumPrincipal principal = securityManager.getPrincipal();
+    Script script = siteConfigService.getScript(principal != null && principal.isInternal());
+    CacheControl cacheControl = script.hash().equals(version)
+        ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable()
+        : CacheControl.noCache().cachePrivate();
+    request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+    if (request.checkNotModified("\"%s\"".formatted(script.hash()))) {
+      return null;
+    }
+    return script.bytes();
   }
 
-
 }
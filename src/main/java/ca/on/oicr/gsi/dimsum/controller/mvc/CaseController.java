@@ -1,7 +1,5 @@
 package ca.on.oicr.gsi.dimsum.controller.mvc;
 
-import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -34,13 +32,13 @@ public class CaseController {
   @GetMapping("/{caseId}")
   public String getCaseDetailsPage(@PathVariable String caseId, ModelMap model,
       HttpServletRequest request) {
-    String redirectId = getRedirectIdOrValidate(caseId);
-    if (redirectId != null) {
-      request.setAttribute(View.RESPONSE_STATUS_ATTRIBUTE, HttpStatus.MOVED_PERMANENTLY);
-      return "redirect:/cases/" + redirectId;
-    }
     Case kase = caseService.getCase(caseId);
     if (kase == null) {
+      String redirectId = getRedirectId(caseId);
+      if (redirectId != null) {
+        request.setAttribute(View.RESPONSE_STATUS_ATTRIBUTE, HttpStatus.MOVED_PERMANENTLY);
+        return "redirect:/cases/" + redirectId;
+      }
       throw new NotFoundException("No data found for case: " + caseId);
     }
     model.put("title", String.format("%s  Case Details", caseId));
@@ -52,41 +50,34 @@ public class CaseController {
   @GetMapping("/{caseId}/report")
   public String getCaseReportPage(@PathVariable String caseId, ModelMap model,
       HttpServletRequest request) {
-    String redirectId = getRedirectIdOrValidate(caseId);
-    if (redirectId != null) {
-      request.setAttribute(View.RESPONSE_STATUS_ATTRIBUTE, HttpStatus.MOVED_PERMANENTLY);
-      return "redirect:/cases/" + redirectId + "/report";
+    if (caseService.getCase(caseId) == null) {
+      String redirectId = getRedirectId(caseId);
+      if (redirectId != null) {
+        request.setAttribute(View.RESPONSE_STATUS_ATTRIBUTE, HttpStatus.MOVED_PERMANENTLY);
+        return "redirect:/cases/" + redirectId + "/report";
+      }
     }
     model.put("caseId", caseId);
     return "case-report";
   }
 
   /**
-   * Gets the case ID to redirect to if an old format case ID was requested; otherwise validate the
-   * provided case ID
+   * Gets the case ID to redirect to if an old format case ID was requested
    * 
-   * @param caseId case ID requested
-   * @return null if a valid case ID was provided; the updated case ID if an old format case ID was
-   *         requested
-   * @throws NotFoundException if a matching case could not be found
+   * @param caseId case ID requested, which does not match any current case
+   * @return the updated case ID if an old format case ID was requested; null otherwise
+   * @throws NotFoundException if an old format case ID was requested, but a matching case could
+   *         not be found
    */
-  private String getRedirectIdOrValidate(String caseId) {
-    Case kase = caseService.getCase(caseId);
-    if (kase == null) {
-      Matcher m = OLD_CASE_ID_PATTERN.matcher(caseId);
-      if (m.matches()) {
-        String updatedIdPattern = "^%sa\\d+_%s$".formatted(m.group(1), m.group(2));
-        List<Case> matchingCases =
-            caseService.getCaseStream(null)
-                .filter(x -> Pattern.matches(updatedIdPattern, x.getId()))
-                .toList();
-        if (matchingCases.size() == 1) {
-          return matchingCases.get(0).getId();
-        }
-        throw new NotFoundException(String.format("Case not found: %s", caseId));
-      }
+  private String getRedirectId(String caseId) {
+    if (!OLD_CASE_ID_PATTERN.matcher(caseId).matches()) {
+      return null;
+    }
+    String currentId = caseService.getCurrentCaseId(caseId);
+    if (currentId == null) {
+      throw new NotFoundException(String.format("Case not found: %s", caseId));
     }
-    return null;
+    return currentId;
   }
 
 }
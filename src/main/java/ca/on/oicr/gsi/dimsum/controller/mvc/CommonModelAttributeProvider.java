@@ -8,12 +8,15 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import ca.on.oicr.gsi.dimsum.security.DimsumPrincipal;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
+import ca.on.oicr.gsi.dimsum.service.SiteConfigService;
 
 @ControllerAdvice(basePackages = {"ca.on.oicr.gsi.dimsum.controller.mvc"})
 public class CommonModelAttributeProvider {
 
   @Autowired
   private CaseService caseService;
+  @Autowired
+  private SiteConfigService siteConfigService;
 
   @Value("${instancename}")
   private String instanceName;
@@ -63,6 +66,11 @@ public class CommonModelAttributeProvider {
     return principal != null ? principal.isInternal() : false;
   }
 
+  @ModelAttribute("siteConfigVersion")
+  public String getSiteConfigVersion(@AuthenticationPrincipal DimsumPrincipal principal) {
+    return siteConfigService.getScript(isInternalUser(principal)).hash();
+  }
+
   public void prepareErrorPage(ModelMap model, DimsumPrincipal principal) {
     model.put("dataAgeMinutes", getDataAgeMinutes());
     model.put("instanceName", getInstanceName());
@@ -71,6 +79,7 @@ public class CommonModelAttributeProvider {
     model.put("bugReportUrl", getBugReportUrl());
     model.put("externalBugReportUrl", getExternalBugReportUrl());
     model.put("internalUser", isInternalUser(principal));
+    model.put("siteConfigVersion", getSiteConfigVersion(principal));
   }
 
 }
@@ -0,0 +1,29 @@
+package ca.on.oicr.gsi.dimsum.controller.rest.common;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ca.on.oicr.gsi.dimsum.controller.UnauthorizedException;
+import ca.on.oicr.gsi.dimsum.security.DimsumPrincipal;
+import ca.on.oicr.gsi.dimsum.service.ChangeEventService;
+
+@RestController
+@RequestMapping("/rest/common/events")
+public class CommonEventRestController {
+
+  @Autowired
+  private ChangeEventService changeEventService;
+
+  @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter subscribe(@AuthenticationPrincipal DimsumPrincipal principal) {
+    if (principal == null) {
+      throw new UnauthorizedException();
+    }
+    return changeEventService.subscribe(principal);
+  }
+
+}
@@ -12,6 +12,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
 import ca.on.oicr.gsi.dimsum.data.ProjectSummaryRow;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Scope;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Table;
 import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
 import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
 
@@ -22,6 +25,8 @@ public class CommonProjectRestController {
 
   @Autowired
   private CaseService caseService;
+  @Autowired
+  private QueryMetrics queryMetrics;
 
   @PostMapping("/{projectName}/summary")
   public TableData<ProjectSummaryRow> getProjectSummary(@PathVariable String projectName,
@@ -29,6 +34,7 @@ public class CommonProjectRestController {
     List<CaseFilter> filters = parseCaseFiltersForProject(query);
     LocalDate afterDate = parseAfterDate(query);
     LocalDate beforDate = parseBeforeDate(query);
-    return caseService.getProjectSummaryRows(projectName, filters, afterDate, beforDate);
+    return queryMetrics.record(Table.PROJECT_SUMMARY, Scope.COMMON, query, null,
+        () -> caseService.getProjectSummaryRows(projectName, filters, afterDate, beforDate));
   }
 }
@@ -12,6 +12,9 @@ import ca.on.oicr.gsi.dimsum.controller.BadRequestException;
 import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
 import ca.on.oicr.gsi.dimsum.data.external.ExternalCase;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Scope;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Table;
 import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
 import ca.on.oicr.gsi.dimsum.service.filtering.CaseSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
@@ -22,6 +25,8 @@ public class ExternalCaseRestController {
 
   @Autowired
   private CaseService caseService;
+  @Autowired
+  private QueryMetrics queryMetrics;
 
   @PostMapping
   public TableData<ExternalCase> query(@RequestBody DataQuery query) {
@@ -32,8 +37,9 @@ public class ExternalCaseRestController {
     authorizeFilter(baseFilter);
     List<CaseFilter> filters = parseCaseFilters(query);
     authorizeFilters(filters);
-    return caseService.getExternalCases(query.getPageSize(), query.getPageNumber(), sort,
-        descending, baseFilter, filters);
+    return queryMetrics.record(Table.CASES, Scope.EXTERNAL, query, sort,
+        () -> caseService.getExternalCases(query.getPageSize(), query.getPageNumber(), sort,
+            descending, baseFilter, filters));
   }
 
   private static void authorizeFilters(Collection<CaseFilter> filters) {
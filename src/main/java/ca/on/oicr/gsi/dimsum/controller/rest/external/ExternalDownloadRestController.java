@@ -3,14 +3,16 @@ package ca.on.oicr.gsi.dimsum.controller.rest.external;
 import java.io.IOException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ca.on.oicr.gsi.dimsum.controller.BadRequestException;
 import ca.on.oicr.gsi.dimsum.controller.ControllerUtils;
-import ca.on.oicr.gsi.dimsum.service.CaseService;
+import ca.on.oicr.gsi.dimsum.service.ReportCache;
 import ca.on.oicr.gsi.dimsum.util.reporting.Report;
 import ca.on.oicr.gsi.dimsum.util.reporting.reports.CaseSummaryReport;
 import tools.jackson.databind.JsonNode;
@@ -20,13 +22,16 @@ import tools.jackson.databind.JsonNode;
 public class ExternalDownloadRestController {
 
   @Autowired
-  private CaseService caseService;
+  private ReportCache reportCache;
 
   @PostMapping("/reports/{reportName}")
   public HttpEntity<byte[]> generateReport(@PathVariable String reportName,
-      @RequestBody JsonNode parameters) throws IOException {
+      @RequestBody JsonNode parameters,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+      throws IOException {
     Report report = getReport(reportName);
-    return ControllerUtils.generateReport(reportName, report, parameters, caseService);
+    return ControllerUtils.generateReport(reportName, report, parameters, acceptEncoding,
+        reportCache);
   }
 
   private static Report getReport(String reportName) {
@@ -10,6 +10,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
 import ca.on.oicr.gsi.dimsum.data.external.ExternalProjectSummary;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Scope;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Table;
 import ca.on.oicr.gsi.dimsum.service.filtering.ProjectSummaryFilter;
 import ca.on.oicr.gsi.dimsum.service.filtering.ProjectSummarySort;
 import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
@@ -21,6 +24,8 @@ public class ExternalProjectRestController {
 
   @Autowired
   private CaseService caseService;
+  @Autowired
+  private QueryMetrics queryMetrics;
 
   @PostMapping
   public TableData<ExternalProjectSummary> query(@RequestBody DataQuery query) {
@@ -28,7 +33,8 @@ public class ExternalProjectRestController {
     ProjectSummarySort sort = parseSort(query, ProjectSummarySort::getByLabel);
     boolean descending = parseDescending(query);
     List<ProjectSummaryFilter> filters = parseProjectSummaryFilters(query);
-    return caseService.getExternalProjects(query.getPageSize(), query.getPageNumber(), sort,
-        descending, filters);
+    return queryMetrics.record(Table.PROJECTS, Scope.EXTERNAL, query, sort,
+        () -> caseService.getExternalProjects(query.getPageSize(), query.getPageNumber(), sort,
+            descending, filters));
   }
 }
@@ -11,6 +11,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
 import ca.on.oicr.gsi.dimsum.data.external.ExternalSample;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Scope;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Table;
 import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
 import ca.on.oicr.gsi.dimsum.service.filtering.SampleSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
@@ -21,30 +24,35 @@ public class ExternalSampleRestController {
 
   @Autowired
   private CaseService caseService;
+  @Autowired
+  private QueryMetrics queryMetrics;
 
   @PostMapping("/receipts")
   public TableData<ExternalSample> queryReceipts(@RequestBody DataQuery query) {
-    return getSamples(query, caseService::getExternalReceipts);
+    return getSamples(query, Table.RECEIPTS, caseService::getExternalReceipts);
   }
 
   @PostMapping("/extractions")
   public TableData<ExternalSample> queryExtractions(@RequestBody DataQuery query) {
-    return getSamples(query, caseService::getExternalExtractions);
+    return getSamples(query, Table.EXTRACTIONS, caseService::getExternalExtractions);
   }
 
   @PostMapping("/library-preparations")
   public TableData<ExternalSample> queryLibraryPreparations(@RequestBody DataQuery query) {
-    return getSamples(query, caseService::getExternalLibraryPreparations);
+    return getSamples(query, Table.LIBRARY_PREPARATIONS,
+        caseService::getExternalLibraryPreparations);
   }
 
   @PostMapping("/library-qualifications")
   public TableData<ExternalSample> queryLibraryQualifications(@RequestBody DataQuery query) {
-    return getSamples(query, caseService::getExternalLibraryQualifications);
+    return getSamples(query, Table.LIBRARY_QUALIFICATIONS,
+        caseService::getExternalLibraryQualifications);
   }
 
   @PostMapping("/full-depth-sequencings")
   public TableData<ExternalSample> queryFullDepthSequencings(@RequestBody DataQuery query) {
-    return getSamples(query, caseService::getExternalFullDepthSequencings);
+    return getSamples(query, Table.FULL_DEPTH_SEQUENCINGS,
+        caseService::getExternalFullDepthSequencings);
   }
 
   @FunctionalInterface
@@ -54,14 +62,16 @@ public class ExternalSampleRestController {
         CaseFilter baseFilter, Collection<CaseFilter> filters);
   }
 
-  private TableData<ExternalSample> getSamples(DataQuery query, SampleGetter getter) {
+  private TableData<ExternalSample> getSamples(DataQuery query, Table table,
+      SampleGetter getter) {
     validateDataQuery(query);
     SampleSort sort = parseSort(query, SampleSort::getByLabel);
     boolean descending = parseDescending(query);
     CaseFilter baseFilter = parseBaseFilter(query);
     List<CaseFilter> filters = parseCaseFilters(query);
-    return getter.get(query.getPageSize(), query.getPageNumber(), sort, descending, baseFilter,
-        filters);
+    return queryMetrics.record(table, Scope.EXTERNAL, query, sort,
+        () -> getter.get(query.getPageSize(), query.getPageNumber(), sort, descending,
+            baseFilter, filters));
   }
 
 }
@@ -10,6 +10,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
 import ca.on.oicr.gsi.dimsum.data.external.ExternalTestTableView;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Scope;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Table;
 import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
 import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
 import ca.on.oicr.gsi.dimsum.service.filtering.TestTableViewSort;
@@ -20,6 +23,8 @@ public class ExternalTestRestController {
 
   @Autowired
   private CaseService caseService;
+  @Autowired
+  private QueryMetrics queryMetrics;
 
   @PostMapping
   public TableData<ExternalTestTableView> query(@RequestBody DataQuery query) {
@@ -28,7 +33,8 @@ public class ExternalTestRestController {
     boolean descending = parseDescending(query);
     CaseFilter baseFilter = parseBaseFilter(query);
     List<CaseFilter> filters = parseCaseFilters(query);
-    return caseService.getExternalTestTableViews(query.getPageSize(), query.getPageNumber(), sort,
-        descending, baseFilter, filters);
+    return queryMetrics.record(Table.TESTS, Scope.EXTERNAL, query, sort,
+        () -> caseService.getExternalTestTableViews(query.getPageSize(), query.getPageNumber(),
+            sort, descending, baseFilter, filters));
   }
 }
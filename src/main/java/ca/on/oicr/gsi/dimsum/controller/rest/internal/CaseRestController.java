@@ -3,6 +3,7 @@ package ca.on.oicr.gsi.dimsum.controller.rest.internal;
 import static ca.on.oicr.gsi.dimsum.controller.mvc.MvcUtils.*;
 import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.BiFunction;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -23,15 +24,24 @@ import ca.on.oicr.gsi.cardea.data.CaseQc.ReleaseQcStatus;
 import ca.on.oicr.gsi.dimsum.controller.BadRequestException;
 import ca.on.oicr.gsi.dimsum.controller.NotFoundException;
 import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
+import ca.on.oicr.gsi.dimsum.controller.rest.request.TatTrendQuery;
 import ca.on.oicr.gsi.dimsum.data.NabuBulkSignoff;
 import ca.on.oicr.gsi.dimsum.data.NabuSignoff;
 import ca.on.oicr.gsi.dimsum.data.NabuSignoff.NabuSignoffStep;
+import ca.on.oicr.gsi.dimsum.data.TatTrendSeries;
 import ca.on.oicr.gsi.dimsum.security.DimsumPrincipal;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
 import ca.on.oicr.gsi.dimsum.service.NabuService;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Scope;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Table;
 import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
 import ca.on.oicr.gsi.dimsum.service.filtering.CaseSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
+import ca.on.oicr.gsi.dimsum.util.reporting.reports.CaseTatTrend;
+import ca.on.oicr.gsi.dimsum.util.reporting.reports.CaseTatTrend.Gate;
+import ca.on.oicr.gsi.dimsum.util.reporting.reports.CaseTatTrend.Grouping;
+import ca.on.oicr.gsi.dimsum.util.reporting.reports.CaseTatTrend.Interval;
 
 @RestController
 @RequestMapping("/rest/internal/cases")
@@ -39,6 +49,8 @@ public class CaseRestController {
 
   @Autowired
   private CaseService caseService;
+  @Autowired
+  private QueryMetrics queryMetrics;
   @Autowired(required = false)
   private NabuService nabuService;
 
@@ -49,8 +61,9 @@ public class CaseRestController {
     boolean descending = parseDescending(query);
     CaseFilter baseFilter = parseBaseFilter(query);
     List<CaseFilter> filters = parseCaseFilters(query);
-    return caseService.getCases(query.getPageSize(), query.getPageNumber(), sort, descending,
-        baseFilter, filters);
+    return queryMetrics.record(Table.CASES, Scope.INTERNAL, query, sort,
+        () -> caseService.getCases(query.getPageSize(), query.getPageNumber(), sort, descending,
+            baseFilter, filters));
   }
 
   @GetMapping("/{id}")
@@ -62,6 +75,43 @@ public class CaseRestController {
     return kase;
   }
 
+  @PostMapping("/tat-trend")
+  public List<TatTrendSeries> getTatTrend(@RequestBody TatTrendQuery query) {
+    Interval interval = Interval.getByLabel(query.getInterval());
+    if (interval == null) {
+      throw new BadRequestException("Invalid interval: %s".formatted(query.getInterval()));
+    }
+    Grouping grouping = query.getGrouping() == null ? Grouping.ASSAY
+        : Grouping.getByLabel(query.getGrouping());
+    if (grouping == null) {
+      throw new BadRequestException("Invalid grouping: %s".formatted(query.getGrouping()));
+    }
+    String deliverableCategory = Objects.requireNonNullElse(query.getDeliverableCategory(),
+        CaseTatTrend.ALL_DELIVERABLE_CATEGORIES);
+    if (query.getGates() == null || query.getGates().isEmpty()) {
+      throw new BadRequestException("No gates specified");
+    }
+    List<Gate> gates = query.getGates().stream()
+        .map(label -> {
+          Gate gate = Gate.getByLabel(label);
+          if (gate == null) {
+            throw new BadRequestException("Invalid gate: %s".formatted(label));
+          }
+          return gate;
+        })
+        .toList();
+    if (query.getHistogramBinDays() != null && query.getHistogramBinDays() < 1) {
+      throw new BadRequestException(
+          "Invalid histogram bin size: %d".formatted(query.getHistogramBinDays()));
+    }
+    List<CaseFilter> filters = query.getFilters() == null ? null
+        : query.getFilters().stream()
+            .map(filter -> parseCaseFilter(filter.getKey(), filter.getValue()))
+            .toList();
+    return CaseTatTrend.calculate(caseService.getCaseStream(filters), grouping, interval,
+        deliverableCategory, gates, query.getHistogramBinDays());
+  }
+
   @PostMapping("/bulk-signoff")
   public @ResponseStatus(HttpStatus.NO_CONTENT) void postSignoffs(
       @RequestParam(required = false) Boolean assignment, @RequestBody List<NabuBulkSignoff> data,
@@ -10,6 +10,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ca.on.oicr.gsi.cardea.data.OmittedSample;
 import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Scope;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Table;
 import ca.on.oicr.gsi.dimsum.service.filtering.OmittedSampleFilter;
 import ca.on.oicr.gsi.dimsum.service.filtering.OmittedSampleSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
@@ -20,6 +23,8 @@ public class OmittedSampleRestController {
 
   @Autowired
   private CaseService caseService;
+  @Autowired
+  private QueryMetrics queryMetrics;
 
   @PostMapping
   public TableData<OmittedSample> query(@RequestBody DataQuery query) {
@@ -27,8 +32,9 @@ public class OmittedSampleRestController {
     OmittedSampleSort sort = parseSort(query, OmittedSampleSort::getByLabel);
     boolean descending = parseDescending(query);
     List<OmittedSampleFilter> filters = parseOmittedSampleFilters(query);
-    return caseService.getOmittedSamples(query.getPageSize(), query.getPageNumber(), sort,
-        descending, filters);
+    return queryMetrics.record(Table.OMISSIONS, Scope.INTERNAL, query, sort,
+        () -> caseService.getOmittedSamples(query.getPageSize(), query.getPageNumber(), sort,
+            descending, filters));
   }
 
 }
@@ -13,6 +13,9 @@ import ca.on.oicr.gsi.cardea.data.OmittedRunSample;
 import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
 import ca.on.oicr.gsi.dimsum.data.ProjectSummary;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Scope;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Table;
 import ca.on.oicr.gsi.dimsum.service.filtering.OmittedRunSampleSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.ProjectSummaryFilter;
 import ca.on.oicr.gsi.dimsum.service.filtering.ProjectSummarySort;
@@ -25,6 +28,8 @@ public class ProjectRestController {
 
   @Autowired
   private CaseService caseService;
+  @Autowired
+  private QueryMetrics queryMetrics;
 
   @PostMapping
   public TableData<ProjectSummary> query(@RequestBody DataQuery query) {
@@ -32,8 +37,9 @@ public class ProjectRestController {
     ProjectSummarySort sort = parseSort(query, ProjectSummarySort::getByLabel);
     boolean descending = parseDescending(query);
     List<ProjectSummaryFilter> filters = parseProjectSummaryFilters(query);
-    return caseService.getProjects(query.getPageSize(), query.getPageNumber(), sort, descending,
-        filters);
+    return queryMetrics.record(Table.PROJECTS, Scope.INTERNAL, query, sort,
+        () -> caseService.getProjects(query.getPageSize(), query.getPageNumber(), sort,
+            descending, filters));
   }
 
   @PostMapping("/{projectName}/omissions/library-qualification")
@@ -52,7 +58,8 @@ public class ProjectRestController {
       MetricCategory sequencingType) {
     OmittedRunSampleSort sort = parseSort(query, OmittedRunSampleSort::getByLabel);
     boolean descending = parseDescending(query);
-    return caseService.getOmittedRunSamplesForProject(projectName, sequencingType,
-        query.getPageSize(), query.getPageNumber(), sort, descending);
+    return queryMetrics.record(Table.PROJECT_OMISSIONS, Scope.INTERNAL, query, sort,
+        () -> caseService.getOmittedRunSamplesForProject(projectName, sequencingType,
+            query.getPageSize(), query.getPageNumber(), sort, descending));
   }
 }
@@ -15,6 +15,9 @@ import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
 import ca.on.oicr.gsi.dimsum.data.RunAndLibraries;
 import ca.on.oicr.gsi.dimsum.data.SampleAndRelated;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Scope;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Table;
 import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
 import ca.on.oicr.gsi.dimsum.service.filtering.OmittedRunSampleSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.RunFilter;
@@ -28,6 +31,8 @@ public class RunRestController {
 
   @Autowired
   private CaseService caseService;
+  @Autowired
+  private QueryMetrics queryMetrics;
 
   @PostMapping
   public TableData<Run> query(@RequestBody DataQuery query) {
@@ -35,8 +40,9 @@ public class RunRestController {
     RunSort sort = parseSort(query, RunSort::getByLabel);
     boolean descending = parseDescending(query);
     List<RunFilter> filters = parseRunFilters(query);
-    return caseService.getRuns(query.getPageSize(), query.getPageNumber(), sort, descending,
-        filters);
+    return queryMetrics.record(Table.RUNS, Scope.INTERNAL, query, sort,
+        () -> caseService.getRuns(query.getPageSize(), query.getPageNumber(), sort, descending,
+            filters));
   }
 
   @PostMapping("/{runName}/library-qualifications")
@@ -46,8 +52,9 @@ public class RunRestController {
     SampleSort sort = parseSort(query, SampleSort::getByLabel);
     boolean descending = parseDescending(query);
     List<CaseFilter> filters = parseCaseFilters(query);
-    return caseService.getLibraryQualificationsForRun(runName, query.getPageSize(),
-        query.getPageNumber(), sort, descending, filters);
+    return queryMetrics.record(Table.RUN_LIBRARY_QUALIFICATIONS, Scope.INTERNAL, query, sort,
+        () -> caseService.getLibraryQualificationsForRun(runName, query.getPageSize(),
+            query.getPageNumber(), sort, descending, filters));
   }
 
   @PostMapping("/{runName}/full-depth-sequencings")
@@ -57,8 +64,9 @@ public class RunRestController {
     SampleSort sort = parseSort(query, SampleSort::getByLabel);
     boolean descending = parseDescending(query);
     List<CaseFilter> filters = parseCaseFilters(query);
-    return caseService.getFullDepthSequencingsForRun(runName, query.getPageSize(),
-        query.getPageNumber(), sort, descending, filters);
+    return queryMetrics.record(Table.RUN_FULL_DEPTH_SEQUENCINGS, Scope.INTERNAL, query, sort,
+        () -> caseService.getFullDepthSequencingsForRun(runName, query.getPageSize(),
+            query.getPageNumber(), sort, descending, filters));
   }
 
   @PostMapping("/{runName}/omissions")
@@ -67,8 +75,9 @@ public class RunRestController {
     checkRunExists(runName);
     OmittedRunSampleSort sort = parseSort(query, OmittedRunSampleSort::getByLabel);
     boolean descending = parseDescending(query);
-    return caseService.getOmittedRunSamplesForRun(runName, query.getPageSize(),
-        query.getPageNumber(), sort, descending);
+    return queryMetrics.record(Table.RUN_OMISSIONS, Scope.INTERNAL, query, sort,
+        () -> caseService.getOmittedRunSamplesForRun(runName, query.getPageSize(),
+            query.getPageNumber(), sort, descending));
   }
 
   private void checkRunExists(String runName) {
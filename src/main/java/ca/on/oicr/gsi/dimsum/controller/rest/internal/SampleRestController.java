@@ -11,6 +11,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ca.on.oicr.gsi.cardea.data.Sample;
 import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Scope;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Table;
 import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
 import ca.on.oicr.gsi.dimsum.service.filtering.SampleSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
@@ -21,30 +24,32 @@ public class SampleRestController {
 
   @Autowired
   private CaseService caseService;
+  @Autowired
+  private QueryMetrics queryMetrics;
 
   @PostMapping("/receipts")
   public TableData<Sample> queryReceipts(@RequestBody DataQuery query) {
-    return getSamples(query, caseService::getReceipts);
+    return getSamples(query, Table.RECEIPTS, caseService::getReceipts);
   }
 
   @PostMapping("/extractions")
   public TableData<Sample> queryExtractions(@RequestBody DataQuery query) {
-    return getSamples(query, caseService::getExtractions);
+    return getSamples(query, Table.EXTRACTIONS, caseService::getExtractions);
   }
 
   @PostMapping("/library-preparations")
   public TableData<Sample> queryLibraryPreparations(@RequestBody DataQuery query) {
-    return getSamples(query, caseService::getLibraryPreparations);
+    return getSamples(query, Table.LIBRARY_PREPARATIONS, caseService::getLibraryPreparations);
   }
 
   @PostMapping("/library-qualifications")
   public TableData<Sample> queryLibraryQualifications(@RequestBody DataQuery query) {
-    return getSamples(query, caseService::getLibraryQualifications);
+    return getSamples(query, Table.LIBRARY_QUALIFICATIONS, caseService::getLibraryQualifications);
   }
 
   @PostMapping("/full-depth-sequencings")
   public TableData<Sample> queryFullDepthSequencings(@RequestBody DataQuery query) {
-    return getSamples(query, caseService::getFullDepthSequencings);
+    return getSamples(query, Table.FULL_DEPTH_SEQUENCINGS, caseService::getFullDepthSequencings);
   }
 
   @FunctionalInterface
@@ -53,14 +58,15 @@ public class SampleRestController {
         CaseFilter baseFilter, Collection<CaseFilter> filters);
   }
 
-  private TableData<Sample> getSamples(DataQuery query, SampleGetter getter) {
+  private TableData<Sample> getSamples(DataQuery query, Table table, SampleGetter getter) {
     validateDataQuery(query);
     SampleSort sort = parseSort(query, SampleSort::getByLabel);
     boolean descending = parseDescending(query);
     CaseFilter baseFilter = parseBaseFilter(query);
     List<CaseFilter> filters = parseCaseFilters(query);
-    return getter.get(query.getPageSize(), query.getPageNumber(), sort, descending, baseFilter,
-        filters);
+    return queryMetrics.record(table, Scope.INTERNAL, query, sort,
+        () -> getter.get(query.getPageSize(), query.getPageNumber(), sort, descending,
+            baseFilter, filters));
   }
 
 }
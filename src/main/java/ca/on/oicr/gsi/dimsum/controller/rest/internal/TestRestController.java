@@ -10,6 +10,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
 import ca.on.oicr.gsi.dimsum.data.TestTableView;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Scope;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Table;
 import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
 import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
 import ca.on.oicr.gsi.dimsum.service.filtering.TestTableViewSort;
@@ -20,6 +23,8 @@ public class TestRestController {
 
   @Autowired
   private CaseService caseService;
+  @Autowired
+  private QueryMetrics queryMetrics;
 
   @PostMapping
   public TableData<TestTableView> query(@RequestBody DataQuery query) {
@@ -28,7 +33,8 @@ public class TestRestController {
     boolean descending = parseDescending(query);
     CaseFilter baseFilter = parseBaseFilter(query);
     List<CaseFilter> filters = parseCaseFilters(query);
-    return caseService.getTestTableViews(query.getPageSize(), query.getPageNumber(), sort,
-        descending, baseFilter, filters);
+    return queryMetrics.record(Table.TESTS, Scope.INTERNAL, query, sort,
+        () -> caseService.getTestTableViews(query.getPageSize(), query.getPageNumber(), sort,
+            descending, baseFilter, filters));
   }
 }
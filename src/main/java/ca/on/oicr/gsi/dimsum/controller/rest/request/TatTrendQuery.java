@@ -0,0 +1,62 @@
+package ca.on.oicr.gsi.dimsum.controller.rest.request;
+
+import java.util.List;
+
+public class TatTrendQuery {
+
+  private List<KeyValuePair> filters;
+  private String interval;
+  private String grouping;
+  private String deliverableCategory;
+  private List<String> gates;
+  private Integer histogramBinDays;
+
+  public List<KeyValuePair> getFilters() {
+    return filters;
+  }
+
+  public void setFilters(List<KeyValuePair> filters) {
+    this.filters = filters;
+  }
+
+  public String getInterval() {
+    return interval;
+  }
+
+  public void setInterval(String interval) {
+    this.interval = interval;
+  }
+
+  public String getGrouping() {
+    return grouping;
+  }
+
+  public void setGrouping(String grouping) {
+    this.grouping = grouping;
+  }
+
+  public String getDeliverableCategory() {
+    return deliverableCategory;
+  }
+
+  public void setDeliverableCategory(String deliverableCategory) {
+    this.deliverableCategory = deliverableCategory;
+  }
+
+  public List<String> getGates() {
+    return gates;
+  }
+
+  public void setGates(List<String> gates) {
+    this.gates = gates;
+  }
+
+  public Integer getHistogramBinDays() {
+    return histogramBinDays;
+  }
+
+  public void setHistogramBinDays(Integer histogramBinDays) {
+    this.histogramBinDays = histogramBinDays;
+  }
+
+}
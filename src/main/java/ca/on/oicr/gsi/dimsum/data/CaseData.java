@@ -3,8 +3,10 @@ package ca.on.oicr.gsi.dimsum.data;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.requireNonNull;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -12,8 +14,13 @@ import java.util.stream.Collectors;
 import javax.annotation.concurrent.Immutable;
 import ca.on.oicr.gsi.cardea.data.Assay;
 import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.cardea.data.MetricCategory;
 import ca.on.oicr.gsi.cardea.data.OmittedRunSample;
 import ca.on.oicr.gsi.cardea.data.OmittedSample;
+import ca.on.oicr.gsi.cardea.data.Test;
+import ca.on.oicr.gsi.dimsum.service.filtering.OmittedSampleIndex;
+import ca.on.oicr.gsi.dimsum.service.filtering.ProjectSummaryIndex;
+import ca.on.oicr.gsi.dimsum.service.filtering.RunIndex;
 
 @Immutable
 public class CaseData {
@@ -23,6 +30,8 @@ public class CaseData {
   private final Map<Long, Assay> assaysById;
   private final List<OmittedSample> omittedSamples;
   private final List<OmittedRunSample> omittedRunSamples;
+  private final Map<String, List<OmittedRunSample>> omittedRunSamplesByRun;
+  private final Map<String, Map<MetricCategory, List<OmittedRunSample>>> omittedRunSamplesByProject;
   private final ZonedDateTime timestamp;
   private final Set<String> assayNames;
   private final Set<String> requisitionNames;
@@ -30,17 +39,38 @@ public class CaseData {
   private final Set<String> donorNames;
   private final Set<String> testNames;
   private final Map<String, ProjectSummary> projectSummariesByName;
+  private final Map<String, List<String>> caseIdsByLegacyId;
+  private final ProjectSummaryIndex projectSummaryIndex;
+  private final RunIndex runIndex;
+  private final OmittedSampleIndex omittedSampleIndex;
+  private final int testCount;
+  private final int sampleCount;
 
   public CaseData(List<Case> cases, Map<String, RunAndLibraries> runsByName,
       Map<Long, Assay> assaysById, List<OmittedSample> omittedSamples,
       List<OmittedRunSample> omittedRunSamples, ZonedDateTime timestamp,
       Set<String> requisitions, Set<String> projects, Set<String> donors, Set<String> runs,
-      Set<String> tests, Map<String, ProjectSummary> projectSummariesByName) {
+      Set<String> tests, Map<String, ProjectSummary> projectSummariesByName,
+      Map<String, List<String>> caseIdsByLegacyId, ProjectSummaryIndex projectSummaryIndex,
+      RunIndex runIndex, OmittedSampleIndex omittedSampleIndex) {
     this.cases = unmodifiableList(cases);
     this.runsByName = Collections.unmodifiableMap(runsByName);
     this.assaysById = Collections.unmodifiableMap(assaysById);
     this.omittedSamples = Collections.unmodifiableList(omittedSamples);
     this.omittedRunSamples = Collections.unmodifiableList(omittedRunSamples);
+    this.omittedRunSamplesByRun = new HashMap<>();
+    this.omittedRunSamplesByProject = new HashMap<>();
+    for (OmittedRunSample sample : omittedRunSamples.stream().distinct().toList()) {
+      if (sample.getRunName() != null) {
+        omittedRunSamplesByRun.computeIfAbsent(sample.getRunName(), x -> new ArrayList<>())
+            .add(sample);
+      }
+      if (sample.getProject() != null && sample.getSequencingType() != null) {
+        omittedRunSamplesByProject.computeIfAbsent(sample.getProject(), x -> new HashMap<>())
+            .computeIfAbsent(sample.getSequencingType(), x -> new ArrayList<>())
+            .add(sample);
+      }
+    }
     this.timestamp = requireNonNull(timestamp);
     this.assayNames = Collections.unmodifiableSet(getAssayNames(assaysById));
     this.requisitionNames = Collections.unmodifiableSet(requisitions);
@@ -48,7 +78,21 @@ public class CaseData {
     this.donorNames = Collections.unmodifiableSet(donors);
     this.testNames = Collections.unmodifiableSet(tests);
     this.projectSummariesByName = Collections.unmodifiableMap(projectSummariesByName);
+    this.caseIdsByLegacyId = Collections.unmodifiableMap(caseIdsByLegacyId);
+    this.projectSummaryIndex = requireNonNull(projectSummaryIndex);
+    this.runIndex = requireNonNull(runIndex);
+    this.omittedSampleIndex = requireNonNull(omittedSampleIndex);
+    this.testCount = cases.stream().mapToInt(kase -> kase.getTests().size()).sum();
+    this.sampleCount = cases.stream().mapToInt(CaseData::countSamples).sum();
+  }
 
+  private static int countSamples(Case kase) {
+    int count = kase.getReceipts().size();
+    for (Test test : kase.getTests()) {
+      count += test.getExtractions().size() + test.getLibraryPreparations().size()
+          + test.getLibraryQualifications().size() + test.getFullDepthSequencings().size();
+    }
+    return count;
   }
 
   private static Set<String> getAssayNames(Map<Long, Assay> assaysById) {
@@ -81,6 +125,28 @@ public class CaseData {
     return omittedRunSamples;
   }
 
+  /**
+   * @param runName run name
+   * @return the distinct omitted run samples of the run; empty if there are none
+   */
+  public List<OmittedRunSample> getOmittedRunSamplesForRun(String runName) {
+    return Collections.unmodifiableList(
+        omittedRunSamplesByRun.getOrDefault(runName, Collections.emptyList()));
+  }
+
+  /**
+   * @param projectName project name
+   * @param sequencingType sequencing type
+   * @return the distinct omitted run samples of the project with the sequencing type; empty if
+   *         there are none
+   */
+  public List<OmittedRunSample> getOmittedRunSamplesForProject(String projectName,
+      MetricCategory sequencingType) {
+    return Collections.unmodifiableList(omittedRunSamplesByProject
+        .getOrDefault(projectName, Collections.emptyMap())
+        .getOrDefault(sequencingType, Collections.emptyList()));
+  }
+
   public ZonedDateTime getTimestamp() {
     return timestamp;
   }
@@ -120,4 +186,46 @@ public class CaseData {
   public Collection<ProjectSummary> getProjectSummaries() {
     return projectSummariesByName.values();
   }
+
+  /**
+   * @return the project summaries of this data, sorted and indexed for table queries
+   */
+  public ProjectSummaryIndex getProjectSummaryIndex() {
+    return projectSummaryIndex;
+  }
+
+  /**
+   * @return the runs of this data, sorted and indexed for table queries
+   */
+  public RunIndex getRunIndex() {
+    return runIndex;
+  }
+
+  /**
+   * @return the omitted samples of this data, sorted and indexed for table queries
+   */
+  public OmittedSampleIndex getOmittedSampleIndex() {
+    return omittedSampleIndex;
+  }
+
+  /**
+   * @param legacyId a case ID in the legacy format, without the assay ID, e.g. R123_rest
+   * @return the current IDs of all cases with the legacy ID; empty if there are none
+   */
+  public List<String> getCaseIdsByLegacyId(String legacyId) {
+    return caseIdsByLegacyId.getOrDefault(legacyId, Collections.emptyList());
+  }
+
+  public int getTestCount() {
+    return testCount;
+  }
+
+  /**
+   * @return the number of receipts, extractions, library preparations, library qualifications, and
+   *         full-depth sequencings in all cases. Samples included in multiple cases are counted
+   *         once per case
+   */
+  public int getSampleCount() {
+    return sampleCount;
+  }
 }
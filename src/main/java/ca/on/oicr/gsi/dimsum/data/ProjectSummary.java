@@ -218,6 +218,10 @@ public class ProjectSummary {
       this.extractionCompletedCount += 1;
     }
 
+    public void extractionCompletedCount(int extractionCompletedCount) {
+      this.extractionCompletedCount = extractionCompletedCount;
+    }
+
     public void incrementLibraryPrepPendingCount() {
       this.libraryPrepPendingCount += 1;
     }
@@ -230,6 +234,10 @@ public class ProjectSummary {
       this.libraryPrepCompletedCount += 1;
     }
 
+    public void libraryPrepCompletedCount(int libraryPrepCompletedCount) {
+      this.libraryPrepCompletedCount = libraryPrepCompletedCount;
+    }
+
     public void incrementLibraryQualPendingCount() {
       this.libraryQualPendingCount += 1;
     }
@@ -242,6 +250,10 @@ public class ProjectSummary {
       this.libraryQualCompletedCount += 1;
     }
 
+    public void libraryQualCompletedCount(int libraryQualCompletedCount) {
+      this.libraryQualCompletedCount = libraryQualCompletedCount;
+    }
+
     public void incrementFullDepthSeqPendingCount() {
       this.fullDepthSeqPendingCount += 1;
     }
@@ -255,6 +267,10 @@ public class ProjectSummary {
       this.fullDepthSeqCompletedCount += 1;
     }
 
+    public void fullDepthSeqCompletedCount(int fullDepthSeqCompletedCount) {
+      this.fullDepthSeqCompletedCount = fullDepthSeqCompletedCount;
+    }
+
     public void analysisReviewPendingCount(int analysisReviewPendingCount) {
       this.analysisReviewPendingCount = analysisReviewPendingCount;
     }
@@ -0,0 +1,256 @@
+package ca.on.oicr.gsi.dimsum.data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Completed counts of each project by gate and completion day, built once per data generation so
+ * that date-filtered project summaries do not need to re-evaluate every case. For each gate, the
+ * counts of items (tests, or cases weighted by their test count) completed on a single day are
+ * stored as a cumulative array over the sorted days on which anything was completed, so the count
+ * within a date range is the difference of two binary-search lookups. An item with samples
+ * completed on several different days must be counted once if any of those days are in range, so
+ * these items are kept separately with their sorted days
+ */
+@Immutable
+public class ProjectSummaryCube {
+
+  /**
+   * Completed gates with date-dependent counts
+   */
+  public enum Gate {
+    RECEIPT, EXTRACTION, LIBRARY_PREPARATION, LIBRARY_QUALIFICATION, FULL_DEPTH_SEQUENCING,
+    ANALYSIS_REVIEW, RELEASE;
+  }
+
+  private final Map<String, ProjectCounts> countsByProject;
+
+  private ProjectSummaryCube(Builder builder) {
+    Map<String, ProjectCounts> map = new HashMap<>();
+    builder.projects.forEach((name, project) -> map.put(name, project.build()));
+    this.countsByProject = Collections.unmodifiableMap(map);
+  }
+
+  /**
+   * Gets a project's completed counts within a date range. Pending counts are not included, as they
+   * do not depend on dates. Skipped extraction and library preparation are not counted, as they
+   * have no completion date
+   *
+   * @param projectName project name
+   * @param afterDate start of the date range (inclusive); may be null
+   * @param beforeDate end of the date range (exclusive); may be null
+   * @return the project summary, or null if the project has no cases
+   */
+  public ProjectSummary getProjectSummary(String projectName, LocalDate afterDate,
+      LocalDate beforeDate) {
+    ProjectCounts counts = countsByProject.get(projectName);
+    if (counts == null) {
+      return null;
+    }
+    long lower = afterDate == null ? Long.MIN_VALUE : afterDate.toEpochDay();
+    long upper = beforeDate == null ? Long.MAX_VALUE : beforeDate.toEpochDay();
+    ProjectSummary.Builder builder =
+        new ProjectSummary.Builder().name(projectName).pipeline(counts.pipeline);
+    builder.totalTestCount(counts.totalTestCount);
+    builder.receiptCompletedCount(counts.count(Gate.RECEIPT, lower, upper));
+    builder.extractionCompletedCount(counts.count(Gate.EXTRACTION, lower, upper));
+    builder.libraryPrepCompletedCount(counts.count(Gate.LIBRARY_PREPARATION, lower, upper));
+    builder.libraryQualCompletedCount(counts.count(Gate.LIBRARY_QUALIFICATION, lower, upper));
+    builder.fullDepthSeqCompletedCount(counts.count(Gate.FULL_DEPTH_SEQUENCING, lower, upper));
+    builder.analysisReviewCompletedCount(counts.count(Gate.ANALYSIS_REVIEW, lower, upper));
+    builder.releaseApprovalCompletedCount(counts.releaseApprovalCompletedCount);
+    builder.releaseCompletedCount(counts.count(Gate.RELEASE, lower, upper));
+    return builder.build();
+  }
+
+  public int getProjectCount() {
+    return countsByProject.size();
+  }
+
+  private static int firstIndexOnOrAfter(int[] sortedDays, long day) {
+    if (day < Integer.MIN_VALUE) {
+      return 0;
+    } else if (day > Integer.MAX_VALUE) {
+      return sortedDays.length;
+    }
+    int index = Arrays.binarySearch(sortedDays, (int) day);
+    return index < 0 ? -(index + 1) : index;
+  }
+
+  private static class ProjectCounts {
+
+    private final String pipeline;
+    private final int totalTestCount;
+    private final int releaseApprovalCompletedCount;
+    private final Map<Gate, GateCounts> gates;
+
+    private ProjectCounts(ProjectBuilder builder) {
+      this.pipeline = builder.pipeline;
+      this.totalTestCount = builder.totalTestCount;
+      this.releaseApprovalCompletedCount = builder.releaseApprovalCompletedCount;
+      Map<Gate, GateCounts> map = new EnumMap<>(Gate.class);
+      builder.gates.forEach((gate, gateBuilder) -> map.put(gate, gateBuilder.build()));
+      this.gates = Collections.unmodifiableMap(map);
+    }
+
+    private int count(Gate gate, long lower, long upper) {
+      GateCounts counts = gates.get(gate);
+      return counts == null || lower >= upper ? 0 : counts.count(lower, upper);
+    }
+  }
+
+  private static class GateCounts {
+
+    // Sorted days, and the total count of single-day items completed on or before each
+    private final int[] days;
+    private final int[] cumulativeCounts;
+    // Sorted days of each item that completed on several days, and the item's count
+    private final int[][] multiDays;
+    private final int[] multiDayCounts;
+
+    private GateCounts(GateBuilder builder) {
+      this.days = new int[builder.singleDayCounts.size()];
+      this.cumulativeCounts = new int[days.length];
+      int index = 0;
+      int total = 0;
+      for (Map.Entry<Integer, Integer> entry : builder.singleDayCounts.entrySet()) {
+        total += entry.getValue();
+        days[index] = entry.getKey();
+        cumulativeCounts[index] = total;
+        index++;
+      }
+      this.multiDays = builder.multiDays.toArray(new int[0][]);
+      this.multiDayCounts = builder.multiDayCounts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int count(long lower, long upper) {
+      int total = countBefore(upper) - countBefore(lower);
+      for (int i = 0; i < multiDays.length; i++) {
+        int[] itemDays = multiDays[i];
+        int index = firstIndexOnOrAfter(itemDays, lower);
+        if (index < itemDays.length && itemDays[index] < upper) {
+          total += multiDayCounts[i];
+        }
+      }
+      return total;
+    }
+
+    private int countBefore(long day) {
+      int index = firstIndexOnOrAfter(days, day);
+      return index == 0 ? 0 : cumulativeCounts[index - 1];
+    }
+  }
+
+  public static class Builder {
+
+    private final Map<String, ProjectBuilder> projects = new HashMap<>();
+
+    /**
+     * Adds a case's tests to a project's total test count
+     *
+     * @param projectName project name
+     * @param pipeline project pipeline; only the first one added for each project is kept
+     * @param testCount number of tests in the case
+     * @return this builder
+     */
+    public Builder addProject(String projectName, String pipeline, int testCount) {
+      ProjectBuilder project = projects.computeIfAbsent(projectName, x -> new ProjectBuilder());
+      if (project.pipeline == null) {
+        project.pipeline = pipeline;
+      }
+      project.totalTestCount += testCount;
+      return this;
+    }
+
+    /**
+     * Adds an item that completed a gate. The item is counted for any date range that includes at
+     * least one of its dates. Items without any dates are not counted
+     *
+     * @param projectNames names of the projects to count the item in
+     * @param gate the completed gate
+     * @param dates dates of the item's completed samples, deliverables, or releases
+     * @param count the item's count, which is 1 for a test, or the test count for a case
+     * @return this builder
+     */
+    public Builder addCompleted(Collection<String> projectNames, Gate gate,
+        Collection<LocalDate> dates, int count) {
+      int[] days = dates.stream()
+          .filter(Objects::nonNull)
+          .mapToInt(date -> (int) date.toEpochDay())
+          .sorted()
+          .distinct()
+          .toArray();
+      if (days.length == 0 || count == 0) {
+        return this;
+      }
+      for (String projectName : projectNames) {
+        projects.computeIfAbsent(projectName, x -> new ProjectBuilder()).gates
+            .computeIfAbsent(gate, x -> new GateBuilder())
+            .add(days, count);
+      }
+      return this;
+    }
+
+    /**
+     * Adds a case that completed release approval. Release approval is counted regardless of date
+     *
+     * @param projectNames names of the projects to count the case in
+     * @param count the case's test count
+     * @return this builder
+     */
+    public Builder addReleaseApproval(Collection<String> projectNames, int count) {
+      for (String projectName : projectNames) {
+        projects.computeIfAbsent(projectName,
+            x -> new ProjectBuilder()).releaseApprovalCompletedCount += count;
+      }
+      return this;
+    }
+
+    public ProjectSummaryCube build() {
+      return new ProjectSummaryCube(this);
+    }
+  }
+
+  private static class ProjectBuilder {
+
+    private String pipeline;
+    private int totalTestCount = 0;
+    private int releaseApprovalCompletedCount = 0;
+    private final Map<Gate, GateBuilder> gates = new EnumMap<>(Gate.class);
+
+    private ProjectCounts build() {
+      return new ProjectCounts(this);
+    }
+  }
+
+  private static class GateBuilder {
+
+    private final TreeMap<Integer, Integer> singleDayCounts = new TreeMap<>();
+    private final List<int[]> multiDays = new ArrayList<>();
+    private final List<Integer> multiDayCounts = new ArrayList<>();
+
+    private void add(int[] days, int count) {
+      if (days.length == 1) {
+        singleDayCounts.merge(days[0], count, Integer::sum);
+      } else {
+        multiDays.add(days);
+        multiDayCounts.add(count);
+      }
+    }
+
+    private GateCounts build() {
+      return new GateCounts(this);
+    }
+  }
+
+}
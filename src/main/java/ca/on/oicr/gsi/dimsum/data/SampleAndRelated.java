@@ -12,20 +12,25 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import ca.on.oicr.gsi.cardea.data.Donor;
 import ca.on.oicr.gsi.cardea.data.Run;
 import ca.on.oicr.gsi.cardea.data.Sample;
 import ca.on.oicr.gsi.cardea.data.SampleMetric;
+import ca.on.oicr.gsi.dimsum.util.DataUtils;
 
 public class SampleAndRelated implements Sample {
 
   private final Sample sample;
   private final Set<RelatedSample> relatedSamples;
+  // Checked for every run library whenever notifications are updated
+  private final boolean metricsAvailable;
 
   private SampleAndRelated(Builder builder) {
     this.sample = requireNonNull(builder.sample);
     this.relatedSamples =
         Collections.unmodifiableSet(new HashSet<>(builder.relatedSamples.values()));
+    this.metricsAvailable = DataUtils.isMetricsAvailable(sample);
   }
 
   @Override
@@ -307,6 +312,15 @@ public class SampleAndRelated implements Sample {
     return relatedSamples;
   }
 
+  /**
+   * @return whether all metrics that need a value are available, as determined when this sample
+   *         was loaded; see {@link DataUtils#isMetricsAvailable(Sample)}
+   */
+  @JsonIgnore
+  public boolean isMetricsAvailable() {
+    return metricsAvailable;
+  }
+
   public static final class Builder {
 
     private final Sample sample;
@@ -0,0 +1,11 @@
+package ca.on.oicr.gsi.dimsum.data;
+
+import java.util.List;
+
+/**
+ * TAT distributions for a single group (e.g. assay) and gate, with one entry per time bucket in
+ * chronological order
+ */
+public record TatTrendSeries(String group, String gate, List<TatTrendStats> buckets) {
+
+}
@@ -0,0 +1,14 @@
+package ca.on.oicr.gsi.dimsum.data;
+
+import java.util.List;
+
+/**
+ * Distribution of TAT days within a single time bucket. Percentiles are interpolated between the
+ * closest ranks. The histogram is only included if requested; each entry is the count of values
+ * in a bin of {@code histogramBinDays} days, starting from 0
+ */
+public record TatTrendStats(String bucket, int count, double mean, int min, double p10,
+    double q1, double median, double q3, double p90, int max, Integer histogramBinDays,
+    List<Integer> histogram) {
+
+}
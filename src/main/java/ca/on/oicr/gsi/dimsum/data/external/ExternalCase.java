@@ -3,11 +3,13 @@ package ca.on.oicr.gsi.dimsum.data.external;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import ca.on.oicr.gsi.cardea.data.Case;
 import ca.on.oicr.gsi.cardea.data.Donor;
 import ca.on.oicr.gsi.cardea.data.Project;
 import ca.on.oicr.gsi.cardea.data.Requisition;
+import ca.on.oicr.gsi.cardea.data.Sample;
 
 // Note: internal models for donor, project, and requisition contain no sensitive fields
 public record ExternalCase(String id, Donor donor, Set<Project> projects, String tissueType,
@@ -16,6 +18,14 @@ public record ExternalCase(String id, Donor donor, Set<Project> projects, String
     List<ExternalCaseDeliverable> deliverables, LocalDate startDate, LocalDate latestActivityDate) {
 
   public ExternalCase(Case from) {
+    this(from, ExternalSample::new);
+  }
+
+  /**
+   * @param from the case to project
+   * @param sampleProjection function used to project each sample, which may reuse projections
+   */
+  public ExternalCase(Case from, Function<Sample, ExternalSample> sampleProjection) {
     this(from.getId(),
         from.getDonor(),
         from.getProjects(),
@@ -26,9 +36,10 @@ public record ExternalCase(String id, Donor donor, Set<Project> projects, String
         from.getAssayId(),
         from.getAssayName(),
         from.getAssayDescription(),
-        from.getReceipts().stream().map(ExternalSample::new)
+        from.getReceipts().stream().map(sampleProjection)
+            .collect(Collectors.toUnmodifiableList()),
+        from.getTests().stream().map(test -> new ExternalTest(test, sampleProjection))
             .collect(Collectors.toUnmodifiableList()),
-        from.getTests().stream().map(ExternalTest::new).collect(Collectors.toUnmodifiableList()),
         from.getDeliverables().stream().map(ExternalCaseDeliverable::new)
             .collect(Collectors.toUnmodifiableList()),
         from.getStartDate(),
@@ -2,7 +2,9 @@ package ca.on.oicr.gsi.dimsum.data.external;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import ca.on.oicr.gsi.cardea.data.Sample;
 import ca.on.oicr.gsi.cardea.data.Test;
 import ca.on.oicr.gsi.dimsum.util.DataUtils;
 
@@ -14,6 +16,14 @@ public record ExternalTest(String name, String tissueType, String tissueOrigin,
     LocalDate latestActivityDate) {
 
   public ExternalTest(Test from) {
+    this(from, ExternalSample::new);
+  }
+
+  /**
+   * @param from the test to project
+   * @param sampleProjection function used to project each sample, which may reuse projections
+   */
+  public ExternalTest(Test from, Function<Sample, ExternalSample> sampleProjection) {
     this(from.getName(),
         from.getTissueType(),
         from.getTissueOrigin(),
@@ -26,19 +36,19 @@ public record ExternalTest(String name, String tissueType, String tissueOrigin,
         from.isLibraryQualificationSkipped(),
         from.getExtractions().stream()
             .filter(DataUtils::isPassed)
-            .map(ExternalSample::new)
+            .map(sampleProjection)
             .collect(Collectors.toUnmodifiableList()),
         from.getLibraryPreparations().stream()
             .filter(DataUtils::isPassed)
-            .map(ExternalSample::new)
+            .map(sampleProjection)
             .collect(Collectors.toUnmodifiableList()),
         from.getLibraryQualifications().stream()
             .filter(DataUtils::passedOrTopUpConfirmed)
-            .map(ExternalSample::new)
+            .map(sampleProjection)
             .collect(Collectors.toUnmodifiableList()),
         from.getFullDepthSequencings().stream()
             .filter(DataUtils::passedOrTopUpConfirmed)
-            .map(ExternalSample::new)
+            .map(sampleProjection)
             .collect(Collectors.toUnmodifiableList()),
         from.getLatestActivityDate());
   }
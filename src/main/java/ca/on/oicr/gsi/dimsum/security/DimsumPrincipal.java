@@ -1,24 +1,43 @@
 package ca.on.oicr.gsi.dimsum.security;
 
-import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.springframework.security.core.AuthenticatedPrincipal;
 
 /**
- * Principal that contains all authorization data relevant to Dimsum for convenient access
+ * Principal that contains all authorization data relevant to Dimsum for convenient access. The
+ * project set and authorization scope are shared by all principals with the same access, so that
+ * each session holds only references to them
  */
 public class DimsumPrincipal implements AuthenticatedPrincipal {
 
+  private static final Map<Set<String>, Set<String>> canonicalProjects = new ConcurrentHashMap<>();
+  private static final Map<String, Integer> scopeIds = new ConcurrentHashMap<>();
+  private static final AtomicInteger nextScopeId = new AtomicInteger();
+
   private final String name;
   private final String displayName;
   private final boolean internal;
   private final Set<String> projects;
+  private final String authorizationScope;
+  private final int authorizationScopeId;
 
   public DimsumPrincipal(String name, String displayName, boolean internal, Set<String> projects) {
     this.name = name;
     this.displayName = displayName;
     this.internal = internal;
-    this.projects = Collections.unmodifiableSet(projects);
+    Set<String> copy = Set.copyOf(projects);
+    this.projects = canonicalProjects.computeIfAbsent(copy, x -> copy);
+    String scope = internal ? "internal"
+        : this.projects.stream()
+            .sorted()
+            .collect(Collectors.joining(",", "external:", ""));
+    this.authorizationScopeId =
+        scopeIds.computeIfAbsent(scope, x -> nextScopeId.getAndIncrement());
+    this.authorizationScope = scope.intern();
   }
 
   @Override
@@ -38,4 +57,21 @@ public class DimsumPrincipal implements AuthenticatedPrincipal {
     return projects;
   }
 
+  /**
+   * @return a string identifying the data that this principal is authorized to see. Principals with
+   *         the same scope are shown the same data
+   */
+  public String getAuthorizationScope() {
+    return authorizationScope;
+  }
+
+  /**
+   * @return a number identifying the authorization scope, which is the same for all principals
+   *         with the same scope for the life of this process. Suitable for use in cache keys that
+   *         are not persisted
+   */
+  public int getAuthorizationScopeId() {
+    return authorizationScopeId;
+  }
+
 }
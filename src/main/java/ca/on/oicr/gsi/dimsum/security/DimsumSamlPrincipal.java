@@ -1,52 +1,66 @@
 package ca.on.oicr.gsi.dimsum.security;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.springframework.security.saml2.provider.service.authentication.Saml2ResponseAssertionAccessor;
 
 /**
- * Wrapper around {@link Saml2ResponseAssertionAccessor} to preserve data required for SAML2 single
- * signoff while also providing the benefits of {@link DimsumPrincipal}
+ * {@link DimsumPrincipal} that also keeps the data required for SAML2 single logout. Only the name
+ * ID and session indexes are kept from the assertion. The raw SAML response and its attributes are
+ * not retained, so they do not take up memory in each session
  */
 public class DimsumSamlPrincipal extends DimsumPrincipal implements Saml2ResponseAssertionAccessor {
 
-  private final Saml2ResponseAssertionAccessor assertionAccessor;
+  private final List<String> sessionIndexes;
 
   public DimsumSamlPrincipal(Saml2ResponseAssertionAccessor assertionAccessor, String displayName,
       boolean internal, Set<String> projects) {
     super(assertionAccessor.getNameId(), displayName, internal, projects);
-    this.assertionAccessor = assertionAccessor;
+    this.sessionIndexes = List.copyOf(assertionAccessor.getSessionIndexes());
   }
 
+  /**
+   * @return null, as attributes are not retained
+   */
   @Override
   public <A> List<A> getAttribute(String name) {
-    return assertionAccessor.getAttribute(name);
+    return null;
   }
 
+  /**
+   * @return an empty map, as attributes are not retained
+   */
   @Override
   public Map<String, List<Object>> getAttributes() {
-    return assertionAccessor.getAttributes();
+    return Collections.emptyMap();
   }
 
+  /**
+   * @return null, as attributes are not retained
+   */
   @Override
   public <A> A getFirstAttribute(String name) {
-    return assertionAccessor.getFirstAttribute(name);
+    return null;
   }
 
   @Override
   public List<String> getSessionIndexes() {
-    return assertionAccessor.getSessionIndexes();
+    return sessionIndexes;
   }
 
   @Override
   public String getNameId() {
-    return assertionAccessor.getNameId();
+    return getName();
   }
 
+  /**
+   * @return null, as the SAML response is not retained
+   */
   @Override
   public String getResponseValue() {
-    return assertionAccessor.getResponseValue();
+    return null;
   }
 
 }
@@ -114,7 +114,9 @@ public class SecurityConfiguration {
       log.debug("DimsumSamlPrincipal name='%s', displayName='%s', internal=%s, projects=%s"
           .formatted(dimsumPrincipal.getName(), dimsumPrincipal.getDisplayName(),
               Boolean.toString(dimsumPrincipal.isInternal()), dimsumPrincipal.getProjects()));
-      return new Saml2AssertionAuthentication(dimsumPrincipal, assertionAccessor,
+      // The principal also serves as the credentials, so that the full assertion accessor, which
+      // includes the raw SAML response, is not kept in the session
+      return new Saml2AssertionAuthentication(dimsumPrincipal, dimsumPrincipal,
           grantedAuthorities, registration.getRegistrationId());
     });
     return provider;
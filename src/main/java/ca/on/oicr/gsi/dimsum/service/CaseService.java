@@ -18,8 +18,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.math3.util.Pair;
@@ -44,6 +46,7 @@ import ca.on.oicr.gsi.cardea.data.Sample;
 import ca.on.oicr.gsi.cardea.data.Test;
 import ca.on.oicr.gsi.dimsum.CaseLoader;
 import ca.on.oicr.gsi.dimsum.FrontEndConfig;
+import ca.on.oicr.gsi.dimsum.RefreshPhase;
 import ca.on.oicr.gsi.dimsum.controller.UnauthorizedException;
 import ca.on.oicr.gsi.dimsum.data.CacheUpdatedCase;
 import ca.on.oicr.gsi.dimsum.data.CaseData;
@@ -51,6 +54,7 @@ import ca.on.oicr.gsi.dimsum.data.NabuBulkSignoff;
 import ca.on.oicr.gsi.dimsum.data.NabuSavedSignoff;
 import ca.on.oicr.gsi.dimsum.data.NabuSignoff.NabuSignoffStep;
 import ca.on.oicr.gsi.dimsum.data.ProjectSummary;
+import ca.on.oicr.gsi.dimsum.data.ProjectSummaryCube;
 import ca.on.oicr.gsi.dimsum.data.ProjectSummaryField;
 import ca.on.oicr.gsi.dimsum.data.ProjectSummaryRow;
 import ca.on.oicr.gsi.dimsum.data.RunAndLibraries;
@@ -68,19 +72,17 @@ import ca.on.oicr.gsi.dimsum.service.filtering.CaseSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.CompletedGate;
 import ca.on.oicr.gsi.dimsum.service.filtering.OmittedRunSampleSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.OmittedSampleFilter;
-import ca.on.oicr.gsi.dimsum.service.filtering.OmittedSampleFilterKey;
 import ca.on.oicr.gsi.dimsum.service.filtering.OmittedSampleSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.PendingState;
 import ca.on.oicr.gsi.dimsum.service.filtering.ProjectSummaryFilter;
-import ca.on.oicr.gsi.dimsum.service.filtering.ProjectSummaryFilterKey;
 import ca.on.oicr.gsi.dimsum.service.filtering.ProjectSummarySort;
 import ca.on.oicr.gsi.dimsum.service.filtering.RunFilter;
-import ca.on.oicr.gsi.dimsum.service.filtering.RunFilterKey;
 import ca.on.oicr.gsi.dimsum.service.filtering.RunSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.SampleSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
 import ca.on.oicr.gsi.dimsum.service.filtering.TestTableViewSort;
 import ca.on.oicr.gsi.dimsum.util.DataUtils;
+import ca.on.oicr.gsi.dimsum.util.jfr.SignoffCacheEvent;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
@@ -119,24 +121,51 @@ public class CaseService {
   @Autowired
   private SecurityManager securityManager;
 
+  @Autowired
+  private ChangeEventService changeEventService;
+
   @Autowired
   private JsonMapper jsonMapper;
 
-  private CaseData caseData;
+  // Includes the table indexes, so that a request never pairs an index with data from another
+  // generation
+  private volatile CaseData caseData;
 
-  // Note: Any access of cached data should synchronize on cachedSignoffsByCaseId to
-  // ensure updates are never missed before/during/after refresh
+  // Note: Any access of cached data should hold cacheLock to ensure updates are never missed
+  // before/during/after refresh. File I/O should be done after releasing it
+  private final ReentrantLock cacheLock = new ReentrantLock();
   private Map<String, List<NabuSavedSignoff>> cachedSignoffsByCaseId = new HashMap<>();
   // Assignments by Case ID, deliverable category, and deliverable. Final value is assignee name
   private Map<String, Map<String, Map<String, String>>> cachedReleaseAssignments = new HashMap<>();
   private boolean assignmentsChanged = false;
+  // incremented each time a snapshot of the assignments is taken to be written to file
+  private long assignmentsVersion = 0;
+  // Serializes writes of the assignment file. Must not be acquired before cacheLock
+  private final ReentrantLock assignmentFileLock = new ReentrantLock();
+  private long writtenAssignmentsVersion = 0;
   private int assignmentsCount = 0;
   private List<Case> cacheUpdatedCases;
+  // cacheUpdatedCases keyed by lowercase case ID
+  private Map<String, Case> cacheUpdatedCasesById;
+  // External projections are built when first requested, and cleared when new data is loaded
+  private final ProjectionCache<Sample, ExternalSample> externalSamples =
+      new ProjectionCache<>(Sample::getId, ExternalSample::new);
+  private final ProjectionCache<Case, ExternalCase> externalCases =
+      new ProjectionCache<>(Case::getId, kase -> new ExternalCase(kase, externalSamples::get));
+  // Completed counts by date, built from cacheUpdatedCases when first requested
+  private final ReentrantLock projectSummaryCubeLock = new ReentrantLock();
+  private ProjectSummaryCube projectSummaryCube;
+  private List<Case> projectSummaryCubeCases;
+  // incremented each time cacheUpdatedCases is rebuilt, whether from new data or cached signoffs
+  private volatile long cacheVersion = 0;
 
   private int refreshFailures = 0;
   private int assignmentDumpFailures = 0;
 
+  private final MeterRegistry meterRegistry;
+
   public CaseService(@Autowired MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
     if (meterRegistry != null) {
       Gauge.builder("case_data_refresh_failures", this::getRefreshFailures)
           .description("Number of consecutive failures to refresh the case data")
@@ -149,9 +178,30 @@ public class CaseService {
       Gauge.builder("assignment_count", this::getAssignmentsCount)
           .description("Number of assignments being tracked")
           .register(meterRegistry);
+      registerDataGauge(meterRegistry, "case_data_cases", "Number of cases loaded",
+          data -> data.getCases().size());
+      registerDataGauge(meterRegistry, "case_data_tests", "Number of tests in all cases",
+          CaseData::getTestCount);
+      registerDataGauge(meterRegistry, "case_data_samples", "Number of samples in all cases",
+          CaseData::getSampleCount);
+      registerDataGauge(meterRegistry, "case_data_runs", "Number of runs loaded",
+          data -> data.getRunsAndLibrariesByName().size());
+      registerDataGauge(meterRegistry, "case_data_omitted_samples",
+          "Number of samples not included in any case", data -> data.getOmittedSamples().size());
+      registerDataGauge(meterRegistry, "case_data_omitted_run_samples",
+          "Number of run-libraries not included in any case",
+          data -> data.getOmittedRunSamples().size());
     }
   }
 
+  private void registerDataGauge(MeterRegistry meterRegistry, String name, String description,
+      ToIntFunction<CaseData> getter) {
+    Gauge.builder(name, () -> {
+      CaseData currentData = caseData;
+      return currentData == null ? 0 : getter.applyAsInt(currentData);
+    }).description(description).register(meterRegistry);
+  }
+
   protected void setDataDirectory(String dataDirectory) {
     this.dataDirectory = dataDirectory;
   }
@@ -162,7 +212,10 @@ public class CaseService {
 
   protected void setCaseData(CaseData caseData) {
     this.caseData = caseData;
+    externalCases.clear();
+    externalSamples.clear();
     refreshCacheUpdatedCases();
+    tryDumpAssignments();
   }
 
   protected void setJsonMapper(JsonMapper jsonMapper) {
@@ -189,11 +242,55 @@ public class CaseService {
     return Duration.between(currentData.getTimestamp(), ZonedDateTime.now());
   }
 
+  /**
+   * @return the timestamp of the currently loaded data, or null if data has not been loaded yet
+   */
+  public ZonedDateTime getDataTimestamp() {
+    CaseData currentData = caseData;
+    return currentData == null ? null : currentData.getTimestamp();
+  }
+
+  /**
+   * @return a version number that changes any time the case data or cached signoffs and
+   *         assignments applied to it change
+   */
+  public long getCacheVersion() {
+    return cacheVersion;
+  }
+
+  /**
+   * @param caseId case ID, matched case-insensitively
+   * @return the case, or null if it does not exist or the user is not authorized to see it
+   */
   public Case getCase(String caseId) {
-    return streamAuthorizedCases(null)
-        .filter(new CaseFilter(CaseFilterKey.CASE_ID, caseId).casePredicate())
-        .findFirst()
-        .orElse(null);
+    if (cacheUpdatedCasesById == null) {
+      throw new IllegalStateException("Cases have not been loaded yet");
+    }
+    Case kase = cacheUpdatedCasesById.get(caseId.toLowerCase());
+    if (kase == null) {
+      return null;
+    }
+    DimsumPrincipal principal = securityManager.getPrincipal();
+    return principal.isInternal() || isInUserProjects(kase, principal.getProjects()) ? kase : null;
+  }
+
+  /**
+   * @param legacyId a case ID in the legacy format, without the assay ID, e.g. R123_rest
+   * @return the current ID of the case with the legacy ID, or null if there is not exactly one
+   *         such case that the user is authorized to see
+   */
+  public String getCurrentCaseId(String legacyId) {
+    List<Case> matchingCases = caseData.getCaseIdsByLegacyId(legacyId).stream()
+        .map(this::getCase)
+        .filter(Objects::nonNull)
+        .toList();
+    return matchingCases.size() == 1 ? matchingCases.get(0).getId() : null;
+  }
+
+  protected static boolean isInUserProjects(Case kase, Set<String> userProjects) {
+    return kase.getProjects().stream()
+        .map(Project::getName)
+        .anyMatch(userProjects::contains);
   }
 
   private Stream<Case> streamAuthorizedCases(CaseFilter baseFilter) {
@@ -205,9 +302,7 @@ public class CaseService {
     DimsumPrincipal principal = securityManager.getPrincipal();
     if (!principal.isInternal()) {
       Set<String> userProjects = principal.getProjects();
-      stream = stream.filter(kase -> kase.getProjects().stream()
-          .map(Project::getName)
-          .anyMatch(userProjects::contains));
+      stream = stream.filter(kase -> isInUserProjects(kase, userProjects));
     }
 
     if (baseFilter != null) {
@@ -256,7 +351,7 @@ public class CaseService {
   }
 
   public Stream<ExternalCase> getExternalCaseStream(Collection<CaseFilter> filters) {
-    return getCaseStream(filters).map(ExternalCase::new);
+    return getCaseStream(filters).map(externalCases::get);
   }
 
   public List<Case> getCasesByIds(Set<String> caseIds) {
@@ -308,7 +403,7 @@ public class CaseService {
 
     List<ExternalCase> filteredCases = stream.skip(pageSize * (pageNumber - 1))
         .limit(pageSize)
-        .map(ExternalCase::new)
+        .map(externalCases::get)
         .toList();
 
     TableData<ExternalCase> data = new TableData<>();
@@ -441,7 +536,7 @@ public class CaseService {
     // Receipts should all be included regardless of QC status because these are the
     // collaborator's samples that they expect to see
     return getSamples(pageSize, pageNumber, sort, descending, baseFilter, filters,
-        MetricCategory.RECEIPT, ExternalSample::new, false);
+        MetricCategory.RECEIPT, externalSamples::get, false);
   }
 
   public TableData<ExternalSample> getExternalExtractions(int pageSize, int pageNumber,
@@ -472,7 +567,7 @@ public class CaseService {
       SampleSort sort, boolean descending, CaseFilter baseFilter, Collection<CaseFilter> filters,
       MetricCategory requestCategory) {
     return getSamples(pageSize, pageNumber, sort, descending, baseFilter, filters, requestCategory,
-        ExternalSample::new, true);
+        externalSamples::get, true);
   }
 
   private <T> TableData<T> getSamples(int pageSize, int pageNumber, SampleSort sort,
@@ -537,89 +632,44 @@ public class CaseService {
   public TableData<Run> getRuns(int pageSize, int pageNumber, RunSort sort, boolean descending,
       Collection<RunFilter> filters) {
     authorizeInternalOnly();
-    List<Run> baseRuns =
-        caseData.getRunsAndLibraries().stream().map(RunAndLibraries::getRun).toList();
-    Stream<Run> stream = filterRuns(baseRuns, filters);
     if (sort == null) {
       sort = RunSort.COMPLETION_DATE;
       descending = true;
     }
-    stream = stream.sorted(descending ? sort.comparator().reversed() : sort.comparator());
-    List<Run> filteredRuns =
-        stream.skip(pageSize * (pageNumber - 1)).limit(pageSize).collect(Collectors.toList());
-    TableData<Run> data = new TableData<>();
-    data.setTotalCount(baseRuns.size());
-    data.setFilteredCount(filterRuns(baseRuns, filters).count());
-    data.setItems(filteredRuns);
-    return data;
+    return caseData.getRunIndex().getRuns(pageSize, pageNumber, sort, descending, filters);
   }
 
   public TableData<OmittedSample> getOmittedSamples(int pageSize, int pageNumber,
       OmittedSampleSort sort, boolean descending, Collection<OmittedSampleFilter> filters) {
     authorizeInternalOnly();
-    List<OmittedSample> baseSamples = caseData.getOmittedSamples();
-    Stream<OmittedSample> stream = filterOmittedSamples(baseSamples, filters);
     if (sort == null) {
       sort = OmittedSampleSort.CREATED;
       descending = true;
     }
-    stream = stream.sorted(descending ? sort.comparator().reversed() : sort.comparator());
-    List<OmittedSample> filteredSamples =
-        stream.skip(pageSize * (pageNumber - 1)).limit(pageSize).collect(Collectors.toList());
-    TableData<OmittedSample> data = new TableData<>();
-    data.setTotalCount(baseSamples.size());
-    data.setFilteredCount(filterOmittedSamples(baseSamples, filters).count());
-    data.setItems(filteredSamples);
-    return data;
+    return caseData.getOmittedSampleIndex().getOmittedSamples(pageSize, pageNumber, sort,
+        descending, filters);
   }
 
   public TableData<ProjectSummary> getProjects(int pageSize, int pageNumber,
       ProjectSummarySort sort, boolean descending, Collection<ProjectSummaryFilter> filters) {
     authorizeInternalOnly();
-    List<ProjectSummary> baseProjectSummaries = caseData.getProjectSummaries().stream().toList();
-    Stream<ProjectSummary> stream = filterProjectSummaries(baseProjectSummaries, filters);
-
     if (sort == null) {
       sort = ProjectSummarySort.NAME;
       descending = true;
     }
-    stream = stream.sorted(descending ? sort.comparator().reversed() : sort.comparator());
-
-    List<ProjectSummary> filteredProjectSummaries =
-        stream.skip(pageSize * (pageNumber - 1)).limit(pageSize).collect(Collectors.toList());
-
-    TableData<ProjectSummary> data = new TableData<>();
-    data.setTotalCount(baseProjectSummaries.size());
-    data.setFilteredCount(filterProjectSummaries(baseProjectSummaries, filters).count());
-    data.setItems(filteredProjectSummaries);
-    return data;
+    return caseData.getProjectSummaryIndex().getProjectSummaries(pageSize, pageNumber, sort,
+        descending, filters);
   }
 
   public TableData<ExternalProjectSummary> getExternalProjects(int pageSize, int pageNumber,
       ProjectSummarySort sort, boolean descending, Collection<ProjectSummaryFilter> filters) {
     DimsumPrincipal principal = securityManager.getPrincipal();
-    List<ProjectSummary> baseProjectSummaries = caseData.getProjectSummaries().stream()
-        .filter(summary -> principal.getProjects().contains(summary.getName()))
-        .toList();
-    Stream<ProjectSummary> stream = filterProjectSummaries(baseProjectSummaries, filters);
-
     if (sort == null) {
       sort = ProjectSummarySort.NAME;
       descending = true;
     }
-    stream = stream.sorted(descending ? sort.comparator().reversed() : sort.comparator());
-
-    List<ExternalProjectSummary> filteredProjectSummaries =
-        stream.skip(pageSize * (pageNumber - 1))
-            .limit(pageSize)
-            .map(ExternalProjectSummary::new)
-            .collect(Collectors.toList());
-
-    TableData<ExternalProjectSummary> data = new TableData<>();
-    data.setTotalCount(baseProjectSummaries.size());
-    data.setFilteredCount(filterProjectSummaries(baseProjectSummaries, filters).count());
-    data.setItems(filteredProjectSummaries);
-    return data;
+    return caseData.getProjectSummaryIndex().getExternalProjectSummaries(principal.getProjects(),
+        pageSize, pageNumber, sort, descending, filters);
   }
 
   public TableData<ProjectSummaryRow> getProjectSummaryRows(String projectName,
@@ -634,12 +684,15 @@ public class CaseService {
       projectSummary = caseData.getProjectSummariesByName().get(projectName);
     } else if (filters == null) {
       // only when date filters are applied
-      Map<String, ProjectSummary> projectSummariesByName =
-          CaseLoader.calculateProjectSummaries(cacheUpdatedCases, afterDate, beforeDate);
-      projectSummary = projectSummariesByName.get(projectName);
+      projectSummary =
+          getProjectSummaryCube().getProjectSummary(projectName, afterDate, beforeDate);
     } else {
-      // when both date filter and case filters applied
-      Map<Case, List<Test>> testsByCase = getFilteredCaseAndTest(cacheUpdatedCases, filters);
+      // when both date filter and case filters applied. Only the project's cases are filtered
+      List<Case> projectCases = cacheUpdatedCases.stream()
+          .filter(kase -> kase.getProjects().stream()
+              .anyMatch(project -> projectName.equals(project.getName())))
+          .toList();
+      Map<Case, List<Test>> testsByCase = getFilteredCaseAndTest(projectCases, filters);
       Map<String, ProjectSummary> projectSummariesByName =
           CaseLoader.calculateFilteredProjectSummaries(testsByCase, afterDate, beforeDate);
       projectSummary = projectSummariesByName.get(projectName);
@@ -707,45 +760,6 @@ public class CaseService {
     return stream;
   }
 
-  private Stream<Run> filterRuns(List<Run> runs, Collection<RunFilter> filters) {
-    Stream<Run> stream = runs.stream();
-    if (filters != null && !filters.isEmpty()) {
-      Map<RunFilterKey, Predicate<Run>> filterMap = new HashMap<>();
-      for (RunFilter filter : filters) {
-        RunFilterKey key = filter.getKey();
-        if (filterMap.containsKey(key)) {
-          filterMap.put(key, filterMap.get(key).or(filter.predicate()));
-        } else {
-          filterMap.put(key, filter.predicate());
-        }
-      }
-      for (Predicate<Run> predicate : filterMap.values()) {
-        stream = stream.filter(predicate);
-      }
-    }
-    return stream;
-  }
-
-  private Stream<OmittedSample> filterOmittedSamples(List<OmittedSample> samples,
-      Collection<OmittedSampleFilter> filters) {
-    Stream<OmittedSample> stream = samples.stream();
-    if (filters != null && !filters.isEmpty()) {
-      Map<OmittedSampleFilterKey, Predicate<OmittedSample>> filterMap = new HashMap<>();
-      for (OmittedSampleFilter filter : filters) {
-        OmittedSampleFilterKey key = filter.getKey();
-        if (filterMap.containsKey(key)) {
-          filterMap.put(key, filterMap.get(key).or(filter.predicate()));
-        } else {
-          filterMap.put(key, filter.predicate());
-        }
-      }
-      for (Predicate<OmittedSample> predicate : filterMap.values()) {
-        stream = stream.filter(predicate);
-      }
-    }
-    return stream;
-  }
-
   private Stream<Test> filterTests(List<Case> cases, Collection<CaseFilter> filters) {
     Stream<Test> stream = filterCases(cases, filters)
         .flatMap(kase -> kase.getTests().stream());
@@ -778,26 +792,6 @@ public class CaseService {
     return stream;
   }
 
-  private Stream<ProjectSummary> filterProjectSummaries(List<ProjectSummary> projectSummaries,
-      Collection<ProjectSummaryFilter> filters) {
-    Stream<ProjectSummary> stream = projectSummaries.stream();
-    if (filters != null && !filters.isEmpty()) {
-      Map<ProjectSummaryFilterKey, Predicate<ProjectSummary>> filterMap = new HashMap<>();
-      for (ProjectSummaryFilter filter : filters) {
-        ProjectSummaryFilterKey key = filter.getKey();
-        if (filterMap.containsKey(key)) {
-          filterMap.put(key, filterMap.get(key).or(filter.predicate()));
-        } else {
-          filterMap.put(key, filter.predicate());
-        }
-      }
-      for (Predicate<ProjectSummary> predicate : filterMap.values()) {
-        stream = stream.filter(predicate);
-      }
-    }
-    return stream;
-  }
-
   private Stream<TestTableView> filterTestTableViews(List<Case> cases,
       Collection<CaseFilter> filters) {
     return filterCaseTests(cases, filters)
@@ -896,25 +890,19 @@ public class CaseService {
   public TableData<OmittedRunSample> getOmittedRunSamplesForRun(String runName, int pageSize,
       int pageNumber, OmittedRunSampleSort sort, boolean descending) {
     authorizeInternalOnly();
-    Set<OmittedRunSample> samples = caseData.getOmittedRunSamples().stream()
-        .filter(x -> Objects.equals(x.getRunName(), runName))
-        .collect(Collectors.toSet());
-
+    List<OmittedRunSample> samples = caseData.getOmittedRunSamplesForRun(runName);
     return filterOmittedRunSamples(samples, pageSize, pageNumber, sort, descending);
   }
 
   public TableData<OmittedRunSample> getOmittedRunSamplesForProject(String projectName,
       MetricCategory sequencingType, int pageSize, int pageNumber, OmittedRunSampleSort sort,
       boolean descending) {
-    Set<OmittedRunSample> samples = caseData.getOmittedRunSamples().stream()
-        .filter(x -> Objects.equals(x.getProject(), projectName)
-            && x.getSequencingType() == sequencingType)
-        .collect(Collectors.toSet());
-
+    List<OmittedRunSample> samples =
+        caseData.getOmittedRunSamplesForProject(projectName, sequencingType);
     return filterOmittedRunSamples(samples, pageSize, pageNumber, sort, descending);
   }
 
-  private TableData<OmittedRunSample> filterOmittedRunSamples(Set<OmittedRunSample> samples,
+  private TableData<OmittedRunSample> filterOmittedRunSamples(List<OmittedRunSample> samples,
       int pageSize, int pageNumber, OmittedRunSampleSort sort, boolean descending) {
     TableData<OmittedRunSample> data = new TableData<>();
     data.setTotalCount(samples.size());
@@ -968,6 +956,20 @@ public class CaseService {
     return stream.toList();
   }
 
+  private ProjectSummaryCube getProjectSummaryCube() {
+    projectSummaryCubeLock.lock();
+    try {
+      List<Case> cases = cacheUpdatedCases;
+      if (projectSummaryCubeCases != cases) {
+        projectSummaryCube = CaseLoader.calculateProjectSummaryCube(cases);
+        projectSummaryCubeCases = cases;
+      }
+      return projectSummaryCube;
+    } finally {
+      projectSummaryCubeLock.unlock();
+    }
+  }
+
   private ProjectSummaryRow getCompletedProjectSummaryRow(ProjectSummary projectSummary) {
     return new ProjectSummaryRow.Builder()
         .title("Completed")
@@ -1055,9 +1057,21 @@ public class CaseService {
       CaseData newData = dataLoader.load(previousTimestamp);
       refreshFailures = 0;
       if (newData != null) {
+        RefreshPhase phase = RefreshPhase.start(meterRegistry, "signoff_overlay");
         setCaseData(newData);
+        phase.end();
+
+        phase = RefreshPhase.start(meterRegistry, "front_end_config");
         updateFrontEndConfig();
+        phase.end();
+
+        phase = RefreshPhase.start(meterRegistry, "notifications");
         notificationManager.update(newData.getRunsAndLibrariesByName(), newData.getAssaysById());
+        phase.end();
+
+        if (changeEventService != null) {
+          changeEventService.publishGenerationChanged(newData.getTimestamp());
+        }
       }
     } catch (Exception e) {
       refreshFailures++;
@@ -1092,7 +1106,10 @@ public class CaseService {
 
   public void cacheSignoffs(Collection<NabuSavedSignoff> signoffs) {
     authorizeInternalOnly();
-    synchronized (cachedSignoffsByCaseId) {
+    SignoffCacheEvent event = new SignoffCacheEvent();
+    event.begin();
+    cacheLock.lock();
+    try {
       for (NabuSavedSignoff signoff : signoffs) {
         List<NabuSavedSignoff> cachedSignoffs =
             cachedSignoffsByCaseId.get(signoff.getCaseIdentifier());
@@ -1117,12 +1134,20 @@ public class CaseService {
         }
       }
       refreshCacheUpdatedCases();
+      commitSignoffCacheEvent(event, "cache_signoffs", signoffs.size());
+    } finally {
+      cacheLock.unlock();
     }
+    tryDumpAssignments();
+    publishCasesChanged(signoffs.stream().map(NabuSavedSignoff::getCaseIdentifier));
   }
 
   public void cacheReleaseAssignments(Collection<NabuBulkSignoff> signoffs) throws IOException {
     authorizeInternalOnly();
-    synchronized (cachedSignoffsByCaseId) {
+    SignoffCacheEvent event = new SignoffCacheEvent();
+    event.begin();
+    cacheLock.lock();
+    try {
       Map<String, Map<String, Map<String, String>>> previousAssignmentsByCaseId = new HashMap<>();
       for (NabuBulkSignoff signoff : signoffs) {
         for (String caseId : signoff.getCaseIdentifiers()) {
@@ -1144,7 +1169,8 @@ public class CaseService {
       }
       assignmentsChanged = true;
       try {
-        dumpAssignments();
+        // Written while holding the lock, so that the assignments can be undone if this fails
+        writeAssignments(takeAssignmentsSnapshot());
       } catch (JacksonException e) {
         // fail/undo assignments
         for (String caseId : previousAssignmentsByCaseId.keySet()) {
@@ -1159,12 +1185,45 @@ public class CaseService {
             }
           }
         }
+        assignmentsChanged = true;
         assignmentDumpFailures++;
         throw e;
       }
       if (caseData != null) {
         refreshCacheUpdatedCases();
       }
+      commitSignoffCacheEvent(event, "cache_release_assignments", signoffs.size());
+    } finally {
+      cacheLock.unlock();
+    }
+    tryDumpAssignments();
+    publishCasesChanged(
+        signoffs.stream().flatMap(signoff -> signoff.getCaseIdentifiers().stream()));
+  }
+
+  private void publishCasesChanged(Stream<String> caseIds) {
+    Map<String, Case> casesById = cacheUpdatedCasesById;
+    if (changeEventService == null || casesById == null) {
+      return;
+    }
+    changeEventService.publishCasesChanged(caseIds
+        .map(caseId -> casesById.get(caseId.toLowerCase()))
+        .filter(Objects::nonNull)
+        .distinct()
+        .toList());
+  }
+
+  /**
+   * Must be called while holding cacheLock
+   */
+  private void commitSignoffCacheEvent(SignoffCacheEvent event, String operation,
+      int signoffCount) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = operation;
+      event.signoffCount = signoffCount;
+      event.cachedCaseCount = cachedSignoffsByCaseId.size();
+      event.commit();
     }
   }
 
@@ -1172,32 +1231,95 @@ public class CaseService {
   private void loadAssignments() {
     File file = new File(dataDirectory, ASSIGNMENT_FILE);
     if (file.exists()) {
-      synchronized (cachedSignoffsByCaseId) {
-        cachedReleaseAssignments = jsonMapper.readValue(file,
-            new TypeReference<Map<String, Map<String, Map<String, String>>>>() {});
+      Map<String, Map<String, Map<String, String>>> assignments = jsonMapper.readValue(file,
+          new TypeReference<Map<String, Map<String, Map<String, String>>>>() {});
+      cacheLock.lock();
+      try {
+        cachedReleaseAssignments = assignments;
         assignmentsChanged = false;
         updateAssignmentsCount();
+      } finally {
+        cacheLock.unlock();
       }
     }
   }
 
-  private void dumpAssignments() throws JacksonException {
+  /**
+   * Copy of the release assignments to be written to file
+   *
+   * @param version incremented for each snapshot, so that an older snapshot never overwrites a
+   *        newer one
+   * @param assignments assignments by case ID, deliverable category, and deliverable
+   */
+  private static record AssignmentsSnapshot(long version,
+      Map<String, Map<String, Map<String, String>>> assignments) {
+  }
+
+  /**
+   * Must be called while holding cacheLock
+   *
+   * @return a copy of the assignments if they have changed since the last snapshot; otherwise null
+   */
+  private AssignmentsSnapshot takeAssignmentsSnapshot() {
     if (!assignmentsChanged) {
-      return;
+      return null;
     }
-    File file = new File(dataDirectory, ASSIGNMENT_FILE);
-    log.debug("Writing release assignments to " + file.getAbsolutePath());
-    jsonMapper.writeValue(file, cachedReleaseAssignments);
+    Map<String, Map<String, Map<String, String>>> copy = new HashMap<>();
+    cachedReleaseAssignments.forEach((caseId, caseAssignments) -> {
+      Map<String, Map<String, String>> caseCopy = new HashMap<>();
+      caseAssignments.forEach((category, categoryAssignments) -> caseCopy.put(category,
+          new HashMap<>(categoryAssignments)));
+      copy.put(caseId, caseCopy);
+    });
     assignmentsChanged = false;
     updateAssignmentsCount();
+    assignmentsVersion++;
+    return new AssignmentsSnapshot(assignmentsVersion, copy);
   }
 
+  private void writeAssignments(AssignmentsSnapshot snapshot) throws JacksonException {
+    if (snapshot == null) {
+      return;
+    }
+    assignmentFileLock.lock();
+    try {
+      if (snapshot.version() <= writtenAssignmentsVersion) {
+        // a newer snapshot has already been written
+        return;
+      }
+      File file = new File(dataDirectory, ASSIGNMENT_FILE);
+      log.debug("Writing release assignments to " + file.getAbsolutePath());
+      jsonMapper.writeValue(file, snapshot.assignments());
+      writtenAssignmentsVersion = snapshot.version();
+    } finally {
+      assignmentFileLock.unlock();
+    }
+  }
+
+  /**
+   * Writes the release assignments to file if they have changed. Must not be called while holding
+   * cacheLock, so that other requests do not wait on the file I/O
+   */
   private void tryDumpAssignments() {
+    AssignmentsSnapshot snapshot;
+    cacheLock.lock();
     try {
-      dumpAssignments();
+      snapshot = takeAssignmentsSnapshot();
+    } finally {
+      cacheLock.unlock();
+    }
+    try {
+      writeAssignments(snapshot);
     } catch (JacksonException e) {
       assignmentDumpFailures++;
       log.error("Error dumping release assignments to file", e);
+      cacheLock.lock();
+      try {
+        // try again next time
+        assignmentsChanged = true;
+      } finally {
+        cacheLock.unlock();
+      }
     }
   }
 
@@ -1207,8 +1329,13 @@ public class CaseService {
         .mapToInt(byDeliverable -> byDeliverable.size()).sum();
   }
 
+  /**
+   * Applies the cached sign-offs and assignments to the case data. The assignments are not written
+   * to file; call {@link #tryDumpAssignments()} after releasing cacheLock
+   */
   private void refreshCacheUpdatedCases() {
-    synchronized (cachedSignoffsByCaseId) {
+    cacheLock.lock();
+    try {
       removeExpiredCachedSignoffs();
 
       cacheUpdatedCases = caseData.getCases().stream()
@@ -1222,7 +1349,12 @@ public class CaseService {
           })
           .collect(
               Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
-      tryDumpAssignments();
+      cacheUpdatedCasesById = cacheUpdatedCases.stream()
+          .collect(Collectors.toUnmodifiableMap(kase -> kase.getId().toLowerCase(),
+              Function.identity(), (first, second) -> first));
+      cacheVersion++;
+    } finally {
+      cacheLock.unlock();
     }
   }
 
@@ -1278,7 +1410,8 @@ public class CaseService {
 
   @Scheduled(cron = "0 0 0 * * *") // midnight every day
   private void cleanUpCachedReleaseAssignments() {
-    synchronized (cachedSignoffsByCaseId) {
+    cacheLock.lock();
+    try {
       Iterator<Map.Entry<String, Map<String, Map<String, String>>>> caseIterator =
           cachedReleaseAssignments.entrySet().iterator();
       while (caseIterator.hasNext()) {
@@ -1320,8 +1453,10 @@ public class CaseService {
           caseIterator.remove();
         }
       }
-      tryDumpAssignments();
+    } finally {
+      cacheLock.unlock();
     }
+    tryDumpAssignments();
   }
 
   private Case makeCacheUpdatedCase(Case kase, Collection<NabuSavedSignoff> signoffs,
@@ -0,0 +1,200 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.dimsum.security.DimsumPrincipal;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes data change notifications to open pages as server-sent events. A
+ * {@value #EVENT_GENERATION} event is sent when new data is loaded, and a {@value #EVENT_CASES}
+ * event listing the IDs of affected cases is sent when sign-offs or assignments are applied to
+ * them. Each subscriber is only told about cases that they are authorized to see. Each subscriber
+ * has its own queue of events, which is sent on its own virtual thread, so neither publishing nor
+ * other subscribers wait on a slow client. A subscriber whose queue fills up is dropped, and its
+ * page reconnects
+ */
+@Service
+public class ChangeEventService {
+
+  private static final Logger log = LoggerFactory.getLogger(ChangeEventService.class);
+
+  public static final String EVENT_GENERATION = "generation";
+  public static final String EVENT_CASES = "cases";
+
+  // Clients reconnect automatically after the timeout
+  private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+  // Events waiting to be sent to one subscriber, including heartbeats
+  static final int MAX_QUEUED_EVENTS = 16;
+
+  private class Subscriber {
+
+    private final SseEmitter emitter;
+    private final DimsumPrincipal principal;
+    private final BlockingQueue<SseEventBuilder> queue =
+        new ArrayBlockingQueue<>(MAX_QUEUED_EVENTS);
+    // Whether a thread is currently sending this subscriber's queued events
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    private Subscriber(SseEmitter emitter, DimsumPrincipal principal) {
+      this.emitter = emitter;
+      this.principal = principal;
+    }
+
+    private void enqueue(SseEventBuilder event) {
+      if (!queue.offer(event)) {
+        remove(this, new IllegalStateException("Change event queue is full"));
+        return;
+      }
+      if (sending.compareAndSet(false, true)) {
+        executor.execute(this::sendQueued);
+      }
+    }
+
+    private void sendQueued() {
+      do {
+        SseEventBuilder event;
+        while ((event = queue.poll()) != null) {
+          try {
+            emitter.send(event);
+          } catch (IOException | IllegalStateException e) {
+            remove(this, e);
+            return;
+          }
+        }
+        sending.set(false);
+        // An event may have been queued after the last poll, but before sending was cleared
+      } while (!queue.isEmpty() && sending.compareAndSet(false, true));
+    }
+  }
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  public ChangeEventService(@Autowired MeterRegistry meterRegistry) {
+    if (meterRegistry != null) {
+      Gauge.builder("change_event_subscribers", subscribers::size)
+          .description("Number of pages subscribed to data change events")
+          .register(meterRegistry);
+    }
+  }
+
+  /**
+   * @param principal the subscribing user
+   * @return an emitter that will receive change events until the client disconnects or the
+   *         connection times out
+   */
+  public SseEmitter subscribe(DimsumPrincipal principal) {
+    SseEmitter emitter = createEmitter();
+    Subscriber subscriber = new Subscriber(emitter, principal);
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(e -> subscribers.remove(subscriber));
+    subscribers.add(subscriber);
+    return emitter;
+  }
+
+  protected SseEmitter createEmitter() {
+    return new SseEmitter(TIMEOUT_MILLIS);
+  }
+
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  /**
+   * Notifies all subscribers that new data has been loaded
+   *
+   * @param timestamp the timestamp of the new data
+   */
+  public void publishGenerationChanged(ZonedDateTime timestamp) {
+    Map<String, String> data = Map.of("timestamp", timestamp.toString());
+    publish(subscriber -> SseEmitter.event()
+        .name(EVENT_GENERATION)
+        .data(data, MediaType.APPLICATION_JSON));
+  }
+
+  /**
+   * Notifies subscribers that cases have changed without new data being loaded. Subscribers that
+   * are not authorized to see any of the cases are not notified
+   *
+   * @param cases the changed cases
+   */
+  public void publishCasesChanged(Collection<Case> cases) {
+    if (cases.isEmpty()) {
+      return;
+    }
+    publish(subscriber -> {
+      DimsumPrincipal principal = subscriber.principal;
+      List<String> caseIds = cases.stream()
+          .filter(kase -> principal.isInternal()
+              || CaseService.isInUserProjects(kase, principal.getProjects()))
+          .map(Case::getId)
+          .toList();
+      return caseIds.isEmpty() ? null
+          : SseEmitter.event()
+              .name(EVENT_CASES)
+              .data(Map.of("caseIds", caseIds), MediaType.APPLICATION_JSON);
+    });
+  }
+
+  // Detects disconnected clients, and keeps proxies from closing idle connections
+  @Scheduled(fixedDelay = 30L, timeUnit = TimeUnit.SECONDS)
+  private void sendHeartbeat() {
+    publish(subscriber -> SseEmitter.event().comment("heartbeat"));
+  }
+
+  /**
+   * @param makeEvent function that makes the event to send to a subscriber, or returns null if
+   *        the subscriber should not receive an event
+   */
+  private void publish(Function<Subscriber, SseEventBuilder> makeEvent) {
+    for (Subscriber subscriber : subscribers) {
+      SseEventBuilder event = makeEvent.apply(subscriber);
+      if (event != null) {
+        subscriber.enqueue(event);
+      }
+    }
+  }
+
+  private void remove(Subscriber subscriber, Exception cause) {
+    if (!subscribers.remove(subscriber)) {
+      return;
+    }
+    log.debug("Failed to send change event; removing subscriber", cause);
+    // Completing waits for any send in progress, so it must not block the publishing thread
+    executor.execute(() -> subscriber.emitter.completeWithError(cause));
+  }
+
+  @PreDestroy
+  private void shutdown() {
+    executor.shutdownNow();
+    for (Subscriber subscriber : subscribers) {
+      subscriber.emitter.complete();
+    }
+  }
+
+}
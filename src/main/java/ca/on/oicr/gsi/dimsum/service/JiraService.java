@@ -7,6 +7,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -27,6 +28,7 @@ import com.atlassian.jira.rest.client.api.domain.input.IssueInputBuilder;
 import com.atlassian.jira.rest.client.api.domain.input.TransitionInput;
 import com.atlassian.jira.rest.client.internal.async.AsynchronousJiraRestClientFactory;
 import ca.on.oicr.gsi.dimsum.data.IssueState;
+import ca.on.oicr.gsi.dimsum.util.jfr.JiraRequestEvent;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 
@@ -75,18 +77,43 @@ public class JiraService implements IssueTracker {
     }
   }
 
+  /**
+   * Makes a counted request, recording it as a JFR event
+   *
+   * @param operation name of the operation, for the event
+   * @param request makes the request and waits for the response
+   * @return the response
+   */
+  private <T> T request(String operation, Supplier<T> request) {
+    countRequest();
+    JiraRequestEvent event = new JiraRequestEvent();
+    event.begin();
+    boolean success = false;
+    try {
+      T result = request.get();
+      success = true;
+      return result;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.operation = operation;
+        event.success = success;
+        event.commit();
+      }
+    }
+  }
+
   @Override
   public Issue getIssueByKey(String key) {
-    return rest.getIssueClient().getIssue(key).claim();
+    return request("getIssue", () -> rest.getIssueClient().getIssue(key).claim());
   }
 
   @Override
   public Issue getIssueBySummary(String summary) {
-    countRequest();
-    Iterable<Issue> issues = rest.getSearchClient().searchJql(
+    Iterable<Issue> issues = request("searchIssues", () -> rest.getSearchClient().searchJql(
         String.format("project = %s AND labels = %s AND summary ~ \"%s\"", projectNotification,
             labelNotification, summary))
-        .claim().getIssues();
+        .claim().getIssues());
     for (Issue issue : issues) {
       if (issue.getSummary().equals(summary)) {
         return issue;
@@ -104,10 +131,10 @@ public class JiraService implements IssueTracker {
     int startAt = 0;
     while (true) {
       int previousLength = issues.size();
-      countRequest();
-      Iterable<Issue> newIssues = rest.getSearchClient()
-          .searchJql(jql, pageSize, startAt, null)
-          .claim().getIssues();
+      int pageStart = startAt;
+      Iterable<Issue> newIssues = request("searchIssues", () -> rest.getSearchClient()
+          .searchJql(jql, pageSize, pageStart, null)
+          .claim().getIssues());
       for (Issue newIssue : newIssues) {
         issues.add(newIssue);
       }
@@ -121,8 +148,8 @@ public class JiraService implements IssueTracker {
 
   @Override
   public void postComment(Issue issue, String message) {
-    countRequest();
-    rest.getIssueClient().addComment(issue.getCommentsUri(), Comment.valueOf(message)).claim();
+    request("addComment", () -> rest.getIssueClient()
+        .addComment(issue.getCommentsUri(), Comment.valueOf(message)).claim());
   }
 
   @Override
@@ -146,8 +173,7 @@ public class JiraService implements IssueTracker {
         // Wrong resolution set - reopen and close with correct resolution
         Integer transitionId = getTransitionId(issue, transitionReopen);
         TransitionInput input = new TransitionInput(transitionId);
-        countRequest();
-        rest.getIssueClient().transition(issue, input).claim();
+        request("transition", () -> rest.getIssueClient().transition(issue, input).claim());
         doClose(issue, message, resolution);
       }
     } else {
@@ -160,8 +186,8 @@ public class JiraService implements IssueTracker {
     Collection<FieldInput> fields = Arrays.asList(
         new FieldInput("resolution", ComplexIssueInputFieldValue.with("name", resolution)));
     TransitionInput input = new TransitionInput(transitionId, fields, Comment.valueOf(message));
-    countRequest();
-    rest.getIssueClient().transition(issue.getTransitionsUri(), input).claim();
+    request("transition",
+        () -> rest.getIssueClient().transition(issue.getTransitionsUri(), input).claim());
   }
 
   @Override
@@ -173,14 +199,13 @@ public class JiraService implements IssueTracker {
     } else {
       Integer transitionId = getTransitionId(issue, transitionReopen);
       TransitionInput input = new TransitionInput(transitionId, Comment.valueOf(message));
-      countRequest();
-      rest.getIssueClient().transition(issue, input).claim();
+      request("transition", () -> rest.getIssueClient().transition(issue, input).claim());
     }
   }
 
   private Integer getTransitionId(Issue issue, String transitionName) {
-    countRequest();
-    Iterable<Transition> transitions = rest.getIssueClient().getTransitions(issue).claim();
+    Iterable<Transition> transitions =
+        request("getTransitions", () -> rest.getIssueClient().getTransitions(issue).claim());
     for (Transition transition : transitions) {
       if (Objects.equals(transitionName, transition.getName())) {
         return transition.getId();
@@ -192,8 +217,8 @@ public class JiraService implements IssueTracker {
 
   @Override
   public String createIssue(String summary, String description) {
-    countRequest();
-    Project project = rest.getProjectClient().getProject(projectNotification).claim();
+    Project project = request("getProject",
+        () -> rest.getProjectClient().getProject(projectNotification).claim());
     IssueInput input = new IssueInputBuilder()
         .setProject(project)
         .setIssueType(getIssueType(project, issueTypeTask))
@@ -202,8 +227,8 @@ public class JiraService implements IssueTracker {
         .setFieldInput(
             new FieldInput(IssueFieldId.LABELS_FIELD, Collections.singleton(labelNotification)))
         .build();
-    countRequest();
-    BasicIssue issue = rest.getIssueClient().createIssue(input).claim();
+    BasicIssue issue =
+        request("createIssue", () -> rest.getIssueClient().createIssue(input).claim());
     return issue.getKey();
   }
 
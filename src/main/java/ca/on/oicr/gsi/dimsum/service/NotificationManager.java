@@ -18,8 +18,6 @@ import ca.on.oicr.gsi.cardea.data.Assay;
 import ca.on.oicr.gsi.cardea.data.MetricCategory;
 import ca.on.oicr.gsi.cardea.data.Run;
 import ca.on.oicr.gsi.cardea.data.Sample;
-import ca.on.oicr.gsi.cardea.data.SampleMetric;
-import ca.on.oicr.gsi.cardea.data.ThresholdType;
 import ca.on.oicr.gsi.dimsum.data.IssueState;
 import ca.on.oicr.gsi.dimsum.data.Notification;
 import ca.on.oicr.gsi.dimsum.data.RunAndLibraries;
@@ -28,6 +26,7 @@ import ca.on.oicr.gsi.dimsum.data.SampleAndRelated;
 import ca.on.oicr.gsi.dimsum.service.filtering.NotificationSort;
 import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
 import ca.on.oicr.gsi.dimsum.util.Counter;
+import ca.on.oicr.gsi.dimsum.util.DataUtils;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 
@@ -315,17 +314,10 @@ public class NotificationManager {
       throw new IllegalArgumentException(
           String.format("Unexpected metric category: %s", metricCategory));
     }
-    if (sample.getMetrics() == null) {
-      // No metrics means no values to wait for, so all are available
-      return true;
+    if (sample instanceof SampleAndRelated library) {
+      return library.isMetricsAvailable();
     }
-    for (SampleMetric metric : sample.getMetrics()) {
-      if ((Objects.equals("Sample Authenticated", metric.getName())
-          || metric.getThresholdType() != ThresholdType.BOOLEAN) && metric.getQcPassed() == null) {
-        return false;
-      }
-    }
-    return true;
+    return DataUtils.isMetricsAvailable(sample);
   }
 
 }
@@ -0,0 +1,64 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caches a projection of each source object, such as the external view of a case, so that it is
+ * only built the first time it is requested. Entries are keyed by ID, and a cached projection is
+ * only reused for the identical source instance. Whenever the source object with an ID is replaced,
+ * its projection is rebuilt. For example, each time cached sign-offs are applied, every case that
+ * they change is replaced by a new copy, so those cases miss the cache until they are projected
+ * again. {@link #clear()} should be called when a new data generation is loaded, so that
+ * projections of old data are not retained
+ *
+ * @param <S> source type
+ * @param <T> projection type
+ */
+public class ProjectionCache<S, T> {
+
+  private static record Entry<S, T>(S source, T projection) {
+  }
+
+  private final Function<S, String> getId;
+  private final Function<S, T> project;
+  // Replaced rather than cleared, so that a get() that started before clear() adds its projection
+  // of old data to the discarded map
+  private volatile Map<String, Entry<S, T>> entries = new ConcurrentHashMap<>();
+
+  /**
+   * @param getId function that gets a source object's ID
+   * @param project function that builds a projection; projections must be immutable, as they are
+   *        shared by all callers
+   */
+  public ProjectionCache(Function<S, String> getId, Function<S, T> project) {
+    this.getId = getId;
+    this.project = project;
+  }
+
+  /**
+   * @param source source object
+   * @return the cached projection of the source object, building it if necessary
+   */
+  public T get(S source) {
+    Map<String, Entry<S, T>> currentEntries = entries;
+    String id = getId.apply(source);
+    Entry<S, T> entry = currentEntries.get(id);
+    if (entry == null || entry.source() != source) {
+      // Concurrent requests may both build the projection, which is harmless
+      entry = new Entry<>(source, project.apply(source));
+      currentEntries.put(id, entry);
+    }
+    return entry.projection();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public void clear() {
+    entries = new ConcurrentHashMap<>();
+  }
+
+}
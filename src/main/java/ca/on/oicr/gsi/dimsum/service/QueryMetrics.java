@@ -0,0 +1,240 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
+import ca.on.oicr.gsi.dimsum.controller.rest.request.KeyValuePair;
+import ca.on.oicr.gsi.dimsum.service.filtering.TableData;
+import ca.on.oicr.gsi.dimsum.util.jfr.TableQueryEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Times table queries and logs those that exceed the slow query threshold. Timers are tagged by
+ * table, scope, sort, and whether filters were applied, so the number of distinct timers is bounded
+ * by the table and sort enums. Each query is also timed once for each distinct filter key it uses,
+ * tagged with that key alone, so that slow filters can be found without tagging combinations of
+ * keys. Latency is published against fixed service level buckets rather than a full percentile
+ * histogram. Each query is also recorded as a JFR event
+ */
+@Component
+public class QueryMetrics {
+
+  private static final Logger log = LoggerFactory.getLogger(QueryMetrics.class);
+
+  private static final String TIMER_NAME = "table_query_time";
+  private static final String FILTER_TIMER_NAME = "table_query_filter_time";
+  private static final Duration[] SERVICE_LEVEL_OBJECTIVES = {Duration.ofMillis(50),
+      Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+      Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10)};
+
+  public enum Table {
+    // @formatter:off
+    CASES("cases"),
+    RECEIPTS("receipts"),
+    EXTRACTIONS("extractions"),
+    LIBRARY_PREPARATIONS("library_preparations"),
+    LIBRARY_QUALIFICATIONS("library_qualifications"),
+    FULL_DEPTH_SEQUENCINGS("full_depth_sequencings"),
+    RUNS("runs"),
+    RUN_LIBRARY_QUALIFICATIONS("run_library_qualifications"),
+    RUN_FULL_DEPTH_SEQUENCINGS("run_full_depth_sequencings"),
+    RUN_OMISSIONS("run_omissions"),
+    PROJECTS("projects"),
+    PROJECT_OMISSIONS("project_omissions"),
+    PROJECT_SUMMARY("project_summary"),
+    TESTS("tests"),
+    OMISSIONS("omissions");
+    // @formatter:on
+
+    private final String tag;
+
+    private Table(String tag) {
+      this.tag = tag;
+    }
+
+    public String getTag() {
+      return tag;
+    }
+  }
+
+  public enum Scope {
+    INTERNAL, EXTERNAL, COMMON;
+
+    public String getTag() {
+      return name().toLowerCase();
+    }
+  }
+
+  private final MeterRegistry meterRegistry;
+
+  @Value("${queries.slowthresholdmillis:1000}")
+  private long slowThresholdMillis;
+
+  @Autowired
+  private JsonMapper jsonMapper;
+
+  public QueryMetrics(@Autowired MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  protected void setSlowThresholdMillis(long slowThresholdMillis) {
+    this.slowThresholdMillis = slowThresholdMillis;
+  }
+
+  protected void setJsonMapper(JsonMapper jsonMapper) {
+    this.jsonMapper = jsonMapper;
+  }
+
+  /**
+   * Executes and times a query. The time is recorded whether the query succeeds or fails
+   *
+   * @param table the table being queried
+   * @param scope whether the query was made through the internal, external, or common API
+   * @param query the query, which should already be validated
+   * @param sort the sort parsed from the query, or null if the default sort is used
+   * @param execution executes the query
+   * @return the result of the query
+   */
+  public <T> T record(Table table, Scope scope, DataQuery query, Enum<?> sort,
+      Supplier<T> execution) {
+    TableQueryEvent event = new TableQueryEvent();
+    event.begin();
+    long start = System.nanoTime();
+    T result = null;
+    try {
+      result = execution.get();
+      return result;
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      event.end();
+      if (event.shouldCommit()) {
+        event.table = table.getTag();
+        event.scope = scope.getTag();
+        event.sort = query.getSortColumn();
+        event.filterCount = (query.getFilters() == null ? 0 : query.getFilters().size())
+            + (query.getBaseFilter() == null ? 0 : 1);
+        event.resultCount = result instanceof TableData<?> tableData
+            ? tableData.getFilteredCount()
+            : -1;
+        event.commit();
+      }
+      if (meterRegistry != null) {
+        Timer.builder(TIMER_NAME)
+            .description("Time taken to query table data")
+            .tag("table", table.getTag())
+            .tag("scope", scope.getTag())
+            .tag("sort", getSortTag(sort, query))
+            .tag("filters", getFiltersTag(query))
+            .serviceLevelObjectives(SERVICE_LEVEL_OBJECTIVES)
+            .register(meterRegistry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        for (String filterKey : getFilterKeys(query)) {
+          Timer.builder(FILTER_TIMER_NAME)
+              .description("Time taken to query table data, by filter key used")
+              .tag("table", table.getTag())
+              .tag("scope", scope.getTag())
+              .tag("filter", filterKey)
+              .serviceLevelObjectives(SERVICE_LEVEL_OBJECTIVES)
+              .register(meterRegistry)
+              .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+      }
+      long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+      if (elapsedMillis >= slowThresholdMillis) {
+        logSlowQuery(table, scope, query, elapsedMillis);
+      }
+    }
+  }
+
+  protected static String getSortTag(Enum<?> sort, DataQuery query) {
+    if (sort == null) {
+      return "default";
+    }
+    return Boolean.TRUE.equals(query.getDescending()) ? sort.name() + " desc" : sort.name();
+  }
+
+  /**
+   * @return whether the query has a base filter and whether it has any other filters. The filter
+   *         keys are tagged separately by {@link #getFilterKeys(DataQuery)}, as their combinations
+   *         are unbounded
+   */
+  protected static String getFiltersTag(DataQuery query) {
+    boolean filtered = query.getFilters() != null && !query.getFilters().isEmpty();
+    if (query.getBaseFilter() != null) {
+      return filtered ? "base,filtered" : "base";
+    }
+    return filtered ? "filtered" : "none";
+  }
+
+  /**
+   * @return the distinct keys of the query's base filter and other filters. Keys have already been
+   *         parsed into the table's filter key enum, so the number of distinct keys is bounded
+   */
+  protected static Set<String> getFilterKeys(DataQuery query) {
+    Set<String> keys = new TreeSet<>();
+    if (query.getBaseFilter() != null) {
+      keys.add(query.getBaseFilter().getKey());
+    }
+    if (query.getFilters() != null) {
+      query.getFilters().forEach(filter -> keys.add(filter.getKey()));
+    }
+    return keys;
+  }
+
+  private void logSlowQuery(Table table, Scope scope, DataQuery query, long elapsedMillis) {
+    Map<String, Object> entry = new LinkedHashMap<>();
+    entry.put("table", table.getTag());
+    entry.put("scope", scope.getTag());
+    entry.put("durationMillis", elapsedMillis);
+    entry.put("query", normalize(query));
+    String json = jsonMapper == null ? entry.toString() : jsonMapper.writeValueAsString(entry);
+    log.warn("Slow query: {}", json);
+  }
+
+  /**
+   * @return the query with filters sorted, so that equivalent queries are logged identically
+   */
+  protected static Map<String, Object> normalize(DataQuery query) {
+    Map<String, Object> normalized = new LinkedHashMap<>();
+    normalized.put("pageSize", query.getPageSize());
+    normalized.put("pageNumber", query.getPageNumber());
+    normalized.put("sortColumn", query.getSortColumn());
+    normalized.put("descending", query.getDescending());
+    normalized.put("baseFilter", toMap(query.getBaseFilter()));
+    normalized.put("filters", query.getFilters() == null ? List.of()
+        : query.getFilters().stream()
+            .sorted(Comparator.comparing(KeyValuePair::getKey,
+                Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                .thenComparing(KeyValuePair::getValue,
+                    Comparator.nullsFirst(Comparator.<String>naturalOrder())))
+            .map(QueryMetrics::toMap)
+            .collect(Collectors.toList()));
+    return normalized;
+  }
+
+  private static Map<String, String> toMap(KeyValuePair pair) {
+    if (pair == null) {
+      return null;
+    }
+    Map<String, String> map = new LinkedHashMap<>();
+    map.put("key", pair.getKey());
+    map.put("value", pair.getValue());
+    return map;
+  }
+
+}
@@ -0,0 +1,523 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ca.on.oicr.gsi.dimsum.security.DimsumPrincipal;
+import ca.on.oicr.gsi.dimsum.security.SecurityManager;
+import ca.on.oicr.gsi.dimsum.util.jfr.ReportRenderEvent;
+import ca.on.oicr.gsi.dimsum.util.reporting.Report;
+import ca.on.oicr.gsi.dimsum.util.reporting.ReportFormat;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Bounded two-level (memory, then disk) cache of rendered report files. Entries are keyed on the
+ * report, format, normalized parameters, and the current user's authorization scope, and are only
+ * valid for the data generation they were rendered from. Any change to the case data or cached
+ * signoffs invalidates the whole cache. Concurrent identical requests share a single render.
+ * Uncompressed formats (delimited text and JSON) are gzip-compressed when rendered and stay
+ * compressed at rest, so they can be served to clients that accept gzip encoding without further
+ * work.
+ */
+@Service
+public class ReportCache {
+
+  private static final Logger log = LoggerFactory.getLogger(ReportCache.class);
+
+  private static final String CACHE_DIRECTORY = "report-cache";
+  private static final String FORMAT_JSON = "JSON";
+
+  @FunctionalInterface
+  private static interface ReportRenderer {
+    void render(OutputStream output) throws IOException;
+  }
+
+  /**
+   * Rendered report contents
+   *
+   * @param bytes the rendered contents, gzip-compressed if gzipped is true
+   * @param gzipped whether the contents are gzip-compressed
+   */
+  public static record EncodedReport(byte[] bytes, boolean gzipped) {
+
+    /**
+     * @return the report contents, decompressed if necessary
+     * @throws IOException if the compressed contents cannot be read
+     */
+    public byte[] getDecodedBytes() throws IOException {
+      if (!gzipped) {
+        return bytes;
+      }
+      try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+        return input.readAllBytes();
+      }
+    }
+  }
+
+  private static record CacheKey(long version, String reportName, String format, boolean gzipped,
+      int scopeId, String parameters) {
+
+    public String getFilename() {
+      try {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(toString().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash) + ".bin";
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  @Value("${datadirectory}")
+  private String dataDirectory;
+  @Value("${reports.cache.memorybytes:67108864}")
+  private long maxMemoryBytes;
+  @Value("${reports.cache.diskbytes:536870912}")
+  private long maxDiskBytes;
+
+  @Autowired
+  private CaseService caseService;
+
+  @Autowired
+  private SecurityManager securityManager;
+
+  @Autowired
+  private JsonMapper jsonMapper;
+
+  // Note: access to the entry maps and byte counts must hold lock. File I/O is done outside of it
+  private final ReentrantLock lock = new ReentrantLock();
+  private long currentVersion = -1;
+  // access-ordered for LRU eviction
+  private final LinkedHashMap<CacheKey, byte[]> memoryEntries =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<CacheKey, Long> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+  private long memoryBytes = 0;
+  private long diskBytes = 0;
+
+  private final Map<CacheKey, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+  private Counter hitCounter = null;
+  private Counter missCounter = null;
+
+  public ReportCache(@Autowired MeterRegistry meterRegistry) {
+    if (meterRegistry != null) {
+      hitCounter = Counter.builder("report_cache_requests").tag("result", "hit")
+          .description("Number of report requests served from the cache or an in-flight render")
+          .register(meterRegistry);
+      missCounter = Counter.builder("report_cache_requests").tag("result", "miss")
+          .description("Number of report requests that required rendering the report")
+          .register(meterRegistry);
+      Gauge.builder("report_cache_bytes", this::getMemoryBytes).tag("storage", "memory")
+          .description("Size of rendered reports held in the report cache")
+          .register(meterRegistry);
+      Gauge.builder("report_cache_bytes", this::getDiskBytes).tag("storage", "disk")
+          .description("Size of rendered reports held in the report cache")
+          .register(meterRegistry);
+    }
+  }
+
+  protected void setDataDirectory(String dataDirectory) {
+    this.dataDirectory = dataDirectory;
+  }
+
+  protected void setLimits(long maxMemoryBytes, long maxDiskBytes) {
+    this.maxMemoryBytes = maxMemoryBytes;
+    this.maxDiskBytes = maxDiskBytes;
+  }
+
+  protected void setCaseService(CaseService caseService) {
+    this.caseService = caseService;
+  }
+
+  protected void setSecurityManager(SecurityManager securityManager) {
+    this.securityManager = securityManager;
+  }
+
+  protected void setJsonMapper(JsonMapper jsonMapper) {
+    this.jsonMapper = jsonMapper;
+  }
+
+  private long getMemoryBytes() {
+    lock.lock();
+    try {
+      return memoryBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private long getDiskBytes() {
+    lock.lock();
+    try {
+      return diskBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private File getCacheDirectory() {
+    return new File(dataDirectory, CACHE_DIRECTORY);
+  }
+
+  @PostConstruct
+  private void clearDiskCache() {
+    // Anything left from a previous run can't be matched to a data generation
+    File directory = getCacheDirectory();
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (!file.delete()) {
+          log.warn("Failed to delete cached report file {}", file.getAbsolutePath());
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets a report file, rendering it only if a matching file is not already cached
+   *
+   * @param reportName name used to identify the report
+   * @param report the report
+   * @param parameters report parameters, including format
+   * @return the report file contents, gzip-compressed if the format is compressible
+   * @throws IOException if there is an error rendering the report
+   */
+  public EncodedReport getFile(String reportName, Report report, JsonNode parameters)
+      throws IOException {
+    ReportFormat format = Report.getFormat(parameters);
+    return get(reportName, format.name(), format.isCompressible(), parameters,
+        output -> report.writeFile(caseService, parameters, output));
+  }
+
+  /**
+   * Gets report data serialized as JSON, rendering it only if matching data is not already cached
+   *
+   * @param reportName name used to identify the report
+   * @param report the report
+   * @param parameters report parameters
+   * @return the JSON-serialized report data, gzip-compressed
+   * @throws IOException if there is an error rendering the report
+   */
+  public EncodedReport getData(String reportName, Report report, JsonNode parameters)
+      throws IOException {
+    return get(reportName, FORMAT_JSON, true, parameters,
+        output -> report.writeData(caseService, parameters, jsonMapper, output));
+  }
+
+  private EncodedReport get(String reportName, String format, boolean gzipped,
+      JsonNode parameters, ReportRenderer renderer) throws IOException {
+    CacheKey key = new CacheKey(caseService.getCacheVersion(), reportName, format, gzipped,
+        getScopeId(securityManager.getPrincipal()), normalize(parameters));
+
+    byte[] cached = lookup(key);
+    if (cached != null) {
+      countRequest(hitCounter);
+      return new EncodedReport(cached, gzipped);
+    }
+
+    CompletableFuture<byte[]> future = new CompletableFuture<>();
+    CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, future);
+    if (existing != null) {
+      countRequest(hitCounter);
+      return new EncodedReport(await(existing), gzipped);
+    }
+    countRequest(missCounter);
+    try {
+      byte[] bytes = render(reportName, format, renderer, gzipped);
+      store(key, bytes);
+      future.complete(bytes);
+      return new EncodedReport(bytes, gzipped);
+    } catch (Throwable t) {
+      future.completeExceptionally(t);
+      throw t;
+    } finally {
+      inFlight.remove(key);
+    }
+  }
+
+  private static byte[] render(String reportName, String format, ReportRenderer renderer,
+      boolean gzipped) throws IOException {
+    ReportRenderEvent event = new ReportRenderEvent();
+    event.begin();
+    byte[] bytes = null;
+    try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+      if (gzipped) {
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+          renderer.render(gzip);
+        }
+      } else {
+        renderer.render(output);
+      }
+      bytes = output.toByteArray();
+      return bytes;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.report = reportName;
+        event.format = format;
+        event.gzipped = gzipped;
+        event.bytes = bytes == null ? -1 : bytes.length;
+        event.commit();
+      }
+    }
+  }
+
+  private static void countRequest(Counter counter) {
+    if (counter != null) {
+      counter.increment();
+    }
+  }
+
+  private static byte[] await(CompletableFuture<byte[]> future) throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException ioException) {
+        throw ioException;
+      } else if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      } else if (cause instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+  }
+
+  private byte[] lookup(CacheKey key) throws IOException {
+    File file = null;
+    List<CacheKey> evicted = new ArrayList<>();
+    lock.lock();
+    try {
+      if (!checkVersion(key.version(), evicted)) {
+        return null;
+      }
+      byte[] bytes = memoryEntries.get(key);
+      if (bytes != null) {
+        return bytes;
+      }
+      if (diskEntries.containsKey(key)) {
+        file = new File(getCacheDirectory(), key.getFilename());
+      }
+    } finally {
+      lock.unlock();
+      deleteFiles(evicted);
+    }
+    if (file == null) {
+      return null;
+    }
+    byte[] bytes = null;
+    try {
+      bytes = Files.readAllBytes(file.toPath());
+    } catch (NoSuchFileException e) {
+      // evicted or invalidated since the entry was found
+      return null;
+    }
+    storeInMemory(key, bytes);
+    return bytes;
+  }
+
+  private void store(CacheKey key, byte[] bytes) throws IOException {
+    List<CacheKey> evicted = new ArrayList<>();
+    lock.lock();
+    try {
+      if (!checkVersion(key.version(), evicted)) {
+        // data changed during rendering
+        return;
+      }
+    } finally {
+      lock.unlock();
+      deleteFiles(evicted);
+    }
+    if (bytes.length > maxMemoryBytes) {
+      writeToDisk(key, bytes);
+    } else {
+      storeInMemory(key, bytes);
+    }
+  }
+
+  private void storeInMemory(CacheKey key, byte[] bytes) throws IOException {
+    List<Map.Entry<CacheKey, byte[]>> spilled = new ArrayList<>();
+    lock.lock();
+    try {
+      if (key.version() != currentVersion || memoryEntries.containsKey(key)) {
+        return;
+      }
+      memoryEntries.put(key, bytes);
+      memoryBytes += bytes.length;
+      Iterator<Map.Entry<CacheKey, byte[]>> iterator = memoryEntries.entrySet().iterator();
+      while (memoryBytes > maxMemoryBytes && iterator.hasNext()) {
+        Map.Entry<CacheKey, byte[]> eldest = iterator.next();
+        iterator.remove();
+        memoryBytes -= eldest.getValue().length;
+        if (!diskEntries.containsKey(eldest.getKey())) {
+          spilled.add(eldest);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    for (Map.Entry<CacheKey, byte[]> entry : spilled) {
+      writeToDisk(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private void writeToDisk(CacheKey key, byte[] bytes) throws IOException {
+    if (bytes.length > maxDiskBytes) {
+      return;
+    }
+    File directory = getCacheDirectory();
+    if (!directory.exists() && !directory.mkdirs()) {
+      throw new IOException("Failed to create report cache directory: "
+          + directory.getAbsolutePath());
+    }
+    File file = new File(directory, key.getFilename());
+    Files.write(file.toPath(), bytes);
+    List<CacheKey> evicted = new ArrayList<>();
+    lock.lock();
+    try {
+      if (key.version() != currentVersion) {
+        evicted.add(key);
+      } else if (diskEntries.put(key, (long) bytes.length) == null) {
+        diskBytes += bytes.length;
+        Iterator<Map.Entry<CacheKey, Long>> iterator = diskEntries.entrySet().iterator();
+        while (diskBytes > maxDiskBytes && iterator.hasNext()) {
+          Map.Entry<CacheKey, Long> eldest = iterator.next();
+          iterator.remove();
+          diskBytes -= eldest.getValue();
+          evicted.add(eldest.getKey());
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    deleteFiles(evicted);
+  }
+
+  /**
+   * Checks the requested version against the cached version, clearing the cache if a newer
+   * version is requested. Must be called while holding lock
+   *
+   * @param version the requested data version
+   * @param evicted list to add the keys of cleared disk entries to; their files should be deleted
+   *        after releasing lock
+   * @return true if the requested version is current; false if it is outdated
+   */
+  private boolean checkVersion(long version, List<CacheKey> evicted) {
+    if (version < currentVersion) {
+      return false;
+    } else if (version > currentVersion) {
+      evicted.addAll(diskEntries.keySet());
+      memoryEntries.clear();
+      diskEntries.clear();
+      memoryBytes = 0;
+      diskBytes = 0;
+      currentVersion = version;
+    }
+    return true;
+  }
+
+  @Scheduled(fixedDelay = 1L, timeUnit = TimeUnit.MINUTES)
+  private void evictOutdatedEntries() {
+    List<CacheKey> evicted = new ArrayList<>();
+    lock.lock();
+    try {
+      checkVersion(caseService.getCacheVersion(), evicted);
+    } finally {
+      lock.unlock();
+    }
+    deleteFiles(evicted);
+  }
+
+  private void deleteFiles(List<CacheKey> keys) {
+    File directory = getCacheDirectory();
+    for (CacheKey key : keys) {
+      File file = new File(directory, key.getFilename());
+      if (file.exists() && !file.delete()) {
+        log.warn("Failed to delete cached report file {}", file.getAbsolutePath());
+      }
+    }
+  }
+
+  private static int getScopeId(DimsumPrincipal principal) {
+    return principal.getAuthorizationScopeId();
+  }
+
+  /**
+   * Produces a string representation of the parameters with object properties sorted, so that
+   * equivalent parameters produce the same key regardless of property order
+   */
+  private static String normalize(JsonNode node) {
+    StringBuilder sb = new StringBuilder();
+    appendNormalized(sb, node);
+    return sb.toString();
+  }
+
+  private static void appendNormalized(StringBuilder sb, JsonNode node) {
+    if (node == null) {
+      sb.append("null");
+    } else if (node.isObject()) {
+      Map<String, JsonNode> sorted = new TreeMap<>();
+      for (Map.Entry<String, JsonNode> property : node.properties()) {
+        sorted.put(property.getKey(), property.getValue());
+      }
+      sb.append('{');
+      boolean first = true;
+      for (Map.Entry<String, JsonNode> property : sorted.entrySet()) {
+        if (!first) {
+          sb.append(',');
+        }
+        first = false;
+        sb.append('"').append(property.getKey()).append("\":");
+        appendNormalized(sb, property.getValue());
+      }
+      sb.append('}');
+    } else if (node.isArray()) {
+      sb.append('[');
+      boolean first = true;
+      for (JsonNode child : node) {
+        if (!first) {
+          sb.append(',');
+        }
+        first = false;
+        appendNormalized(sb, child);
+      }
+      sb.append(']');
+    } else {
+      sb.append(node.toString());
+    }
+  }
+
+}
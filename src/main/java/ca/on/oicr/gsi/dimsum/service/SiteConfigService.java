@@ -0,0 +1,96 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ca.on.oicr.gsi.dimsum.FrontEndConfig;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Serializes the front-end config into the site config script. The internal and external variants
+ * are each built once when the config changes, and identified by a hash of their content so that
+ * they can be served under versioned URLs
+ */
+@Service
+public class SiteConfigService {
+
+  public static record Script(byte[] bytes, String hash) {
+  }
+
+  private static record Scripts(long version, Script internal, Script external) {
+  }
+
+  @Autowired
+  private FrontEndConfig frontEndConfig;
+
+  @Autowired
+  private JsonMapper jsonMapper;
+
+  // Held while building scripts, so that concurrent requests after a config change build them once
+  private final ReentrantLock buildLock = new ReentrantLock();
+  private volatile Scripts scripts;
+
+  protected void setFrontEndConfig(FrontEndConfig frontEndConfig) {
+    this.frontEndConfig = frontEndConfig;
+  }
+
+  protected void setJsonMapper(JsonMapper jsonMapper) {
+    this.jsonMapper = jsonMapper;
+  }
+
+  /**
+   * @param internal whether to get the variant for internal users
+   * @return the current site config script
+   */
+  public Script getScript(boolean internal) {
+    Scripts current = scripts;
+    long version = frontEndConfig.getVersion();
+    if (current == null || current.version() != version) {
+      current = buildScripts(version);
+    }
+    return internal ? current.internal() : current.external();
+  }
+
+  private Scripts buildScripts(long version) {
+    buildLock.lock();
+    try {
+      Scripts current = scripts;
+      if (current != null && current.version() == version) {
+        return current;
+      }
+      // The version is read before serializing, so the scripts are never older than it indicates
+      ObjectNode config = jsonMapper.valueToTree(frontEndConfig);
+      Script internal = makeScript(config, frontEndConfig.getInternalAssaysById());
+      Script external = makeScript(config, frontEndConfig.getExternalAssaysById());
+      current = new Scripts(version, internal, external);
+      scripts = current;
+      return current;
+    } finally {
+      buildLock.unlock();
+    }
+  }
+
+  private Script makeScript(ObjectNode config, Map<Long, ?> assaysById) {
+    if (assaysById == null) {
+      config.putNull("assaysById");
+    } else {
+      config.set("assaysById", jsonMapper.valueToTree(assaysById));
+    }
+    byte[] bytes = String.format("window.siteConfig = %s;", jsonMapper.writeValueAsString(config))
+        .getBytes(StandardCharsets.UTF_8);
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    return new Script(bytes, HexFormat.of().formatHex(digest.digest(bytes), 0, 16));
+  }
+
+}
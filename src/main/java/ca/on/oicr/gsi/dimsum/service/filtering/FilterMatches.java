@@ -0,0 +1,45 @@
+package ca.on.oicr.gsi.dimsum.service.filtering;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Combines filter matches for the per-generation table indexes, where each item is identified by
+ * its index in the table. Filters with the same key are combined using OR, and filters with
+ * different keys are combined using AND, matching the other table queries
+ */
+final class FilterMatches {
+
+  private FilterMatches() {}
+
+  /**
+   * @param filters the filters to apply; must not be empty
+   * @param keyType the filter key type
+   * @param getKey gets the key of a filter
+   * @param size number of items in the table
+   * @param addMatches sets the IDs of items matching a filter in the given set
+   * @return the IDs of items that match the filters
+   */
+  static <F, K extends Enum<K>> BitSet combine(Collection<F> filters, Class<K> keyType,
+      Function<F, K> getKey, int size, BiConsumer<F, BitSet> addMatches) {
+    Map<K, BitSet> matchesByKey = new EnumMap<>(keyType);
+    for (F filter : filters) {
+      addMatches.accept(filter,
+          matchesByKey.computeIfAbsent(getKey.apply(filter), x -> new BitSet(size)));
+    }
+    BitSet matches = null;
+    for (BitSet keyMatches : matchesByKey.values()) {
+      if (matches == null) {
+        matches = keyMatches;
+      } else {
+        matches.and(keyMatches);
+      }
+    }
+    return matches;
+  }
+
+}
@@ -21,6 +21,10 @@ public class OmittedSampleFilter {
     return key;
   }
 
+  public String getValue() {
+    return value;
+  }
+
   public Predicate<OmittedSample> predicate() {
     return key.create().apply(value);
   }
@@ -0,0 +1,102 @@
+package ca.on.oicr.gsi.dimsum.service.filtering;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.concurrent.Immutable;
+import ca.on.oicr.gsi.cardea.data.OmittedSample;
+
+/**
+ * Omitted samples of a single data generation, sorted once in each direction of each
+ * {@link OmittedSampleSort}, and indexed by project, donor name, and requisition name. Matching
+ * samples are ordered by their precomputed positions. Donor filters also match external names
+ * containing the value, which can't be found using an index, so the lowercase external names are
+ * kept for scanning. Each sample is identified by its position in the list of samples
+ */
+@Immutable
+public class OmittedSampleIndex {
+
+  private final List<OmittedSample> samples;
+  private final Map<OmittedSampleSort, SortOrder> ascendingOrders =
+      new EnumMap<>(OmittedSampleSort.class);
+  private final Map<OmittedSampleSort, SortOrder> descendingOrders =
+      new EnumMap<>(OmittedSampleSort.class);
+  // PROJECT filters are case-insensitive
+  private final Map<String, int[]> idsByProject = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+  private final PrefixIndex donorNameIndex;
+  private final String[] lowercaseDonorExternalNames;
+  private final PrefixIndex requisitionNameIndex;
+
+  public OmittedSampleIndex(Collection<OmittedSample> samples) {
+    this.samples = List.copyOf(samples);
+    for (OmittedSampleSort sort : OmittedSampleSort.values()) {
+      ascendingOrders.put(sort, new SortOrder(this.samples, sort.comparator()));
+      // sorted separately, as reversing the ascending order would also reverse the order of ties
+      descendingOrders.put(sort, new SortOrder(this.samples, sort.comparator().reversed()));
+    }
+    Map<String, List<Integer>> projectIds = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (int id = 0; id < this.samples.size(); id++) {
+      String project = this.samples.get(id).getProject();
+      if (project != null) {
+        projectIds.computeIfAbsent(project, x -> new ArrayList<>()).add(id);
+      }
+    }
+    projectIds.forEach((project, ids) -> idsByProject.put(project,
+        ids.stream().mapToInt(Integer::intValue).toArray()));
+    donorNameIndex = new PrefixIndex(this.samples, sample -> sample.getDonor().getName());
+    lowercaseDonorExternalNames = this.samples.stream()
+        .map(sample -> sample.getDonor().getExternalName())
+        .map(name -> name == null ? null : PrefixIndex.lowercase(name))
+        .toArray(String[]::new);
+    requisitionNameIndex = new PrefixIndex(this.samples, OmittedSample::getRequisitionName);
+  }
+
+  /**
+   * Gets a page of omitted samples
+   *
+   * @param pageSize number of items per page
+   * @param pageNumber page number, starting from 1
+   * @param sort sort order
+   * @param descending whether to reverse the sort order
+   * @param filters filters; may be null
+   * @return the page, and total and filtered counts
+   */
+  public TableData<OmittedSample> getOmittedSamples(int pageSize, int pageNumber,
+      OmittedSampleSort sort, boolean descending, Collection<OmittedSampleFilter> filters) {
+    SortOrder order = (descending ? descendingOrders : ascendingOrders).get(sort);
+    int[] sampleIds = filters == null || filters.isEmpty() ? order.getIds()
+        : order.getIds(getMatches(filters));
+    return SortOrder.page(samples, sampleIds, pageSize, pageNumber);
+  }
+
+  private BitSet getMatches(Collection<OmittedSampleFilter> filters) {
+    return FilterMatches.combine(filters, OmittedSampleFilterKey.class,
+        OmittedSampleFilter::getKey, samples.size(), this::addMatches);
+  }
+
+  private void addMatches(OmittedSampleFilter filter, BitSet matches) {
+    switch (filter.getKey()) {
+      case DONOR -> {
+        donorNameIndex.addMatches(filter.getValue(), matches);
+        String value = PrefixIndex.lowercase(filter.getValue());
+        for (int id = 0; id < lowercaseDonorExternalNames.length; id++) {
+          String externalName = lowercaseDonorExternalNames[id];
+          if (externalName != null && externalName.contains(value)) {
+            matches.set(id);
+          }
+        }
+      }
+      case PROJECT -> {
+        for (int id : idsByProject.getOrDefault(filter.getValue(), new int[0])) {
+          matches.set(id);
+        }
+      }
+      case REQUISITION -> requisitionNameIndex.addMatches(filter.getValue(), matches);
+    }
+  }
+
+}
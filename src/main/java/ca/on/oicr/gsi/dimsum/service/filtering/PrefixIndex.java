@@ -0,0 +1,79 @@
+package ca.on.oicr.gsi.dimsum.service.filtering;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Finds items with a string value that starts with a prefix, ignoring case, by binary search over
+ * the sorted lowercase values. Each item is identified by its index in the list of items
+ */
+@Immutable
+final class PrefixIndex {
+
+  // Sorted lowercase values, and the ID of the item with each value
+  private final String[] values;
+  private final int[] ids;
+
+  /**
+   * @param items the items to index
+   * @param getValue gets the value to index from an item. Items with a null value are excluded
+   */
+  <T> PrefixIndex(List<T> items, Function<T, String> getValue) {
+    String[] lowercaseValues = items.stream()
+        .map(getValue)
+        .map(value -> value == null ? null : lowercase(value))
+        .toArray(String[]::new);
+    ids = IntStream.range(0, lowercaseValues.length)
+        .filter(id -> lowercaseValues[id] != null)
+        .boxed()
+        .sorted(Comparator.comparing(id -> lowercaseValues[id]))
+        .mapToInt(Integer::intValue)
+        .toArray();
+    values = IntStream.of(ids).mapToObj(id -> lowercaseValues[id]).toArray(String[]::new);
+  }
+
+  /**
+   * Lowercases a value in the same way as the filter predicates
+   */
+  static String lowercase(String value) {
+    return value.toLowerCase();
+  }
+
+  /**
+   * Adds the IDs of all items with a value that starts with the prefix, ignoring case
+   *
+   * @param prefix the prefix to search for
+   * @param matches the set to add matching IDs to
+   */
+  void addMatches(String prefix, BitSet matches) {
+    String lowercasePrefix = lowercase(prefix);
+    int from = lowerBound(lowercasePrefix);
+    // no values that start with the prefix sort after this
+    int to = lowerBound(lowercasePrefix + Character.MAX_VALUE);
+    for (int i = from; i < to; i++) {
+      matches.set(ids[i]);
+    }
+  }
+
+  /**
+   * @return the index of the first value that is not less than the key
+   */
+  private int lowerBound(String key) {
+    int low = 0;
+    int high = values.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (values[mid].compareTo(key) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+}
@@ -23,6 +23,10 @@ public class ProjectSummaryFilter {
     return key;
   }
 
+  public String getValue() {
+    return value;
+  }
+
   public Predicate<ProjectSummary> predicate() {
     return key.create().apply(value);
   }
@@ -0,0 +1,139 @@
+package ca.on.oicr.gsi.dimsum.service.filtering;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.concurrent.Immutable;
+import ca.on.oicr.gsi.dimsum.data.ProjectSummary;
+import ca.on.oicr.gsi.dimsum.data.external.ExternalProjectSummary;
+
+/**
+ * Project summaries of a single data generation, with their external projections, sorted once in
+ * each direction of each {@link ProjectSummarySort}, and indexed by name and pipeline. An
+ * unfiltered page is a slice of a sorted order. Filtered pages only look up the matching projects,
+ * and order them by their precomputed positions. Each project is identified by its position in the
+ * list of summaries
+ */
+@Immutable
+public class ProjectSummaryIndex {
+
+  private final List<ProjectSummary> summaries;
+  private final List<ExternalProjectSummary> externalSummaries;
+  private final Map<ProjectSummarySort, SortOrder> ascendingOrders =
+      new EnumMap<>(ProjectSummarySort.class);
+  private final Map<ProjectSummarySort, SortOrder> descendingOrders =
+      new EnumMap<>(ProjectSummarySort.class);
+  private final Map<String, Integer> idsByName = new HashMap<>();
+  // NAME filters are case-insensitive
+  private final Map<String, int[]> idsByNameIgnoreCase =
+      new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+  private final Map<String, int[]> idsByPipeline = new HashMap<>();
+
+  public ProjectSummaryIndex(Collection<ProjectSummary> projectSummaries) {
+    this.summaries = List.copyOf(projectSummaries);
+    this.externalSummaries = summaries.stream().map(ExternalProjectSummary::new).toList();
+    for (ProjectSummarySort sort : ProjectSummarySort.values()) {
+      ascendingOrders.put(sort, new SortOrder(summaries, sort.comparator()));
+      // sorted separately, as reversing the ascending order would also reverse the order of ties
+      descendingOrders.put(sort, new SortOrder(summaries, sort.comparator().reversed()));
+    }
+    Map<String, List<Integer>> nameIds = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    Map<String, List<Integer>> pipelineIds = new HashMap<>();
+    for (int id = 0; id < summaries.size(); id++) {
+      ProjectSummary summary = summaries.get(id);
+      idsByName.put(summary.getName(), id);
+      nameIds.computeIfAbsent(summary.getName(), x -> new ArrayList<>()).add(id);
+      pipelineIds.computeIfAbsent(summary.getPipeline(), x -> new ArrayList<>()).add(id);
+    }
+    nameIds.forEach((name, ids) -> idsByNameIgnoreCase.put(name,
+        ids.stream().mapToInt(Integer::intValue).toArray()));
+    pipelineIds.forEach((pipeline, ids) -> idsByPipeline.put(pipeline,
+        ids.stream().mapToInt(Integer::intValue).toArray()));
+  }
+
+  /**
+   * Gets a page of project summaries
+   *
+   * @param pageSize number of items per page
+   * @param pageNumber page number, starting from 1
+   * @param sort sort order
+   * @param descending whether to reverse the sort order
+   * @param filters filters; may be null
+   * @return the page, and total and filtered counts
+   */
+  public TableData<ProjectSummary> getProjectSummaries(int pageSize, int pageNumber,
+      ProjectSummarySort sort, boolean descending, Collection<ProjectSummaryFilter> filters) {
+    return getPage(summaries, null, pageSize, pageNumber, sort, descending, filters);
+  }
+
+  /**
+   * Gets a page of external project summaries, including only the specified projects
+   *
+   * @param projectNames names of the projects to include
+   * @param pageSize number of items per page
+   * @param pageNumber page number, starting from 1
+   * @param sort sort order
+   * @param descending whether to reverse the sort order
+   * @param filters filters; may be null
+   * @return the page, and total and filtered counts
+   */
+  public TableData<ExternalProjectSummary> getExternalProjectSummaries(Set<String> projectNames,
+      int pageSize, int pageNumber, ProjectSummarySort sort, boolean descending,
+      Collection<ProjectSummaryFilter> filters) {
+    return getPage(externalSummaries, projectNames, pageSize, pageNumber, sort, descending,
+        filters);
+  }
+
+  /**
+   * @param items all summaries or external summaries, by ID
+   * @param projectNames names of projects to limit the page to; may be null to include all
+   */
+  private <T> TableData<T> getPage(List<T> items, Set<String> projectNames, int pageSize,
+      int pageNumber, ProjectSummarySort sort, boolean descending,
+      Collection<ProjectSummaryFilter> filters) {
+    SortOrder order = (descending ? descendingOrders : ascendingOrders).get(sort);
+    BitSet matches = projectNames == null ? null : getIds(projectNames);
+    int totalCount = matches == null ? items.size() : matches.cardinality();
+    if (filters != null && !filters.isEmpty()) {
+      BitSet filterMatches = FilterMatches.combine(filters, ProjectSummaryFilterKey.class,
+          ProjectSummaryFilter::getKey, summaries.size(), this::addMatches);
+      if (matches == null) {
+        matches = filterMatches;
+      } else {
+        matches.and(filterMatches);
+      }
+    }
+    int[] ids = matches == null ? order.getIds() : order.getIds(matches);
+    TableData<T> data = SortOrder.page(items, ids, pageSize, pageNumber);
+    data.setTotalCount(totalCount);
+    return data;
+  }
+
+  private BitSet getIds(Set<String> projectNames) {
+    BitSet ids = new BitSet(summaries.size());
+    for (String projectName : projectNames) {
+      Integer id = idsByName.get(projectName);
+      if (id != null) {
+        ids.set(id);
+      }
+    }
+    return ids;
+  }
+
+  private void addMatches(ProjectSummaryFilter filter, BitSet matches) {
+    Map<String, int[]> index = switch (filter.getKey()) {
+      case NAME -> idsByNameIgnoreCase;
+      case PIPELINE -> idsByPipeline;
+    };
+    for (int id : index.getOrDefault(filter.getValue(), new int[0])) {
+      matches.set(id);
+    }
+  }
+
+}
@@ -22,6 +22,10 @@ public class RunFilter {
     return key;
   }
 
+  public String getValue() {
+    return value;
+  }
+
   public Predicate<Run> predicate() {
     return key.create().apply(value);
   }
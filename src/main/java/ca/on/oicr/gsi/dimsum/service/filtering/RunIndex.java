@@ -0,0 +1,112 @@
+package ca.on.oicr.gsi.dimsum.service.filtering;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import javax.annotation.concurrent.Immutable;
+import ca.on.oicr.gsi.cardea.data.Run;
+
+/**
+ * Runs of a single data generation, sorted once in each direction of each {@link RunSort}, and
+ * indexed by lowercase name and by completion date. An unfiltered page is a slice of a sorted
+ * order. Name prefix and completion date filters are resolved by binary search, and the matching
+ * runs are then ordered by their precomputed positions. Each run is identified by its position in
+ * the list of runs
+ */
+@Immutable
+public class RunIndex {
+
+  private final List<Run> runs;
+  private final Map<RunSort, SortOrder> ascendingOrders = new EnumMap<>(RunSort.class);
+  private final Map<RunSort, SortOrder> descendingOrders = new EnumMap<>(RunSort.class);
+  private final PrefixIndex nameIndex;
+  // Sorted completion dates as epoch days, and the ID of the run with each date. Runs without a
+  // completion date are excluded, as they never match a date filter
+  private final long[] completionDays;
+  private final int[] runIdsByCompletionDay;
+
+  public RunIndex(Collection<Run> runs) {
+    this.runs = List.copyOf(runs);
+    for (RunSort sort : RunSort.values()) {
+      ascendingOrders.put(sort, new SortOrder(this.runs, sort.comparator()));
+      // sorted separately, as reversing the ascending order would also reverse the order of ties
+      descendingOrders.put(sort, new SortOrder(this.runs, sort.comparator().reversed()));
+    }
+    nameIndex = new PrefixIndex(this.runs, Run::getName);
+    runIdsByCompletionDay = IntStream.range(0, this.runs.size())
+        .filter(id -> this.runs.get(id).getCompletionDate() != null)
+        .boxed()
+        .sorted(Comparator.comparing(id -> this.runs.get(id).getCompletionDate()))
+        .mapToInt(Integer::intValue)
+        .toArray();
+    completionDays = IntStream.of(runIdsByCompletionDay)
+        .mapToLong(id -> this.runs.get(id).getCompletionDate().toEpochDay())
+        .toArray();
+  }
+
+  /**
+   * Gets a page of runs
+   *
+   * @param pageSize number of items per page
+   * @param pageNumber page number, starting from 1
+   * @param sort sort order
+   * @param descending whether to reverse the sort order
+   * @param filters filters; may be null
+   * @return the page, and total and filtered counts
+   */
+  public TableData<Run> getRuns(int pageSize, int pageNumber, RunSort sort, boolean descending,
+      Collection<RunFilter> filters) {
+    SortOrder order = (descending ? descendingOrders : ascendingOrders).get(sort);
+    int[] runIds = filters == null || filters.isEmpty() ? order.getIds()
+        : order.getIds(getMatches(filters));
+    return SortOrder.page(runs, runIds, pageSize, pageNumber);
+  }
+
+  private BitSet getMatches(Collection<RunFilter> filters) {
+    return FilterMatches.combine(filters, RunFilterKey.class, RunFilter::getKey, runs.size(),
+        this::addMatches);
+  }
+
+  private void addMatches(RunFilter filter, BitSet matches) {
+    switch (filter.getKey()) {
+      case NAME -> nameIndex.addMatches(filter.getValue(), matches);
+      case COMPLETED_BEFORE -> {
+        long day = LocalDate.parse(filter.getValue()).toEpochDay();
+        setAll(matches, 0, lowerBound(completionDays, day));
+      }
+      case COMPLETED_AFTER -> {
+        long day = LocalDate.parse(filter.getValue()).toEpochDay();
+        setAll(matches, lowerBound(completionDays, day + 1), completionDays.length);
+      }
+    }
+  }
+
+  private void setAll(BitSet bits, int from, int to) {
+    for (int i = from; i < to; i++) {
+      bits.set(runIdsByCompletionDay[i]);
+    }
+  }
+
+  /**
+   * @return the index of the first element that is not less than the key
+   */
+  private static int lowerBound(long[] sorted, long key) {
+    int low = 0;
+    int high = sorted.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sorted[mid] < key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+}
@@ -0,0 +1,75 @@
+package ca.on.oicr.gsi.dimsum.service.filtering;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A precomputed sort order of a list of items, where each item is identified by its index in the
+ * list. Used by the per-generation table indexes to order filter matches without comparing items
+ */
+@Immutable
+final class SortOrder {
+
+  // Item IDs in sorted order, and the position of each item in the sorted order by ID
+  private final int[] ids;
+  private final int[] positions;
+
+  /**
+   * @param items the items to sort
+   * @param comparator the sort order. The sort is stable, as when sorting a stream of the items
+   */
+  <T> SortOrder(List<T> items, Comparator<? super T> comparator) {
+    ids = IntStream.range(0, items.size())
+        .boxed()
+        .sorted(Comparator.comparing(items::get, comparator))
+        .mapToInt(Integer::intValue)
+        .toArray();
+    positions = new int[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      positions[ids[i]] = i;
+    }
+  }
+
+  /**
+   * @return the IDs of all items, in sorted order
+   */
+  int[] getIds() {
+    return ids;
+  }
+
+  /**
+   * @param matches IDs of the items to include
+   * @return the included IDs, in sorted order
+   */
+  int[] getIds(BitSet matches) {
+    return matches.stream()
+        .map(id -> positions[id])
+        .sorted()
+        .map(position -> ids[position])
+        .toArray();
+  }
+
+  /**
+   * Makes a page of table data from sorted item IDs
+   *
+   * @param items all items, by ID
+   * @param sortedIds IDs of the filtered items, in sorted order
+   * @param pageSize number of items per page
+   * @param pageNumber page number, starting from 1
+   * @return the page, and total and filtered counts
+   */
+  static <T> TableData<T> page(List<T> items, int[] sortedIds, int pageSize, int pageNumber) {
+    int start = (int) Math.min((long) pageSize * (pageNumber - 1), sortedIds.length);
+    int end = Math.min(start + pageSize, sortedIds.length);
+    TableData<T> data = new TableData<>();
+    data.setTotalCount(items.size());
+    data.setFilteredCount(sortedIds.length);
+    data.setItems(Arrays.stream(sortedIds, start, end).mapToObj(items::get).toList());
+    return data;
+  }
+
+}
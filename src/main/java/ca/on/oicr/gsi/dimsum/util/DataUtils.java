@@ -2,6 +2,7 @@ package ca.on.oicr.gsi.dimsum.util;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import ca.on.oicr.gsi.cardea.data.Case;
@@ -11,6 +12,8 @@ import ca.on.oicr.gsi.cardea.data.CaseRelease;
 import ca.on.oicr.gsi.cardea.data.OmittedRunSample;
 import ca.on.oicr.gsi.cardea.data.Run;
 import ca.on.oicr.gsi.cardea.data.Sample;
+import ca.on.oicr.gsi.cardea.data.SampleMetric;
+import ca.on.oicr.gsi.cardea.data.ThresholdType;
 import ca.on.oicr.gsi.dimsum.data.external.ExternalSample;
 
 public class DataUtils {
@@ -98,6 +101,27 @@ public class DataUtils {
                 && sample.getRun().getDataReviewPassed() == null));
   }
 
+  /**
+   * Determines whether all metrics that need a value are available for a sample. Boolean metrics
+   * other than sample authentication are not considered, as they may never have a value
+   *
+   * @param sample the sample
+   * @return true if all such metrics have a QC status, or the sample has no metrics
+   */
+  public static boolean isMetricsAvailable(Sample sample) {
+    if (sample.getMetrics() == null) {
+      // No metrics means no values to wait for, so all are available
+      return true;
+    }
+    for (SampleMetric metric : sample.getMetrics()) {
+      if ((Objects.equals("Sample Authenticated", metric.getName())
+          || metric.getThresholdType() != ThresholdType.BOOLEAN) && metric.getQcPassed() == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   public static boolean isTopUpRequired(Sample sample) {
     return TOP_UP_REASON.equals(sample.getQcReason());
   }
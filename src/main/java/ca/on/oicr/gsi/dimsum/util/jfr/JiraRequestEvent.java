@@ -0,0 +1,21 @@
+package ca.on.oicr.gsi.dimsum.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ca.on.oicr.gsi.dimsum.JiraRequest")
+@Label("JIRA Request")
+@Category({"Dimsum", "JIRA"})
+@StackTrace(false)
+public class JiraRequestEvent extends Event {
+
+  @Label("Operation")
+  public String operation;
+
+  @Label("Success")
+  public boolean success;
+
+}
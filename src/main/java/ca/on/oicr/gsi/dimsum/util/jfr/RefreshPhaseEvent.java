@@ -0,0 +1,20 @@
+package ca.on.oicr.gsi.dimsum.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ca.on.oicr.gsi.dimsum.RefreshPhase")
+@Label("Data Refresh Phase")
+@Description("One phase of loading case data from Cardea and applying it")
+@Category({"Dimsum", "Data Refresh"})
+@StackTrace(false)
+public class RefreshPhaseEvent extends Event {
+
+  @Label("Phase")
+  public String phase;
+
+}
@@ -0,0 +1,34 @@
+package ca.on.oicr.gsi.dimsum.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ca.on.oicr.gsi.dimsum.ReportRender")
+@Label("Report Render")
+@Description("Rendering of a report file or report data that was not found in the report cache. "
+    + "Row counts are recorded by the nested Report Section events")
+@Category({"Dimsum", "Reports"})
+@StackTrace(false)
+public class ReportRenderEvent extends Event {
+
+  @Label("Report")
+  public String report;
+
+  @Label("Format")
+  public String format;
+
+  @Label("Gzipped")
+  public boolean gzipped;
+
+  @Label("Size")
+  @DataAmount
+  @Description("Size of the rendered report, after compression if gzipped, or -1 if rendering "
+      + "failed")
+  public long bytes;
+
+}
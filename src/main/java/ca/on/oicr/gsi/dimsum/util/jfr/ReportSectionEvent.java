@@ -0,0 +1,27 @@
+package ca.on.oicr.gsi.dimsum.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ca.on.oicr.gsi.dimsum.ReportSection")
+@Label("Report Section")
+@Description("Fetching and writing the data for one section of a report")
+@Category({"Dimsum", "Reports"})
+@StackTrace(false)
+public class ReportSectionEvent extends Event {
+
+  @Label("Section")
+  public String section;
+
+  @Label("Output")
+  @Description("Type of output written: excel, delimited, or json")
+  public String output;
+
+  @Label("Rows")
+  public int rows;
+
+}
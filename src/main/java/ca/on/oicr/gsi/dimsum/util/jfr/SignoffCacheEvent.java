@@ -0,0 +1,28 @@
+package ca.on.oicr.gsi.dimsum.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ca.on.oicr.gsi.dimsum.SignoffCacheUpdate")
+@Label("Signoff Cache Update")
+@Description("Update of the cached signoffs and assignments, and the resulting rebuild of cases")
+@Category({"Dimsum", "Signoffs"})
+@StackTrace(false)
+public class SignoffCacheEvent extends Event {
+
+  @Label("Operation")
+  public String operation;
+
+  @Label("Signoff Count")
+  @Description("Number of signoffs or bulk signoffs applied")
+  public int signoffCount;
+
+  @Label("Cached Cases")
+  @Description("Number of cases with cached signoffs or assignments after the update")
+  public int cachedCaseCount;
+
+}
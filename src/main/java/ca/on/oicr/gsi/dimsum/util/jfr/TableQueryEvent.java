@@ -0,0 +1,35 @@
+package ca.on.oicr.gsi.dimsum.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ca.on.oicr.gsi.dimsum.TableQuery")
+@Label("Table Query")
+@Description("Query for a page of table data")
+@Category({"Dimsum", "Queries"})
+@StackTrace(false)
+public class TableQueryEvent extends Event {
+
+  @Label("Table")
+  public String table;
+
+  @Label("Scope")
+  @Description("Whether the query was made through the internal, external, or common API")
+  public String scope;
+
+  @Label("Sort")
+  public String sort;
+
+  @Label("Filter Count")
+  @Description("Number of filters applied, including the base filter")
+  public int filterCount;
+
+  @Label("Result Count")
+  @Description("Number of items matching the filters, or -1 if the query failed")
+  public long resultCount;
+
+}
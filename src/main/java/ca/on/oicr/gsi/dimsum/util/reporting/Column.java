@@ -1,23 +1,78 @@
 package ca.on.oicr.gsi.dimsum.util.reporting;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 import org.apache.poi.ss.usermodel.Cell;
 
 public abstract class Column<T> {
 
+  /**
+   * Buffer holding the values extracted for a single column, indexed by row. Values are extracted
+   * once per report and may then be written to any output format
+   */
+  public static interface ColumnValues {
+
+    public int size();
+
+    public void writeExcelCell(Cell cell, int row);
+
+    public String getDelimitedString(String delimiter, int row);
+
+  }
+
+  private static abstract class TypedColumn<T, V> extends Column<T> {
+
+    private final Function<T, V> getter;
+
+    public TypedColumn(String title, Function<T, V> getter) {
+      super(title);
+      this.getter = getter;
+    }
+
+    @Override
+    public ColumnValues extractValues(List<T> objects) {
+      List<V> values = new ArrayList<>(objects.size());
+      for (T object : objects) {
+        values.add(getter.apply(object));
+      }
+      return new ColumnValues() {
+
+        @Override
+        public int size() {
+          return values.size();
+        }
+
+        @Override
+        public void writeExcelCell(Cell cell, int row) {
+          writeExcelValue(cell, values.get(row));
+        }
+
+        @Override
+        public String getDelimitedString(String delimiter, int row) {
+          return getDelimitedValue(delimiter, values.get(row));
+        }
+
+      };
+    }
+
+    protected abstract void writeExcelValue(Cell cell, V value);
+
+    protected abstract String getDelimitedValue(String delimiter, V value);
+
+  }
+
   public static <T> Column<T> forString(String title, Function<T, String> getter) {
-    return new Column<T>(title) {
+    return new TypedColumn<T, String>(title, getter) {
 
       @Override
-      public void writeExcelCell(Cell cell, T object) {
-        String value = getter.apply(object);
+      protected void writeExcelValue(Cell cell, String value) {
         cell.setCellValue(value);
       }
 
       @Override
-      public String getDelimitedColumnString(String delimiter, T object) {
-        String value = getter.apply(object);
+      protected String getDelimitedValue(String delimiter, String value) {
         if (value == null || value.isBlank()) {
           return "";
         }
@@ -32,19 +87,17 @@ public abstract class Column<T> {
   }
 
   public static <T> Column<T> forDecimal(String title, Function<T, BigDecimal> getter) {
-    return new Column<T>(title) {
+    return new TypedColumn<T, BigDecimal>(title, getter) {
 
       @Override
-      public void writeExcelCell(Cell cell, T object) {
-        BigDecimal value = getter.apply(object);
+      protected void writeExcelValue(Cell cell, BigDecimal value) {
         if (value != null) {
           cell.setCellValue(value.doubleValue());
         }
       }
 
       @Override
-      public String getDelimitedColumnString(String delimiter, T object) {
-        BigDecimal value = getter.apply(object);
+      protected String getDelimitedValue(String delimiter, BigDecimal value) {
         return value != null ? value.toPlainString() : "";
       }
 
@@ -52,19 +105,17 @@ public abstract class Column<T> {
   }
 
   public static <T> Column<T> forInteger(String title, Function<T, Integer> getter) {
-    return new Column<T>(title) {
+    return new TypedColumn<T, Integer>(title, getter) {
 
       @Override
-      public void writeExcelCell(Cell cell, T object) {
-        Integer value = getter.apply(object);
+      protected void writeExcelValue(Cell cell, Integer value) {
         if (value != null) {
           cell.setCellValue(value.doubleValue());
         }
       }
 
       @Override
-      public String getDelimitedColumnString(String delimiter, T object) {
-        Integer value = getter.apply(object);
+      protected String getDelimitedValue(String delimiter, Integer value) {
         return value != null ? value.toString() : "";
       }
     };
@@ -80,8 +131,12 @@ public abstract class Column<T> {
     return title;
   }
 
-  public abstract void writeExcelCell(Cell cell, T object);
-
-  public abstract String getDelimitedColumnString(String delimiter, T object);
+  /**
+   * Extracts this column's value from each row. The getter is called exactly once per row
+   *
+   * @param objects the report rows
+   * @return a buffer containing the column value for each row, in the same order
+   */
+  public abstract ColumnValues extractValues(List<T> objects);
 
 }
@@ -1,16 +1,22 @@
 package ca.on.oicr.gsi.dimsum.util.reporting;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import ca.on.oicr.gsi.dimsum.controller.BadRequestException;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.json.JsonMapper;
-import tools.jackson.databind.node.ArrayNode;
 
 public abstract class Report {
 
@@ -41,53 +47,97 @@ public abstract class Report {
         return ReportFormat.CSV;
       case "tsv":
         return ReportFormat.TSV;
+      case "csv.gz":
+        return ReportFormat.CSV_GZIP;
+      case "tsv.gz":
+        return ReportFormat.TSV_GZIP;
       default:
         throw new BadRequestException("Invalid report format: " + format);
     }
   }
 
-  public byte[] writeFile(CaseService caseService, JsonNode parameters)
+  /**
+   * Writes the report file to a stream. The stream is flushed, but not closed
+   *
+   * @param caseService service to get report data from
+   * @param parameters report parameters, including format
+   * @param output the stream to write to
+   * @throws IOException if there is an error writing to the stream
+   */
+  public void writeFile(CaseService caseService, JsonNode parameters, OutputStream output)
       throws IOException {
     ReportFormat format = getFormat(parameters);
 
     switch (format) {
       case EXCEL:
-        return writeExcelFile(caseService, parameters);
+        writeExcelFile(caseService, parameters, output);
+        break;
       case CSV:
-        return writeDelimitedFile(caseService, ",", parameters);
+        writeDelimitedFile(caseService, ",", parameters, output);
+        break;
       case TSV:
-        return writeDelimitedFile(caseService, "\t", parameters);
+        writeDelimitedFile(caseService, "\t", parameters, output);
+        break;
+      case CSV_GZIP:
+        writeCompressedDelimitedFile(caseService, ",", parameters, output);
+        break;
+      case TSV_GZIP:
+        writeCompressedDelimitedFile(caseService, "\t", parameters, output);
+        break;
       default:
         throw new BadRequestException("Invalid download format: " + format);
     }
   }
 
-  private byte[] writeExcelFile(CaseService caseService, JsonNode parameters)
+  private void writeExcelFile(CaseService caseService, JsonNode parameters, OutputStream output)
       throws IOException {
     XSSFWorkbook workbook = new XSSFWorkbook();
     for (ReportSection<?> section : sections) {
       section.createExcelSheet(workbook, caseService, parameters);
     }
-    try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
-      workbook.write(output);
-      return output.toByteArray();
-    }
+    workbook.write(output);
+    output.flush();
   }
 
-  private byte[] writeDelimitedFile(CaseService caseService, String delimiter,
-      JsonNode parameters) {
-    StringBuilder sb = new StringBuilder();
+  private void writeDelimitedFile(CaseService caseService, String delimiter,
+      JsonNode parameters, OutputStream output) throws IOException {
     boolean includeHeadings =
         parameters.has(PARAM_HEADINGS) && parameters.get(PARAM_HEADINGS).asBoolean();
+    Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
     // This does not support multiple sections
-    sections.get(0).createDelimitedText(sb, caseService, delimiter, includeHeadings, parameters);
-    return sb.toString().getBytes();
+    sections.get(0).createDelimitedText(writer, caseService, delimiter, includeHeadings,
+        parameters);
+    writer.flush();
   }
 
-  public JsonNode getData(CaseService caseService, JsonNode parameters, JsonMapper jsonMapper) {
-    ArrayNode arrayNode = jsonMapper.createArrayNode();
-    // This does not support multiple sections
-    sections.get(0).createJson(arrayNode, caseService, jsonMapper, parameters);
-    return arrayNode;
+  private void writeCompressedDelimitedFile(CaseService caseService, String delimiter,
+      JsonNode parameters, OutputStream output) throws IOException {
+    GZIPOutputStream gzip = new GZIPOutputStream(output);
+    writeDelimitedFile(caseService, delimiter, parameters, gzip);
+    // finish rather than close, leaving the underlying stream open
+    gzip.finish();
+    output.flush();
+  }
+
+  /**
+   * Writes the report data to a stream as a JSON array, one object per row. The stream is flushed,
+   * but not closed
+   *
+   * @param caseService service to get report data from
+   * @param parameters report parameters
+   * @param jsonMapper mapper to create the JSON generator with
+   * @param output the stream to write to
+   */
+  public void writeData(CaseService caseService, JsonNode parameters, JsonMapper jsonMapper,
+      OutputStream output) {
+    try (JsonGenerator generator = jsonMapper.writer()
+        .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .createGenerator(output)) {
+      generator.writeStartArray();
+      // This does not support multiple sections
+      sections.get(0).createJson(generator, caseService, parameters);
+      generator.writeEndArray();
+      generator.flush();
+    }
   }
 }
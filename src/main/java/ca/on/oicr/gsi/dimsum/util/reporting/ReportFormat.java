@@ -4,17 +4,21 @@ import org.springframework.http.MediaType;
 
 public enum ReportFormat {
   // @formatter:off
-  EXCEL(new MediaType("application", "vnd.ms-excel"), "xlsx"),
-  CSV(new MediaType("text", "csv"), "csv"),
-  TSV(new MediaType("text", "tab-separated-values"), "tsv");
+  EXCEL(new MediaType("application", "vnd.ms-excel"), "xlsx", false),
+  CSV(new MediaType("text", "csv"), "csv", true),
+  TSV(new MediaType("text", "tab-separated-values"), "tsv", true),
+  CSV_GZIP(new MediaType("application", "gzip"), "csv.gz", false),
+  TSV_GZIP(new MediaType("application", "gzip"), "tsv.gz", false);
   // @formatter:on
 
   private final MediaType mediaType;
   private final String extension;
+  private final boolean compressible;
 
-  private ReportFormat(MediaType mediaType, String extension) {
+  private ReportFormat(MediaType mediaType, String extension, boolean compressible) {
     this.mediaType = mediaType;
     this.extension = extension;
+    this.compressible = compressible;
   }
 
   public MediaType getMediaType() {
@@ -24,4 +28,12 @@ public enum ReportFormat {
   public String getExtension() {
     return extension;
   }
+
+  /**
+   * @return true if the file benefits from HTTP compression; false if the file is already
+   *         compressed
+   */
+  public boolean isCompressible() {
+    return compressible;
+  }
 }
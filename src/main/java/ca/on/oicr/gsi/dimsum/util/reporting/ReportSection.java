@@ -1,5 +1,7 @@
 package ca.on.oicr.gsi.dimsum.util.reporting;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -14,10 +16,10 @@ import ca.on.oicr.gsi.dimsum.controller.BadRequestException;
 import ca.on.oicr.gsi.dimsum.controller.mvc.MvcUtils;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
 import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
+import ca.on.oicr.gsi.dimsum.util.jfr.ReportSectionEvent;
+import ca.on.oicr.gsi.dimsum.util.reporting.Column.ColumnValues;
+import tools.jackson.core.JsonGenerator;
 import tools.jackson.databind.JsonNode;
-import tools.jackson.databind.json.JsonMapper;
-import tools.jackson.databind.node.ArrayNode;
-import tools.jackson.databind.node.ObjectNode;
 
 public abstract class ReportSection<T> {
 
@@ -29,6 +31,18 @@ public abstract class ReportSection<T> {
 
     public abstract List<Column<T>> getColumns(List<T> data);
 
+    /**
+     * Extracts all column values up front so that each column getter runs once per row,
+     * regardless of the output format
+     */
+    private List<ColumnValues> extractColumnValues(List<Column<T>> columns, List<T> objects) {
+      List<ColumnValues> values = new ArrayList<>(columns.size());
+      for (Column<T> column : columns) {
+        values.add(column.extractValues(objects));
+      }
+      return values;
+    }
+
     @Override
     public void writeExcelSheet(XSSFSheet worksheet, List<T> objects) {
       int row = 0;
@@ -40,50 +54,53 @@ public abstract class ReportSection<T> {
         cell.setCellValue(column.getTitle());
       }
 
-      for (T object : objects) {
+      List<ColumnValues> values = extractColumnValues(columns, objects);
+      for (int objectIndex = 0; objectIndex < objects.size(); objectIndex++) {
         Row dataRow = worksheet.createRow(row++);
-        for (int i = 0; i < columns.size(); i++) {
-          Column<T> column = columns.get(i);
+        for (int i = 0; i < values.size(); i++) {
           Cell cell = dataRow.createCell(i);
-          column.writeExcelCell(cell, object);
+          values.get(i).writeExcelCell(cell, objectIndex);
         }
       }
     }
 
     @Override
-    public void writeDelimitedText(StringBuilder sb, List<T> objects, String delimiter,
-        boolean includeHeaders) {
+    public void writeDelimitedText(Writer writer, List<T> objects, String delimiter,
+        boolean includeHeaders) throws IOException {
       List<Column<T>> columns = getColumns(objects);
       if (includeHeaders) {
         for (int i = 0; i < columns.size(); i++) {
           if (i > 0) {
-            sb.append(delimiter);
+            writer.write(delimiter);
           }
-          sb.append(columns.get(i).getTitle());
+          writer.write(columns.get(i).getTitle());
         }
-        sb.append("\r\n");
+        writer.write("\r\n");
       }
-      for (T object : objects) {
-        for (int i = 0; i < columns.size(); i++) {
+      List<ColumnValues> values = extractColumnValues(columns, objects);
+      for (int objectIndex = 0; objectIndex < objects.size(); objectIndex++) {
+        for (int i = 0; i < values.size(); i++) {
           if (i > 0) {
-            sb.append(delimiter);
+            writer.write(delimiter);
           }
-          sb.append(columns.get(i).getDelimitedColumnString(delimiter, object));
+          writer.write(values.get(i).getDelimitedString(delimiter, objectIndex));
         }
-        sb.append("\r\n");
+        writer.write("\r\n");
       }
     }
 
     @Override
-    public void writeJson(ArrayNode arrayNode, List<T> objects, JsonMapper jsonMapper) {
+    public void writeJson(JsonGenerator generator, List<T> objects) {
       List<Column<T>> columns = getColumns(objects);
-      for (T object : objects) {
-        ObjectNode objectNode = jsonMapper.createObjectNode();
-        for (Column<T> column : columns) {
-          String value = column.getDelimitedColumnString(",", object).replaceAll("\"", "");
-          objectNode.put(column.getTitle(), value);
+      List<ColumnValues> values = extractColumnValues(columns, objects);
+      for (int objectIndex = 0; objectIndex < objects.size(); objectIndex++) {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.size(); i++) {
+          String value =
+              values.get(i).getDelimitedString(",", objectIndex).replaceAll("\"", "");
+          generator.writeStringProperty(columns.get(i).getTitle(), value);
         }
-        arrayNode.add(objectNode);
+        generator.writeEndObject();
       }
     }
   }
@@ -116,29 +133,54 @@ public abstract class ReportSection<T> {
 
   public void createExcelSheet(XSSFWorkbook workbook, CaseService caseService,
       JsonNode parameters) {
+    ReportSectionEvent event = startEvent();
     List<T> objects = getData(caseService, parameters);
     XSSFSheet worksheet = workbook.createSheet(getTitle());
     writeExcelSheet(worksheet, objects);
+    commitEvent(event, "excel", objects);
   }
 
   protected abstract void writeExcelSheet(XSSFSheet worksheet, List<T> objects);
 
-  public void createDelimitedText(StringBuilder sb, CaseService caseService,
-      String delimiter, boolean includeHeadings, JsonNode parameters) {
+  public void createDelimitedText(Writer writer, CaseService caseService,
+      String delimiter, boolean includeHeadings, JsonNode parameters) throws IOException {
+    ReportSectionEvent event = startEvent();
     List<T> objects = getData(caseService, parameters);
-    writeDelimitedText(sb, objects, delimiter, includeHeadings);
+    writeDelimitedText(writer, objects, delimiter, includeHeadings);
+    commitEvent(event, "delimited", objects);
   }
 
-  protected abstract void writeDelimitedText(StringBuilder sb, List<T> objects, String delimiter,
-      boolean includeHeaders);
+  protected abstract void writeDelimitedText(Writer writer, List<T> objects, String delimiter,
+      boolean includeHeaders) throws IOException;
 
-  public void createJson(ArrayNode json, CaseService caseService, JsonMapper jsonMapper,
+  public void createJson(JsonGenerator generator, CaseService caseService,
       JsonNode parameters) {
+    ReportSectionEvent event = startEvent();
     List<T> objects = getData(caseService, parameters);
-    writeJson(json, objects, jsonMapper);
+    writeJson(generator, objects);
+    commitEvent(event, "json", objects);
   }
 
-  protected abstract void writeJson(ArrayNode json, List<T> objects, JsonMapper jsonMapper);
+  private static ReportSectionEvent startEvent() {
+    ReportSectionEvent event = new ReportSectionEvent();
+    event.begin();
+    return event;
+  }
+
+  private void commitEvent(ReportSectionEvent event, String output, List<T> objects) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.section = getTitle();
+      event.output = output;
+      event.rows = objects.size();
+      event.commit();
+    }
+  }
+
+  /**
+   * Writes each object to a JSON array that has already been started
+   */
+  protected abstract void writeJson(JsonGenerator generator, List<T> objects);
 
   /**
    * Fetches data from the CaseService based on parameters provided
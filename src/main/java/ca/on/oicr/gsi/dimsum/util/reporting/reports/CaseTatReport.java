@@ -31,11 +31,47 @@ import tools.jackson.databind.JsonNode;
 
 public class CaseTatReport extends Report {
 
-  private static record RowData(Case kase, Test test,
-      Map<String, CaseDeliverable> deliverablesByCategory) {
+  /**
+   * Values derived from a case's deliverables. These are calculated once per case and shared by
+   * all of the case's rows (one per test) and by all of the columns that depend on them
+   */
+  private static record CaseTatData(String projectNames, String pipelines,
+      Map<String, DeliverableTatData> deliverablesByCategory, String analysisReviewCompleted,
+      String releaseApprovalCompleted, String releaseCompleted) {
+
+    public static CaseTatData of(Case kase) {
+      Map<String, DeliverableTatData> deliverablesByCategory = kase.getDeliverables().stream()
+          .collect(Collectors.toMap(CaseDeliverable::getDeliverableCategory,
+              DeliverableTatData::of));
+      LocalDate completionDate = DataUtils.getCompletionDate(kase);
+      return new CaseTatData(getSortedProjectNameOrPipeline(kase, Project::getName),
+          getSortedProjectNameOrPipeline(kase, Project::getPipeline),
+          deliverablesByCategory,
+          formatDate(getAnalysisReviewCompletedDate(kase)),
+          formatDate(getReleaseApprovalCompletedDate(kase)),
+          formatDate(completionDate));
+    }
+  }
+
+  private static record DeliverableTatData(CaseDeliverable deliverable, String included,
+      String analysisReviewCompleted, String releaseApprovalCompleted, String releaseCompleted) {
+
+    public static DeliverableTatData of(CaseDeliverable deliverable) {
+      return new DeliverableTatData(deliverable,
+          isDeliverableIncluded(deliverable) ? "YES" : "no",
+          formatDate(getAnalysisReviewCompletedDate(deliverable)),
+          formatDate(getReleaseApprovalCompletedDate(deliverable)),
+          formatDate(getCompletionDate(deliverable)));
+    }
+  }
+
+  private static record RowData(Case kase, Test test, CaseTatData caseData) {
+
+    public DeliverableTatData getDeliverable(String category) {
+      return caseData.deliverablesByCategory().get(category);
+    }
   }
 
-  // the TAT Trend Report depends on the column names defined here
   private static final ReportSection<RowData> caseSection =
       new DynamicTableReportSection<>("Case TAT") {
 
@@ -43,44 +79,40 @@ public class CaseTatReport extends Report {
         public List<RowData> getData(CaseService caseService, JsonNode parameters) {
           List<CaseFilter> filters = getParameterFilters(parameters);
           return caseService.getCaseStream(filters)
-              .flatMap(kase -> kase.getTests().stream().map(test -> {
-                Map<String, CaseDeliverable> deliverablesByCategory =
-                    kase.getDeliverables().stream().collect(Collectors
-                        .toMap(CaseDeliverable::getDeliverableCategory, Function.identity()));
-                return new RowData(kase, test, deliverablesByCategory);
-              }))
+              .flatMap(kase -> {
+                CaseTatData caseData = CaseTatData.of(kase);
+                return kase.getTests().stream().map(test -> new RowData(kase, test, caseData));
+              })
               .collect(Collectors.toList());
         }
 
         private static final List<Column<RowData>> START_COLUMNS = Arrays.asList(
             Column.forString("Case ID", x -> x.kase().getId()),
-            Column.forString("Projects",
-                x -> getSortedProjectNameOrPipeline(x.kase(), Project::getName)),
-            Column.forString("Pipeline",
-                x -> getSortedProjectNameOrPipeline(x.kase(), Project::getPipeline)),
+            Column.forString("Projects", x -> x.caseData().projectNames()),
+            Column.forString("Pipeline", x -> x.caseData().pipelines()),
             Column.forString("Requisition", x -> x.kase().getRequisition().getName()),
             Column.forString("Assay", x -> x.kase().getAssayName()),
             Column.forString("Start Date",
                 x -> x.kase().getStartDate().format(DateTimeFormatter.ISO_LOCAL_DATE)),
             Column.forString("Receipt Completed",
-                x -> findLatestCompletionDate(x.kase().getReceipts(), false)),
+                x -> formatDate(getReceiptCompletedDate(x.kase()))),
             Column.forInteger("Receipt Days", x -> x.kase().getReceiptDaysSpent()),
             Column.forString("Test", x -> x.test().getName()),
             Column.forString("Supplemental Only",
                 x -> isSupplementalOnly(x.test(), x.kase().getRequisition()) ? "Yes" : "No"),
             Column.forString(
                 "Extraction (EX) Completed",
-                x -> findLatestCompletionDate(x.test().getExtractions(), true)),
+                x -> formatDate(getExtractionCompletedDate(x.test()))),
             Column.forInteger("EX Days", x -> x.test().getExtractionDaysSpent()),
             Column.forInteger("EX Prep. Days", x -> x.test().getExtractionPreparationDaysSpent()),
             Column.forInteger("EX QC Days", x -> x.test().getExtractionQcDaysSpent()),
             Column.forInteger("EX Transfer Days", x -> x.test().getExtractionTransferDaysSpent()),
             Column.forString("Library Prep. Completed",
-                x -> findLatestCompletionDate(x.test().getLibraryPreparations(), false)),
+                x -> formatDate(getLibraryPreparationCompletedDate(x.test()))),
             Column.forInteger("Library Prep. Days",
                 x -> x.test().getLibraryPreparationDaysSpent()),
             Column.forString("Library Qual. (LQ) Completed",
-                x -> findLatestCompletionDate(x.test().getLibraryQualifications(), false)),
+                x -> formatDate(getLibraryQualificationCompletedDate(x.test()))),
             Column.forInteger("LQ Loading Days",
                 x -> x.test().getLibraryQualificationLoadingDaysSpent()),
             Column.forInteger("LQ Sequencing Days",
@@ -88,7 +120,7 @@ public class CaseTatReport extends Report {
             Column.forInteger("LQ QC Days", x -> x.test().getLibraryQualificationQcDaysSpent()),
             Column.forInteger("LQ Total Days", x -> x.test().getLibraryQualificationDaysSpent()),
             Column.forString("Full-Depth (FD) Completed",
-                x -> findLatestCompletionDate(x.test().getFullDepthSequencings(), false)),
+                x -> formatDate(getFullDepthSequencingCompletedDate(x.test()))),
             Column.forInteger("FD Loading Days",
                 x -> x.test().getFullDepthSequencingLoadingDaysSpent()),
             Column.forInteger("FD Sequencing Days",
@@ -98,19 +130,14 @@ public class CaseTatReport extends Report {
 
         private static final List<Column<RowData>> END_COLUMNS = Arrays.asList(
             Column.forString("ALL Analysis Review Completed",
-                x -> getGateCompletedDate(x, CaseDeliverable::getAnalysisReviewQcStatus,
-                    CaseDeliverable::getAnalysisReviewQcDate)),
+                x -> x.caseData().analysisReviewCompleted()),
             Column.forInteger("ALL Analysis Review Days",
                 x -> x.kase().getAnalysisReviewDaysSpent()),
             Column.forString("ALL Release Approval Completed",
-                x -> getGateCompletedDate(x, CaseDeliverable::getReleaseApprovalQcStatus,
-                    CaseDeliverable::getReleaseApprovalQcDate)),
+                x -> x.caseData().releaseApprovalCompleted()),
             Column.forInteger("ALL Release Approval Days",
                 x -> x.kase().getReleaseApprovalDaysSpent()),
-            Column.forString("ALL Release Completed", caseTatReport -> {
-              LocalDate completionDate = DataUtils.getCompletionDate(caseTatReport.kase);
-              return completionDate != null ? completionDate.toString() : null;
-            }),
+            Column.forString("ALL Release Completed", x -> x.caseData().releaseCompleted()),
             Column.forInteger("ALL Release Days", x -> x.kase().getReleaseDaysSpent()),
             Column.forInteger("ALL Total Days", x -> x.kase().getCaseDaysSpent()),
             Column.forString("Stopped", x -> x.kase().isStopped() ? "YES" : "no"));
@@ -119,26 +146,29 @@ public class CaseTatReport extends Report {
         public List<Column<RowData>> getColumns(List<RowData> data) {
           // Use TreeSet to sort by value
           Set<String> categories = data.stream()
-              .flatMap(row -> row.kase().getDeliverables().stream()
-                  .map(CaseDeliverable::getDeliverableCategory))
+              .flatMap(row -> row.caseData().deliverablesByCategory().keySet().stream())
               .collect(Collectors.toCollection(TreeSet::new));
 
           Stream<Column<RowData>> colStream = START_COLUMNS.stream();
           colStream = Stream.concat(colStream, categories.stream()
               .flatMap(category -> Stream.of(
-                  Column.forString(category, x -> hasDeliverableCategory(x, category)),
+                  Column.forString(category, x -> getDeliverableField(x, category,
+                      DeliverableTatData::included, "no")),
                   Column.forString(category + " Analysis Review Completed",
-                      x -> getAnalysisReviewCompletedDate(x.deliverablesByCategory.get(category))),
+                      x -> getDeliverableField(x, category,
+                          DeliverableTatData::analysisReviewCompleted, null)),
                   Column.forInteger(category + " Analysis Review Days",
                       x -> getDeliverableField(x, category,
                           CaseDeliverable::getAnalysisReviewDaysSpent)),
                   Column.forString(category + " Release Approval Completed",
-                      x -> getReleaseApprovalCompletedDate(x.deliverablesByCategory.get(category))),
+                      x -> getDeliverableField(x, category,
+                          DeliverableTatData::releaseApprovalCompleted, null)),
                   Column.forInteger(category + " Release Approval Days",
                       x -> getDeliverableField(x, category,
                           CaseDeliverable::getReleaseApprovalDaysSpent)),
                   Column.forString(category + " Release Completed",
-                      x -> getCompletionDate(x.deliverablesByCategory.get(category))),
+                      x -> getDeliverableField(x, category,
+                          DeliverableTatData::releaseCompleted, null)),
                   Column.forInteger(category + " Release Days",
                       x -> getDeliverableField(x, category, CaseDeliverable::getReleaseDaysSpent)),
                   Column.forInteger(category + " Total Days",
@@ -151,10 +181,19 @@ public class CaseTatReport extends Report {
 
         private <T> T getDeliverableField(RowData row, String category,
             Function<CaseDeliverable, T> getter) {
-          CaseDeliverable deliverable = row.deliverablesByCategory.get(category);
+          DeliverableTatData deliverable = row.getDeliverable(category);
           if (deliverable == null) {
             return null;
           }
+          return getter.apply(deliverable.deliverable());
+        }
+
+        private String getDeliverableField(RowData row, String category,
+            Function<DeliverableTatData, String> getter, String defaultValue) {
+          DeliverableTatData deliverable = row.getDeliverable(category);
+          if (deliverable == null) {
+            return defaultValue;
+          }
           return getter.apply(deliverable);
         }
       };
@@ -188,7 +227,38 @@ public class CaseTatReport extends Report {
             .allMatch(sample -> !Objects.equals(sample.getRequisitionId(), requisition.getId()));
   }
 
-  private static String findLatestCompletionDate(List<Sample> samples, boolean requiresTransfer) {
+  static LocalDate getReceiptCompletedDate(Case kase) {
+    return findLatestCompletionDate(kase.getReceipts(), false);
+  }
+
+  static LocalDate getExtractionCompletedDate(Test test) {
+    return findLatestCompletionDate(test.getExtractions(), true);
+  }
+
+  static LocalDate getLibraryPreparationCompletedDate(Test test) {
+    return findLatestCompletionDate(test.getLibraryPreparations(), false);
+  }
+
+  static LocalDate getLibraryQualificationCompletedDate(Test test) {
+    return findLatestCompletionDate(test.getLibraryQualifications(), false);
+  }
+
+  static LocalDate getFullDepthSequencingCompletedDate(Test test) {
+    return findLatestCompletionDate(test.getFullDepthSequencings(), false);
+  }
+
+  static LocalDate getAnalysisReviewCompletedDate(Case kase) {
+    return getGateCompletedDate(kase, CaseDeliverable::getAnalysisReviewQcStatus,
+        CaseDeliverable::getAnalysisReviewQcDate);
+  }
+
+  static LocalDate getReleaseApprovalCompletedDate(Case kase) {
+    return getGateCompletedDate(kase, CaseDeliverable::getReleaseApprovalQcStatus,
+        CaseDeliverable::getReleaseApprovalQcDate);
+  }
+
+  private static LocalDate findLatestCompletionDate(List<Sample> samples,
+      boolean requiresTransfer) {
     LocalDate latestDate = null;
     for (Sample sample : samples) {
       if (!DataUtils.isPassed(sample) || (requiresTransfer && sample.getTransferDate() == null)) {
@@ -211,57 +281,51 @@ public class CaseTatReport extends Report {
         latestDate = dateToCompare;
       }
     }
-    return latestDate != null ? latestDate.format(DateTimeFormatter.ISO_LOCAL_DATE) : null;
+    return latestDate;
   }
 
-  private static String getGateCompletedDate(RowData rowData,
+  private static LocalDate getGateCompletedDate(Case kase,
       Function<CaseDeliverable, CaseQc> statusExtractor,
       Function<CaseDeliverable, LocalDate> dateExtractor) {
-    if (rowData.kase().getDeliverables().stream()
+    if (kase.getDeliverables().stream()
         .anyMatch(deliverable -> DataUtils.isPending((statusExtractor.apply(deliverable))))) {
       return null;
     }
-    return formatDate(rowData.kase().getDeliverables().stream()
+    return kase.getDeliverables().stream()
         .map(dateExtractor)
         .max(LocalDate::compareTo)
-        .orElse(null));
+        .orElse(null);
   }
 
-  private static String getAnalysisReviewCompletedDate(CaseDeliverable deliverable) {
+  static LocalDate getAnalysisReviewCompletedDate(CaseDeliverable deliverable) {
     if (deliverable == null || DataUtils.isPending(deliverable.getAnalysisReviewQcStatus())) {
       return null;
     }
-    return formatDate(deliverable.getAnalysisReviewQcDate());
+    return deliverable.getAnalysisReviewQcDate();
   }
 
-  private static String getReleaseApprovalCompletedDate(CaseDeliverable deliverable) {
+  static LocalDate getReleaseApprovalCompletedDate(CaseDeliverable deliverable) {
     if (deliverable == null || DataUtils.isPending(deliverable.getReleaseApprovalQcStatus())) {
       return null;
     }
-    return formatDate(deliverable.getReleaseApprovalQcDate());
+    return deliverable.getReleaseApprovalQcDate();
   }
 
-  private static String getCompletionDate(CaseDeliverable deliverable) {
+  static LocalDate getCompletionDate(CaseDeliverable deliverable) {
     if (deliverable == null || deliverable.getReleases().stream()
         .anyMatch(release -> DataUtils.isPending(release.getQcStatus()))) {
       return null;
     }
 
-    return formatDate(deliverable.getReleases().stream()
+    return deliverable.getReleases().stream()
         .map(CaseRelease::getQcDate)
         .max(LocalDate::compareTo)
-        .orElse(null));
+        .orElse(null);
   }
 
-  private static String hasDeliverableCategory(RowData rowData, String deliverableCategory) {
-    return rowData.kase().getDeliverables().stream().anyMatch(
-        deliverable -> {
-          return Objects.equals(deliverable.getDeliverableCategory(), deliverableCategory)
-              && deliverable.getReleases().stream().anyMatch(release -> release
-                  .getQcStatus() != ReleaseQcStatus.NOT_APPLICABLE);
-        })
-            ? "YES"
-            : "no";
+  private static boolean isDeliverableIncluded(CaseDeliverable deliverable) {
+    return deliverable.getReleases().stream()
+        .anyMatch(release -> release.getQcStatus() != ReleaseQcStatus.NOT_APPLICABLE);
   }
 
   private static String formatDate(LocalDate date) {
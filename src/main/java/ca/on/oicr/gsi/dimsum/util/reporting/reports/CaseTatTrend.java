@@ -0,0 +1,347 @@
+package ca.on.oicr.gsi.dimsum.util.reporting.reports;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.cardea.data.CaseDeliverable;
+import ca.on.oicr.gsi.cardea.data.Project;
+import ca.on.oicr.gsi.cardea.data.Test;
+import ca.on.oicr.gsi.dimsum.data.TatTrendSeries;
+import ca.on.oicr.gsi.dimsum.data.TatTrendStats;
+import ca.on.oicr.gsi.dimsum.util.DataUtils;
+
+/**
+ * Aggregates case TAT into distributions per group, gate, and time bucket. This is equivalent to
+ * summarizing the Case TAT Report by test, but is calculated directly from the cases so that only
+ * the summary needs to be sent to the client. Tests are bucketed by the date that their case's
+ * release (for the selected deliverable category, or all deliverables) was completed, and only
+ * gates that have been completed are included
+ */
+public class CaseTatTrend {
+
+  public static final String ALL_DELIVERABLE_CATEGORIES = "ALL";
+
+  private static record GateValue(LocalDate completed, Integer days) {
+  }
+
+  public enum Gate {
+    // @formatter:off
+    RECEIPT("Receipt") {
+      @Override
+      protected GateValue getValue(Case kase, Test test, CaseDeliverable deliverable) {
+        return new GateValue(CaseTatReport.getReceiptCompletedDate(kase),
+            kase.getReceiptDaysSpent());
+      }
+    },
+    EXTRACTION("Extraction") {
+      @Override
+      protected GateValue getValue(Case kase, Test test, CaseDeliverable deliverable) {
+        return new GateValue(CaseTatReport.getExtractionCompletedDate(test),
+            test.getExtractionDaysSpent());
+      }
+    },
+    LIBRARY_PREPARATION("Library Prep") {
+      @Override
+      protected GateValue getValue(Case kase, Test test, CaseDeliverable deliverable) {
+        return new GateValue(CaseTatReport.getLibraryPreparationCompletedDate(test),
+            test.getLibraryPreparationDaysSpent());
+      }
+    },
+    LIBRARY_QUALIFICATION("Library Qual") {
+      @Override
+      protected GateValue getValue(Case kase, Test test, CaseDeliverable deliverable) {
+        return new GateValue(CaseTatReport.getLibraryQualificationCompletedDate(test),
+            test.getLibraryQualificationDaysSpent());
+      }
+    },
+    FULL_DEPTH_SEQUENCING("Full-Depth") {
+      @Override
+      protected GateValue getValue(Case kase, Test test, CaseDeliverable deliverable) {
+        return new GateValue(CaseTatReport.getFullDepthSequencingCompletedDate(test),
+            test.getFullDepthSequencingDaysSpent());
+      }
+    },
+    ANALYSIS_REVIEW("Analysis Review") {
+      @Override
+      protected GateValue getValue(Case kase, Test test, CaseDeliverable deliverable) {
+        if (deliverable == null) {
+          return new GateValue(CaseTatReport.getAnalysisReviewCompletedDate(kase),
+              kase.getAnalysisReviewDaysSpent());
+        }
+        return new GateValue(CaseTatReport.getAnalysisReviewCompletedDate(deliverable),
+            deliverable.getAnalysisReviewDaysSpent());
+      }
+    },
+    RELEASE_APPROVAL("Release Approval") {
+      @Override
+      protected GateValue getValue(Case kase, Test test, CaseDeliverable deliverable) {
+        if (deliverable == null) {
+          return new GateValue(CaseTatReport.getReleaseApprovalCompletedDate(kase),
+              kase.getReleaseApprovalDaysSpent());
+        }
+        return new GateValue(CaseTatReport.getReleaseApprovalCompletedDate(deliverable),
+            deliverable.getReleaseApprovalDaysSpent());
+      }
+    },
+    RELEASE("Release") {
+      @Override
+      protected GateValue getValue(Case kase, Test test, CaseDeliverable deliverable) {
+        if (deliverable == null) {
+          return new GateValue(DataUtils.getCompletionDate(kase), kase.getReleaseDaysSpent());
+        }
+        return new GateValue(CaseTatReport.getCompletionDate(deliverable),
+            deliverable.getReleaseDaysSpent());
+      }
+    },
+    FULL_TEST("Full Test") {
+      @Override
+      protected GateValue getValue(Case kase, Test test, CaseDeliverable deliverable) {
+        if (deliverable == null) {
+          return new GateValue(DataUtils.getCompletionDate(kase), kase.getCaseDaysSpent());
+        }
+        return new GateValue(CaseTatReport.getCompletionDate(deliverable),
+            deliverable.getDeliverableDaysSpent());
+      }
+    };
+    // @formatter:on
+
+    private static final Map<String, Gate> map = Stream.of(Gate.values())
+        .collect(Collectors.toMap(Gate::getLabel, Function.identity()));
+
+    public static Gate getByLabel(String label) {
+      return map.get(label);
+    }
+
+    private final String label;
+
+    private Gate(String label) {
+      this.label = label;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+
+    /**
+     * @param kase the case
+     * @param test the test
+     * @param deliverable the selected deliverable, or null if all deliverables are selected
+     * @return the gate's completion date and days spent
+     */
+    protected abstract GateValue getValue(Case kase, Test test, CaseDeliverable deliverable);
+  }
+
+  public enum Interval {
+    // @formatter:off
+    WEEK("week") {
+      @Override
+      public String getBucket(LocalDate date) {
+        // Weeks start on Sunday, with week 1 containing January 1
+        int firstDayOffset = date.withDayOfYear(1).getDayOfWeek().getValue() % 7;
+        int week = (date.getDayOfYear() - 1 + firstDayOffset) / 7 + 1;
+        return String.format("%d-W%02d", date.getYear(), week);
+      }
+    },
+    MONTH("month") {
+      @Override
+      public String getBucket(LocalDate date) {
+        return String.format("%d-%02d", date.getYear(), date.getMonthValue());
+      }
+    },
+    FISCAL_QUARTER("fiscalQuarter") {
+      @Override
+      public String getBucket(LocalDate date) {
+        int month = date.getMonthValue();
+        int quarter = month >= FISCAL_YEAR_START_MONTH
+            ? (month - FISCAL_YEAR_START_MONTH) / 3 + 1
+            : 4;
+        return String.format("%s Q%d", getFiscalYear(date), quarter);
+      }
+    },
+    FISCAL_YEAR("fiscalYear") {
+      @Override
+      public String getBucket(LocalDate date) {
+        return getFiscalYear(date);
+      }
+    };
+    // @formatter:on
+
+    private static final Map<String, Interval> map = Stream.of(Interval.values())
+        .collect(Collectors.toMap(Interval::getLabel, Function.identity()));
+
+    public static Interval getByLabel(String label) {
+      return map.get(label);
+    }
+
+    private final String label;
+
+    private Interval(String label) {
+      this.label = label;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+
+    /**
+     * @param date a date
+     * @return the label of the bucket containing the date. Labels sort chronologically
+     */
+    public abstract String getBucket(LocalDate date);
+  }
+
+  public enum Grouping {
+    // @formatter:off
+    ASSAY("assay", kase -> Stream.of(kase.getAssayName())),
+    PROJECT("project", kase -> kase.getProjects().stream().map(Project::getName)),
+    PIPELINE("pipeline", kase -> kase.getProjects().stream().map(Project::getPipeline));
+    // @formatter:on
+
+    private static final Map<String, Grouping> map = Stream.of(Grouping.values())
+        .collect(Collectors.toMap(Grouping::getLabel, Function.identity()));
+
+    public static Grouping getByLabel(String label) {
+      return map.get(label);
+    }
+
+    private final String label;
+    private final Function<Case, Stream<String>> getGroups;
+
+    private Grouping(String label, Function<Case, Stream<String>> getGroups) {
+      this.label = label;
+      this.getGroups = getGroups;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+
+    public Stream<String> getGroups(Case kase) {
+      return getGroups.apply(kase).filter(Objects::nonNull).distinct();
+    }
+  }
+
+  private static final int FISCAL_YEAR_START_MONTH = 4;
+
+  private static String getFiscalYear(LocalDate date) {
+    int fiscalYear =
+        date.getMonthValue() >= FISCAL_YEAR_START_MONTH ? date.getYear() : date.getYear() - 1;
+    return String.format("FY%d/%02d", fiscalYear, (fiscalYear + 1) % 100);
+  }
+
+  /**
+   * Calculates TAT distributions
+   *
+   * @param cases the cases to include
+   * @param grouping how to group the cases
+   * @param interval size of the time buckets
+   * @param deliverableCategory deliverable category to consider for the analysis review, release
+   *        approval, and release gates, and for bucketing; or {@link #ALL_DELIVERABLE_CATEGORIES}
+   * @param gates the gates to include
+   * @param histogramBinDays histogram bin size in days, or null to omit histograms
+   * @return one series per group and gate, sorted by group, then gate
+   */
+  public static List<TatTrendSeries> calculate(Stream<Case> cases, Grouping grouping,
+      Interval interval, String deliverableCategory, Collection<Gate> gates,
+      Integer histogramBinDays) {
+    boolean allDeliverables = ALL_DELIVERABLE_CATEGORIES.equals(deliverableCategory);
+    // group -> gate -> bucket -> days
+    Map<String, Map<Gate, Map<String, List<Integer>>>> values = new TreeMap<>();
+
+    cases.forEach(kase -> {
+      CaseDeliverable deliverable = null;
+      if (!allDeliverables) {
+        deliverable = kase.getDeliverables().stream()
+            .filter(x -> deliverableCategory.equals(x.getDeliverableCategory()))
+            .findFirst()
+            .orElse(null);
+        if (deliverable == null) {
+          return;
+        }
+      }
+      LocalDate caseCompleted = allDeliverables ? DataUtils.getCompletionDate(kase)
+          : CaseTatReport.getCompletionDate(deliverable);
+      if (caseCompleted == null) {
+        return;
+      }
+      String bucket = interval.getBucket(caseCompleted);
+      List<Map<Gate, Map<String, List<Integer>>>> groupValues = grouping.getGroups(kase)
+          .map(group -> values.computeIfAbsent(group, x -> new EnumMap<>(Gate.class)))
+          .toList();
+      for (Test test : kase.getTests()) {
+        for (Gate gate : gates) {
+          GateValue value = gate.getValue(kase, test, deliverable);
+          if (value.completed() == null) {
+            continue;
+          }
+          int days = value.days() == null ? 0 : value.days();
+          for (Map<Gate, Map<String, List<Integer>>> gateValues : groupValues) {
+            gateValues.computeIfAbsent(gate, x -> new TreeMap<>())
+                .computeIfAbsent(bucket, x -> new ArrayList<>())
+                .add(days);
+          }
+        }
+      }
+    });
+
+    List<TatTrendSeries> series = new ArrayList<>();
+    values.forEach((group, gateValues) -> gateValues.forEach((gate, bucketValues) -> {
+      List<TatTrendStats> buckets = new ArrayList<>();
+      bucketValues.forEach((bucket, days) -> buckets
+          .add(calculateStats(bucket, days, histogramBinDays)));
+      series.add(new TatTrendSeries(group, gate.getLabel(), buckets));
+    }));
+    return series;
+  }
+
+  private static TatTrendStats calculateStats(String bucket, List<Integer> values,
+      Integer histogramBinDays) {
+    int[] sorted = values.stream().mapToInt(Integer::intValue).sorted().toArray();
+    long total = 0;
+    for (int value : sorted) {
+      total += value;
+    }
+    List<Integer> histogram = null;
+    if (histogramBinDays != null) {
+      int[] bins = new int[Math.max(sorted[sorted.length - 1], 0) / histogramBinDays + 1];
+      for (int value : sorted) {
+        bins[Math.max(value, 0) / histogramBinDays]++;
+      }
+      histogram = new ArrayList<>(bins.length);
+      for (int bin : bins) {
+        histogram.add(bin);
+      }
+    }
+    return new TatTrendStats(bucket, sorted.length, round((double) total / sorted.length),
+        sorted[0], percentile(sorted, 0.1), percentile(sorted, 0.25), percentile(sorted, 0.5),
+        percentile(sorted, 0.75), percentile(sorted, 0.9), sorted[sorted.length - 1],
+        histogramBinDays, histogram);
+  }
+
+  /**
+   * Calculates a percentile using linear interpolation between the closest ranks
+   *
+   * @param sorted values in ascending order; must not be empty
+   * @param fraction the percentile, as a fraction between 0 and 1
+   */
+  private static double percentile(int[] sorted, double fraction) {
+    double position = fraction * (sorted.length - 1);
+    int lower = (int) Math.floor(position);
+    int upper = (int) Math.ceil(position);
+    double value = sorted[lower] + (sorted[upper] - sorted[lower]) * (position - lower);
+    return round(value);
+  }
+
+  private static double round(double value) {
+    return Math.round(value * 10) / 10.0;
+  }
+}
@@ -1,9 +1,14 @@
 package ca.on.oicr.gsi.dimsum.util.reporting.reports;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Stream;
 import ca.on.oicr.gsi.cardea.data.MetricCategory;
 import ca.on.oicr.gsi.cardea.data.Sample;
@@ -11,7 +16,6 @@ import ca.on.oicr.gsi.cardea.data.SampleMetric;
 import ca.on.oicr.gsi.cardea.data.SampleMetric.MetricLevel;
 import ca.on.oicr.gsi.cardea.data.ThresholdType;
 import ca.on.oicr.gsi.dimsum.controller.BadRequestException;
-import ca.on.oicr.gsi.dimsum.data.SampleAndRelated;
 import ca.on.oicr.gsi.dimsum.service.CaseService;
 import ca.on.oicr.gsi.dimsum.service.filtering.CaseFilter;
 import ca.on.oicr.gsi.dimsum.util.reporting.Column;
@@ -22,21 +26,58 @@ import tools.jackson.databind.JsonNode;
 
 public class SampleMetricsReport extends Report {
 
-  private static final ReportSection<Sample> mainSection =
-      new DynamicTableReportSection<Sample>("Samples") {
+  /**
+   * A sample along with its metric values indexed by metric name, so that each metric column is a
+   * single lookup rather than a scan of the sample's metrics
+   *
+   * @param sample the sample
+   * @param metricValues non-preliminary metric values by metric name
+   * @param columnNames names of the metrics that should be included as columns, in the order that
+   *        they appear in the sample
+   */
+  private static record RowData(Sample sample, Map<String, BigDecimal> metricValues,
+      List<String> columnNames) {
 
-        private static final List<Column<Sample>> STATIC_COLUMNS = Arrays.asList(
-            Column.forString("Sample", Sample::getName),
-            Column.forString("Group ID", Sample::getGroupId),
-            Column.forString("External Name", x -> x.getDonor().getExternalName()),
-            Column.forString("Run", x -> x.getRun() == null ? null : x.getRun().getName()),
-            Column.forString("Tissue Origin", Sample::getTissueOrigin),
-            Column.forString("Tissue Type", Sample::getTissueType),
-            Column.forString("Timepoint", Sample::getTimepoint),
-            Column.forString("Design", Sample::getLibraryDesignCode));
+    public static RowData of(Sample sample) {
+      Map<String, BigDecimal> metricValues = new HashMap<>();
+      List<String> columnNames = new ArrayList<>();
+      for (SampleMetric metric : sample.getMetrics()) {
+        if (!Boolean.TRUE.equals(metric.getPreliminary())) {
+          metricValues.putIfAbsent(metric.getName(), metric.getValue());
+        }
+        // Exclude boolean metrics (no value) and lane-level metrics (multiple values)
+        if (metric.getThresholdType() != ThresholdType.BOOLEAN
+            && (metric.getMetricLevel() == MetricLevel.SAMPLE
+                || metric.getMetricLevel() == MetricLevel.RUN)) {
+          columnNames.add(metric.getName());
+        }
+      }
+      return new RowData(sample, metricValues, columnNames);
+    }
+  }
+
+  private static final ReportSection<RowData> mainSection =
+      new DynamicTableReportSection<RowData>("Samples") {
+
+        private static final List<Column<RowData>> STATIC_COLUMNS = Arrays.asList(
+            Column.forString("Sample", x -> x.sample().getName()),
+            Column.forString("Group ID", x -> x.sample().getGroupId()),
+            Column.forString("External Name", x -> x.sample().getDonor().getExternalName()),
+            Column.forString("Run",
+                x -> x.sample().getRun() == null ? null : x.sample().getRun().getName()),
+            Column.forString("Tissue Origin", x -> x.sample().getTissueOrigin()),
+            Column.forString("Tissue Type", x -> x.sample().getTissueType()),
+            Column.forString("Timepoint", x -> x.sample().getTimepoint()),
+            Column.forString("Design", x -> x.sample().getLibraryDesignCode()));
 
         @Override
-        public List<Sample> getData(CaseService caseService, JsonNode parameters) {
+        public List<RowData> getData(CaseService caseService, JsonNode parameters) {
+          return getSamples(caseService, parameters).stream()
+              .map(RowData::of)
+              .toList();
+        }
+
+        private List<? extends Sample> getSamples(CaseService caseService, JsonNode parameters) {
           String runName = getParameterString(parameters, "runName", false);
           String category = getParameterString(parameters, "category", true);
           CaseFilter baseFilter = getParameterFilter(parameters, "baseFilter");
@@ -53,13 +94,9 @@ public class SampleMetricsReport extends Report {
           } else {
             // Looking up based on run
             if (Objects.equals(category, MetricCategory.LIBRARY_QUALIFICATION.name())) {
-              List<SampleAndRelated> original =
-                  caseService.getLibraryQualificationsForRun(runName, filters);
-              return new ArrayList<Sample>(original);
+              return caseService.getLibraryQualificationsForRun(runName, filters);
             } else if (Objects.equals(category, MetricCategory.FULL_DEPTH_SEQUENCING.name())) {
-              List<SampleAndRelated> original =
-                  caseService.getFullDepthSequencingsForRun(runName, filters);
-              return new ArrayList<Sample>(original);
+              return caseService.getFullDepthSequencingsForRun(runName, filters);
             } else {
               throw new BadRequestException("Invalid category: " + category);
             }
@@ -67,29 +104,20 @@ public class SampleMetricsReport extends Report {
         }
 
         @Override
-        public List<Column<Sample>> getColumns(List<Sample> data) {
-          Stream<Column<Sample>> metricColumns = data.stream()
-              .flatMap(sample -> sample.getMetrics().stream()
-                  // Exclude boolean metrics (no value)
-                  .filter(metric -> metric.getThresholdType() != ThresholdType.BOOLEAN)
-                  // Exclude lane-level metrics (multiple values)
-                  .filter(metric -> metric.getMetricLevel() == MetricLevel.SAMPLE
-                      || metric.getMetricLevel() == MetricLevel.RUN)
-                  .map(SampleMetric::getName))
-              .distinct()
+        public List<Column<RowData>> getColumns(List<RowData> data) {
+          // LinkedHashSet keeps the columns in the order they are first encountered
+          Set<String> metricNames = new LinkedHashSet<>();
+          for (RowData row : data) {
+            metricNames.addAll(row.columnNames());
+          }
+          Stream<Column<RowData>> metricColumns = metricNames.stream()
               .map(metricName -> makeMetricColumn(metricName));
 
           return Stream.concat(STATIC_COLUMNS.stream(), metricColumns).toList();
         }
 
-        private static Column<Sample> makeMetricColumn(String metricName) {
-          return Column.forDecimal(metricName, sample -> {
-            SampleMetric metric = sample.getMetrics().stream()
-                .filter(x -> Objects.equals(x.getName(), metricName)
-                    && !Boolean.TRUE.equals(x.getPreliminary()))
-                .findAny().orElse(null);
-            return metric == null ? null : metric.getValue();
-          });
+        private static Column<RowData> makeMetricColumn(String metricName) {
+          return Column.forDecimal(metricName, row -> row.metricValues().get(metricName));
         }
       };
 
@@ -0,0 +1,136 @@
+package ca.on.oicr.gsi.dimsum;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.annotation.JsonPOJOBuilder;
+import tools.jackson.databind.json.JsonMapper;
+
+public class CanonicalizingModuleTest {
+
+  public static record TestRun(long id, String name) {
+  }
+
+  public static record TestSample(String name, String project, TestRun run) {
+  }
+
+  /**
+   * Bound using a builder, as Cardea's data types are
+   */
+  @JsonDeserialize(builder = TestDonor.Builder.class)
+  public static class TestDonor {
+
+    private final String id;
+
+    private TestDonor(Builder builder) {
+      this.id = builder.id;
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    @JsonPOJOBuilder(withPrefix = "")
+    public static class Builder {
+
+      private String id;
+
+      public Builder id(String id) {
+        this.id = id;
+        return this;
+      }
+
+      public TestDonor build() {
+        return new TestDonor(this);
+      }
+    }
+  }
+
+  public static record TestCase(String name, TestDonor donor) {
+  }
+
+  private static final String JSON = """
+      [
+        {"name": "SAM1", "project": "PROJ", "run": {"id": 1, "name": "RUN1"}},
+        {"name": "SAM2", "project": "PROJ", "run": {"id": 1, "name": "RUN1"}},
+        {"name": "SAM3", "project": "PROJ", "run": {"id": 2, "name": "RUN2"}}
+      ]
+      """;
+
+  private static final String BUILDER_JSON = """
+      [
+        {"name": "CASE1", "donor": {"id": "DON1"}},
+        {"name": "CASE2", "donor": {"id": "DON1"}},
+        {"name": "CASE3", "donor": {"id": "DON2"}}
+      ]
+      """;
+
+  private JsonMapper jsonMapper;
+
+  @BeforeEach
+  public void setup() {
+    jsonMapper = JsonMapper.builder()
+        .addModule(new CanonicalizingModule()
+            .canonicalize(TestRun.class, TestRun::id)
+            .canonicalize(TestDonor.class, TestDonor::getId))
+        .build();
+  }
+
+  @Test
+  public void testCanonicalize() {
+    Canonicalizer canonicalizer = new Canonicalizer();
+    List<TestSample> samples = read(getReader().withAttribute(Canonicalizer.class, canonicalizer));
+
+    assertEquals(3, samples.size());
+    assertSame(samples.get(0).project(), samples.get(1).project());
+    assertSame(samples.get(0).project(), samples.get(2).project());
+    assertSame(samples.get(0).run(), samples.get(1).run());
+    assertNotSame(samples.get(0).run(), samples.get(2).run());
+    assertEquals(new TestRun(2, "RUN2"), samples.get(2).run());
+    assertEquals(1, canonicalizer.getSharedValueCount());
+    assertTrue(canonicalizer.getSharedStringCount() >= 2);
+  }
+
+  @Test
+  public void testCanonicalizeBuilderBound() {
+    List<TestCase> cases = jsonMapper.readerFor(new TypeReference<List<TestCase>>() {})
+        .withAttribute(Canonicalizer.class, new Canonicalizer())
+        .readValue(BUILDER_JSON);
+
+    assertSame(cases.get(0).donor(), cases.get(1).donor());
+    assertNotSame(cases.get(0).donor(), cases.get(2).donor());
+    assertEquals("DON2", cases.get(2).donor().getId());
+  }
+
+  @Test
+  public void testWithoutCanonicalizer() {
+    List<TestSample> samples = read(getReader());
+
+    assertEquals(samples.get(0).run(), samples.get(1).run());
+    assertNotSame(samples.get(0).run(), samples.get(1).run());
+  }
+
+  @Test
+  public void testCanonicalizerPerLoad() {
+    List<TestSample> first =
+        read(getReader().withAttribute(Canonicalizer.class, new Canonicalizer()));
+    List<TestSample> second =
+        read(getReader().withAttribute(Canonicalizer.class, new Canonicalizer()));
+
+    assertEquals(first, second);
+    assertNotSame(first.get(0).run(), second.get(0).run());
+  }
+
+  private ObjectReader getReader() {
+    return jsonMapper.readerFor(new TypeReference<List<TestSample>>() {});
+  }
+
+  private static List<TestSample> read(ObjectReader reader) {
+    return reader.readValue(JSON);
+  }
+
+}
@@ -0,0 +1,117 @@
+package ca.on.oicr.gsi.dimsum;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serves the Cardea endpoints used by {@link CaseLoader} from files, so that data loading can be
+ * exercised without a Cardea instance. Files can be generated using {@link SyntheticCaseData}. Set
+ * {@code cardea.url} to the value of {@link #getUrl()} to load from the stub
+ */
+public class CardeaStub implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(CardeaStub.class);
+
+  public static final String TIMESTAMP_FILE = "timestamp.json";
+  public static final String DATA_FILE = "dimsum.json";
+
+  private static final String TIMESTAMP_PATH = "/timestamp";
+  private static final String DATA_PATH = "/dimsum";
+
+  private final Path directory;
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  /**
+   * Starts the stub server on the loopback address
+   *
+   * @param directory directory containing {@value #TIMESTAMP_FILE} and {@value #DATA_FILE}
+   * @param port port to listen on, or 0 to use any free port
+   */
+  public CardeaStub(Path directory, int port) throws IOException {
+    this.directory = directory;
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    server.createContext(TIMESTAMP_PATH, exchange -> serve(exchange, TIMESTAMP_FILE));
+    server.createContext(DATA_PATH, exchange -> serve(exchange, DATA_FILE));
+    executor = Executors.newFixedThreadPool(4);
+    server.setExecutor(executor);
+    server.start();
+    log.info("Serving Cardea data from {} at {}", directory.toAbsolutePath(), getUrl());
+  }
+
+  /**
+   * @return the base URL to use as {@code cardea.url}
+   */
+  public String getUrl() {
+    InetSocketAddress address = server.getAddress();
+    return String.format("http://%s:%d", address.getHostString(), address.getPort());
+  }
+
+  /**
+   * Replaces the timestamp served. A timestamp after the one previously loaded causes
+   * {@link CaseLoader} to reload the data
+   */
+  public void setTimestamp(ZonedDateTime timestamp, JsonMapper jsonMapper) throws IOException {
+    SyntheticCaseData.writeTimestampFile(directory, timestamp, jsonMapper);
+  }
+
+  private void serve(HttpExchange exchange, String fileName) throws IOException {
+    try {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.getResponseHeaders().set("Allow", "GET");
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      Path file = directory.resolve(fileName);
+      if (!Files.isRegularFile(file)) {
+        log.warn("Cardea stub file not found: {}", file);
+        exchange.sendResponseHeaders(404, -1);
+        return;
+      }
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, Files.size(file));
+      try (OutputStream body = exchange.getResponseBody()) {
+        Files.copy(file, body);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * Runs the stub server until the process is terminated
+   *
+   * @param args directory containing the data files, and optional port (default 8081)
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 2) {
+      System.err.println("Usage: CardeaStub <data-directory> [port]");
+      System.exit(1);
+    }
+    int port = args.length > 1 ? Integer.parseInt(args[1]) : 8081;
+    CardeaStub stub = new CardeaStub(Paths.get(args[0]), port);
+    Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+    System.out.println("Serving Cardea data at " + stub.getUrl());
+  }
+
+}
@@ -0,0 +1,109 @@
+package ca.on.oicr.gsi.dimsum;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import ca.on.oicr.gsi.dimsum.data.CaseData;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+public class CardeaStubTest {
+
+  private static final int CASE_COUNT = 50;
+
+  @TempDir
+  private Path directory;
+
+  private final JsonMapper jsonMapper = JsonMapper.builder().build();
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private SyntheticCaseData data;
+  private CardeaStub stub;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    data = new SyntheticCaseData.Builder().caseCount(CASE_COUNT).seed(1L).build();
+    data.writeCardeaFiles(directory, jsonMapper);
+    stub = new CardeaStub(directory, 0);
+  }
+
+  @AfterEach
+  public void teardown() {
+    stub.close();
+  }
+
+  @Test
+  public void testServeData() throws Exception {
+    HttpResponse<String> response = get("/dimsum");
+    assertEquals(200, response.statusCode());
+    JsonNode json = jsonMapper.readTree(response.body());
+    assertEquals(CASE_COUNT, json.get("cases").size());
+    assertEquals(data.getAssaysById().size(), json.get("assaysById").size());
+    assertEquals(data.getOmittedSamples().size(), json.get("omittedSamples").size());
+    assertEquals(data.getOmittedRunSamples().size(), json.get("omittedRunSamples").size());
+    JsonNode firstCase = json.get("cases").get(0);
+    assertEquals(data.getCases().get(0).getId(), firstCase.get("id").asString());
+    assertEquals(data.getCases().get(0).getTests().size(), firstCase.get("tests").size());
+  }
+
+  @Test
+  public void testServeTimestamp() throws Exception {
+    assertEquals(SyntheticCaseData.getTimestamp().toInstant(), getTimestamp());
+
+    ZonedDateTime later = SyntheticCaseData.getTimestamp().plusHours(1);
+    stub.setTimestamp(later, jsonMapper);
+    assertEquals(later.toInstant(), getTimestamp());
+  }
+
+  @Test
+  public void testLoadUpToDate() throws Exception {
+    CaseLoader loader = new CaseLoader(null);
+    ReflectionTestUtils.setField(loader, "cardeaUrl", stub.getUrl());
+    assertNull(loader.load(SyntheticCaseData.getTimestamp()));
+  }
+
+  @Test
+  public void testLoad() throws Exception {
+    CaseLoader loader = new CaseLoader(null);
+    ReflectionTestUtils.setField(loader, "cardeaUrl", stub.getUrl());
+    loader.setJsonMapper(jsonMapper);
+    CaseData loaded = loader.load(null);
+    assertNotNull(loaded);
+    assertEquals(CASE_COUNT, loaded.getCases().size());
+    assertEquals(data.getCases().get(0).getId(), loaded.getCases().get(0).getId());
+    assertEquals(data.getAssaysById().keySet(), loaded.getAssaysById().keySet());
+    assertEquals(data.getOmittedSamples().size(), loaded.getOmittedSamples().size());
+    assertEquals(data.getOmittedRunSamples().size(), loaded.getOmittedRunSamples().size());
+    assertFalse(loaded.getRunsAndLibrariesByName().isEmpty());
+    assertEquals(data.toCaseData().getRunNames(), loaded.getRunNames());
+    assertEquals(SyntheticCaseData.getTimestamp().toInstant(),
+        loaded.getTimestamp().toInstant());
+  }
+
+  @Test
+  public void testMissingFile() throws Exception {
+    HttpResponse<String> response = get("/unknown");
+    assertEquals(404, response.statusCode());
+  }
+
+  private Instant getTimestamp() throws Exception {
+    HttpResponse<String> response = get("/timestamp");
+    assertEquals(200, response.statusCode());
+    return jsonMapper.readValue(response.body(), ZonedDateTime.class).toInstant();
+  }
+
+  private HttpResponse<String> get(String path) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(stub.getUrl() + path)).GET().build();
+    return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+}
@@ -1,8 +1,31 @@
 package ca.on.oicr.gsi.dimsum;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.cardea.data.Donor;
+import ca.on.oicr.gsi.cardea.data.Project;
+import ca.on.oicr.gsi.cardea.data.Requisition;
+import ca.on.oicr.gsi.cardea.data.Run;
+import ca.on.oicr.gsi.cardea.data.Sample;
+import ca.on.oicr.gsi.dimsum.data.CaseData;
+import ca.on.oicr.gsi.dimsum.data.ProjectSummary;
+import ca.on.oicr.gsi.dimsum.data.ProjectSummaryCube;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
 
 public class CaseLoaderTest {
 
@@ -19,4 +42,152 @@ public class CaseLoaderTest {
     assertFalse(CaseLoader.dateBetween(LocalDate.of(2024, 1, 28), afterDate, beforeDate));
   }
 
+  @Test
+  public void testBuildCaseData() {
+    SyntheticCaseData synthetic = new SyntheticCaseData(200, 1L);
+    CaseData caseData = synthetic.toCaseData();
+    assertEquals(200, caseData.getCases().size());
+    assertFalse(caseData.getRunsAndLibrariesByName().isEmpty());
+    for (Case kase : caseData.getCases()) {
+      assertTrue(caseData.getRequisitionNames().contains(kase.getRequisition().getName()));
+      for (Project project : kase.getProjects()) {
+        assertNotNull(caseData.getProjectSummariesByName().get(project.getName()));
+      }
+    }
+  }
+
+  @Test
+  public void testBuildCaseDataMetrics() {
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    SyntheticCaseData synthetic = new SyntheticCaseData(100, 1L);
+    CaseData caseData = new CaseLoader(meterRegistry).buildCaseData(synthetic.getCases(),
+        synthetic.getAssaysById(), synthetic.getOmittedSamples(),
+        synthetic.getOmittedRunSamples(), SyntheticCaseData.getTimestamp());
+    for (String phase : new String[] {"sort_runs", "index_names", "project_summaries",
+        "table_indexes"}) {
+      Timer timer = meterRegistry.find("case_data_refresh_phase_time").tag("phase", phase).timer();
+      assertNotNull(timer, phase);
+      assertEquals(1, timer.count());
+    }
+
+    int testCount = 0;
+    int sampleCount = 0;
+    for (Case kase : caseData.getCases()) {
+      sampleCount += kase.getReceipts().size();
+      for (ca.on.oicr.gsi.cardea.data.Test test : kase.getTests()) {
+        testCount++;
+        sampleCount += test.getExtractions().size() + test.getLibraryPreparations().size()
+            + test.getLibraryQualifications().size() + test.getFullDepthSequencings().size();
+      }
+    }
+    assertEquals(testCount, caseData.getTestCount());
+    assertEquals(sampleCount, caseData.getSampleCount());
+  }
+
+  @Test
+  public void testIndexLegacyCaseIds() {
+    List<Case> cases = Stream.of("R1_a2_PROJ_0001_Ly_R", "R3_a4_PROJ_0002_Ly_R",
+        "R3_a5_PROJ_0002_Ly_R", "R6_a7_aPROJ_0003", "OTHER")
+        .map(id -> {
+          Case kase = mock(Case.class);
+          when(kase.getId()).thenReturn(id);
+          return kase;
+        })
+        .toList();
+    Map<String, List<String>> index = CaseLoader.indexLegacyCaseIds(cases);
+    assertEquals(List.of("R1_a2_PROJ_0001_Ly_R"), index.get("R1_PROJ_0001_Ly_R"));
+    assertEquals(List.of("R3_a4_PROJ_0002_Ly_R", "R3_a5_PROJ_0002_Ly_R"),
+        index.get("R3_PROJ_0002_Ly_R"));
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  public void testProjectSummaryCube() {
+    List<Case> cases = new SyntheticCaseData(300, 1L).getCases();
+    ProjectSummaryCube cube = CaseLoader.calculateProjectSummaryCube(cases);
+    LocalDate reference = SyntheticCaseData.REFERENCE_DATE;
+    LocalDate[][] ranges = {
+        {reference.minusDays(90), null},
+        {null, reference.minusDays(30)},
+        {reference.minusDays(120), reference.minusDays(60)},
+        {reference.minusDays(45), reference.minusDays(44)},
+        {reference.minusDays(10), reference.minusDays(20)}};
+    for (LocalDate[] range : ranges) {
+      Map<String, ProjectSummary> expected =
+          CaseLoader.calculateProjectSummaries(cases, range[0], range[1]);
+      assertEquals(expected.size(), cube.getProjectCount());
+      for (ProjectSummary expectedSummary : expected.values()) {
+        ProjectSummary actual =
+            cube.getProjectSummary(expectedSummary.getName(), range[0], range[1]);
+        assertCompletedCountsEqual(expectedSummary, actual);
+      }
+    }
+    assertNull(cube.getProjectSummary("NONEXISTENT", reference, null));
+  }
+
+  private static void assertCompletedCountsEqual(ProjectSummary expected, ProjectSummary actual) {
+    assertEquals(expected.getPipeline(), actual.getPipeline());
+    assertEquals(expected.getTotalTestCount(), actual.getTotalTestCount());
+    assertEquals(expected.getReceiptCompletedCount(), actual.getReceiptCompletedCount());
+    assertEquals(expected.getExtractionCompletedCount(), actual.getExtractionCompletedCount());
+    assertEquals(expected.getLibraryPrepCompletedCount(), actual.getLibraryPrepCompletedCount());
+    assertEquals(expected.getLibraryQualCompletedCount(), actual.getLibraryQualCompletedCount());
+    assertEquals(expected.getFullDepthSeqCompletedCount(),
+        actual.getFullDepthSeqCompletedCount());
+    assertEquals(expected.getAnalysisReviewCompletedCount(),
+        actual.getAnalysisReviewCompletedCount());
+    assertEquals(expected.getReleaseApprovalCompletedCount(),
+        actual.getReleaseApprovalCompletedCount());
+    assertEquals(expected.getReleaseCompletedCount(), actual.getReleaseCompletedCount());
+  }
+
+  @Test
+  public void testSyntheticDataRepeatable() {
+    CaseData first = new SyntheticCaseData(100, 1L).toCaseData();
+    CaseData second = new SyntheticCaseData(100, 1L).toCaseData();
+    for (int i = 0; i < first.getCases().size(); i++) {
+      assertEquals(first.getCases().get(i).getId(), second.getCases().get(i).getId());
+    }
+    assertEquals(first.getRunsAndLibrariesByName().keySet(),
+        second.getRunsAndLibrariesByName().keySet());
+  }
+
+  @Test
+  public void testCardeaValuesShared(@TempDir Path directory) throws Exception {
+    JsonMapper jsonMapper = JsonMapper.builder().build();
+    new SyntheticCaseData(200, 1L).writeCardeaFiles(directory, jsonMapper);
+    CaseLoader loader = new CaseLoader(null);
+    loader.setJsonMapper(jsonMapper);
+    List<Case> cases = loader
+        .parseCardeaData(Files.readAllBytes(directory.resolve(CardeaStub.DATA_FILE)))
+        .getCases();
+
+    assertSharedById(cases.stream().map(Case::getDonor), Donor::getId);
+    assertSharedById(cases.stream().map(Case::getRequisition), Requisition::getId);
+    assertSharedById(cases.stream().flatMap(kase -> kase.getProjects().stream()),
+        Project::getName);
+    assertSharedById(cases.stream()
+        .flatMap(kase -> kase.getTests().stream())
+        .flatMap(test -> Stream.concat(test.getLibraryQualifications().stream(),
+            test.getFullDepthSequencings().stream()))
+        .map(Sample::getRun), Run::getId);
+  }
+
+  /**
+   * Asserts that values with the same ID are the same instance, and that at least one ID is
+   * repeated
+   */
+  private static <T> void assertSharedById(Stream<T> values, Function<T, ?> getId) {
+    Map<Object, T> valuesById = new HashMap<>();
+    int repeatCount = 0;
+    for (T value : values.filter(Objects::nonNull).toList()) {
+      T first = valuesById.putIfAbsent(getId.apply(value), value);
+      if (first != null) {
+        assertSame(first, value);
+        repeatCount++;
+      }
+    }
+    assertTrue(repeatCount > 0, "No repeated values");
+  }
+
 }
@@ -0,0 +1,1116 @@
+package ca.on.oicr.gsi.dimsum;
+
+import static org.mockito.Mockito.*;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.mockito.MockingDetails;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import ca.on.oicr.gsi.cardea.data.ArchivingStatus;
+import ca.on.oicr.gsi.cardea.data.Assay;
+import ca.on.oicr.gsi.cardea.data.AssayTargets;
+import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.cardea.data.CaseDeliverable;
+import ca.on.oicr.gsi.cardea.data.CaseQc.AnalysisReviewQcStatus;
+import ca.on.oicr.gsi.cardea.data.CaseQc.ReleaseApprovalQcStatus;
+import ca.on.oicr.gsi.cardea.data.CaseQc.ReleaseQcStatus;
+import ca.on.oicr.gsi.cardea.data.CaseRelease;
+import ca.on.oicr.gsi.cardea.data.Donor;
+import ca.on.oicr.gsi.cardea.data.MetricCategory;
+import ca.on.oicr.gsi.cardea.data.OmittedRunSample;
+import ca.on.oicr.gsi.cardea.data.OmittedSample;
+import ca.on.oicr.gsi.cardea.data.Project;
+import ca.on.oicr.gsi.cardea.data.Requisition;
+import ca.on.oicr.gsi.cardea.data.Run;
+import ca.on.oicr.gsi.cardea.data.Sample;
+import ca.on.oicr.gsi.cardea.data.Test;
+import ca.on.oicr.gsi.dimsum.data.CaseData;
+import ca.on.oicr.gsi.dimsum.util.DataUtils;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Generates a large, deterministic set of cases for benchmarking and load testing. The data is
+ * generated as lightweight stubs, which are written as Cardea JSON and bound into real Cardea
+ * objects in the same way as {@link CaseLoader} binds them. Unlike {@link MockCase}, the cases are
+ * therefore ordinary objects, and benchmarks measure Dimsum's own code rather than mock or proxy
+ * dispatch. The data can also be written as Cardea API responses to be served by
+ * {@link CardeaStub}.
+ */
+public class SyntheticCaseData {
+
+  /** All generated dates are relative to this date so that data is identical between runs */
+  public static final LocalDate REFERENCE_DATE = LocalDate.of(2025, 6, 1);
+
+  public static final String DELIVERABLE_CATEGORY_CLINICAL = "Clinical Report";
+  public static final String DELIVERABLE_CATEGORY_DATA = "Data Release";
+  public static final String DELIVERABLE_REPORT = "Clinical Report";
+  public static final String DELIVERABLE_FASTQ = "FastQ";
+  public static final String DELIVERABLE_FULL_PIPELINE = "Full Pipeline";
+
+  /** Number of cases generated at scale 1.0 */
+  public static final int BASE_CASE_COUNT = 10000;
+
+  private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
+  private static final String USER = "qcuser";
+  private static final String FAILED_REASON = "Failed";
+  private static final int PROJECT_COUNT = 40;
+  private static final String[] PIPELINES = {"Research", "Clinical", "Accredited"};
+
+  // progress stages, in order
+  private static final int STAGE_RECEIPT = 0;
+  private static final int STAGE_EXTRACTION = 1;
+  private static final int STAGE_LIBRARY_PREPARATION = 2;
+  private static final int STAGE_LIBRARY_QUALIFICATION = 3;
+  private static final int STAGE_FULL_DEPTH_SEQUENCING = 4;
+  private static final int STAGE_ANALYSIS_REVIEW = 5;
+  private static final int STAGE_RELEASE_APPROVAL = 6;
+  private static final int STAGE_RELEASE = 7;
+  private static final int STAGE_COMPLETE = 8;
+  private static final int[] STAGE_WEIGHTS = {3, 4, 4, 6, 9, 5, 3, 3, 63};
+
+  private static final Stub<Assay> ASSAY = new Stub<>(Assay.class, "getId", "getName",
+      "getDescription", "getTargets");
+  private static final Stub<AssayTargets> ASSAY_TARGETS = new Stub<>(AssayTargets.class,
+      "getCaseDays", "getReceiptDays", "getExtractionDays", "getLibraryPreparationDays",
+      "getLibraryQualificationDays", "getFullDepthSequencingDays", "getAnalysisReviewDays",
+      "getReleaseApprovalDays", "getReleaseDays");
+  private static final Stub<Project> PROJECT = new Stub<>(Project.class, "getName", "getPipeline");
+  private static final Stub<Donor> DONOR =
+      new Stub<>(Donor.class, "getId", "getName", "getExternalName");
+  private static final Stub<Requisition> REQUISITION = new Stub<>(Requisition.class, "getId",
+      "getName", "isStopped", "isPaused", "getStopReason", "getPauseReason");
+  private static final Stub<Run> RUN = new Stub<>(Run.class, "getId", "getName",
+      "getCompletionDate", "getQcPassed", "getQcUser", "getQcDate", "getDataReviewPassed",
+      "getDataReviewUser", "getDataReviewDate");
+  private static final Stub<Case> CASE = new Stub<>(Case.class, "getId", "getAssayId",
+      "getAssayName", "getAssayDescription", "getDonor", "getProjects", "getRequisition",
+      "getTissueOrigin", "getTissueType", "getTimepoint", "getReceipts", "getTests",
+      "getDeliverables", "getStartDate", "getLatestActivityDate", "getCaseDaysSpent",
+      "getReceiptDaysSpent", "getAnalysisReviewDaysSpent", "getReleaseApprovalDaysSpent",
+      "getReleaseDaysSpent", "isStopped", "getArchivingStatus");
+  private static final Stub<Test> TEST = new Stub<>(Test.class, "getName", "getTissueOrigin",
+      "getTissueType", "getGroupId", "getLibraryDesignCode", "getLibraryQualificationDesignCode",
+      "getExtractions", "getLibraryPreparations", "getLibraryQualifications",
+      "getFullDepthSequencings", "isExtractionSkipped", "isLibraryPreparationSkipped",
+      "isLibraryQualificationSkipped", "getLatestActivityDate", "getExtractionDaysSpent",
+      "getLibraryPreparationDaysSpent", "getLibraryQualificationDaysSpent",
+      "getFullDepthSequencingDaysSpent");
+  private static final Stub<Sample> SAMPLE = new Stub<>(Sample.class, "getId", "getName",
+      "getDonor", "getProject", "getRequisitionId", "getRequisitionName", "getAssayIds",
+      "getTissueOrigin", "getTissueType", "getTimepoint", "getGroupId", "getLibraryDesignCode",
+      "getCreatedDate", "getLatestActivityDate", "getTransferDate", "getQcPassed", "getQcReason",
+      "getQcUser", "getQcDate", "getRun", "getDataReviewPassed", "getDataReviewUser",
+      "getDataReviewDate", "getVolume", "getConcentration", "getConcentrationUnits",
+      "getLibrarySize", "getSequencingLane", "getMeanInsertSize", "getDuplicationRate",
+      "getClustersPerSample", "getRawCoverage", "getOnTargetReads",
+      "getMeanCoverageDeduplicated");
+  private static final Stub<OmittedSample> OMITTED_SAMPLE = new Stub<>(OmittedSample.class,
+      "getId", "getName", "getDonor", "getProject", "getRequisitionId", "getRequisitionName",
+      "getAssayIds", "getCreatedDate");
+  private static final Stub<OmittedRunSample> OMITTED_RUN_SAMPLE =
+      new Stub<>(OmittedRunSample.class, "getId", "getName", "getProject", "getRunId",
+          "getRunName", "getSequencingType", "getQcPassed", "getQcReason", "getQcUser",
+          "getQcDate", "getDataReviewPassed", "getDataReviewUser", "getDataReviewDate");
+  private static final Stub<CaseDeliverable> DELIVERABLE = new Stub<>(CaseDeliverable.class,
+      "getDeliverableCategory", "isAnalysisReviewSkipped", "getAnalysisReviewQcStatus",
+      "getAnalysisReviewQcUser", "getAnalysisReviewQcDate", "getReleaseApprovalQcStatus",
+      "getReleaseApprovalQcUser", "getReleaseApprovalQcDate", "getReleases",
+      "getLatestActivityDate");
+  private static final Stub<CaseRelease> RELEASE = new Stub<>(CaseRelease.class,
+      "getDeliverable", "getQcStatus", "getQcUser", "getQcDate");
+
+  private static record TestDefinition(String name, String tissueType, String libraryDesignCode,
+      String libraryQualificationDesignCode) {
+  }
+
+  private static record AssayDefinition(String name, List<TestDefinition> tests,
+      int caseDays) {
+  }
+
+  private static final TestDefinition TUMOUR_WG = new TestDefinition("Tumour WG", "P", "WG", "WG");
+  private static final TestDefinition NORMAL_WG = new TestDefinition("Normal WG", "R", "WG", "WG");
+  private static final TestDefinition TUMOUR_WT = new TestDefinition("Tumour WT", "P", "WT", "WT");
+  private static final TestDefinition TUMOUR_EX = new TestDefinition("Tumour EX", "P", "EX", "EX");
+  private static final TestDefinition NORMAL_EX = new TestDefinition("Normal EX", "R", "EX", "EX");
+  private static final TestDefinition TUMOUR_TS = new TestDefinition("Tumour TS", "P", "TS", "TS");
+  private static final TestDefinition PLASMA_WG = new TestDefinition("Plasma WG", "L", "WG", "SW");
+
+  private static final List<AssayDefinition> ASSAYS = Arrays.asList(
+      new AssayDefinition("WGTS - 80XT/30XN", Arrays.asList(TUMOUR_WG, NORMAL_WG, TUMOUR_WT), 42),
+      new AssayDefinition("WGS - 80XT/30XN", Arrays.asList(TUMOUR_WG, NORMAL_WG), 35),
+      new AssayDefinition("WGS - 40X", Arrays.asList(TUMOUR_WG), 30),
+      new AssayDefinition("EXOME", Arrays.asList(TUMOUR_EX, NORMAL_EX), 35),
+      new AssayDefinition("TAR - REVOLVE", Arrays.asList(TUMOUR_TS), 28),
+      new AssayDefinition("WT", Arrays.asList(TUMOUR_WT), 28),
+      new AssayDefinition("PWGS - Diagnostic", Arrays.asList(PLASMA_WG, NORMAL_WG), 21),
+      new AssayDefinition("EXWT", Arrays.asList(TUMOUR_EX, NORMAL_EX, TUMOUR_WT), 42));
+
+  /**
+   * Settings for generating data. Rates are probabilities between 0 and 1 unless otherwise noted
+   */
+  public static class Builder {
+
+    private int caseCount = BASE_CASE_COUNT;
+    private long seed = 1L;
+    private int librariesPerRun = 24;
+    private double extraReceiptRate = 0.25;
+    private double failedAttemptRate = 0.08;
+    private double topUpRate = 0.2;
+    private double extractionSkippedRate = 0.07;
+    private double stoppedRate = 0.04;
+    private double pausedRate = 0.025;
+    private double omittedSamplesPerCase = 0.1;
+    private double omittedLibrariesPerRun = 0.5;
+
+    public SyntheticCaseData build() {
+      return new SyntheticCaseData(this);
+    }
+
+    public Builder caseCount(int caseCount) {
+      this.caseCount = caseCount;
+      return this;
+    }
+
+    /**
+     * Sets the case count relative to {@link SyntheticCaseData#BASE_CASE_COUNT}
+     */
+    public Builder scale(double scale) {
+      this.caseCount = (int) Math.max(1, Math.round(scale * BASE_CASE_COUNT));
+      return this;
+    }
+
+    public Builder seed(long seed) {
+      this.seed = seed;
+      return this;
+    }
+
+    public Builder librariesPerRun(int librariesPerRun) {
+      this.librariesPerRun = librariesPerRun;
+      return this;
+    }
+
+    public Builder extraReceiptRate(double extraReceiptRate) {
+      this.extraReceiptRate = extraReceiptRate;
+      return this;
+    }
+
+    public Builder failedAttemptRate(double failedAttemptRate) {
+      this.failedAttemptRate = failedAttemptRate;
+      return this;
+    }
+
+    public Builder topUpRate(double topUpRate) {
+      this.topUpRate = topUpRate;
+      return this;
+    }
+
+    public Builder extractionSkippedRate(double extractionSkippedRate) {
+      this.extractionSkippedRate = extractionSkippedRate;
+      return this;
+    }
+
+    public Builder stoppedRate(double stoppedRate) {
+      this.stoppedRate = stoppedRate;
+      return this;
+    }
+
+    public Builder pausedRate(double pausedRate) {
+      this.pausedRate = pausedRate;
+      return this;
+    }
+
+    /**
+     * @param omittedSamplesPerCase average number of omitted samples generated per case
+     */
+    public Builder omittedSamplesPerCase(double omittedSamplesPerCase) {
+      this.omittedSamplesPerCase = omittedSamplesPerCase;
+      return this;
+    }
+
+    /**
+     * @param omittedLibrariesPerRun average number of omitted run-libraries generated per run
+     */
+    public Builder omittedLibrariesPerRun(double omittedLibrariesPerRun) {
+      this.omittedLibrariesPerRun = omittedLibrariesPerRun;
+      return this;
+    }
+  }
+
+  private final Builder settings;
+  private final Random random;
+  // Generated stubs, which are written as Cardea JSON
+  private final Map<Long, Assay> assayStubsById = new HashMap<>();
+  private final List<Project> projects = new ArrayList<>();
+  private final List<Donor> donors = new ArrayList<>();
+  private final List<Run> runs = new ArrayList<>();
+  private final List<Case> caseStubs;
+  private final List<OmittedSample> omittedSampleStubs = new ArrayList<>();
+  private final List<OmittedRunSample> omittedRunSampleStubs = new ArrayList<>();
+  // Real Cardea objects bound from the stubs
+  private final Map<Long, Assay> assaysById;
+  private final List<Case> cases;
+  private final List<OmittedSample> omittedSamples;
+  private final List<OmittedRunSample> omittedRunSamples;
+  private long nextSampleId = 1;
+  private long nextRunId = 1;
+  private Run currentRun = null;
+  private Requisition previousRequisition = null;
+  private LocalDate currentRunDate = null;
+  private int currentRunLibraries = 0;
+
+  /**
+   * Generates case data using default settings
+   *
+   * @param caseCount number of cases to generate
+   * @param seed random seed. The same seed and case count will always produce the same data
+   */
+  public SyntheticCaseData(int caseCount, long seed) {
+    this(new Builder().caseCount(caseCount).seed(seed));
+  }
+
+  private SyntheticCaseData(Builder settings) {
+    this.settings = settings;
+    this.random = new Random(settings.seed);
+    int caseCount = settings.caseCount;
+    for (int i = 0; i < ASSAYS.size(); i++) {
+      Assay assay = makeAssay(i + 1L, ASSAYS.get(i));
+      assayStubsById.put(i + 1L, assay);
+    }
+    for (int i = 1; i <= PROJECT_COUNT; i++) {
+      projects.add(PROJECT.builder()
+          .set("getName", String.format("PRO%d", i))
+          .set("getPipeline", PIPELINES[i % PIPELINES.length])
+          .build());
+    }
+    // Some donors have multiple cases
+    int donorCount = Math.max(1, caseCount * 3 / 4);
+    for (int i = 1; i <= donorCount; i++) {
+      donors.add(DONOR.builder()
+          .set("getId", String.format("SAM%d", i))
+          .set("getName", String.format("DON_%06d", i))
+          .set("getExternalName", String.format("EXT-%06d", i))
+          .build());
+    }
+    List<Case> generated = new ArrayList<>(caseCount);
+    for (int i = 1; i <= caseCount; i++) {
+      generated.add(makeCase(i));
+    }
+    this.caseStubs = Collections.unmodifiableList(generated);
+    addOmittedSamples();
+    addOmittedRunSamples();
+
+    // Repeated values are shared between cases, as when loaded from Cardea
+    CaseLoader loader = new CaseLoader(null);
+    loader.setJsonMapper(JSON_MAPPER);
+    ObjectReader reader = loader.getCardeaMapper().reader()
+        .withAttribute(Canonicalizer.class, new Canonicalizer());
+    Map<Long, Assay> boundAssays = new HashMap<>();
+    assayStubsById.forEach((id, assay) -> boundAssays.put(id, bind(reader, assay, Assay.class)));
+    this.assaysById = Collections.unmodifiableMap(boundAssays);
+    this.cases = caseStubs.stream().map(kase -> bind(reader, kase, Case.class)).toList();
+    this.omittedSamples = omittedSampleStubs.stream()
+        .map(sample -> bind(reader, sample, OmittedSample.class))
+        .toList();
+    this.omittedRunSamples = omittedRunSampleStubs.stream()
+        .map(sample -> bind(reader, sample, OmittedRunSample.class))
+        .toList();
+  }
+
+  /**
+   * Binds a stub as a real Cardea object by writing it as JSON and reading it back
+   */
+  private static <T> T bind(ObjectReader reader, Object stub, Class<T> type) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (JsonGenerator generator = JSON_MAPPER.createGenerator(output)) {
+      writeValue(generator, stub);
+    }
+    return reader.forType(type).readValue(output.toByteArray());
+  }
+
+  public List<Case> getCases() {
+    return cases;
+  }
+
+  public Map<Long, Assay> getAssaysById() {
+    return assaysById;
+  }
+
+  public List<OmittedSample> getOmittedSamples() {
+    return omittedSamples;
+  }
+
+  public List<OmittedRunSample> getOmittedRunSamples() {
+    return omittedRunSamples;
+  }
+
+  /**
+   * @return the cases, indexed the same way as data loaded from Cardea
+   */
+  public CaseData toCaseData() {
+    return new CaseLoader(null).buildCaseData(cases, assaysById, omittedSamples,
+        omittedRunSamples, getTimestamp());
+  }
+
+  /**
+   * @return the timestamp that generated case data is considered current as of
+   */
+  public static ZonedDateTime getTimestamp() {
+    return REFERENCE_DATE.atStartOfDay(ZoneOffset.UTC);
+  }
+
+  /**
+   * Writes the data as the responses of the Cardea endpoints used by {@link CaseLoader}:
+   * {@code timestamp.json} and {@code dimsum.json}. The objects are written property by property
+   * from the generated values, and {@code dimsum.json} is streamed so that large data sets do not
+   * need to be held in memory twice
+   *
+   * @param directory directory to write the files to. Existing files are replaced
+   * @param jsonMapper mapper used to write dates and other values
+   */
+  public void writeCardeaFiles(Path directory, JsonMapper jsonMapper) throws IOException {
+    Files.createDirectories(directory);
+    writeTimestampFile(directory, getTimestamp(), jsonMapper);
+    try (OutputStream output =
+        new BufferedOutputStream(Files.newOutputStream(directory.resolve(CardeaStub.DATA_FILE)));
+        JsonGenerator generator = jsonMapper.createGenerator(output)) {
+      generator.writeStartObject();
+      generator.writeName("cases");
+      writeValue(generator, caseStubs);
+      generator.writeName("assaysById");
+      writeValue(generator, assayStubsById);
+      generator.writeName("omittedSamples");
+      writeValue(generator, omittedSampleStubs);
+      generator.writeName("omittedRunSamples");
+      writeValue(generator, omittedRunSampleStubs);
+      generator.writeName("timestamp");
+      generator.writePOJO(getTimestamp());
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Writes the {@code timestamp.json} file served by {@link CardeaStub}
+   */
+  public static void writeTimestampFile(Path directory, ZonedDateTime timestamp,
+      JsonMapper jsonMapper) throws IOException {
+    Files.write(directory.resolve(CardeaStub.TIMESTAMP_FILE),
+        jsonMapper.writeValueAsBytes(timestamp));
+  }
+
+  private static void writeValue(JsonGenerator generator, Object value) {
+    StubHandler handler = StubHandler.of(value);
+    if (handler != null) {
+      generator.writeStartObject();
+      for (Map.Entry<String, Integer> slot : handler.slots.entrySet()) {
+        Object propertyValue = handler.values[slot.getValue()];
+        if (propertyValue != null) {
+          generator.writeName(toPropertyName(slot.getKey()));
+          writeValue(generator, propertyValue);
+        }
+      }
+      generator.writeEndObject();
+    } else if (value instanceof Collection<?> collection) {
+      generator.writeStartArray();
+      for (Object item : collection) {
+        writeValue(generator, item);
+      }
+      generator.writeEndArray();
+    } else if (value instanceof Map<?, ?> map) {
+      generator.writeStartObject();
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        generator.writeName(entry.getKey().toString());
+        writeValue(generator, entry.getValue());
+      }
+      generator.writeEndObject();
+    } else {
+      generator.writePOJO(value);
+    }
+  }
+
+  private static String toPropertyName(String methodName) {
+    String name = methodName.startsWith("get") ? methodName.substring(3)
+        : methodName.startsWith("is") ? methodName.substring(2) : methodName;
+    return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+  }
+
+  /**
+   * Writes synthetic Cardea data files
+   *
+   * @param args output directory, optional scale (relative to {@link #BASE_CASE_COUNT}; default
+   *        1.0), and optional random seed (default 1)
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 3) {
+      System.err.println("Usage: SyntheticCaseData <output-directory> [scale] [seed]");
+      System.exit(1);
+    }
+    Builder builder = new Builder();
+    if (args.length > 1) {
+      builder.scale(Double.parseDouble(args[1]));
+    }
+    if (args.length > 2) {
+      builder.seed(Long.parseLong(args[2]));
+    }
+    SyntheticCaseData data = builder.build();
+    Path directory = Paths.get(args[0]);
+    data.writeCardeaFiles(directory, JsonMapper.builder().build());
+    System.out.println(String.format("Wrote %d cases, %d omitted samples, and %d omitted run "
+        + "samples to %s", data.getCases().size(), data.getOmittedSamples().size(),
+        data.getOmittedRunSamples().size(), directory.toAbsolutePath()));
+  }
+
+  private Assay makeAssay(long id, AssayDefinition definition) {
+    int caseDays = definition.caseDays();
+    AssayTargets targets = ASSAY_TARGETS.builder()
+        .set("getCaseDays", caseDays)
+        .set("getReceiptDays", 2)
+        .set("getExtractionDays", caseDays / 6)
+        .set("getLibraryPreparationDays", caseDays / 4)
+        .set("getLibraryQualificationDays", caseDays / 2)
+        .set("getFullDepthSequencingDays", caseDays * 3 / 4)
+        .set("getAnalysisReviewDays", caseDays * 5 / 6)
+        .set("getReleaseApprovalDays", caseDays - 2)
+        .set("getReleaseDays", caseDays)
+        .build();
+    return ASSAY.builder()
+        .set("getId", id)
+        .set("getName", definition.name())
+        .set("getDescription", definition.name() + " assay")
+        .set("getTargets", targets)
+        .build();
+  }
+
+  private Case makeCase(int caseNumber) {
+    long assayId = 1L + random.nextInt(ASSAYS.size());
+    AssayDefinition assayDefinition = ASSAYS.get((int) assayId - 1);
+    Donor donor = donors.get(random.nextInt(donors.size()));
+    Project project = projects.get(skewedIndex(projects.size()));
+    Set<Project> caseProjects = new HashSet<>();
+    caseProjects.add(project);
+    if (random.nextInt(20) == 0) {
+      caseProjects.add(projects.get(random.nextInt(projects.size())));
+    }
+    int stage = pickStage();
+    boolean stopped = stage < STAGE_COMPLETE && chance(settings.stoppedRate);
+    boolean paused = !stopped && stage < STAGE_COMPLETE && chance(settings.pausedRate);
+    Requisition requisition;
+    // Some requisitions have several cases. Only requisitions that are not stopped or paused are
+    // shared, as that state applies to all of their cases
+    if (!stopped && !paused && previousRequisition != null && !previousRequisition.isStopped()
+        && !previousRequisition.isPaused() && random.nextInt(10) == 0) {
+      requisition = previousRequisition;
+    } else {
+      requisition = REQUISITION.builder()
+          .set("getId", (long) caseNumber)
+          .set("getName", String.format("REQ%06d", caseNumber))
+          .set("isStopped", stopped)
+          .set("isPaused", paused)
+          .set("getStopReason", stopped ? "Cancelled by requester" : null)
+          .set("getPauseReason", paused ? "Awaiting sample" : null)
+          .build();
+    }
+    previousRequisition = requisition;
+    String tissueOrigin = random.nextBoolean() ? "Pa" : "Lu";
+    String timepoint = random.nextInt(10) == 0 ? "T2" : null;
+
+    // Completed cases started long ago; cases in progress started recently
+    int age = stage == STAGE_COMPLETE ? 60 + random.nextInt(1035) : random.nextInt(150);
+    LocalDate startDate = REFERENCE_DATE.minusDays(age);
+    LocalDate[] stepDates = makeStepDates(startDate);
+
+    CaseContext context = new CaseContext(caseNumber, assayId, donor, project.getName(),
+        requisition, tissueOrigin, timepoint, stage, stepDates);
+
+    List<Sample> receipts = new ArrayList<>();
+    int receiptCount = chance(settings.extraReceiptRate) ? 2 : 1;
+    for (int i = 0; i < receiptCount; i++) {
+      receipts.add(makeSample(context, "R", "R", null,
+          stage > STAGE_RECEIPT ? QcState.PASSED : QcState.PENDING_QC, stepDates[STAGE_RECEIPT],
+          false));
+    }
+
+    List<Test> tests = new ArrayList<>();
+    for (int i = 0; i < assayDefinition.tests().size(); i++) {
+      tests.add(makeTest(context, assayDefinition.tests().get(i), i + 1));
+    }
+
+    List<CaseDeliverable> deliverables = new ArrayList<>();
+    deliverables.add(makeDeliverable(context, DELIVERABLE_CATEGORY_DATA,
+        random.nextInt(3) == 0 ? Arrays.asList(DELIVERABLE_FASTQ)
+            : Arrays.asList(DELIVERABLE_FASTQ, DELIVERABLE_FULL_PIPELINE)));
+    if (!"Research".equals(project.getPipeline())) {
+      deliverables.add(makeDeliverable(context, DELIVERABLE_CATEGORY_CLINICAL,
+          Arrays.asList(DELIVERABLE_REPORT)));
+    }
+
+    LocalDate endDate = stage == STAGE_COMPLETE ? stepDates[STAGE_RELEASE] : REFERENCE_DATE;
+    LocalDate latestActivity = stepDates[Math.min(stage, STAGE_RELEASE)];
+    return CASE.builder()
+        .set("getId", String.format("R%d_%s_%s_P_%d", caseNumber, donor.getName(), tissueOrigin,
+            assayId))
+        .set("getAssayId", assayId)
+        .set("getAssayName", assayDefinition.name())
+        .set("getAssayDescription", assayDefinition.name() + " assay")
+        .set("getDonor", donor)
+        .set("getProjects", caseProjects)
+        .set("getRequisition", requisition)
+        .set("getTissueOrigin", tissueOrigin)
+        .set("getTissueType", "P")
+        .set("getTimepoint", timepoint)
+        .set("getReceipts", receipts)
+        .set("getTests", tests)
+        .set("getDeliverables", deliverables)
+        .set("getStartDate", startDate)
+        .set("getLatestActivityDate", latestActivity)
+        .set("getCaseDaysSpent", (int) ChronoUnit.DAYS.between(startDate, endDate))
+        .set("getReceiptDaysSpent", daysBetween(stepDates, STAGE_RECEIPT, stage))
+        .set("getAnalysisReviewDaysSpent", daysBetween(stepDates, STAGE_ANALYSIS_REVIEW, stage))
+        .set("getReleaseApprovalDaysSpent", daysBetween(stepDates, STAGE_RELEASE_APPROVAL, stage))
+        .set("getReleaseDaysSpent", daysBetween(stepDates, STAGE_RELEASE, stage))
+        .set("isStopped", stopped)
+        .set("getArchivingStatus",
+            stage == STAGE_COMPLETE && random.nextInt(5) == 0 ? ArchivingStatus.STARTED : null)
+        .build();
+  }
+
+  private Test makeTest(CaseContext context, TestDefinition definition, int testNumber) {
+    int stage = context.stage();
+    LocalDate[] dates = context.stepDates();
+    String groupId = String.format("G%d-%d", context.caseNumber(), testNumber);
+    boolean extractionSkipped = chance(settings.extractionSkippedRate);
+
+    List<Sample> extractions = new ArrayList<>();
+    if (!extractionSkipped) {
+      addGateItems(extractions, context, definition, groupId, "D", STAGE_EXTRACTION, dates,
+          false);
+    }
+    List<Sample> libraryPreparations = new ArrayList<>();
+    addGateItems(libraryPreparations, context, definition, groupId, "LB",
+        STAGE_LIBRARY_PREPARATION, dates, false);
+    List<Sample> libraryQualifications = new ArrayList<>();
+    addGateItems(libraryQualifications, context, definition, groupId, "LQ",
+        STAGE_LIBRARY_QUALIFICATION, dates, true);
+    List<Sample> fullDepthSequencings = new ArrayList<>();
+    addGateItems(fullDepthSequencings, context, definition, groupId, "FD",
+        STAGE_FULL_DEPTH_SEQUENCING, dates, true);
+
+    return TEST.builder()
+        .set("getName", definition.name())
+        .set("getTissueOrigin", context.tissueOrigin())
+        .set("getTissueType", definition.tissueType())
+        .set("getGroupId", groupId)
+        .set("getLibraryDesignCode", definition.libraryDesignCode())
+        .set("getLibraryQualificationDesignCode", definition.libraryQualificationDesignCode())
+        .set("getExtractions", extractions)
+        .set("getLibraryPreparations", libraryPreparations)
+        .set("getLibraryQualifications", libraryQualifications)
+        .set("getFullDepthSequencings", fullDepthSequencings)
+        .set("isExtractionSkipped", extractionSkipped)
+        .set("isLibraryPreparationSkipped", false)
+        .set("isLibraryQualificationSkipped", false)
+        .set("getLatestActivityDate",
+            dates[Math.min(stage, STAGE_FULL_DEPTH_SEQUENCING)])
+        .set("getExtractionDaysSpent", daysBetween(dates, STAGE_EXTRACTION, stage))
+        .set("getLibraryPreparationDaysSpent",
+            daysBetween(dates, STAGE_LIBRARY_PREPARATION, stage))
+        .set("getLibraryQualificationDaysSpent",
+            daysBetween(dates, STAGE_LIBRARY_QUALIFICATION, stage))
+        .set("getFullDepthSequencingDaysSpent",
+            daysBetween(dates, STAGE_FULL_DEPTH_SEQUENCING, stage))
+        .build();
+  }
+
+  private void addGateItems(List<Sample> gateItems, CaseContext context,
+      TestDefinition definition, String groupId, String suffix, int gateStage, LocalDate[] dates,
+      boolean runLibrary) {
+    int stage = context.stage();
+    if (stage < gateStage) {
+      return;
+    }
+    LocalDate date = dates[gateStage];
+    // Occasional failed attempts before the current one
+    if (chance(settings.failedAttemptRate)) {
+      gateItems.add(makeSample(context, definition.tissueType(), suffix, definition,
+          QcState.FAILED, date.minusDays(3), runLibrary, groupId));
+    }
+    if (stage > gateStage) {
+      if (runLibrary && gateStage == STAGE_FULL_DEPTH_SEQUENCING
+          && chance(settings.topUpRate)) {
+        gateItems.add(makeSample(context, definition.tissueType(), suffix, definition,
+            QcState.TOP_UP, date.minusDays(7), true, groupId));
+      }
+      gateItems.add(makeSample(context, definition.tissueType(), suffix, definition,
+          QcState.PASSED, date, runLibrary, groupId));
+      return;
+    }
+    // Gate in progress: nothing started, pending QC, or pending data review
+    switch (random.nextInt(runLibrary ? 4 : 3)) {
+      case 0:
+        break;
+      case 1:
+        gateItems.add(makeSample(context, definition.tissueType(), suffix, definition,
+            QcState.PENDING_QC, date, runLibrary, groupId));
+        break;
+      case 2:
+        if (runLibrary) {
+          gateItems.add(makeSample(context, definition.tissueType(), suffix, definition,
+              QcState.PENDING_RUN_QC, date, true, groupId));
+        } else {
+          // passed, but not transferred yet
+          gateItems.add(makeSample(context, definition.tissueType(), suffix, definition,
+              QcState.PASSED_NOT_TRANSFERRED, date, false, groupId));
+        }
+        break;
+      default:
+        gateItems.add(makeSample(context, definition.tissueType(), suffix, definition,
+            QcState.PENDING_DATA_REVIEW, date, true, groupId));
+        break;
+    }
+  }
+
+  private CaseDeliverable makeDeliverable(CaseContext context, String category,
+      List<String> releaseNames) {
+    int stage = context.stage();
+    LocalDate[] dates = context.stepDates();
+    boolean analysisReviewSkipped = DELIVERABLE_CATEGORY_DATA.equals(category)
+        && random.nextInt(3) == 0;
+    AnalysisReviewQcStatus analysisReviewStatus;
+    if (analysisReviewSkipped) {
+      analysisReviewStatus = AnalysisReviewQcStatus.NOT_APPLICABLE;
+    } else if (stage > STAGE_ANALYSIS_REVIEW) {
+      analysisReviewStatus = AnalysisReviewQcStatus.PASSED;
+    } else {
+      analysisReviewStatus = AnalysisReviewQcStatus.PENDING;
+    }
+    boolean releaseApproved = stage > STAGE_RELEASE_APPROVAL;
+
+    List<CaseRelease> releases = new ArrayList<>();
+    for (String releaseName : releaseNames) {
+      ReleaseQcStatus releaseStatus;
+      if (stage > STAGE_RELEASE) {
+        releaseStatus = ReleaseQcStatus.PASSED_RELEASE;
+      } else if (stage == STAGE_RELEASE && random.nextBoolean()) {
+        releaseStatus = ReleaseQcStatus.STAGED;
+      } else {
+        releaseStatus = ReleaseQcStatus.PENDING;
+      }
+      boolean released = releaseStatus == ReleaseQcStatus.PASSED_RELEASE;
+      releases.add(RELEASE.builder()
+          .set("getDeliverable", releaseName)
+          .set("getQcStatus", releaseStatus)
+          .set("getQcUser", released ? USER : null)
+          .set("getQcDate", released ? dates[STAGE_RELEASE] : null)
+          .build());
+    }
+
+    boolean analysisReviewed = analysisReviewStatus == AnalysisReviewQcStatus.PASSED;
+    return DELIVERABLE.builder()
+        .set("getDeliverableCategory", category)
+        .set("isAnalysisReviewSkipped", analysisReviewSkipped)
+        .set("getAnalysisReviewQcStatus", analysisReviewStatus)
+        .set("getAnalysisReviewQcUser", analysisReviewed ? USER : null)
+        .set("getAnalysisReviewQcDate", analysisReviewed ? dates[STAGE_ANALYSIS_REVIEW] : null)
+        .set("getReleaseApprovalQcStatus",
+            releaseApproved ? ReleaseApprovalQcStatus.PASSED_PROCEED : null)
+        .set("getReleaseApprovalQcUser", releaseApproved ? USER : null)
+        .set("getReleaseApprovalQcDate", releaseApproved ? dates[STAGE_RELEASE_APPROVAL] : null)
+        .set("getReleases", releases)
+        .set("getLatestActivityDate", dates[Math.min(stage, STAGE_RELEASE)])
+        .build();
+  }
+
+  private enum QcState {
+    PASSED, PASSED_NOT_TRANSFERRED, PENDING_QC, PENDING_RUN_QC, PENDING_DATA_REVIEW, FAILED, TOP_UP
+  }
+
+  private Sample makeSample(CaseContext context, String tissueType, String suffix,
+      TestDefinition test, QcState state, LocalDate date, boolean runLibrary) {
+    return makeSample(context, tissueType, suffix, test, state, date, runLibrary, null);
+  }
+
+  private Sample makeSample(CaseContext context, String tissueType, String suffix,
+      TestDefinition test, QcState state, LocalDate date, boolean runLibrary, String groupId) {
+    long id = nextSampleId++;
+    boolean qcDone = state != QcState.PENDING_QC;
+    Boolean qcPassed;
+    String qcReason = null;
+    switch (state) {
+      case PENDING_QC:
+        qcPassed = null;
+        break;
+      case FAILED:
+        qcPassed = false;
+        qcReason = FAILED_REASON;
+        break;
+      case TOP_UP:
+        qcPassed = false;
+        qcReason = DataUtils.TOP_UP_REASON;
+        break;
+      default:
+        qcPassed = true;
+        break;
+    }
+    Run run = runLibrary ? getRun(date, state) : null;
+    boolean dataReviewDone = runLibrary && state != QcState.PENDING_QC
+        && state != QcState.PENDING_RUN_QC && state != QcState.PENDING_DATA_REVIEW;
+    String designCode = test == null ? null
+        : "LQ".equals(suffix) ? test.libraryQualificationDesignCode() : test.libraryDesignCode();
+
+    Stub<Sample>.Builder builder = SAMPLE.builder()
+        .set("getId", String.format("SAM%d", id))
+        .set("getName", String.format("%s_%s_%s_%s_%d", context.donor().getName(),
+            context.tissueOrigin(), tissueType, suffix, id))
+        .set("getDonor", context.donor())
+        .set("getProject", context.projectName())
+        .set("getRequisitionId", context.requisition().getId())
+        .set("getRequisitionName", context.requisition().getName())
+        .set("getAssayIds", Collections.singleton(context.assayId()))
+        .set("getTissueOrigin", context.tissueOrigin())
+        .set("getTissueType", tissueType)
+        .set("getTimepoint", context.timepoint())
+        .set("getGroupId", groupId)
+        .set("getLibraryDesignCode", designCode)
+        .set("getCreatedDate", date.minusDays(1))
+        .set("getLatestActivityDate", date)
+        .set("getQcPassed", qcPassed)
+        .set("getQcReason", qcReason)
+        .set("getQcUser", qcDone ? USER : null)
+        .set("getQcDate", qcDone ? date : null)
+        .set("getRun", run);
+    if ("D".equals(suffix)) {
+      builder.set("getTransferDate", state == QcState.PASSED ? date : null)
+          .set("getVolume", metric(20, 60))
+          .set("getConcentration", metric(20, 80))
+          .set("getConcentrationUnits", "ng/uL");
+    } else if ("LB".equals(suffix)) {
+      builder.set("getLibrarySize", 300 + random.nextInt(300))
+          .set("getConcentration", metric(2, 20))
+          .set("getConcentrationUnits", "nM");
+    }
+    if (runLibrary) {
+      // top-ups are confirmed in data review
+      Boolean dataReviewPassed = state == QcState.TOP_UP ? Boolean.TRUE : qcPassed;
+      builder.set("getDataReviewPassed", dataReviewDone ? dataReviewPassed : null)
+          .set("getDataReviewUser", dataReviewDone ? USER : null)
+          .set("getDataReviewDate", dataReviewDone ? date : null)
+          .set("getMeanInsertSize", metric(150, 450))
+          .set("getDuplicationRate", metric(2, 30))
+          .set("getClustersPerSample", 100000 + random.nextInt(900000))
+          .set("getSequencingLane", Integer.toString(1 + random.nextInt(8)));
+      if ("FD".equals(suffix)) {
+        builder.set("getMeanCoverageDeduplicated", metric(20, 120))
+            .set("getRawCoverage", metric(30, 150));
+        if ("TS".equals(designCode)) {
+          builder.set("getOnTargetReads", metric(40, 95));
+        }
+      } else {
+        builder.set("getRawCoverage", metric(0, 2));
+      }
+    }
+    return builder.build();
+  }
+
+  private void addOmittedSamples() {
+    int count = (int) Math.round(caseStubs.size() * settings.omittedSamplesPerCase);
+    for (int i = 0; i < count; i++) {
+      long id = nextSampleId++;
+      Donor donor = donors.get(random.nextInt(donors.size()));
+      // Most omitted samples are waiting to be assigned to a requisition
+      Requisition requisition = random.nextInt(4) == 0
+          ? caseStubs.get(random.nextInt(caseStubs.size())).getRequisition()
+          : null;
+      Long assayId = requisition == null ? null : 1L + random.nextInt(ASSAYS.size());
+      omittedSampleStubs.add(OMITTED_SAMPLE.builder()
+          .set("getId", String.format("SAM%d", id))
+          .set("getName", String.format("%s_%s_R_R_%d", donor.getName(),
+              random.nextBoolean() ? "Pa" : "Lu", id))
+          .set("getDonor", donor)
+          .set("getProject", projects.get(skewedIndex(projects.size())).getName())
+          .set("getRequisitionId", requisition == null ? null : requisition.getId())
+          .set("getRequisitionName", requisition == null ? null : requisition.getName())
+          .set("getAssayIds", assayId == null ? null : Collections.singleton(assayId))
+          .set("getCreatedDate", REFERENCE_DATE.minusDays(random.nextInt(365)))
+          .build());
+    }
+  }
+
+  private void addOmittedRunSamples() {
+    int whole = (int) settings.omittedLibrariesPerRun;
+    double fraction = settings.omittedLibrariesPerRun - whole;
+    for (Run run : runs) {
+      int count = whole + (chance(fraction) ? 1 : 0);
+      for (int i = 0; i < count; i++) {
+        long id = nextSampleId++;
+        Donor donor = donors.get(random.nextInt(donors.size()));
+        boolean pending = run.getQcPassed() == null;
+        boolean passed = pending || random.nextInt(5) != 0;
+        LocalDate date = run.getCompletionDate();
+        omittedRunSampleStubs.add(OMITTED_RUN_SAMPLE.builder()
+            .set("getId", String.format("SAM%d", id))
+            .set("getName", String.format("%s_Pa_P_LB_%d", donor.getName(), id))
+            .set("getProject", projects.get(skewedIndex(projects.size())).getName())
+            .set("getRunId", run.getId())
+            .set("getRunName", run.getName())
+            .set("getSequencingType", random.nextInt(3) == 0 ? MetricCategory.LIBRARY_QUALIFICATION
+                : MetricCategory.FULL_DEPTH_SEQUENCING)
+            .set("getQcPassed", pending ? null : passed)
+            .set("getQcReason", pending || passed ? null : FAILED_REASON)
+            .set("getQcUser", pending ? null : USER)
+            .set("getQcDate", pending ? null : date)
+            .set("getDataReviewPassed", pending ? null : passed)
+            .set("getDataReviewUser", pending ? null : USER)
+            .set("getDataReviewDate", pending ? null : date)
+            .build());
+      }
+    }
+  }
+
+  private Run getRun(LocalDate date, QcState state) {
+    // Libraries sequenced around the same time share runs; runs with QC pending are not shared
+    // with completed libraries
+    boolean pending = state == QcState.PENDING_RUN_QC;
+    if (pending || currentRun == null || currentRunLibraries >= settings.librariesPerRun
+        || !date.equals(currentRunDate)) {
+      long id = nextRunId++;
+      Run run = RUN.builder()
+          .set("getId", id)
+          .set("getName", String.format("%s_M%03d_%06d_A",
+              date.toString().replace("-", "").substring(2), id % 20, id))
+          .set("getCompletionDate", date)
+          .set("getQcPassed", pending ? null : true)
+          .set("getQcUser", pending ? null : USER)
+          .set("getQcDate", pending ? null : date)
+          .set("getDataReviewPassed", pending ? null : true)
+          .set("getDataReviewUser", pending ? null : USER)
+          .set("getDataReviewDate", pending ? null : date)
+          .build();
+      runs.add(run);
+      if (pending) {
+        return run;
+      }
+      currentRun = run;
+      currentRunDate = date;
+      currentRunLibraries = 0;
+    }
+    currentRunLibraries++;
+    return currentRun;
+  }
+
+  private LocalDate[] makeStepDates(LocalDate startDate) {
+    int[] maxDays = {3, 10, 10, 14, 30, 10, 5, 7};
+    LocalDate[] dates = new LocalDate[maxDays.length];
+    LocalDate date = startDate;
+    for (int i = 0; i < maxDays.length; i++) {
+      date = date.plusDays(1 + random.nextInt(maxDays[i]));
+      dates[i] = date.isAfter(REFERENCE_DATE) ? REFERENCE_DATE : date;
+    }
+    return dates;
+  }
+
+  private static int daysBetween(LocalDate[] dates, int step, int stage) {
+    if (stage < step) {
+      return 0;
+    }
+    LocalDate from = step == 0 ? dates[0] : dates[step - 1];
+    LocalDate to = stage > step ? dates[step] : REFERENCE_DATE;
+    return Math.max(0, (int) ChronoUnit.DAYS.between(from, to));
+  }
+
+  private boolean chance(double probability) {
+    return random.nextDouble() < probability;
+  }
+
+  private int pickStage() {
+    int total = Arrays.stream(STAGE_WEIGHTS).sum();
+    int value = random.nextInt(total);
+    for (int i = 0; i < STAGE_WEIGHTS.length; i++) {
+      value -= STAGE_WEIGHTS[i];
+      if (value < 0) {
+        return i;
+      }
+    }
+    return STAGE_COMPLETE;
+  }
+
+  /**
+   * Picks an index weighted toward the start of the range, so that some projects are much larger
+   * than others
+   */
+  private int skewedIndex(int size) {
+    double value = random.nextDouble();
+    return Math.min(size - 1, (int) (value * value * size));
+  }
+
+  private BigDecimal metric(int min, int max) {
+    return BigDecimal.valueOf(min * 10 + random.nextInt((max - min) * 10), 1);
+  }
+
+  private static record CaseContext(int caseNumber, long assayId, Donor donor, String projectName,
+      Requisition requisition, String tissueOrigin, String timepoint, int stage,
+      LocalDate[] stepDates) {
+  }
+
+  /**
+   * Creates immutable stub objects whose getters return fixed values. Interfaces are implemented
+   * using dynamic proxies; other types are Mockito mocks which do not record invocations. Getters
+   * without a value return null, false, zero, or an empty collection.
+   */
+  private static class Stub<T> {
+
+    private final Class<T> type;
+    private final Map<String, Integer> slots;
+
+    public Stub(Class<T> type, String... properties) {
+      this.type = type;
+      Set<String> methodNames = Arrays.stream(type.getMethods())
+          .filter(method -> method.getParameterCount() == 0)
+          .map(Method::getName)
+          .collect(Collectors.toSet());
+      // Ordered so that written JSON is repeatable
+      Map<String, Integer> map = new LinkedHashMap<>();
+      for (String property : properties) {
+        if (!methodNames.contains(property)) {
+          throw new IllegalArgumentException(
+              String.format("%s has no method %s()", type.getSimpleName(), property));
+        }
+        map.put(property, map.size());
+      }
+      this.slots = Collections.unmodifiableMap(map);
+    }
+
+    public Builder builder() {
+      return new Builder();
+    }
+
+    public class Builder {
+      private final Object[] values = new Object[slots.size()];
+
+      public Builder set(String property, Object value) {
+        Integer slot = slots.get(property);
+        if (slot == null) {
+          throw new IllegalArgumentException(
+              String.format("%s property %s is not defined", type.getSimpleName(), property));
+        }
+        values[slot] = value;
+        return this;
+      }
+
+      public T build() {
+        StubHandler handler = new StubHandler(type, slots, values);
+        if (type.isInterface()) {
+          return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+              handler));
+        } else {
+          return mock(type, withSettings().stubOnly().defaultAnswer(handler));
+        }
+      }
+    }
+  }
+
+  private static class StubHandler implements InvocationHandler, Answer<Object> {
+
+    private final Class<?> type;
+    private final Map<String, Integer> slots;
+    private final Object[] values;
+
+    public StubHandler(Class<?> type, Map<String, Integer> slots, Object[] values) {
+      this.type = type;
+      this.slots = slots;
+      this.values = values;
+    }
+
+    /**
+     * @return the handler backing a stub object, or null if the object is not a stub
+     */
+    public static StubHandler of(Object object) {
+      if (object == null) {
+        return null;
+      }
+      if (Proxy.isProxyClass(object.getClass())
+          && Proxy.getInvocationHandler(object) instanceof StubHandler handler) {
+        return handler;
+      }
+      MockingDetails details = mockingDetails(object);
+      if (details.isMock()
+          && details.getMockCreationSettings().getDefaultAnswer() instanceof StubHandler handler) {
+        return handler;
+      }
+      return null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+      if (method.getDeclaringClass() == Object.class) {
+        switch (method.getName()) {
+          case "equals":
+            return proxy == args[0];
+          case "hashCode":
+            return System.identityHashCode(proxy);
+          default:
+            return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+        }
+      }
+      return getValue(method);
+    }
+
+    @Override
+    public Object answer(InvocationOnMock invocation) throws Throwable {
+      Method method = invocation.getMethod();
+      if (method.getDeclaringClass() == Object.class) {
+        return RETURNS_DEFAULTS.answer(invocation);
+      }
+      return getValue(method);
+    }
+
+    private Object getValue(Method method) {
+      Integer slot = method.getParameterCount() == 0 ? slots.get(method.getName()) : null;
+      Object value = slot == null ? null : values[slot];
+      return value == null ? getDefault(method.getReturnType()) : value;
+    }
+
+    private static final Map<Class<?>, Function<Class<?>, Object>> defaults = Map.of(
+        boolean.class, x -> false,
+        int.class, x -> 0,
+        long.class, x -> 0L,
+        double.class, x -> 0.0,
+        List.class, x -> Collections.emptyList(),
+        Set.class, x -> Collections.emptySet(),
+        Map.class, x -> Collections.emptyMap(),
+        Collection.class, x -> Collections.emptyList());
+
+    private static Object getDefault(Class<?> returnType) {
+      Function<Class<?>, Object> function = defaults.get(returnType);
+      return function == null ? null : function.apply(returnType);
+    }
+  }
+
+}
@@ -0,0 +1,166 @@
+package ca.on.oicr.gsi.dimsum.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ca.on.oicr.gsi.dimsum.security.DimsumPrincipal;
+import ca.on.oicr.gsi.dimsum.security.SecurityManager;
+import ca.on.oicr.gsi.dimsum.service.CaseService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+public class ConditionalResponseFilterTest {
+
+  private static final String QUERY_PATH = "/rest/internal/cases";
+  private static final String QUERY = "{\"pageSize\":10,\"pageNumber\":1}";
+
+  private ConditionalResponseFilter sut;
+  private CaseService caseService;
+  private SecurityManager securityManager;
+  private List<String> handledBodies;
+  private FilterChain chain;
+
+  @BeforeEach
+  public void setup() {
+    sut = new ConditionalResponseFilter();
+    caseService = mock(CaseService.class);
+    when(caseService.getDataTimestamp()).thenReturn(ZonedDateTime.parse("2025-06-01T00:00:00Z"));
+    when(caseService.getCacheVersion()).thenReturn(1L);
+    sut.setCaseService(caseService);
+    securityManager = mock(SecurityManager.class);
+    when(securityManager.getPrincipal())
+        .thenReturn(new DimsumPrincipal("user", "User", true, Set.of()));
+    sut.setSecurityManager(securityManager);
+    handledBodies = new ArrayList<>();
+    chain = (request, response) -> handledBodies
+        .add(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testNotModified() throws Exception {
+    MockHttpServletResponse first = doPost(QUERY_PATH, QUERY, null);
+    String eTag = first.getHeader(HttpHeaders.ETAG);
+    assertNotNull(eTag);
+    assertNotNull(first.getHeader(HttpHeaders.LAST_MODIFIED));
+    // The handler still receives the request body after the filter has read it
+    assertEquals(List.of(QUERY), handledBodies);
+
+    MockHttpServletResponse second = doPost(QUERY_PATH, QUERY, eTag);
+    assertEquals(304, second.getStatus());
+    assertEquals(eTag, second.getHeader(HttpHeaders.ETAG));
+    assertEquals(1, handledBodies.size());
+  }
+
+  @Test
+  public void testModified() throws Exception {
+    String eTag = doPost(QUERY_PATH, QUERY, null).getHeader(HttpHeaders.ETAG);
+
+    assertNotEquals(eTag, doPost(QUERY_PATH, "{\"pageSize\":20,\"pageNumber\":1}", eTag)
+        .getHeader(HttpHeaders.ETAG));
+    assertNotEquals(eTag, doPost("/rest/internal/tests", QUERY, eTag)
+        .getHeader(HttpHeaders.ETAG));
+
+    // cached sign-offs applied
+    when(caseService.getCacheVersion()).thenReturn(2L);
+    MockHttpServletResponse response = doPost(QUERY_PATH, QUERY, eTag);
+    assertEquals(200, response.getStatus());
+    assertNotEquals(eTag, response.getHeader(HttpHeaders.ETAG));
+    assertEquals(4, handledBodies.size());
+  }
+
+  @Test
+  public void testWildcardNotMatched() throws Exception {
+    String eTag = doPost(QUERY_PATH, QUERY, null).getHeader(HttpHeaders.ETAG);
+    assertEquals(200, doPost(QUERY_PATH, QUERY, "*").getStatus());
+    assertEquals(304, doPost(QUERY_PATH, QUERY, "\"other\", " + eTag).getStatus());
+    assertEquals(2, handledBodies.size());
+  }
+
+  @Test
+  public void testReadListener() throws Exception {
+    List<String> events = new ArrayList<>();
+    chain = (request, response) -> {
+      ServletInputStream input = request.getInputStream();
+      input.setReadListener(new ReadListener() {
+
+        @Override
+        public void onDataAvailable() throws IOException {
+          events.add(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void onAllDataRead() {
+          events.add("done");
+        }
+
+        @Override
+        public void onError(Throwable t) {
+          fail(t);
+        }
+      });
+    };
+    doPost(QUERY_PATH, QUERY, null);
+    assertEquals(List.of(QUERY, "done"), events);
+  }
+
+  @Test
+  public void testScope() throws Exception {
+    String eTag = doPost(QUERY_PATH, QUERY, null).getHeader(HttpHeaders.ETAG);
+    when(securityManager.getPrincipal())
+        .thenReturn(new DimsumPrincipal("user", "User", false, Set.of("PRO1")));
+    MockHttpServletResponse response = doPost(QUERY_PATH, QUERY, eTag);
+    assertEquals(200, response.getStatus());
+    assertNotEquals(eTag, response.getHeader(HttpHeaders.ETAG));
+  }
+
+  @Test
+  public void testExcluded() throws Exception {
+    for (String path : new String[] {"/rest/internal/cases/bulk-signoff",
+        "/rest/internal/notifications", "/rest/internal/downloads/reports/x",
+        "/rest/common/events", "/cases"}) {
+      MockHttpServletResponse response = doPost(path, QUERY, "*");
+      assertEquals(200, response.getStatus(), path);
+      assertNull(response.getHeader(HttpHeaders.ETAG), path);
+    }
+  }
+
+  @Test
+  public void testGet() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/rest/internal/cases/C1");
+    MockHttpServletResponse first = new MockHttpServletResponse();
+    sut.doFilter(request, first, chain);
+    String eTag = first.getHeader(HttpHeaders.ETAG);
+    assertNotNull(eTag);
+
+    request = new MockHttpServletRequest("GET", "/rest/internal/cases/C1");
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+    MockHttpServletResponse second = new MockHttpServletResponse();
+    sut.doFilter(request, second, chain);
+    assertEquals(304, second.getStatus());
+  }
+
+  private MockHttpServletResponse doPost(String path, String body, String ifNoneMatch)
+      throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+    request.setContentType("application/json");
+    request.setContent(body.getBytes(StandardCharsets.UTF_8));
+    if (ifNoneMatch != null) {
+      request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    sut.doFilter(request, response, chain);
+    return response;
+  }
+
+}
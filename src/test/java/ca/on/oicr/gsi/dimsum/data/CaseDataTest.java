@@ -0,0 +1,76 @@
+package ca.on.oicr.gsi.dimsum.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import ca.on.oicr.gsi.cardea.data.MetricCategory;
+import ca.on.oicr.gsi.cardea.data.OmittedRunSample;
+import ca.on.oicr.gsi.dimsum.service.filtering.OmittedSampleIndex;
+import ca.on.oicr.gsi.dimsum.service.filtering.ProjectSummaryIndex;
+import ca.on.oicr.gsi.dimsum.service.filtering.RunIndex;
+
+public class CaseDataTest {
+
+  @Test
+  public void testOmittedRunSamplesForRun() {
+    OmittedRunSample sample1 =
+        makeOmittedRunSample("RUN1", "PRO1", MetricCategory.LIBRARY_QUALIFICATION);
+    OmittedRunSample sample2 =
+        makeOmittedRunSample("RUN1", "PRO2", MetricCategory.FULL_DEPTH_SEQUENCING);
+    OmittedRunSample sample3 =
+        makeOmittedRunSample("RUN2", "PRO1", MetricCategory.LIBRARY_QUALIFICATION);
+    OmittedRunSample noRun = makeOmittedRunSample(null, "PRO1", null);
+    CaseData sut = makeCaseData(sample1, sample2, sample1, sample3, noRun);
+
+    assertEquals(Arrays.asList(sample1, sample2), sut.getOmittedRunSamplesForRun("RUN1"));
+    assertEquals(Arrays.asList(sample3), sut.getOmittedRunSamplesForRun("RUN2"));
+    assertTrue(sut.getOmittedRunSamplesForRun("RUN3").isEmpty());
+    // The full list is not deduplicated
+    assertEquals(5, sut.getOmittedRunSamples().size());
+  }
+
+  @Test
+  public void testOmittedRunSamplesForProject() {
+    OmittedRunSample sample1 =
+        makeOmittedRunSample("RUN1", "PRO1", MetricCategory.LIBRARY_QUALIFICATION);
+    OmittedRunSample sample2 =
+        makeOmittedRunSample("RUN1", "PRO1", MetricCategory.FULL_DEPTH_SEQUENCING);
+    OmittedRunSample sample3 =
+        makeOmittedRunSample("RUN2", "PRO1", MetricCategory.LIBRARY_QUALIFICATION);
+    OmittedRunSample noType = makeOmittedRunSample("RUN2", "PRO1", null);
+    OmittedRunSample noProject =
+        makeOmittedRunSample("RUN2", null, MetricCategory.LIBRARY_QUALIFICATION);
+    CaseData sut = makeCaseData(sample1, sample3, sample2, sample3, noType, noProject);
+
+    assertEquals(Arrays.asList(sample1, sample3),
+        sut.getOmittedRunSamplesForProject("PRO1", MetricCategory.LIBRARY_QUALIFICATION));
+    assertEquals(Arrays.asList(sample2),
+        sut.getOmittedRunSamplesForProject("PRO1", MetricCategory.FULL_DEPTH_SEQUENCING));
+    assertTrue(sut.getOmittedRunSamplesForProject("PRO1", MetricCategory.RECEIPT).isEmpty());
+    assertTrue(sut.getOmittedRunSamplesForProject("PRO2", MetricCategory.LIBRARY_QUALIFICATION)
+        .isEmpty());
+  }
+
+  private static OmittedRunSample makeOmittedRunSample(String runName, String project,
+      MetricCategory sequencingType) {
+    OmittedRunSample sample = mock(OmittedRunSample.class);
+    when(sample.getRunName()).thenReturn(runName);
+    when(sample.getProject()).thenReturn(project);
+    when(sample.getSequencingType()).thenReturn(sequencingType);
+    return sample;
+  }
+
+  private static CaseData makeCaseData(OmittedRunSample... omittedRunSamples) {
+    List<OmittedRunSample> samples = Arrays.asList(omittedRunSamples);
+    return new CaseData(Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap(),
+        Collections.emptyList(), samples, ZonedDateTime.now(), Collections.emptySet(),
+        Collections.emptySet(), Collections.emptySet(), Collections.emptySet(),
+        Collections.emptySet(), Collections.emptyMap(), Collections.emptyMap(),
+        mock(ProjectSummaryIndex.class), mock(RunIndex.class), mock(OmittedSampleIndex.class));
+  }
+
+}
@@ -0,0 +1,46 @@
+package ca.on.oicr.gsi.dimsum.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import ca.on.oicr.gsi.cardea.data.Sample;
+import ca.on.oicr.gsi.cardea.data.SampleMetric;
+import ca.on.oicr.gsi.cardea.data.ThresholdType;
+
+public class SampleAndRelatedTest {
+
+  @Test
+  public void testMetricsAvailable() {
+    assertTrue(makeRunLibrary(makeMetric("Yield", ThresholdType.GE, false)).isMetricsAvailable());
+    assertFalse(makeRunLibrary(makeMetric("Yield", ThresholdType.GE, null)).isMetricsAvailable());
+    assertTrue(
+        makeRunLibrary(makeMetric("Other", ThresholdType.BOOLEAN, null)).isMetricsAvailable());
+    assertFalse(makeRunLibrary(makeMetric("Sample Authenticated", ThresholdType.BOOLEAN, null))
+        .isMetricsAvailable());
+    assertTrue(makeRunLibrary().isMetricsAvailable());
+    assertTrue(makeRunLibrary((SampleMetric[]) null).isMetricsAvailable());
+  }
+
+  private static SampleAndRelated makeRunLibrary(SampleMetric... metrics) {
+    Sample sample = mock(Sample.class);
+    when(sample.getId()).thenReturn("LIB1");
+    List<SampleMetric> metricList = metrics == null ? null : Arrays.asList(metrics);
+    when(sample.getMetrics()).thenReturn(metricList);
+    return new SampleAndRelated.Builder(sample, Collections.emptyList()).build();
+  }
+
+  private static SampleMetric makeMetric(String name, ThresholdType thresholdType,
+      Boolean qcPassed) {
+    SampleMetric metric = mock(SampleMetric.class);
+    when(metric.getName()).thenReturn(name);
+    when(metric.getThresholdType()).thenReturn(thresholdType);
+    when(metric.getValue()).thenReturn(qcPassed == null ? null : BigDecimal.ONE);
+    when(metric.getQcPassed()).thenReturn(qcPassed);
+    return metric;
+  }
+
+}
@@ -0,0 +1,42 @@
+package ca.on.oicr.gsi.dimsum.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class DimsumPrincipalTest {
+
+  @Test
+  public void testSharedProjects() {
+    DimsumPrincipal principal1 = makeExternal("user1", Set.of("PRO1", "PRO2"));
+    DimsumPrincipal principal2 = makeExternal("user2", new HashSet<>(Set.of("PRO2", "PRO1")));
+    assertSame(principal1.getProjects(), principal2.getProjects());
+    assertEquals("external:PRO1,PRO2", principal1.getAuthorizationScope());
+    assertSame(principal1.getAuthorizationScope(), principal2.getAuthorizationScope());
+    assertEquals(principal1.getAuthorizationScopeId(), principal2.getAuthorizationScopeId());
+  }
+
+  @Test
+  public void testSeparateScopes() {
+    DimsumPrincipal principal1 = makeExternal("user1", Set.of("PRO1"));
+    DimsumPrincipal principal2 = makeExternal("user2", Set.of("PRO1", "PRO2"));
+    assertNotEquals(principal1.getAuthorizationScope(), principal2.getAuthorizationScope());
+    assertNotEquals(principal1.getAuthorizationScopeId(), principal2.getAuthorizationScopeId());
+  }
+
+  @Test
+  public void testInternalScope() {
+    DimsumPrincipal principal1 = new DimsumPrincipal("user1", "User 1", true, Set.of());
+    DimsumPrincipal principal2 = new DimsumPrincipal("user2", "User 2", true, Set.of("PRO1"));
+    assertEquals("internal", principal1.getAuthorizationScope());
+    assertEquals(principal1.getAuthorizationScopeId(), principal2.getAuthorizationScopeId());
+    DimsumPrincipal external = makeExternal("user3", Set.of());
+    assertNotEquals(principal1.getAuthorizationScopeId(), external.getAuthorizationScopeId());
+  }
+
+  private static DimsumPrincipal makeExternal(String name, Set<String> projects) {
+    return new DimsumPrincipal(name, name, false, projects);
+  }
+
+}
@@ -0,0 +1,197 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.cardea.data.Project;
+import ca.on.oicr.gsi.dimsum.security.DimsumPrincipal;
+
+public class ChangeEventServiceTest {
+
+  /**
+   * Emitter that records the events sent to it instead of writing them to a response
+   */
+  private static class RecordingEmitter extends SseEmitter {
+
+    private final BlockingQueue<Set<DataWithMediaType>> events = new LinkedBlockingQueue<>();
+
+    @Override
+    public void send(SseEventBuilder builder) {
+      events.add(builder.build());
+    }
+
+    /**
+     * Waits for the next event, as events are sent on a separate thread
+     */
+    public Set<DataWithMediaType> nextEvent() throws InterruptedException {
+      Set<DataWithMediaType> event = events.poll(5, TimeUnit.SECONDS);
+      assertNotNull(event, "No event received");
+      return event;
+    }
+  }
+
+  /**
+   * Emitter for a client that stops reading, so that sending blocks until it is released
+   */
+  private static class BlockingEmitter extends SseEmitter {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    public void send(SseEventBuilder builder) {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private ChangeEventService sut;
+
+  @BeforeEach
+  public void setup() {
+    sut = new ChangeEventService(null) {
+
+      @Override
+      protected SseEmitter createEmitter() {
+        return new RecordingEmitter();
+      }
+    };
+  }
+
+  @Test
+  public void testSubscribe() {
+    DimsumPrincipal principal = new DimsumPrincipal("user", "User", true, Collections.emptySet());
+    SseEmitter emitter = sut.subscribe(principal);
+    assertNotNull(emitter);
+    assertNotSame(emitter, sut.subscribe(principal));
+    assertEquals(2, sut.getSubscriberCount());
+  }
+
+  @Test
+  public void testPublishWithoutCases() {
+    DimsumPrincipal principal = new DimsumPrincipal("user", "User", true, Collections.emptySet());
+    sut.subscribe(principal);
+    sut.publishCasesChanged(Collections.emptyList());
+    assertEquals(1, sut.getSubscriberCount());
+  }
+
+  @Test
+  public void testPublishGenerationChanged() throws Exception {
+    RecordingEmitter emitter = subscribe(true, Collections.emptySet());
+    ZonedDateTime timestamp = ZonedDateTime.parse("2025-06-01T00:00:00Z");
+    sut.publishGenerationChanged(timestamp);
+
+    Set<DataWithMediaType> event = emitter.nextEvent();
+    assertEquals(ChangeEventService.EVENT_GENERATION, getName(event));
+    assertEquals(Map.of("timestamp", timestamp.toString()), getData(event));
+  }
+
+  @Test
+  public void testPublishCasesChanged() throws Exception {
+    RecordingEmitter internal = subscribe(true, Collections.emptySet());
+    RecordingEmitter external = subscribe(false, Set.of("PRO1"));
+    RecordingEmitter unrelated = subscribe(false, Set.of("PRO3"));
+    sut.publishCasesChanged(List.of(makeCase("C1", "PRO1"), makeCase("C2", "PRO2")));
+    // Events are sent in order, so the generation event shows that no cases event came before it
+    sut.publishGenerationChanged(ZonedDateTime.parse("2025-06-01T00:00:00Z"));
+
+    Set<DataWithMediaType> event = internal.nextEvent();
+    assertEquals(ChangeEventService.EVENT_CASES, getName(event));
+    assertEquals(Map.of("caseIds", List.of("C1", "C2")), getData(event));
+
+    event = external.nextEvent();
+    assertEquals(ChangeEventService.EVENT_CASES, getName(event));
+    assertEquals(Map.of("caseIds", List.of("C1")), getData(event));
+
+    assertEquals(ChangeEventService.EVENT_GENERATION, getName(unrelated.nextEvent()));
+  }
+
+  @Test
+  public void testSlowSubscriber() throws Exception {
+    DimsumPrincipal principal = new DimsumPrincipal("user", "User", true, Collections.emptySet());
+    ChangeEventService service = new ChangeEventService(null) {
+
+      private boolean blocking = true;
+
+      @Override
+      protected SseEmitter createEmitter() {
+        SseEmitter emitter = blocking ? new BlockingEmitter() : new RecordingEmitter();
+        blocking = false;
+        return emitter;
+      }
+    };
+    BlockingEmitter slow = (BlockingEmitter) service.subscribe(principal);
+    RecordingEmitter fast = (RecordingEmitter) service.subscribe(principal);
+    try {
+      ZonedDateTime timestamp = ZonedDateTime.parse("2025-06-01T00:00:00Z");
+      service.publishGenerationChanged(timestamp);
+      // The fast subscriber receives the event while sending to the slow one is blocked
+      assertEquals(ChangeEventService.EVENT_GENERATION, getName(fast.nextEvent()));
+      assertEquals(2, service.getSubscriberCount());
+
+      // One event may be in progress, and the rest are queued until the queue overflows
+      for (int i = 0; i <= ChangeEventService.MAX_QUEUED_EVENTS; i++) {
+        service.publishGenerationChanged(timestamp);
+        assertEquals(ChangeEventService.EVENT_GENERATION, getName(fast.nextEvent()));
+      }
+      assertEquals(1, service.getSubscriberCount());
+    } finally {
+      slow.release.countDown();
+    }
+  }
+
+  private RecordingEmitter subscribe(boolean internal, Set<String> projects) {
+    DimsumPrincipal principal = new DimsumPrincipal("user", "User", internal, projects);
+    return (RecordingEmitter) sut.subscribe(principal);
+  }
+
+  private static Case makeCase(String id, String projectName) {
+    Project project = mock(Project.class);
+    when(project.getName()).thenReturn(projectName);
+    Case kase = mock(Case.class);
+    when(kase.getId()).thenReturn(id);
+    when(kase.getProjects()).thenReturn(Set.of(project));
+    return kase;
+  }
+
+  /**
+   * @return the event name from the text fields of an event, such as "event:cases\ndata:"
+   */
+  private static String getName(Set<DataWithMediaType> event) {
+    String text = event.stream()
+        .map(DataWithMediaType::getData)
+        .filter(String.class::isInstance)
+        .map(String.class::cast)
+        .collect(Collectors.joining());
+    return text.lines()
+        .filter(line -> line.startsWith("event:"))
+        .map(line -> line.substring("event:".length()))
+        .findFirst()
+        .orElse(null);
+  }
+
+  private static Object getData(Set<DataWithMediaType> event) {
+    return event.stream()
+        .map(DataWithMediaType::getData)
+        .filter(Map.class::isInstance)
+        .findFirst()
+        .orElse(null);
+  }
+
+}
@@ -0,0 +1,100 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adds latency and random failures to calls made to a stand-in for an external service. Settings
+ * may be changed while calls are in progress
+ */
+public class FaultInjector {
+
+  /**
+   * Thrown by {@link FaultInjector#beforeCall(String)} when a call should fail
+   */
+  public static class InjectedFaultException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InjectedFaultException(String operation) {
+      super("Injected failure in " + operation);
+    }
+  }
+
+  private final Random random;
+  private final AtomicInteger calls = new AtomicInteger();
+  private final AtomicInteger failures = new AtomicInteger();
+  private volatile long latencyMillis = 0;
+  private volatile long jitterMillis = 0;
+  private volatile double errorRate = 0;
+
+  /**
+   * Creates an injector that adds no latency and never fails, until configured
+   *
+   * @param seed random seed, so that the same calls fail each run
+   */
+  public FaultInjector(long seed) {
+    this.random = new Random(seed);
+  }
+
+  /**
+   * @param latencyMillis minimum time added to each call
+   * @param jitterMillis maximum additional time, chosen randomly for each call
+   */
+  public FaultInjector setLatency(long latencyMillis, long jitterMillis) {
+    if (latencyMillis < 0 || jitterMillis < 0) {
+      throw new IllegalArgumentException("Latency cannot be negative");
+    }
+    this.latencyMillis = latencyMillis;
+    this.jitterMillis = jitterMillis;
+    return this;
+  }
+
+  /**
+   * @param errorRate fraction of calls that should fail, between 0 and 1
+   */
+  public FaultInjector setErrorRate(double errorRate) {
+    if (errorRate < 0 || errorRate > 1) {
+      throw new IllegalArgumentException("Error rate must be between 0 and 1");
+    }
+    this.errorRate = errorRate;
+    return this;
+  }
+
+  public int getCallCount() {
+    return calls.get();
+  }
+
+  public int getFailureCount() {
+    return failures.get();
+  }
+
+  /**
+   * Waits for the configured latency, then fails at the configured rate
+   *
+   * @param operation name of the operation being called, for the error message
+   * @throws InjectedFaultException if the call should fail
+   */
+  public void beforeCall(String operation) {
+    calls.incrementAndGet();
+    long delay = latencyMillis;
+    long jitter = jitterMillis;
+    if (jitter > 0) {
+      delay += (long) (random.nextDouble() * jitter);
+    }
+    if (delay > 0) {
+      try {
+        Thread.sleep(delay);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted during injected latency", e);
+      }
+    }
+    double rate = errorRate;
+    if (rate > 0 && random.nextDouble() < rate) {
+      failures.incrementAndGet();
+      throw new InjectedFaultException(operation);
+    }
+  }
+
+}
@@ -0,0 +1,202 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import static org.mockito.Mockito.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.joda.time.DateTime;
+import com.atlassian.jira.rest.client.api.domain.Comment;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import ca.on.oicr.gsi.dimsum.data.IssueState;
+
+/**
+ * In-memory stand-in for Jira. Calls are subject to the latency and failures configured in its
+ * {@link FaultInjector}, except for {@link #getIssueState(Issue)}, which {@link JiraService}
+ * determines without making a request. Issues returned by searches do not include comments, as
+ * with Jira
+ */
+public class LocalIssueTracker implements IssueTracker {
+
+  private static final String PROJECT_KEY = "LOCAL";
+
+  private static record LocalComment(String body, DateTime created) {
+
+    private Comment toComment() {
+      Comment comment = mock(Comment.class, withSettings().stubOnly());
+      when(comment.getBody()).thenReturn(body);
+      when(comment.getCreationDate()).thenReturn(created);
+      return comment;
+    }
+  }
+
+  private static class LocalIssue {
+
+    private final String key;
+    private final String summary;
+    private final String description;
+    private final List<LocalComment> comments = new ArrayList<>();
+    private IssueState state = IssueState.OPEN;
+
+    private LocalIssue(String key, String summary, String description) {
+      this.key = key;
+      this.summary = summary;
+      this.description = description;
+    }
+
+    private Issue toIssue(boolean includeComments) {
+      List<Comment> issueComments = includeComments
+          ? comments.stream().map(LocalComment::toComment).toList()
+          : null;
+      Issue issue = mock(Issue.class, withSettings().stubOnly());
+      when(issue.getKey()).thenReturn(key);
+      when(issue.getSummary()).thenReturn(summary);
+      when(issue.getDescription()).thenReturn(description);
+      when(issue.getComments()).thenReturn(issueComments);
+      return issue;
+    }
+  }
+
+  private final Map<String, LocalIssue> issuesByKey = new LinkedHashMap<>();
+  private final FaultInjector faults;
+  private int nextIssueNumber = 1;
+  private long lastCommentMillis = 0;
+
+  public LocalIssueTracker(FaultInjector faults) {
+    this.faults = faults;
+  }
+
+  public FaultInjector getFaults() {
+    return faults;
+  }
+
+  /**
+   * Adds an issue directly, without latency or failures, e.g. to populate existing tickets
+   *
+   * @return the new issue's key
+   */
+  public synchronized String addIssue(String summary, String description, IssueState state,
+      List<String> comments) {
+    LocalIssue issue = newIssue(summary, description);
+    issue.state = state;
+    for (String comment : comments) {
+      addComment(issue, comment);
+    }
+    return issue.key;
+  }
+
+  private LocalIssue newIssue(String summary, String description) {
+    String key = PROJECT_KEY + "-" + nextIssueNumber++;
+    LocalIssue issue = new LocalIssue(key, summary, description);
+    issuesByKey.put(key, issue);
+    return issue;
+  }
+
+  /**
+   * Adds a comment with a creation time later than all previous comments, so that the latest
+   * comment can always be identified
+   */
+  private void addComment(LocalIssue issue, String body) {
+    lastCommentMillis = Math.max(System.currentTimeMillis(), lastCommentMillis + 1);
+    issue.comments.add(new LocalComment(body, new DateTime(lastCommentMillis)));
+  }
+
+  public synchronized int getIssueCount() {
+    return issuesByKey.size();
+  }
+
+  public synchronized IssueState getIssueState(String key) {
+    return getLocalIssue(key).state;
+  }
+
+  public synchronized List<String> getComments(String key) {
+    return getLocalIssue(key).comments.stream().map(LocalComment::body).toList();
+  }
+
+  private LocalIssue getLocalIssue(String key) {
+    LocalIssue issue = issuesByKey.get(key);
+    if (issue == null) {
+      throw new IllegalArgumentException("Issue not found: " + key);
+    }
+    return issue;
+  }
+
+  @Override
+  public Issue getIssueByKey(String key) {
+    faults.beforeCall("getIssue");
+    synchronized (this) {
+      LocalIssue issue = issuesByKey.get(key);
+      return issue == null ? null : issue.toIssue(true);
+    }
+  }
+
+  @Override
+  public Issue getIssueBySummary(String summary) {
+    faults.beforeCall("searchIssues");
+    synchronized (this) {
+      for (LocalIssue issue : issuesByKey.values()) {
+        if (issue.summary.equals(summary)) {
+          return issue.toIssue(false);
+        }
+      }
+      return null;
+    }
+  }
+
+  @Override
+  public Iterable<Issue> getOpenIssues(String summary) {
+    faults.beforeCall("searchIssues");
+    synchronized (this) {
+      return issuesByKey.values().stream()
+          .filter(issue -> issue.state == IssueState.OPEN && issue.summary.contains(summary))
+          .map(issue -> issue.toIssue(false))
+          .toList();
+    }
+  }
+
+  @Override
+  public void postComment(Issue issue, String message) {
+    faults.beforeCall("addComment");
+    synchronized (this) {
+      addComment(getLocalIssue(issue.getKey()), message);
+    }
+  }
+
+  @Override
+  public void closeIssue(Issue issue, String message) {
+    transition(issue, IssueState.CLOSED, message);
+  }
+
+  @Override
+  public void pauseIssue(Issue issue, String message) {
+    transition(issue, IssueState.PAUSED, message);
+  }
+
+  @Override
+  public void reopenIssue(Issue issue, String message) {
+    transition(issue, IssueState.OPEN, message);
+  }
+
+  private void transition(Issue issue, IssueState state, String message) {
+    faults.beforeCall("transition");
+    synchronized (this) {
+      LocalIssue localIssue = getLocalIssue(issue.getKey());
+      localIssue.state = state;
+      addComment(localIssue, message);
+    }
+  }
+
+  @Override
+  public String createIssue(String summary, String description) {
+    faults.beforeCall("createIssue");
+    synchronized (this) {
+      return newIssue(summary, description).key;
+    }
+  }
+
+  @Override
+  public synchronized IssueState getIssueState(Issue issue) {
+    return getLocalIssue(issue.getKey()).state;
+  }
+
+}
@@ -0,0 +1,98 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import ca.on.oicr.gsi.dimsum.SyntheticCaseData;
+import ca.on.oicr.gsi.dimsum.data.CaseData;
+import ca.on.oicr.gsi.dimsum.data.IssueState;
+import ca.on.oicr.gsi.dimsum.data.Notification;
+import ca.on.oicr.gsi.dimsum.service.FaultInjector.InjectedFaultException;
+import ca.on.oicr.gsi.dimsum.service.filtering.NotificationSort;
+
+public class LocalIssueTrackerTest {
+
+  private CaseData caseData;
+  private LocalIssueTracker issueTracker;
+  private NotificationManager notificationManager;
+
+  @BeforeEach
+  public void setup() {
+    caseData = new SyntheticCaseData.Builder().caseCount(500).seed(1L).build().toCaseData();
+    issueTracker = new LocalIssueTracker(new FaultInjector(1L));
+    notificationManager = new NotificationManager(null);
+    notificationManager.setBaseUrl("https://example.com");
+    notificationManager.setIssueTracker(issueTracker);
+  }
+
+  @Test
+  public void testSync() {
+    sync();
+    List<Notification> notifications = getNotifications();
+    assertFalse(notifications.isEmpty());
+    assertEquals(notifications.size(), issueTracker.getIssueCount());
+    for (Notification notification : notifications) {
+      assertNotNull(notification.getIssueKey());
+    }
+
+    // The second sync pauses any new issues pending analysis only. After that, nothing has
+    // changed, so no further issues or comments are needed
+    sync();
+    int commentCount = countComments(notifications);
+    sync();
+    assertEquals(notifications.size(), issueTracker.getIssueCount());
+    assertEquals(commentCount, countComments(notifications));
+  }
+
+  @Test
+  public void testSyncFailures() {
+    issueTracker.getFaults().setErrorRate(1.0);
+    sync();
+    // Notifications are still listed, without tickets
+    List<Notification> notifications = getNotifications();
+    assertFalse(notifications.isEmpty());
+    for (Notification notification : notifications) {
+      assertNull(notification.getIssueKey());
+    }
+    assertEquals(0, issueTracker.getIssueCount());
+    assertEquals(issueTracker.getFaults().getCallCount(),
+        issueTracker.getFaults().getFailureCount());
+  }
+
+  @Test
+  public void testTransitions() {
+    String key = issueTracker.addIssue("RUN1 Dimsum Run QC", "description", IssueState.CLOSED,
+        List.of("first"));
+    assertFalse(issueTracker.getOpenIssues("Dimsum Run QC").iterator().hasNext());
+    issueTracker.reopenIssue(issueTracker.getIssueByKey(key), "second");
+    assertEquals(IssueState.OPEN, issueTracker.getIssueState(key));
+    assertEquals(List.of("first", "second"), issueTracker.getComments(key));
+    assertEquals(key, issueTracker.getOpenIssues("Dimsum Run QC").iterator().next().getKey());
+
+    // like the Jira search, only an exact summary matches
+    assertNull(issueTracker.getIssueBySummary("RUN1"));
+    Issue issue = issueTracker.getIssueBySummary("RUN1 Dimsum Run QC");
+    assertEquals(key, issue.getKey());
+    issueTracker.getFaults().setErrorRate(1.0);
+    assertThrows(InjectedFaultException.class, () -> issueTracker.pauseIssue(issue, "third"));
+    assertEquals(IssueState.OPEN, issueTracker.getIssueState(key));
+  }
+
+  private void sync() {
+    notificationManager.update(caseData.getRunsAndLibrariesByName(), caseData.getAssaysById());
+  }
+
+  private int countComments(List<Notification> notifications) {
+    return notifications.stream()
+        .mapToInt(notification -> issueTracker.getComments(notification.getIssueKey()).size())
+        .sum();
+  }
+
+  private List<Notification> getNotifications() {
+    return notificationManager.getNotifications(Integer.MAX_VALUE, 1, NotificationSort.RUN, false)
+        .getItems();
+  }
+
+}
@@ -0,0 +1,126 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ca.on.oicr.gsi.dimsum.data.NabuBulkSignoff;
+import ca.on.oicr.gsi.dimsum.data.NabuSavedSignoff;
+import ca.on.oicr.gsi.dimsum.service.FaultInjector.InjectedFaultException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serves the Nabu sign-off endpoint used by {@link NabuService}, saving nothing. Each case in a
+ * bulk sign-off is returned as a saved sign-off created at the current time. Requests are subject
+ * to the latency and failures configured in its {@link FaultInjector}; failures are returned as
+ * status 503
+ */
+public class NabuStub implements Closeable {
+
+  private static final String SIGNOFF_PATH = "/case/sign-off";
+
+  private final FaultInjector faults;
+  private final JsonMapper jsonMapper;
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final AtomicInteger nextId = new AtomicInteger(1);
+
+  /**
+   * Starts the stub server on the loopback address, using any free port
+   */
+  public NabuStub(FaultInjector faults, JsonMapper jsonMapper) throws IOException {
+    this.faults = faults;
+    this.jsonMapper = jsonMapper;
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext(SIGNOFF_PATH, this::signoff);
+    // one virtual thread per request, so that injected latency never limits concurrency
+    executor = Executors.newVirtualThreadPerTaskExecutor();
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  /**
+   * @return the base URL to use as {@code nabu.url}
+   */
+  public String getUrl() {
+    InetSocketAddress address = server.getAddress();
+    return String.format("http://%s:%d", address.getHostString(), address.getPort());
+  }
+
+  public FaultInjector getFaults() {
+    return faults;
+  }
+
+  /**
+   * @return the number of sign-offs saved, counting each case in a bulk sign-off separately
+   */
+  public int getSavedCount() {
+    return nextId.get() - 1;
+  }
+
+  private void signoff(HttpExchange exchange) throws IOException {
+    try {
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        exchange.getResponseHeaders().set("Allow", "POST");
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      NabuBulkSignoff signoff;
+      try (InputStream body = exchange.getRequestBody()) {
+        signoff = jsonMapper.readValue(body, NabuBulkSignoff.class);
+      }
+      try {
+        faults.beforeCall("signoff");
+      } catch (InjectedFaultException e) {
+        sendResponse(exchange, 503, "text/plain", e.getMessage().getBytes(StandardCharsets.UTF_8));
+        return;
+      }
+      List<NabuSavedSignoff> saved = new ArrayList<>();
+      ZonedDateTime created = ZonedDateTime.now();
+      for (String caseId : signoff.getCaseIdentifiers()) {
+        NabuSavedSignoff savedSignoff = new NabuSavedSignoff();
+        savedSignoff.setId(nextId.getAndIncrement());
+        savedSignoff.setCaseIdentifier(caseId);
+        savedSignoff.setCreated(created);
+        savedSignoff.setQcPassed(signoff.getQcPassed());
+        savedSignoff.setRelease(signoff.getRelease());
+        savedSignoff.setUsername(signoff.getUsername());
+        savedSignoff.setSignoffStepName(signoff.getSignoffStepName());
+        savedSignoff.setDeliverableType(signoff.getDeliverableType());
+        savedSignoff.setDeliverable(signoff.getDeliverable());
+        savedSignoff.setComment(signoff.getComment());
+        saved.add(savedSignoff);
+      }
+      sendResponse(exchange, 200, "application/json", jsonMapper.writeValueAsBytes(saved));
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private static void sendResponse(HttpExchange exchange, int status, String contentType,
+      byte[] body) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(body);
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+}
@@ -0,0 +1,74 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import ca.on.oicr.gsi.dimsum.data.NabuBulkSignoff;
+import ca.on.oicr.gsi.dimsum.data.NabuSavedSignoff;
+import ca.on.oicr.gsi.dimsum.data.NabuSignoff.NabuSignoffStep;
+import tools.jackson.databind.json.JsonMapper;
+
+public class NabuStubTest {
+
+  private NabuStub stub;
+  private CaseService caseService;
+  private NabuService sut;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    stub = new NabuStub(new FaultInjector(1L), JsonMapper.builder().build());
+    caseService = mock(CaseService.class);
+    sut = new NabuService(stub.getUrl(), "key");
+    ReflectionTestUtils.setField(sut, "caseService", caseService);
+  }
+
+  @AfterEach
+  public void teardown() {
+    stub.close();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testPostSignoff() {
+    sut.postSignoff(makeSignoff("CASE1", "CASE2"));
+    ArgumentCaptor<Collection<NabuSavedSignoff>> captor = ArgumentCaptor.forClass(Collection.class);
+    verify(caseService).cacheSignoffs(captor.capture());
+    List<NabuSavedSignoff> saved = new ArrayList<>(captor.getValue());
+    assertEquals(2, saved.size());
+    assertEquals("CASE1", saved.get(0).getCaseIdentifier());
+    assertEquals(NabuSignoffStep.ANALYSIS_REVIEW, saved.get(0).getSignoffStepName());
+    assertTrue(saved.get(0).getQcPassed());
+    assertNotNull(saved.get(0).getCreated());
+    assertEquals(2, stub.getSavedCount());
+  }
+
+  @Test
+  public void testPostSignoffFailure() {
+    stub.getFaults().setErrorRate(1.0);
+    WebClientResponseException e = assertThrows(WebClientResponseException.class,
+        () -> sut.postSignoff(makeSignoff("CASE1")));
+    assertEquals(503, e.getStatusCode().value());
+    verify(caseService, never()).cacheSignoffs(any());
+    assertEquals(0, stub.getSavedCount());
+  }
+
+  private static NabuBulkSignoff makeSignoff(String... caseIds) {
+    NabuBulkSignoff signoff = new NabuBulkSignoff();
+    signoff.setCaseIdentifiers(List.of(caseIds));
+    signoff.setSignoffStepName(NabuSignoffStep.ANALYSIS_REVIEW);
+    signoff.setDeliverableType("Clinical Report");
+    signoff.setQcPassed(true);
+    signoff.setUsername("tester");
+    return signoff;
+  }
+
+}
@@ -378,6 +378,7 @@ public class NotificationManagerTest {
     when(metric.getThresholdType()).thenReturn(ThresholdType.GE);
     when(metric.getQcPassed()).thenReturn(metricsAvailable ? true : null);
     when(runLib.getMetrics()).thenReturn(Collections.singletonList(metric));
+    when(runLib.isMetricsAvailable()).thenReturn(metricsAvailable);
     when(runLib.getQcDate()).thenReturn(qcDone ? arbitraryTimestamp : null);
     when(runLib.getDataReviewDate()).thenReturn(signoffsDone ? arbitraryTimestamp : null);
     return runLib;
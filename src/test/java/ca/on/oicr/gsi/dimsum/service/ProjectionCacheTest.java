@@ -0,0 +1,69 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProjectionCacheTest {
+
+  private static record Source(String id, String value) {
+  }
+
+  private AtomicInteger projectionCount;
+  private ProjectionCache<Source, String> sut;
+
+  @BeforeEach
+  public void setup() {
+    projectionCount = new AtomicInteger();
+    sut = new ProjectionCache<>(Source::id, source -> {
+      projectionCount.incrementAndGet();
+      return new String(source.value());
+    });
+  }
+
+  @Test
+  public void testReuse() {
+    Source source = new Source("1", "a");
+    String projection = sut.get(source);
+    assertEquals("a", projection);
+    assertSame(projection, sut.get(source));
+    assertEquals(1, projectionCount.get());
+    assertEquals(1, sut.size());
+  }
+
+  @Test
+  public void testReplacedSource() {
+    Source source = new Source("1", "a");
+    sut.get(source);
+    // A different instance with the same ID, such as a case with cached sign-offs applied
+    Source replacement = new Source("1", "b");
+    assertEquals("b", sut.get(replacement));
+    assertEquals(2, projectionCount.get());
+    assertEquals(1, sut.size());
+  }
+
+  @Test
+  public void testClear() {
+    Source source = new Source("1", "a");
+    String projection = sut.get(source);
+    sut.clear();
+    assertEquals(0, sut.size());
+    assertNotSame(projection, sut.get(source));
+    assertEquals(2, projectionCount.get());
+  }
+
+  @Test
+  public void testClearDuringGet() {
+    sut = new ProjectionCache<>(Source::id, source -> {
+      projectionCount.incrementAndGet();
+      // A new data generation is loaded while the projection is being built
+      sut.clear();
+      return source.value();
+    });
+    Source source = new Source("1", "a");
+    assertEquals("a", sut.get(source));
+    assertEquals(0, sut.size());
+  }
+
+}
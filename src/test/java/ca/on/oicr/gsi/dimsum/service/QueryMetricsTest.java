@@ -0,0 +1,134 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ca.on.oicr.gsi.dimsum.controller.rest.request.DataQuery;
+import ca.on.oicr.gsi.dimsum.controller.rest.request.KeyValuePair;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Scope;
+import ca.on.oicr.gsi.dimsum.service.QueryMetrics.Table;
+import ca.on.oicr.gsi.dimsum.service.filtering.CaseSort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+public class QueryMetricsTest {
+
+  private MeterRegistry meterRegistry;
+  private QueryMetrics sut;
+
+  @BeforeEach
+  public void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    sut = new QueryMetrics(meterRegistry);
+    sut.setJsonMapper(JsonMapper.builder().build());
+    sut.setSlowThresholdMillis(0);
+  }
+
+  @Test
+  public void testRecord() {
+    DataQuery query = makeQuery("Last Activity", true,
+        new KeyValuePair("PENDING", "Receipt QC"), new KeyValuePair("ASSAY", "WGTS"));
+    String result =
+        sut.record(Table.CASES, Scope.INTERNAL, query, CaseSort.LAST_ACTIVITY, () -> "result");
+    assertEquals("result", result);
+
+    Timer timer = meterRegistry.find("table_query_time")
+        .tag("table", "cases")
+        .tag("scope", "internal")
+        .tag("sort", "LAST_ACTIVITY desc")
+        .tag("filters", "filtered")
+        .timer();
+    assertNotNull(timer);
+    assertEquals(1, timer.count());
+
+    for (String filterKey : new String[] {"PENDING", "ASSAY"}) {
+      Timer filterTimer = meterRegistry.find("table_query_filter_time")
+          .tag("table", "cases")
+          .tag("scope", "internal")
+          .tag("filter", filterKey)
+          .timer();
+      assertNotNull(filterTimer, filterKey);
+      assertEquals(1, filterTimer.count());
+    }
+  }
+
+  @Test
+  public void testRecordFailure() {
+    DataQuery query = makeQuery(null, null);
+    assertThrows(IllegalStateException.class,
+        () -> sut.record(Table.RUNS, Scope.EXTERNAL, query, null, () -> {
+          throw new IllegalStateException();
+        }));
+    Timer timer = meterRegistry.find("table_query_time")
+        .tag("table", "runs")
+        .tag("scope", "external")
+        .tag("sort", "default")
+        .tag("filters", "none")
+        .timer();
+    assertNotNull(timer);
+    assertEquals(1, timer.count());
+    assertNull(meterRegistry.find("table_query_filter_time").timer());
+  }
+
+  @Test
+  public void testSortTag() {
+    assertEquals("default", QueryMetrics.getSortTag(null, makeQuery(null, null)));
+    assertEquals("LAST_ACTIVITY",
+        QueryMetrics.getSortTag(CaseSort.LAST_ACTIVITY, makeQuery("Last Activity", false)));
+    assertEquals("LAST_ACTIVITY desc",
+        QueryMetrics.getSortTag(CaseSort.LAST_ACTIVITY, makeQuery("Last Activity", true)));
+  }
+
+  @Test
+  public void testFiltersTag() {
+    assertEquals("none", QueryMetrics.getFiltersTag(makeQuery(null, null)));
+    // filter keys and values are not included
+    assertEquals("filtered", QueryMetrics.getFiltersTag(makeQuery(null, null,
+        new KeyValuePair("PROJECT", "A"), new KeyValuePair("ASSAY", "B"))));
+
+    DataQuery baseQuery = makeQuery(null, null);
+    baseQuery.setBaseFilter(new KeyValuePair("PROJECT", "A"));
+    assertEquals("base", QueryMetrics.getFiltersTag(baseQuery));
+    baseQuery.setFilters(List.of(new KeyValuePair("ASSAY", "B")));
+    assertEquals("base,filtered", QueryMetrics.getFiltersTag(baseQuery));
+  }
+
+  @Test
+  public void testFilterKeys() {
+    assertTrue(QueryMetrics.getFilterKeys(makeQuery(null, null)).isEmpty());
+    DataQuery query = makeQuery(null, null, new KeyValuePair("PROJECT", "A"),
+        new KeyValuePair("PROJECT", "B"), new KeyValuePair("ASSAY", "C"));
+    query.setBaseFilter(new KeyValuePair("PENDING", "Receipt QC"));
+    // each key is included once, and values are not included
+    assertEquals(List.of("ASSAY", "PENDING", "PROJECT"),
+        List.copyOf(QueryMetrics.getFilterKeys(query)));
+  }
+
+  @Test
+  public void testNormalize() {
+    Map<String, Object> first = QueryMetrics.normalize(makeQuery("Name", false,
+        new KeyValuePair("PROJECT", "B"), new KeyValuePair("PROJECT", "A")));
+    Map<String, Object> second = QueryMetrics.normalize(makeQuery("Name", false,
+        new KeyValuePair("PROJECT", "A"), new KeyValuePair("PROJECT", "B")));
+    assertEquals(first, second);
+    List<?> filters = (List<?>) first.get("filters");
+    assertEquals("A", ((Map<?, ?>) filters.get(0)).get("value"));
+  }
+
+  private static DataQuery makeQuery(String sortColumn, Boolean descending,
+      KeyValuePair... filters) {
+    DataQuery query = new DataQuery();
+    query.setPageNumber(1);
+    query.setPageSize(25);
+    query.setSortColumn(sortColumn);
+    query.setDescending(descending);
+    query.setFilters(Arrays.asList(filters));
+    return query;
+  }
+
+}
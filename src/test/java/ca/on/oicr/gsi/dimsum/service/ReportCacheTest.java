@@ -0,0 +1,239 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import java.io.File;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ca.on.oicr.gsi.dimsum.security.DimsumPrincipal;
+import ca.on.oicr.gsi.dimsum.security.SecurityManager;
+import ca.on.oicr.gsi.dimsum.service.ReportCache.EncodedReport;
+import ca.on.oicr.gsi.dimsum.util.reporting.Report;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+public class ReportCacheTest {
+
+  private static final String REPORT_NAME = "test-report";
+  private static final byte[] REPORT_BYTES = new byte[] {1, 2, 3, 4};
+
+  private ReportCache sut;
+  private CaseService caseService;
+  private SecurityManager securityManager;
+  private JsonMapper jsonMapper = new JsonMapper();
+  private Report report;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    sut = new ReportCache(null);
+    setupCache();
+  }
+
+  private void setupCache() throws Exception {
+    File datadir = new File(System.getProperty("basedir"), "/target/test-data");
+    if (!datadir.exists()) {
+      datadir.mkdir();
+    }
+    sut.setDataDirectory(datadir.getAbsolutePath());
+    sut.setLimits(1024, 1024);
+    caseService = mock(CaseService.class);
+    when(caseService.getCacheVersion()).thenReturn(1L);
+    sut.setCaseService(caseService);
+    securityManager = mock(SecurityManager.class);
+    DimsumPrincipal principal = makePrincipal(true, Collections.emptySet());
+    when(securityManager.getPrincipal()).thenReturn(principal);
+    sut.setSecurityManager(securityManager);
+    sut.setJsonMapper(jsonMapper);
+    report = mock(Report.class);
+    doAnswer(invocation -> {
+      OutputStream output = invocation.getArgument(2);
+      output.write(REPORT_BYTES);
+      return null;
+    }).when(report).writeFile(any(), any(), any());
+  }
+
+  @Test
+  public void testCacheHit() throws Exception {
+    JsonNode parameters = jsonMapper.readTree("{\"format\":\"csv\",\"projects\":\"PRO1\"}");
+    EncodedReport first = sut.getFile(REPORT_NAME, report, parameters);
+    EncodedReport second = sut.getFile(REPORT_NAME, report, parameters);
+    assertArrayEquals(first.bytes(), second.bytes());
+    verify(report, times(1)).writeFile(any(), any(), any());
+  }
+
+  @Test
+  public void testDelimitedCompressed() throws Exception {
+    EncodedReport file =
+        sut.getFile(REPORT_NAME, report, jsonMapper.readTree("{\"format\":\"csv\"}"));
+    assertTrue(file.gzipped());
+    assertArrayEquals(REPORT_BYTES, file.getDecodedBytes());
+  }
+
+  @Test
+  public void testExcelNotCompressed() throws Exception {
+    EncodedReport file =
+        sut.getFile(REPORT_NAME, report, jsonMapper.readTree("{\"format\":\"excel\"}"));
+    assertFalse(file.gzipped());
+    assertArrayEquals(REPORT_BYTES, file.bytes());
+  }
+
+  @Test
+  public void testParameterOrderIgnored() throws Exception {
+    sut.getFile(REPORT_NAME, report,
+        jsonMapper.readTree("{\"format\":\"csv\",\"projects\":\"PRO1\"}"));
+    sut.getFile(REPORT_NAME, report,
+        jsonMapper.readTree("{\"projects\":\"PRO1\",\"format\":\"csv\"}"));
+    verify(report, times(1)).writeFile(any(), any(), any());
+  }
+
+  @Test
+  public void testDifferentParameters() throws Exception {
+    sut.getFile(REPORT_NAME, report,
+        jsonMapper.readTree("{\"format\":\"csv\",\"projects\":\"PRO1\"}"));
+    sut.getFile(REPORT_NAME, report,
+        jsonMapper.readTree("{\"format\":\"csv\",\"projects\":\"PRO2\"}"));
+    sut.getFile(REPORT_NAME, report,
+        jsonMapper.readTree("{\"format\":\"tsv\",\"projects\":\"PRO1\"}"));
+    verify(report, times(3)).writeFile(any(), any(), any());
+  }
+
+  @Test
+  public void testInvalidatedOnDataChange() throws Exception {
+    JsonNode parameters = jsonMapper.readTree("{\"format\":\"csv\"}");
+    sut.getFile(REPORT_NAME, report, parameters);
+    when(caseService.getCacheVersion()).thenReturn(2L);
+    sut.getFile(REPORT_NAME, report, parameters);
+    sut.getFile(REPORT_NAME, report, parameters);
+    verify(report, times(2)).writeFile(any(), any(), any());
+  }
+
+  @Test
+  public void testSeparatedByScope() throws Exception {
+    JsonNode parameters = jsonMapper.readTree("{\"format\":\"csv\"}");
+    sut.getFile(REPORT_NAME, report, parameters);
+    DimsumPrincipal external = makePrincipal(false, Set.of("PRO1"));
+    when(securityManager.getPrincipal()).thenReturn(external);
+    sut.getFile(REPORT_NAME, report, parameters);
+    verify(report, times(2)).writeFile(any(), any(), any());
+  }
+
+  @Test
+  public void testSpillToDisk() throws Exception {
+    // Memory can only hold one entry, so the first is moved to disk when the second is added
+    sut.setLimits(6, 1024);
+    JsonNode parameters1 =
+        jsonMapper.readTree("{\"format\":\"excel\",\"projects\":\"PRO1\"}");
+    JsonNode parameters2 =
+        jsonMapper.readTree("{\"format\":\"excel\",\"projects\":\"PRO2\"}");
+    sut.getFile(REPORT_NAME, report, parameters1);
+    sut.getFile(REPORT_NAME, report, parameters2);
+    EncodedReport fromDisk = sut.getFile(REPORT_NAME, report, parameters1);
+    assertArrayEquals(REPORT_BYTES, fromDisk.bytes());
+    verify(report, times(2)).writeFile(any(), any(), any());
+  }
+
+  @Test
+  public void testConcurrentRequestsRenderOnce() throws Exception {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    sut = new ReportCache(meterRegistry);
+    setupCache();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger renderCount = new AtomicInteger();
+    doAnswer(invocation -> {
+      renderCount.incrementAndGet();
+      started.countDown();
+      assertTrue(release.await(10, TimeUnit.SECONDS));
+      OutputStream output = invocation.getArgument(2);
+      output.write(REPORT_BYTES);
+      return null;
+    }).when(report).writeFile(any(), any(), any());
+    JsonNode parameters = jsonMapper.readTree("{\"format\":\"csv\"}");
+
+    int requestCount = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(requestCount);
+    try {
+      List<Future<EncodedReport>> results = new ArrayList<>();
+      results.add(executor.submit(() -> sut.getFile(REPORT_NAME, report, parameters)));
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+      for (int i = 1; i < requestCount; i++) {
+        results.add(executor.submit(() -> sut.getFile(REPORT_NAME, report, parameters)));
+      }
+      // Each request is counted as a hit before it waits on the in-flight render
+      long deadline = System.currentTimeMillis() + 10000;
+      while (getHitCount(meterRegistry) < requestCount - 1) {
+        assertTrue(System.currentTimeMillis() < deadline, "requests did not join the render");
+        Thread.sleep(10);
+      }
+      release.countDown();
+
+      byte[] expected = results.get(0).get(10, TimeUnit.SECONDS).bytes();
+      for (Future<EncodedReport> result : results) {
+        assertSame(expected, result.get(10, TimeUnit.SECONDS).bytes());
+      }
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+    assertEquals(1, renderCount.get());
+  }
+
+  @Test
+  public void testVersionChangeDuringRender() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger renderCount = new AtomicInteger();
+    doAnswer(invocation -> {
+      // only the first render is blocked
+      if (renderCount.incrementAndGet() == 1) {
+        started.countDown();
+        assertTrue(release.await(10, TimeUnit.SECONDS));
+      }
+      OutputStream output = invocation.getArgument(2);
+      output.write(REPORT_BYTES);
+      return null;
+    }).when(report).writeFile(any(), any(), any());
+    JsonNode parameters = jsonMapper.readTree("{\"format\":\"csv\"}");
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<EncodedReport> outdated =
+          executor.submit(() -> sut.getFile(REPORT_NAME, report, parameters));
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+      when(caseService.getCacheVersion()).thenReturn(2L);
+      // Must not wait for or reuse the render of the outdated data
+      sut.getFile(REPORT_NAME, report, parameters);
+      assertEquals(2, renderCount.get());
+      release.countDown();
+      assertArrayEquals(REPORT_BYTES, outdated.get(10, TimeUnit.SECONDS).getDecodedBytes());
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+    // The current result is still cached after the outdated render finishes
+    sut.getFile(REPORT_NAME, report, parameters);
+    assertEquals(2, renderCount.get());
+  }
+
+  private static double getHitCount(SimpleMeterRegistry meterRegistry) {
+    return meterRegistry.get("report_cache_requests").tag("result", "hit").counter().count();
+  }
+
+  private DimsumPrincipal makePrincipal(boolean internal, Set<String> projects) {
+    return new DimsumPrincipal("user", "User", internal, projects);
+  }
+
+}
@@ -0,0 +1,58 @@
+package ca.on.oicr.gsi.dimsum.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ca.on.oicr.gsi.dimsum.FrontEndConfig;
+import ca.on.oicr.gsi.dimsum.service.SiteConfigService.Script;
+import tools.jackson.databind.json.JsonMapper;
+
+public class SiteConfigServiceTest {
+
+  private FrontEndConfig frontEndConfig;
+  private SiteConfigService sut;
+
+  @BeforeEach
+  public void setup() {
+    JsonMapper jsonMapper = JsonMapper.builder().build();
+    frontEndConfig = new FrontEndConfig(jsonMapper);
+    frontEndConfig.setPipelines(Set.of("Clinical"));
+    frontEndConfig.setAssaysById(Collections.emptyMap());
+    sut = new SiteConfigService();
+    sut.setFrontEndConfig(frontEndConfig);
+    sut.setJsonMapper(jsonMapper);
+  }
+
+  @Test
+  public void testScript() {
+    Script script = sut.getScript(true);
+    String text = new String(script.bytes(), StandardCharsets.UTF_8);
+    assertTrue(text.startsWith("window.siteConfig = {"));
+    assertTrue(text.endsWith("};"));
+    assertTrue(text.contains("\"Clinical\""));
+    assertTrue(text.contains("\"assaysById\""));
+    assertFalse(text.contains("\"version\""));
+  }
+
+  @Test
+  public void testReuse() {
+    Script internal = sut.getScript(true);
+    Script external = sut.getScript(false);
+    assertSame(internal, sut.getScript(true));
+    assertSame(external, sut.getScript(false));
+  }
+
+  @Test
+  public void testRebuild() {
+    Script before = sut.getScript(true);
+    frontEndConfig.setPipelines(Set.of("Clinical", "Research"));
+    Script after = sut.getScript(true);
+    assertNotSame(before, after);
+    assertNotEquals(before.hash(), after.hash());
+    assertTrue(new String(after.bytes(), StandardCharsets.UTF_8).contains("\"Research\""));
+  }
+
+}
@@ -0,0 +1,108 @@
+package ca.on.oicr.gsi.dimsum.service.filtering;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+import ca.on.oicr.gsi.cardea.data.Donor;
+import ca.on.oicr.gsi.cardea.data.OmittedSample;
+
+public class OmittedSampleIndexTest {
+
+  private static final List<OmittedSample> samples = Arrays.asList(
+      makeSample("SAM1", "PROJ1", "PROJ1_0001", "external11", "REQ1", 3),
+      makeSample("SAM2", "proj1", "PROJ1_0002", "external12", null, 1),
+      makeSample("SAM3", "PROJ2", "PROJ2_0001", "external21", "REQ10", 5),
+      makeSample("SAM4", "PROJ2", "PROJ2_0001", "external21", null, 1),
+      makeSample("SAM5", "PROJ2", "PROJ2_0002", "other22", "REQ2", 2));
+
+  private final OmittedSampleIndex sut = new OmittedSampleIndex(samples);
+
+  @Test
+  public void testSortsMatchComparators() {
+    for (OmittedSampleSort sort : OmittedSampleSort.values()) {
+      for (boolean descending : new boolean[] {false, true}) {
+        assertQuery(sort, descending, null);
+      }
+    }
+  }
+
+  @Test
+  public void testProjectFilter() {
+    assertQuery(OmittedSampleSort.NAME, false,
+        List.of(new OmittedSampleFilter(OmittedSampleFilterKey.PROJECT, "Proj1")));
+  }
+
+  @Test
+  public void testDonorFilter() {
+    // matches donor name prefixes and external name substrings
+    assertQuery(OmittedSampleSort.NAME, false,
+        List.of(new OmittedSampleFilter(OmittedSampleFilterKey.DONOR, "proj2_"),
+            new OmittedSampleFilter(OmittedSampleFilterKey.DONOR, "nal1")));
+  }
+
+  @Test
+  public void testRequisitionFilter() {
+    assertQuery(OmittedSampleSort.CREATED, true,
+        List.of(new OmittedSampleFilter(OmittedSampleFilterKey.REQUISITION, "req1")));
+  }
+
+  @Test
+  public void testCombinedFilters() {
+    assertQuery(OmittedSampleSort.DONOR, false,
+        List.of(new OmittedSampleFilter(OmittedSampleFilterKey.PROJECT, "PROJ2"),
+            new OmittedSampleFilter(OmittedSampleFilterKey.REQUISITION, "REQ")));
+  }
+
+  @Test
+  public void testPages() {
+    TableData<OmittedSample> data = sut.getOmittedSamples(2, 3, OmittedSampleSort.NAME, false,
+        null);
+    assertEquals(List.of("SAM5"), data.getItems().stream().map(OmittedSample::getId).toList());
+    assertEquals(5, data.getTotalCount());
+    assertEquals(5, data.getFilteredCount());
+  }
+
+  private void assertQuery(OmittedSampleSort sort, boolean descending,
+      Collection<OmittedSampleFilter> filters) {
+    Predicate<OmittedSample> predicate = sample -> true;
+    if (filters != null) {
+      Map<OmittedSampleFilterKey, Predicate<OmittedSample>> filterMap = new HashMap<>();
+      for (OmittedSampleFilter filter : filters) {
+        filterMap.merge(filter.getKey(), filter.predicate(), Predicate::or);
+      }
+      for (Predicate<OmittedSample> keyPredicate : filterMap.values()) {
+        predicate = predicate.and(keyPredicate);
+      }
+    }
+    List<OmittedSample> expected = samples.stream()
+        .filter(predicate)
+        .sorted(descending ? sort.comparator().reversed() : sort.comparator())
+        .toList();
+    TableData<OmittedSample> data = sut.getOmittedSamples(10, 1, sort, descending, filters);
+    assertEquals(expected, data.getItems(), "%s descending=%s".formatted(sort, descending));
+    assertEquals(expected.size(), data.getFilteredCount());
+  }
+
+  private static OmittedSample makeSample(String id, String projectName, String donorName,
+      String externalName, String requisitionName, int createdDay) {
+    OmittedSample sample = mock(OmittedSample.class);
+    when(sample.getId()).thenReturn(id);
+    when(sample.getName()).thenReturn(id);
+    when(sample.getProject()).thenReturn(projectName);
+    Donor donor = mock(Donor.class);
+    when(donor.getName()).thenReturn(donorName);
+    when(donor.getExternalName()).thenReturn(externalName);
+    when(sample.getDonor()).thenReturn(donor);
+    when(sample.getRequisitionName()).thenReturn(requisitionName);
+    when(sample.getCreatedDate()).thenReturn(LocalDate.of(2026, 1, createdDay));
+    return sample;
+  }
+
+}
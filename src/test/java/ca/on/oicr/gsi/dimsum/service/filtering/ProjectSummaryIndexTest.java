@@ -0,0 +1,80 @@
+package ca.on.oicr.gsi.dimsum.service.filtering;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import ca.on.oicr.gsi.dimsum.data.ProjectSummary;
+import ca.on.oicr.gsi.dimsum.data.external.ExternalProjectSummary;
+
+public class ProjectSummaryIndexTest {
+
+  private final ProjectSummaryIndex sut = new ProjectSummaryIndex(List.of(
+      makeProjectSummary("PRO_B", "Clinical"),
+      makeProjectSummary("PRO_C", "Research"),
+      makeProjectSummary("PRO_A", "Research"),
+      makeProjectSummary("PRO_D", "Clinical")));
+
+  @Test
+  public void testPages() {
+    TableData<ProjectSummary> page1 =
+        sut.getProjectSummaries(3, 1, ProjectSummarySort.NAME, false, null);
+    assertNames(List.of("PRO_A", "PRO_B", "PRO_C"), page1.getItems());
+    assertEquals(4, page1.getTotalCount());
+    assertEquals(4, page1.getFilteredCount());
+    TableData<ProjectSummary> page2 =
+        sut.getProjectSummaries(3, 2, ProjectSummarySort.NAME, false, null);
+    assertNames(List.of("PRO_D"), page2.getItems());
+    TableData<ProjectSummary> page3 =
+        sut.getProjectSummaries(3, 3, ProjectSummarySort.NAME, false, null);
+    assertTrue(page3.getItems().isEmpty());
+  }
+
+  @Test
+  public void testDescending() {
+    TableData<ProjectSummary> data =
+        sut.getProjectSummaries(2, 1, ProjectSummarySort.NAME, true, null);
+    assertNames(List.of("PRO_D", "PRO_C"), data.getItems());
+  }
+
+  @Test
+  public void testFilters() {
+    List<ProjectSummaryFilter> filters = List.of(
+        new ProjectSummaryFilter(ProjectSummaryFilterKey.NAME, "pro_a"),
+        new ProjectSummaryFilter(ProjectSummaryFilterKey.NAME, "PRO_B"),
+        new ProjectSummaryFilter(ProjectSummaryFilterKey.PIPELINE, "Research"));
+    TableData<ProjectSummary> data =
+        sut.getProjectSummaries(10, 1, ProjectSummarySort.NAME, false, filters);
+    assertNames(List.of("PRO_A"), data.getItems());
+    assertEquals(4, data.getTotalCount());
+    assertEquals(1, data.getFilteredCount());
+  }
+
+  @Test
+  public void testExternal() {
+    Set<String> projects = Set.of("PRO_D", "PRO_A", "PRO_X");
+    TableData<ExternalProjectSummary> data =
+        sut.getExternalProjectSummaries(projects, 10, 1, ProjectSummarySort.NAME, true, null);
+    assertEquals(List.of("PRO_D", "PRO_A"),
+        data.getItems().stream().map(ExternalProjectSummary::name).toList());
+    assertEquals(2, data.getTotalCount());
+    assertEquals(2, data.getFilteredCount());
+
+    List<ProjectSummaryFilter> filters =
+        List.of(new ProjectSummaryFilter(ProjectSummaryFilterKey.PIPELINE, "Clinical"));
+    TableData<ExternalProjectSummary> filtered =
+        sut.getExternalProjectSummaries(projects, 10, 1, ProjectSummarySort.NAME, false, filters);
+    assertEquals(List.of("PRO_D"),
+        filtered.getItems().stream().map(ExternalProjectSummary::name).toList());
+    assertEquals(2, filtered.getTotalCount());
+  }
+
+  private static ProjectSummary makeProjectSummary(String name, String pipeline) {
+    return new ProjectSummary.Builder().name(name).pipeline(pipeline).build();
+  }
+
+  private static void assertNames(List<String> expected, List<ProjectSummary> actual) {
+    assertEquals(expected, actual.stream().map(ProjectSummary::getName).toList());
+  }
+
+}
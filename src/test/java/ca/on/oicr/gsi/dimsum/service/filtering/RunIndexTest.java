@@ -0,0 +1,87 @@
+package ca.on.oicr.gsi.dimsum.service.filtering;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import ca.on.oicr.gsi.cardea.data.Run;
+
+public class RunIndexTest {
+
+  private static final List<Run> runs = Arrays.asList(
+      makeRun("RUN_B1", LocalDate.of(2026, 1, 15)),
+      makeRun("run_a1", LocalDate.of(2025, 11, 22)),
+      makeRun("RUN_A2", null),
+      makeRun("RUN_B2", LocalDate.of(2026, 1, 15)),
+      makeRun("OTHER", LocalDate.of(2026, 2, 4)));
+
+  private final RunIndex sut = new RunIndex(runs);
+
+  @Test
+  public void testPages() {
+    TableData<Run> page1 = sut.getRuns(2, 1, RunSort.NAME, false, null);
+    assertNames(List.of("OTHER", "RUN_A2"), page1.getItems());
+    assertEquals(5, page1.getTotalCount());
+    assertEquals(5, page1.getFilteredCount());
+    TableData<Run> page3 = sut.getRuns(2, 3, RunSort.NAME, false, null);
+    assertNames(List.of("run_a1"), page3.getItems());
+    assertTrue(sut.getRuns(2, 4, RunSort.NAME, false, null).getItems().isEmpty());
+  }
+
+  @Test
+  public void testSortsMatchComparators() {
+    for (RunSort sort : RunSort.values()) {
+      for (boolean descending : new boolean[] {false, true}) {
+        List<Run> expected = runs.stream()
+            .sorted(descending ? sort.comparator().reversed() : sort.comparator())
+            .toList();
+        assertEquals(expected, sut.getRuns(10, 1, sort, descending, null).getItems(),
+            "%s descending=%s".formatted(sort, descending));
+      }
+    }
+  }
+
+  @Test
+  public void testFilterNamePrefix() {
+    List<RunFilter> filters = List.of(new RunFilter(RunFilterKey.NAME, "run_a"),
+        new RunFilter(RunFilterKey.NAME, "OTH"));
+    TableData<Run> data = sut.getRuns(10, 1, RunSort.NAME, false, filters);
+    assertNames(List.of("OTHER", "RUN_A2", "run_a1"), data.getItems());
+    assertEquals(3, data.getFilteredCount());
+  }
+
+  @Test
+  public void testFilterCompletionDates() {
+    List<RunFilter> filters = List.of(new RunFilter(RunFilterKey.COMPLETED_AFTER, "2025-11-22"),
+        new RunFilter(RunFilterKey.COMPLETED_BEFORE, "2026-02-04"));
+    TableData<Run> data = sut.getRuns(10, 1, RunSort.COMPLETION_DATE, true, filters);
+    assertNames(List.of("RUN_B1", "RUN_B2"), data.getItems());
+  }
+
+  @Test
+  public void testFiltersMatchPredicates() {
+    List<RunFilter> filters = List.of(new RunFilter(RunFilterKey.NAME, "RUN_"),
+        new RunFilter(RunFilterKey.COMPLETED_BEFORE, "2026-01-16"));
+    List<Run> expected = runs.stream()
+        .filter(filters.get(0).predicate())
+        .filter(filters.get(1).predicate())
+        .sorted(RunSort.COMPLETION_DATE.comparator().reversed())
+        .toList();
+    assertEquals(expected,
+        sut.getRuns(10, 1, RunSort.COMPLETION_DATE, true, filters).getItems());
+  }
+
+  private static void assertNames(List<String> expected, List<Run> actual) {
+    assertEquals(expected, actual.stream().map(Run::getName).toList());
+  }
+
+  private static Run makeRun(String name, LocalDate completedDate) {
+    Run run = mock(Run.class);
+    when(run.getName()).thenReturn(name);
+    when(run.getCompletionDate()).thenReturn(completedDate);
+    return run;
+  }
+
+}
@@ -0,0 +1,250 @@
+package ca.on.oicr.gsi.dimsum.util.reporting.reports;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import ca.on.oicr.gsi.cardea.data.Case;
+import ca.on.oicr.gsi.cardea.data.CaseDeliverable;
+import ca.on.oicr.gsi.cardea.data.CaseQc.ReleaseQcStatus;
+import ca.on.oicr.gsi.cardea.data.CaseRelease;
+import ca.on.oicr.gsi.cardea.data.Project;
+import ca.on.oicr.gsi.dimsum.data.TatTrendSeries;
+import ca.on.oicr.gsi.dimsum.data.TatTrendStats;
+import ca.on.oicr.gsi.dimsum.util.reporting.reports.CaseTatTrend.Gate;
+import ca.on.oicr.gsi.dimsum.util.reporting.reports.CaseTatTrend.Grouping;
+import ca.on.oicr.gsi.dimsum.util.reporting.reports.CaseTatTrend.Interval;
+
+public class CaseTatTrendTest {
+
+  private static final String CLINICAL = "Clinical Report";
+  private static final String DATA = "Data Release";
+
+  @Test
+  public void testStats() {
+    LocalDate released = LocalDate.of(2024, 5, 10);
+    List<Case> cases = Stream.of(10, 20, 30, 40, 100)
+        .map(days -> makeCase("A", Set.of("PRO1"), 1, days,
+            makeDeliverable(CLINICAL, released, days)))
+        .toList();
+    List<TatTrendSeries> series = calculate(cases, Grouping.ASSAY, Interval.MONTH,
+        CaseTatTrend.ALL_DELIVERABLE_CATEGORIES, 25);
+    assertEquals(1, series.size());
+    assertEquals("A", series.get(0).group());
+    assertEquals(Gate.FULL_TEST.getLabel(), series.get(0).gate());
+    assertEquals(1, series.get(0).buckets().size());
+    TatTrendStats stats = series.get(0).buckets().get(0);
+    assertEquals("2024-05", stats.bucket());
+    assertEquals(5, stats.count());
+    assertEquals(40.0, stats.mean());
+    assertEquals(10, stats.min());
+    // p10 is 40% of the way from 10 to 20; p90 is 60% of the way from 40 to 100
+    assertEquals(14.0, stats.p10());
+    assertEquals(20.0, stats.q1());
+    assertEquals(30.0, stats.median());
+    assertEquals(40.0, stats.q3());
+    assertEquals(76.0, stats.p90());
+    assertEquals(100, stats.max());
+    assertEquals(25, stats.histogramBinDays());
+    // bins 2 and 3 are empty, but still included
+    assertEquals(List.of(2, 2, 0, 0, 1), stats.histogram());
+  }
+
+  @Test
+  public void testSingleValueStats() {
+    LocalDate released = LocalDate.of(2024, 5, 10);
+    List<TatTrendSeries> series = calculate(
+        List.of(makeCase("A", Set.of("PRO1"), 1, 7, makeDeliverable(CLINICAL, released, 7))),
+        Grouping.ASSAY, Interval.MONTH, CaseTatTrend.ALL_DELIVERABLE_CATEGORIES, null);
+    TatTrendStats stats = series.get(0).buckets().get(0);
+    assertEquals(1, stats.count());
+    assertEquals(7.0, stats.mean());
+    assertEquals(7, stats.min());
+    assertEquals(7.0, stats.p10());
+    assertEquals(7.0, stats.median());
+    assertEquals(7.0, stats.p90());
+    assertEquals(7, stats.max());
+    assertNull(stats.histogramBinDays());
+    assertNull(stats.histogram());
+  }
+
+  @Test
+  public void testMeanRounded() {
+    LocalDate released = LocalDate.of(2024, 5, 10);
+    List<Case> cases = Stream.of(1, 2, 4)
+        .map(days -> makeCase("A", Set.of("PRO1"), 1, days,
+            makeDeliverable(CLINICAL, released, days)))
+        .toList();
+    TatTrendStats stats = calculate(cases, Grouping.ASSAY, Interval.MONTH,
+        CaseTatTrend.ALL_DELIVERABLE_CATEGORIES, null).get(0).buckets().get(0);
+    assertEquals(2.3, stats.mean());
+    // p10 is 20% of the way from 1 to 2
+    assertEquals(1.2, stats.p10());
+  }
+
+  @Test
+  public void testEachTestCounted() {
+    LocalDate released = LocalDate.of(2024, 5, 10);
+    List<TatTrendSeries> series = calculate(
+        List.of(makeCase("A", Set.of("PRO1"), 3, 12, makeDeliverable(CLINICAL, released, 12))),
+        Grouping.ASSAY, Interval.MONTH, CaseTatTrend.ALL_DELIVERABLE_CATEGORIES, null);
+    assertEquals(3, series.get(0).buckets().get(0).count());
+  }
+
+  @Test
+  public void testWeekBuckets() {
+    // 2023-01-01 is a Sunday, so it starts week 1
+    assertEquals("2023-W01", Interval.WEEK.getBucket(LocalDate.of(2023, 1, 1)));
+    assertEquals("2023-W01", Interval.WEEK.getBucket(LocalDate.of(2023, 1, 7)));
+    assertEquals("2023-W02", Interval.WEEK.getBucket(LocalDate.of(2023, 1, 8)));
+    // 2022-01-01 is a Saturday, so week 1 is a single day
+    assertEquals("2022-W01", Interval.WEEK.getBucket(LocalDate.of(2022, 1, 1)));
+    assertEquals("2022-W02", Interval.WEEK.getBucket(LocalDate.of(2022, 1, 2)));
+    // 2024 is a leap year starting on a Monday
+    assertEquals("2024-W53", Interval.WEEK.getBucket(LocalDate.of(2024, 12, 29)));
+    assertEquals("2024-W53", Interval.WEEK.getBucket(LocalDate.of(2024, 12, 31)));
+    assertEquals("2025-W01", Interval.WEEK.getBucket(LocalDate.of(2025, 1, 1)));
+  }
+
+  @Test
+  public void testMonthBuckets() {
+    assertEquals("2024-02", Interval.MONTH.getBucket(LocalDate.of(2024, 2, 29)));
+    assertEquals("2024-03", Interval.MONTH.getBucket(LocalDate.of(2024, 3, 1)));
+    assertEquals("2024-12", Interval.MONTH.getBucket(LocalDate.of(2024, 12, 31)));
+  }
+
+  @Test
+  public void testFiscalBuckets() {
+    assertEquals("FY2023/24 Q4", Interval.FISCAL_QUARTER.getBucket(LocalDate.of(2024, 3, 31)));
+    assertEquals("FY2024/25 Q1", Interval.FISCAL_QUARTER.getBucket(LocalDate.of(2024, 4, 1)));
+    assertEquals("FY2024/25 Q1", Interval.FISCAL_QUARTER.getBucket(LocalDate.of(2024, 6, 30)));
+    assertEquals("FY2024/25 Q2", Interval.FISCAL_QUARTER.getBucket(LocalDate.of(2024, 7, 1)));
+    assertEquals("FY2024/25 Q3", Interval.FISCAL_QUARTER.getBucket(LocalDate.of(2024, 12, 31)));
+    assertEquals("FY2024/25 Q4", Interval.FISCAL_QUARTER.getBucket(LocalDate.of(2025, 1, 1)));
+    assertEquals("FY1999/00", Interval.FISCAL_YEAR.getBucket(LocalDate.of(1999, 4, 1)));
+    assertEquals("FY1998/99", Interval.FISCAL_YEAR.getBucket(LocalDate.of(1999, 3, 31)));
+  }
+
+  @Test
+  public void testBucketing() {
+    List<Case> cases = Arrays.asList(
+        makeCase("A", Set.of("PRO1"), 1, 5, makeDeliverable(CLINICAL, LocalDate.of(2024, 4, 1), 5)),
+        makeCase("A", Set.of("PRO1"), 1, 8,
+            makeDeliverable(CLINICAL, LocalDate.of(2024, 3, 31), 8)),
+        makeCase("A", Set.of("PRO1"), 1, 9,
+            makeDeliverable(CLINICAL, LocalDate.of(2024, 10, 1), 9)),
+        // Not released, so not included
+        makeCase("A", Set.of("PRO1"), 1, 50, makeDeliverable(CLINICAL, null, 50)));
+    List<TatTrendSeries> series = calculate(cases, Grouping.ASSAY, Interval.FISCAL_QUARTER,
+        CaseTatTrend.ALL_DELIVERABLE_CATEGORIES, null);
+    assertEquals(1, series.size());
+    List<TatTrendStats> buckets = series.get(0).buckets();
+    // Q2 has no cases, so has no bucket
+    assertEquals(List.of("FY2023/24 Q4", "FY2024/25 Q1", "FY2024/25 Q3"),
+        buckets.stream().map(TatTrendStats::bucket).toList());
+    assertEquals(List.of(8, 5, 9), buckets.stream().map(TatTrendStats::max).toList());
+  }
+
+  @Test
+  public void testNoCompletedCases() {
+    List<Case> cases =
+        List.of(makeCase("A", Set.of("PRO1"), 1, 50, makeDeliverable(CLINICAL, null, 50)));
+    assertTrue(calculate(cases, Grouping.ASSAY, Interval.MONTH,
+        CaseTatTrend.ALL_DELIVERABLE_CATEGORIES, 10).isEmpty());
+  }
+
+  @Test
+  public void testDeliverableCategory() {
+    List<Case> cases = Arrays.asList(
+        makeCase("A", Set.of("PRO1"), 1, 40,
+            makeDeliverable(CLINICAL, LocalDate.of(2024, 5, 1), 15),
+            makeDeliverable(DATA, LocalDate.of(2024, 6, 15), 40)),
+        // selected deliverable not released
+        makeCase("A", Set.of("PRO1"), 1, 30,
+            makeDeliverable(CLINICAL, null, 25),
+            makeDeliverable(DATA, LocalDate.of(2024, 6, 1), 30)),
+        // no deliverable of the selected category
+        makeCase("A", Set.of("PRO1"), 1, 20,
+            makeDeliverable(DATA, LocalDate.of(2024, 6, 1), 20)));
+
+    List<TatTrendSeries> clinical =
+        calculate(cases, Grouping.ASSAY, Interval.MONTH, CLINICAL, null);
+    assertEquals(1, clinical.get(0).buckets().size());
+    TatTrendStats clinicalStats = clinical.get(0).buckets().get(0);
+    assertEquals("2024-05", clinicalStats.bucket());
+    assertEquals(1, clinicalStats.count());
+    assertEquals(15, clinicalStats.max());
+
+    // Cases are bucketed by their last release and use the case TAT, but are excluded if any
+    // release is pending
+    List<TatTrendSeries> all = calculate(cases, Grouping.ASSAY, Interval.MONTH,
+        CaseTatTrend.ALL_DELIVERABLE_CATEGORIES, null);
+    assertEquals(1, all.get(0).buckets().size());
+    TatTrendStats allStats = all.get(0).buckets().get(0);
+    assertEquals("2024-06", allStats.bucket());
+    assertEquals(2, allStats.count());
+    assertEquals(20, allStats.min());
+    assertEquals(40, allStats.max());
+  }
+
+  @Test
+  public void testGroupedByProject() {
+    LocalDate released = LocalDate.of(2024, 5, 10);
+    List<Case> cases = Arrays.asList(
+        makeCase("A", Set.of("PRO2", "PRO1"), 1, 10, makeDeliverable(CLINICAL, released, 10)),
+        makeCase("B", Set.of("PRO2"), 1, 20, makeDeliverable(CLINICAL, released, 20)));
+    List<TatTrendSeries> series = calculate(cases, Grouping.PROJECT, Interval.MONTH,
+        CaseTatTrend.ALL_DELIVERABLE_CATEGORIES, null);
+    assertEquals(List.of("PRO1", "PRO2"), series.stream().map(TatTrendSeries::group).toList());
+    assertEquals(1, series.get(0).buckets().get(0).count());
+    assertEquals(2, series.get(1).buckets().get(0).count());
+  }
+
+  private static List<TatTrendSeries> calculate(List<Case> cases, Grouping grouping,
+      Interval interval, String deliverableCategory, Integer histogramBinDays) {
+    return CaseTatTrend.calculate(cases.stream(), grouping, interval, deliverableCategory,
+        List.of(Gate.FULL_TEST), histogramBinDays);
+  }
+
+  private static Case makeCase(String assayName, Set<String> projectNames, int testCount,
+      int caseDays, CaseDeliverable... deliverables) {
+    Case kase = mock(Case.class);
+    when(kase.getAssayName()).thenReturn(assayName);
+    Set<Project> projects = new HashSet<>();
+    for (String projectName : projectNames) {
+      Project project = mock(Project.class);
+      when(project.getName()).thenReturn(projectName);
+      projects.add(project);
+    }
+    when(kase.getProjects()).thenReturn(projects);
+    List<ca.on.oicr.gsi.cardea.data.Test> tests = new ArrayList<>();
+    for (int i = 0; i < testCount; i++) {
+      tests.add(mock(ca.on.oicr.gsi.cardea.data.Test.class));
+    }
+    when(kase.getTests()).thenReturn(tests);
+    when(kase.getDeliverables()).thenReturn(Arrays.asList(deliverables));
+    when(kase.getCaseDaysSpent()).thenReturn(caseDays);
+    return kase;
+  }
+
+  private static CaseDeliverable makeDeliverable(String category, LocalDate releaseDate,
+      int days) {
+    CaseRelease release = mock(CaseRelease.class);
+    // a null status is pending
+    when(release.getQcStatus())
+        .thenReturn(releaseDate == null ? null : ReleaseQcStatus.PASSED_RELEASE);
+    when(release.getQcDate()).thenReturn(releaseDate);
+    CaseDeliverable deliverable = mock(CaseDeliverable.class);
+    when(deliverable.getDeliverableCategory()).thenReturn(category);
+    when(deliverable.getReleases()).thenReturn(List.of(release));
+    when(deliverable.getDeliverableDaysSpent()).thenReturn(days);
+    return deliverable;
+  }
+
+}
@@ -378,6 +378,20 @@ export function showDownloadOptionsDialog(
         includeHeadings: false,
       },
     ],
+    [
+      "Compressed CSV with headings (.csv.gz)",
+      {
+        format: "csv.gz",
+        includeHeadings: true,
+      },
+    ],
+    [
+      "Compressed TSV with headings (.tsv.gz)",
+      {
+        format: "tsv.gz",
+        includeHeadings: true,
+      },
+    ],
   ]);
   let fields: FormField<any>[] = [
     new DropdownField(
@@ -10,6 +10,7 @@ import {
 } from "../util/html-utils";
 import { toggleLegend } from "./legend";
 import { post } from "../util/requests";
+import { onCasesChanged, onGenerationChanged } from "../util/change-events";
 import { Pair } from "../util/pair";
 import { TextInput } from "./text-input";
 import { showErrorDialog } from "./dialog";
@@ -87,6 +88,8 @@ export interface TableDefinition<ParentType, ChildType> {
   // if noChildrenWarning is not provided, 'N/A' is displayed instead
   noChildrenWarning?: string;
   parentHeaders?: Array<{ title: string; colspan: number }>;
+  // if provided, the table is reloaded when any of the displayed cases change
+  getCaseId?: (object: ParentType) => string;
 }
 
 class AcceptedFilter {
@@ -331,10 +334,23 @@ export class TableBuilder<ParentType, ChildType> {
       this.triggerOnLoad(data);
     } else {
       this.reload();
+      this.addChangeListeners();
     }
     return this;
   }
 
+  private addChangeListeners() {
+    onGenerationChanged(() => this.reload());
+    const getCaseId = this.definition.getCaseId;
+    if (getCaseId) {
+      onCasesChanged((caseIds) => {
+        if (this.allItems.some((item) => caseIds.includes(getCaseId(item)))) {
+          this.reload();
+        }
+      });
+    }
+  }
+
   private triggerOnLoad(data: ParentType[]) {
     if (this.onLoad) {
       const remove = this.onLoad(data);
@@ -206,6 +206,7 @@ export interface Case {
 
 export const caseDefinition: TableDefinition<Case, Test> = {
   queryUrl: urls.rest.cases.list,
+  getCaseId: (kase) => kase.id,
   getDefaultSort: () =>
     internalUser
       ? {
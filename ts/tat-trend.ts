@@ -11,7 +11,7 @@ import {
 import { urls } from "./util/urls";
 import { siteConfig } from "./util/site-config";
 
-let jsonData: any[] = [];
+let trendData: TatTrendSeries[] = [];
 const uirevision = "true";
 let tableBuilder: TableBuilder<AssayMetrics, void> | null = null;
 const NOT_AVAILABLE = "N/A";
@@ -27,36 +27,23 @@ interface AssayMetrics {
   }>;
 }
 
-interface CaseCounts {
-  [key: string]: number;
+interface TatTrendStats {
+  bucket: string;
+  count: number;
+  mean: number;
+  min: number;
+  p10: number;
+  q1: number;
+  median: number;
+  q3: number;
+  p90: number;
+  max: number;
 }
 
-// constants for column names in the Case TAT Report
-const COLUMN_NAMES = {
-  ASSAY: "Assay",
-  CASE_ID: "Case ID",
-  RC_DAYS: "Receipt Days",
-  EX_DAYS: "EX Days",
-  LP_DAYS: "Library Prep. Days",
-  LQ_DAYS: "LQ Total Days",
-  FD_DAYS: "FD Total Days",
-  ALL_DAYS: "ALL Total Days",
-  RC_COMPLETED: "Receipt Completed",
-  EX_COMPLETED: "Extraction (EX) Completed",
-  LP_COMPLETED: "Library Prep. Completed",
-  LQ_COMPLETED: "Library Qual. (LQ) Completed",
-  FD_COMPLETED: "Full-Depth (FD) Completed",
-};
-
-function getCompletionColumnName(
-  deliverableCategory: string,
-  gate: string
-): string {
-  return `${deliverableCategory} ${gate} Completed`.trim();
-}
-
-function getDaysColumnName(deliverableCategory: string, gate: string): string {
-  return `${deliverableCategory} ${gate} Days`.trim();
+interface TatTrendSeries {
+  group: string;
+  gate: string;
+  buckets: TatTrendStats[];
 }
 
 function generateColor(index: number): string {
@@ -73,103 +60,6 @@ function generateColor(index: number): string {
   return colors[index % colors.length];
 }
 
-interface AssayGroups {
-  [assay: string]: {
-    [gate: string]: { x: any[]; y: number[]; text: string[]; n: number };
-  };
-}
-
-interface GroupDays {
-  [group: string]: number[];
-}
-
-function getCompletedDateAndDays(
-  row: any,
-  gate: string,
-  deliverableCategory: string
-) {
-  let completedDate: Date | null = null;
-  let days: number = 0;
-
-  switch (gate) {
-    case "Receipt":
-      completedDate = row[COLUMN_NAMES.RC_COMPLETED]
-        ? new Date(row[COLUMN_NAMES.RC_COMPLETED])
-        : null;
-      days = row[COLUMN_NAMES.RC_DAYS] ?? 0;
-      break;
-    case "Extraction":
-      completedDate = row[COLUMN_NAMES.EX_COMPLETED]
-        ? new Date(row[COLUMN_NAMES.EX_COMPLETED])
-        : null;
-      days = row[COLUMN_NAMES.EX_DAYS] ?? 0;
-      break;
-    case "Library Prep":
-      completedDate = row[COLUMN_NAMES.LP_COMPLETED]
-        ? new Date(row[COLUMN_NAMES.LP_COMPLETED])
-        : null;
-      days = row[COLUMN_NAMES.LP_DAYS] ?? 0;
-      break;
-    case "Library Qual":
-      completedDate = row[COLUMN_NAMES.LQ_COMPLETED]
-        ? new Date(row[COLUMN_NAMES.LQ_COMPLETED])
-        : null;
-      days = row[COLUMN_NAMES.LQ_DAYS] ?? 0;
-      break;
-    case "Full-Depth":
-      completedDate = row[COLUMN_NAMES.FD_COMPLETED]
-        ? new Date(row[COLUMN_NAMES.FD_COMPLETED])
-        : null;
-      days = row[COLUMN_NAMES.FD_DAYS] ?? 0;
-      break;
-    case "Full Test":
-      completedDate = row[
-        getCompletionColumnName(deliverableCategory, "Release")
-      ]
-        ? new Date(row[getCompletionColumnName(deliverableCategory, "Release")])
-        : null;
-      days = row[getDaysColumnName(deliverableCategory, "Total")] ?? 0;
-      break;
-    default:
-      completedDate = row[getCompletionColumnName(deliverableCategory, gate)]
-        ? new Date(row[getCompletionColumnName(deliverableCategory, gate)])
-        : null;
-      days = row[getDaysColumnName(deliverableCategory, gate)] ?? 0;
-  }
-
-  return { completedDate, days };
-}
-
-function getGroup(date: Date, selectedGrouping: string): string {
-  const year = date.getFullYear();
-  const month = date.getMonth() + 1;
-  let fiscalYear = year;
-  let fiscalQuarter: number;
-
-  if (month >= 4) {
-    fiscalYear = year; // current fiscal year
-    fiscalQuarter = Math.floor((month - 4) / 3) + 1;
-  } else {
-    fiscalYear = year - 1; // previous fiscal year
-    fiscalQuarter = 4; // last quarter
-  }
-  const fiscalYearString = `FY${fiscalYear}/${String(fiscalYear + 1).slice(
-    -2
-  )}`;
-  switch (selectedGrouping) {
-    case "week":
-      return getWeek(date);
-    case "month":
-      return `${year}-${String(month).padStart(2, "0")}`;
-    case "fiscalQuarter":
-      return `${fiscalYearString} Q${fiscalQuarter}`;
-    case "fiscalYear":
-      return fiscalYearString;
-    default:
-      throw new Error(`Unsupported grouping type: ${selectedGrouping}`);
-  }
-}
-
 function selectAllGates(onUpdate: () => void) {
   const selectAllCheckboxId = "selectAllGates";
   const checkboxesContainerId = "gatesCheckboxes";
@@ -196,60 +86,6 @@ function selectAllGates(onUpdate: () => void) {
   });
 }
 
-function groupData(
-  jsonData: any[],
-  selectedGrouping: string,
-  selectedGates: string[],
-  deliverableCategory: string
-): AssayGroups {
-  const assayGroups: AssayGroups = {};
-
-  jsonData.forEach((row: any) => {
-    const assay = row[COLUMN_NAMES.ASSAY];
-    const caseId = row[COLUMN_NAMES.CASE_ID];
-    const caseCompletedDate =
-      row[getCompletionColumnName(deliverableCategory, "Release")];
-
-    // skip if case completed date is missing
-    if (!caseCompletedDate) {
-      return;
-    }
-    if (assay && caseId != null) {
-      if (!assayGroups[assay]) {
-        assayGroups[assay] = {};
-      }
-      selectedGates.forEach((gate) => {
-        const { completedDate, days } = getCompletedDateAndDays(
-          row,
-          gate,
-          deliverableCategory
-        );
-        if (!completedDate) {
-          return;
-        }
-        const date = new Date(caseCompletedDate);
-        const group = getGroup(date, selectedGrouping);
-        if (!assayGroups[assay][gate]) {
-          assayGroups[assay][gate] = { x: [], y: [], text: [], n: 0 };
-        }
-        assayGroups[assay][gate].x.push(group);
-        assayGroups[assay][gate].y.push(days);
-        assayGroups[assay][gate].text.push(`${caseId} (${gate})`);
-        assayGroups[assay][gate].n += 1;
-      });
-    }
-  });
-  return assayGroups;
-}
-
-function getWeek(date: Date): string {
-  const onejan = new Date(date.getFullYear(), 0, 1);
-  const week = Math.ceil(
-    ((date.getTime() - onejan.getTime()) / 86400000 + onejan.getDay() + 1) / 7
-  );
-  return `${date.getFullYear()}-W${String(week).padStart(2, "0")}`;
-}
-
 function getColorByGate(): boolean {
   const toggleColors = getRequiredElementById(
     "toggleColors"
@@ -257,25 +93,6 @@ function getColorByGate(): boolean {
   return toggleColors.checked;
 }
 
-function getCaseCount(groups: any[]): { [key: string]: number } {
-  const groupCounts: { [key: string]: number } = {};
-  groups.forEach((group) => {
-    if (!groupCounts[group]) {
-      groupCounts[group] = 0;
-    }
-    groupCounts[group] += 1;
-  });
-  return groupCounts;
-}
-
-function calcMedian(arr: number[]): number {
-  const sorted = arr.slice().sort((a, b) => a - b);
-  const mid = Math.floor(sorted.length / 2);
-  return sorted.length % 2 !== 0
-    ? sorted[mid]
-    : (sorted[mid - 1] + sorted[mid]) / 2;
-}
-
 function parseDateValue(timeRange: string | undefined): number {
   if (!timeRange) return 0;
   if (timeRange.includes("FY") && timeRange.includes("Q")) {
@@ -304,58 +121,45 @@ function sortTimeRanges(timeRanges: string[]): string[] {
 }
 
 function plotData(
-  jsonData: any[],
+  trendData: TatTrendSeries[],
   selectedGrouping: string,
-  selectedGates: string[],
-  selectedDeliverableCategory: string
+  selectedGates: string[]
 ): { newPlot: Partial<Plotly.PlotData>[]; layout: Partial<Plotly.Layout> } {
-  const assayGroups = groupData(
-    jsonData,
-    selectedGrouping,
-    selectedGates,
-    selectedDeliverableCategory
-  );
   const newPlot: Partial<Plotly.PlotData>[] = [];
   const assayColors: { [assay: string]: string } = {};
-  const gateColors: { [gate: string]: string } = {};
   let colorIndex = 0;
   const colorByGate = getColorByGate();
-  if (colorByGate) {
-    selectedGates.forEach((gate, index) => {
-      gateColors[gate] = generateColor(index);
-    });
-  }
-  Object.keys(assayGroups).forEach((assay) => {
-    if (!assayColors[assay]) {
-      assayColors[assay] = generateColor(colorIndex++);
-    }
-    selectedGates.forEach((gate) => {
-      if (assayGroups[assay][gate]) {
-        newPlot.push({
-          x: assayGroups[assay][gate].x,
-          y: assayGroups[assay][gate].y,
-          type: "box",
-          name: `${assay}`,
-          text: assayGroups[assay][gate].text,
-          hoverinfo: "text+y",
-          hovertemplate: `
-            %{text}<br>
-            Days: %{y}<br>
-          `,
-          boxpoints: "all",
-          jitter: 0.3,
-          pointpos: 0,
-          marker: {
-            size: 6,
-            color: colorByGate ? getColorForGate(gate) : assayColors[assay],
-          },
-          boxmean: true,
-          legendgroup: assay,
-          showlegend: !newPlot.some((d) => d.legendgroup === assay),
-        } as unknown as Partial<Plotly.PlotData>);
+  trendData
+    .filter((series) => selectedGates.includes(series.gate))
+    .forEach((series) => {
+      const assay = series.group;
+      const gate = series.gate;
+      if (!assayColors[assay]) {
+        assayColors[assay] = generateColor(colorIndex++);
       }
+      // box statistics are calculated by the server
+      newPlot.push({
+        x: series.buckets.map((stats) => stats.bucket),
+        q1: series.buckets.map((stats) => stats.q1),
+        median: series.buckets.map((stats) => stats.median),
+        q3: series.buckets.map((stats) => stats.q3),
+        lowerfence: series.buckets.map((stats) => stats.min),
+        upperfence: series.buckets.map((stats) => stats.max),
+        mean: series.buckets.map((stats) => stats.mean),
+        type: "box",
+        name: `${assay}`,
+        hovertext: series.buckets.map(
+          (stats) => `${assay} (${gate}): ${stats.count} tests`
+        ),
+        marker: {
+          size: 6,
+          color: colorByGate ? getColorForGate(gate) : assayColors[assay],
+        },
+        boxmean: true,
+        legendgroup: assay,
+        showlegend: !newPlot.some((d) => d.legendgroup === assay),
+      } as unknown as Partial<Plotly.PlotData>);
     });
-  });
 
   const layout: Partial<Plotly.Layout> = {
     xaxis: {
@@ -394,18 +198,16 @@ function plotData(
 
 function newPlot(
   selectedGrouping: string,
-  jsonData: any[],
-  selectedGates: string[],
-  selectedDeliverableCategory: string
+  trendData: TatTrendSeries[],
+  selectedGates: string[]
 ) {
   const plotContainer = getRequiredElementById("plotContainer");
   plotContainer.textContent = "";
 
   const { newPlot, layout } = plotData(
-    jsonData,
+    trendData,
     selectedGrouping,
-    selectedGates,
-    selectedDeliverableCategory
+    selectedGates
   );
   Plotly.newPlot("plotContainer", newPlot, layout);
 
@@ -419,31 +221,23 @@ function newPlot(
 
 function updatePlot(
   selectedGrouping: string,
-  jsonData: any[],
-  selectedGates: string[],
-  selectedDeliverableCategory: string
+  trendData: TatTrendSeries[],
+  selectedGates: string[]
 ) {
   const { newPlot, layout } = plotData(
-    jsonData,
+    trendData,
     selectedGrouping,
-    selectedGates,
-    selectedDeliverableCategory
+    selectedGates
   );
   Plotly.react("plotContainer", newPlot, layout);
 }
 
 function updatePlotWithLegend(
   selectedGrouping: string,
-  jsonData: any[],
-  selectedGates: string[],
-  selectedDeliverableCategory: string
+  trendData: TatTrendSeries[],
+  selectedGates: string[]
 ) {
-  updatePlot(
-    selectedGrouping,
-    jsonData,
-    selectedGates,
-    selectedDeliverableCategory
-  );
+  updatePlot(selectedGrouping, trendData, selectedGates);
   const legendButton = document.getElementById("legendButton");
   if (getColorByGate()) {
     // show the Legend button
@@ -463,17 +257,13 @@ function updatePlotWithLegend(
 }
 
 function updateMetricsTable(
-  jsonData: any[],
-  selectedGrouping: string,
-  selectedGates: string[],
-  selectedDeliverableCategory: string
+  trendData: TatTrendSeries[],
+  selectedGates: string[]
 ) {
   // build the table data and get the time ranges from the metrics
   const { tableData, timeRanges } = buildTableFromMetrics(
-    jsonData,
-    selectedGrouping,
-    selectedGates,
-    selectedDeliverableCategory
+    trendData,
+    selectedGates
   );
   const sortedTimeRanges = sortTimeRanges(timeRanges);
   const dynamicColumns = generateDynamicColumns(sortedTimeRanges);
@@ -580,58 +370,32 @@ function generateDynamicColumns(
 }
 
 function buildTableFromMetrics(
-  jsonData: any[],
-  selectedGrouping: string,
-  selectedGates: string[],
-  selectedDeliverableCategory: string
+  trendData: TatTrendSeries[],
+  selectedGates: string[]
 ) {
-  const groupedData = groupData(
-    jsonData,
-    selectedGrouping,
-    selectedGates,
-    selectedDeliverableCategory
-  );
   const tableData: AssayMetrics[] = [];
   const timeRanges: string[] = [];
-  Object.keys(groupedData).forEach((assay) => {
-    selectedGates.forEach((gate) => {
-      if (groupedData[assay][gate]) {
-        const { x: groups, y: daysArray } = groupedData[assay][gate];
-        const caseCounts: CaseCounts = getCaseCount(groups);
-        const groupDays: GroupDays = {};
-        groups.forEach((group, index) => {
-          const days = Number(daysArray[index]);
-          if (!groupDays[group]) {
-            groupDays[group] = [];
-          }
-          groupDays[group].push(days);
-          if (!timeRanges.includes(group)) {
-            timeRanges.push(group);
-          }
-        });
-        const assayMetrics: AssayMetrics = {
-          assay,
-          gate,
-          timeRanges: [],
-        };
-        Object.keys(caseCounts).forEach((timeRange) => {
-          const totalCases = caseCounts[timeRange];
-          const daysForTimeRange = groupDays[timeRange];
-          const totalDays = daysForTimeRange.reduce((a, b) => a + b, 0);
-          const averageDays = totalDays / totalCases;
-          const medianDays = calcMedian(daysForTimeRange);
-
-          assayMetrics.timeRanges.push({
-            group: timeRange,
-            avgDays: averageDays.toFixed(1),
-            medianDays: medianDays.toFixed(1),
-            caseCount: totalCases.toString(),
-          });
+  trendData
+    .filter((series) => selectedGates.includes(series.gate))
+    .forEach((series) => {
+      const assayMetrics: AssayMetrics = {
+        assay: series.group,
+        gate: series.gate,
+        timeRanges: [],
+      };
+      series.buckets.forEach((stats) => {
+        if (!timeRanges.includes(stats.bucket)) {
+          timeRanges.push(stats.bucket);
+        }
+        assayMetrics.timeRanges.push({
+          group: stats.bucket,
+          avgDays: stats.mean.toFixed(1),
+          medianDays: stats.median.toFixed(1),
+          caseCount: stats.count.toString(),
         });
-        tableData.push(assayMetrics);
-      }
+      });
+      tableData.push(assayMetrics);
     });
-  });
   return { tableData, timeRanges };
 }
 
@@ -644,6 +408,13 @@ function parseUrlParams(): { key: string; value: string }[] {
   return params;
 }
 
+function getAllGates(): string[] {
+  const gatesCheckboxes = document.querySelectorAll<HTMLInputElement>(
+    "#gatesCheckboxes input[type='checkbox']:not(#selectAllGates)"
+  );
+  return Array.from(gatesCheckboxes).map((checkbox) => checkbox.value);
+}
+
 function getSelectedGates(): string[] {
   const gatesCheckboxes = document.querySelectorAll<HTMLInputElement>(
     "#gatesCheckboxes input[type='checkbox']:checked"
@@ -691,45 +462,39 @@ window.addEventListener("load", () => {
   addDeliverableCategoryOptions();
 
   const params = parseUrlParams();
-  const requestData = { filters: params.length > 0 ? params : [] };
-
-  post(urls.rest.downloads.reportData("case-tat-report"), requestData)
-    .then((data) => {
-      jsonData = data; // update jsonData with fetched data
-      newPlot(
-        getSelectedGrouping(),
-        jsonData,
-        getSelectedGates(),
-        getSelectedDeliverableCategory()
-      );
-      updateMetricsTable(
-        jsonData,
-        getSelectedGrouping(),
-        getSelectedGates(),
-        getSelectedDeliverableCategory()
-      );
-    })
-    .catch((error) => {
-      alert("Error fetching data: " + error);
-    });
 
   const handlePlotUpdate = () => {
     const selectedGrouping = getSelectedGrouping();
     const selectedGates = getSelectedGates();
-    const selectedDeliverableCategory = getSelectedDeliverableCategory();
-    updatePlotWithLegend(
-      selectedGrouping,
-      jsonData,
-      selectedGates,
-      selectedDeliverableCategory
-    );
-    updateMetricsTable(
-      jsonData,
-      selectedGrouping,
-      selectedGates,
-      selectedDeliverableCategory
-    );
+    updatePlotWithLegend(selectedGrouping, trendData, selectedGates);
+    updateMetricsTable(trendData, selectedGates);
   };
+
+  // the server aggregates all gates so that changing the gate selection doesn't require a request
+  const loadData = (initial: boolean) => {
+    const requestData = {
+      filters: params,
+      interval: getSelectedGrouping(),
+      grouping: "assay",
+      deliverableCategory: getSelectedDeliverableCategory(),
+      gates: getAllGates(),
+    };
+    post(urls.rest.cases.tatTrend, requestData)
+      .then((data) => {
+        trendData = data;
+        if (initial) {
+          newPlot(getSelectedGrouping(), trendData, getSelectedGates());
+          updateMetricsTable(trendData, getSelectedGates());
+        } else {
+          handlePlotUpdate();
+        }
+      })
+      .catch((error) => {
+        alert("Error fetching data: " + error);
+      });
+  };
+  loadData(true);
+
   selectAllGates(handlePlotUpdate);
 
   const handleNewPlot = (event: Event) => {
@@ -737,17 +502,20 @@ window.addEventListener("load", () => {
     buttons.forEach((button) => button.classList.remove("active"));
     (event.currentTarget as HTMLButtonElement).classList.add("active");
 
-    handlePlotUpdate();
+    loadData(false);
   };
 
   ["weekButton", "monthButton", "quarterButton", "yearButton"].forEach((id) => {
     getRequiredElementById(id).addEventListener("click", handleNewPlot);
   });
 
-  ["deliverableCategorySelect", "gatesCheckboxes", "toggleColors"].forEach(
-    (id) => {
-      getRequiredElementById(id).addEventListener("change", handlePlotUpdate);
-    }
+  getRequiredElementById("deliverableCategorySelect").addEventListener(
+    "change",
+    () => loadData(false)
+  );
+  getRequiredElementById("toggleColors").addEventListener(
+    "change",
+    handlePlotUpdate
   );
 
   const metricsButton = getRequiredElementById("metricsButton");
@@ -815,10 +583,8 @@ window.addEventListener("load", () => {
   const metricsDownloadButton = getRequiredElementById("metricsDownload");
   metricsDownloadButton.addEventListener("click", () => {
     const { tableData, timeRanges } = buildTableFromMetrics(
-      jsonData,
-      getSelectedGrouping(),
-      getSelectedGates(),
-      getSelectedDeliverableCategory()
+      trendData,
+      getSelectedGates()
     );
     const csvContent = generateCSV(tableData, sortTimeRanges(timeRanges));
     downloadCSV(csvContent, "metrics.csv");
@@ -0,0 +1,88 @@
+import { urls } from "./urls";
+
+type GenerationHandler = (timestamp: string) => void;
+type CasesHandler = (caseIds: string[]) => void;
+type ChangeEventType = "generation" | "cases";
+
+interface ChangeEvent {
+  type: ChangeEventType;
+  data: any;
+}
+
+// Browsers allow only six HTTP/1.1 connections per host, and each open
+// EventSource holds one. Only one tab connects, and it forwards the events to
+// the other tabs through a BroadcastChannel
+const CHANNEL_NAME = "dimsum-change-events";
+const LOCK_NAME = "dimsum-change-events";
+const EVENT_TYPES: ChangeEventType[] = ["generation", "cases"];
+
+const generationHandlers: GenerationHandler[] = [];
+const casesHandlers: CasesHandler[] = [];
+let connected = false;
+
+function dispatch(event: ChangeEvent) {
+  switch (event.type) {
+    case "generation":
+      generationHandlers.forEach((handler) => handler(event.data.timestamp));
+      break;
+    case "cases":
+      casesHandlers.forEach((handler) => handler(event.data.caseIds));
+      break;
+  }
+}
+
+function openEventSource(channel: BroadcastChannel | null) {
+  // EventSource reconnects automatically if the connection is lost
+  const eventSource = new EventSource(urls.rest.events);
+  EVENT_TYPES.forEach((type) => {
+    eventSource.addEventListener(type, (event) => {
+      const changeEvent: ChangeEvent = {
+        type: type,
+        data: JSON.parse((event as MessageEvent).data),
+      };
+      dispatch(changeEvent);
+      // A channel does not deliver messages back to the tab that posted them
+      channel?.postMessage(changeEvent);
+    });
+  });
+}
+
+function connect() {
+  if (connected || typeof EventSource === "undefined") {
+    return;
+  }
+  connected = true;
+  if (typeof BroadcastChannel === "undefined" || !("locks" in navigator)) {
+    openEventSource(null);
+    return;
+  }
+  const channel = new BroadcastChannel(CHANNEL_NAME);
+  channel.addEventListener("message", (event) => dispatch(event.data));
+  // The lock is never released while the tab is open. When the connected tab
+  // is closed, the lock is granted to another waiting tab, which connects
+  navigator.locks.request(LOCK_NAME, () => {
+    openEventSource(channel);
+    return new Promise<void>(() => {});
+  });
+}
+
+/**
+ * Registers a handler to run when new data is loaded on the server
+ *
+ * @param handler receives the timestamp of the new data
+ */
+export function onGenerationChanged(handler: GenerationHandler) {
+  generationHandlers.push(handler);
+  connect();
+}
+
+/**
+ * Registers a handler to run when sign-offs or assignments change cases
+ * without new data being loaded
+ *
+ * @param handler receives the IDs of the changed cases
+ */
+export function onCasesChanged(handler: CasesHandler) {
+  casesHandlers.push(handler);
+  connect();
+}
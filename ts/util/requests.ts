@@ -5,9 +5,20 @@ import {
 } from "../component/dialog";
 
 const STATUS_NO_CONTENT = 204;
+const STATUS_NOT_MODIFIED = 304;
 const STATUS_FORBIDDEN = 403;
 
-function doPost(url: string, body: any, extraHeaders?: any) {
+interface CachedResponse {
+  requestBody: string;
+  eTag: string;
+  responseText: string;
+}
+
+// Latest response for each URL, so that repeating the same query can be
+// answered with 304 Not Modified if the data has not changed
+const cachedResponses = new Map<string, CachedResponse>();
+
+function doPost(url: string, body: string, extraHeaders?: any) {
   const headers = extraHeaders || {};
   headers["Content-Type"] = "application/json";
 
@@ -20,23 +31,40 @@ function doPost(url: string, body: any, extraHeaders?: any) {
   return fetch(url, {
     method: "POST",
     headers: headers,
-    body: JSON.stringify(body),
+    body: body,
   });
 }
 
 export function post(url: string, body: any) {
   return new Promise(
     (resolve: (result: any) => void, reject: (reason: string) => void) => {
-      doPost(url, body)
+      const requestBody = JSON.stringify(body);
+      const cached = cachedResponses.get(url);
+      const headers: any = {};
+      if (cached && cached.requestBody === requestBody) {
+        headers["If-None-Match"] = cached.eTag;
+      }
+      doPost(url, requestBody, headers)
         .then((response) => {
-          if (response.ok) {
+          if (response.status === STATUS_NOT_MODIFIED && cached) {
+            resolve(JSON.parse(cached.responseText));
+          } else if (response.ok) {
             if (response.status === STATUS_NO_CONTENT) {
               resolve(null);
               return;
             }
+            const eTag = response.headers.get("ETag");
             response
-              .json()
-              .then((data) => resolve(data))
+              .text()
+              .then((responseText) => {
+                const data = JSON.parse(responseText);
+                if (eTag) {
+                  cachedResponses.set(url, { requestBody, eTag, responseText });
+                } else {
+                  cachedResponses.delete(url);
+                }
+                resolve(data);
+              })
               .catch(() => reject("Unknown error"));
           } else {
             if (response.status === STATUS_FORBIDDEN) {
@@ -67,7 +95,7 @@ function showSessionTimeoutError() {
 
 export function postDownload(url: string, body: any, workingText: string) {
   const closeDialog = showWorkingDialog(workingText);
-  doPost(url, body, {
+  doPost(url, JSON.stringify(body), {
     Accept: "application/octet-stream",
   }).then((response) => {
     closeDialog();
@@ -26,6 +26,7 @@ export const urls = {
         `${getRestBaseUrl()}/cases/bulk-signoff?assignment=${assignment}`,
       get: (caseId: string) => `${getRestBaseUrl()}/cases/${caseId}`,
       list: `${getRestBaseUrl()}/cases`,
+      tatTrend: `${getRestBaseUrl()}/cases/tat-trend`,
     },
     receipts: `${getRestBaseUrl()}/receipts`,
     extractions: `${getRestBaseUrl()}/extractions`,
@@ -64,6 +65,7 @@ export const urls = {
         `${getRestBaseUrl()}/projects/${projectName}/omissions/full-depth-sequencing`,
     },
     tests: `${getRestBaseUrl()}/tests`,
+    events: `${getRestBaseUrl(true)}/events`,
     downloads: {
       reports: (reportName: string) =>
         `${getRestBaseUrl()}/downloads/reports/${reportName}`,